@@ -0,0 +1,58 @@
+package com.rustem.eduthesis.benchmark;
+
+import com.rustem.eduthesis.infrastructure.security.AuthenticatedUser;
+import com.rustem.eduthesis.infrastructure.security.jwt.JwtTokenProvider;
+import io.jsonwebtoken.Claims;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+// validateToken/getAuthentication were folded into parseClaims/resolveAuthentication:
+// parseClaims is the cold path (full HMAC check), resolveAuthentication the per-request path with the token cache
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtTokenProviderBenchmark {
+
+    private JwtTokenProvider tokenProvider;
+    private Authentication authentication;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        tokenProvider = new JwtTokenProvider();
+        ReflectionTestUtils.setField(tokenProvider, "secretKey", "benchmark-secret-key-that-is-long-enough-for-hs256");
+        ReflectionTestUtils.setField(tokenProvider, "expirationMs", 3_600_000L);
+        ReflectionTestUtils.setField(tokenProvider, "authenticationCacheMaxSize", 10_000L);
+        ReflectionTestUtils.invokeMethod(tokenProvider, "init");
+
+        List<SimpleGrantedAuthority> authorities = List.of(new SimpleGrantedAuthority("ROLE_STUDENT"));
+        AuthenticatedUser user = new AuthenticatedUser(42L, "student@example.com", authorities);
+        authentication = new UsernamePasswordAuthenticationToken(user, null, authorities);
+        token = tokenProvider.createToken(authentication);
+    }
+
+    @Benchmark
+    public String createToken() {
+        return tokenProvider.createToken(authentication);
+    }
+
+    @Benchmark
+    public Optional<Claims> parseClaims() {
+        return tokenProvider.parseClaims(token);
+    }
+
+    @Benchmark
+    public Optional<Authentication> resolveAuthenticationCached() {
+        return tokenProvider.resolveAuthentication(token);
+    }
+}
@@ -0,0 +1,62 @@
+package com.rustem.eduthesis.benchmark;
+
+import com.rustem.eduthesis.api.dto.CourseResponse;
+import com.rustem.eduthesis.api.dto.EnrollmentResponse;
+import com.rustem.eduthesis.api.dto.ProgressResponse;
+import com.rustem.eduthesis.infrastructure.entity.CourseEntity;
+import com.rustem.eduthesis.infrastructure.entity.UserEntity;
+import com.rustem.eduthesis.infrastructure.mapper.CourseMapper;
+import com.rustem.eduthesis.infrastructure.mapper.EnrollmentMapper;
+import com.rustem.eduthesis.infrastructure.mapper.ProgressMapper;
+import com.rustem.eduthesis.infrastructure.repository.projection.EnrollmentRow;
+import com.rustem.eduthesis.infrastructure.repository.projection.ProgressRow;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MapperBenchmark {
+
+    @Param({"5", "50"})
+    private int lessonsPerCourse;
+
+    private CourseMapper courseMapper;
+    private EnrollmentMapper enrollmentMapper;
+    private ProgressMapper progressMapper;
+
+    private CourseEntity course;
+    private EnrollmentRow enrollment;
+    private ProgressRow progress;
+
+    @Setup
+    public void setUp() {
+        courseMapper = new CourseMapper(SyntheticCatalog.courseRepository(120));
+        enrollmentMapper = new EnrollmentMapper();
+        progressMapper = new ProgressMapper();
+
+        course = SyntheticCatalog.course(1L, lessonsPerCourse);
+        UserEntity student = SyntheticCatalog.user(42L, "STUDENT");
+        enrollment = SyntheticCatalog.enrollmentRow(course, student);
+        progress = SyntheticCatalog.progressRow(course.getLessons().get(0));
+    }
+
+    @Benchmark
+    public CourseResponse courseToResponse() {
+        return courseMapper.toResponse(course);
+    }
+
+    @Benchmark
+    public EnrollmentResponse enrollmentToResponse() {
+        return enrollmentMapper.toCourseEnrollment(enrollment);
+    }
+
+    @Benchmark
+    public ProgressResponse progressToResponse() {
+        return progressMapper.toResponse(progress);
+    }
+}
@@ -0,0 +1,119 @@
+package com.rustem.eduthesis.benchmark;
+
+import com.rustem.eduthesis.infrastructure.entity.*;
+import com.rustem.eduthesis.infrastructure.repository.CourseRepository;
+import com.rustem.eduthesis.infrastructure.repository.projection.CourseHeader;
+import com.rustem.eduthesis.infrastructure.repository.projection.EnrollmentRow;
+import com.rustem.eduthesis.infrastructure.repository.projection.ProgressRow;
+
+import java.lang.reflect.Proxy;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+// In-memory entity graphs and projection rows shaped like production data, so mappers can be measured without a database
+final class SyntheticCatalog {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2024, 1, 15, 10, 30);
+
+    private SyntheticCatalog() {
+    }
+
+    static UserEntity user(long id, String role) {
+        return UserEntity.builder()
+                .id(id)
+                .email("user" + id + "@example.com")
+                .password("$2a$10$abcdefghijklmnopqrstuv")
+                .firstName("First" + id)
+                .lastName("Last" + id)
+                .enabled(true)
+                .createdAt(NOW)
+                .roles(Set.of(RoleEntity.builder().id(1L).name(role).build()))
+                .build();
+    }
+
+    static CourseEntity course(long id, int lessonCount) {
+        CourseEntity course = CourseEntity.builder()
+                .id(id)
+                .title("Course " + id)
+                .description("A realistic course description that is a couple of sentences long. ".repeat(4))
+                .instructor(user(1_000 + id, "INSTRUCTOR"))
+                .published(true)
+                .createdAt(NOW)
+                .updatedAt(NOW)
+                .publishedAt(NOW)
+                .lessonCount(lessonCount)
+                .build();
+
+        List<LessonEntity> lessons = new ArrayList<>(lessonCount);
+        for (int i = 1; i <= lessonCount; i++) {
+            lessons.add(LessonEntity.builder()
+                    .id(id * 1_000 + i)
+                    .title("Lesson " + i)
+                    .orderIndex(i)
+                    .durationMinutes(15)
+                    .published(true)
+                    .createdAt(NOW)
+                    .course(course)
+                    .build());
+        }
+        course.setLessons(lessons);
+        return course;
+    }
+
+    static EnrollmentRow enrollmentRow(CourseEntity course, UserEntity student) {
+        return new EnrollmentRow() {
+            public Long getId() { return student.getId(); }
+            public Long getCourseId() { return course.getId(); }
+            public Long getStudentId() { return student.getId(); }
+            public String getEmail() { return student.getEmail(); }
+            public String getFirstName() { return student.getFirstName(); }
+            public String getLastName() { return student.getLastName(); }
+            public LocalDateTime getEnrolledAt() { return NOW; }
+            public LocalDateTime getLastAccessedAt() { return NOW; }
+            public Integer getCompletedLessons() { return course.getLessonCount() / 2; }
+            public Integer getLessonCount() { return course.getLessonCount(); }
+        };
+    }
+
+    static ProgressRow progressRow(LessonEntity lesson) {
+        return new ProgressRow() {
+            public Long getId() { return lesson.getId(); }
+            public Long getCourseId() { return lesson.getCourse().getId(); }
+            public Long getLessonId() { return lesson.getId(); }
+            public String getLessonTitle() { return lesson.getTitle(); }
+            public Integer getOrderIndex() { return lesson.getOrderIndex(); }
+            public Integer getDurationMinutes() { return lesson.getDurationMinutes(); }
+            public Boolean getCompleted() { return true; }
+            public LocalDateTime getCompletedAt() { return NOW; }
+        };
+    }
+
+    static CourseHeader courseHeader(CourseEntity course) {
+        return new CourseHeader() {
+            public Long getId() { return course.getId(); }
+            public String getTitle() { return course.getTitle(); }
+            public String getDescription() { return course.getDescription(); }
+            public LocalDateTime getCreatedAt() { return course.getCreatedAt(); }
+            public LocalDateTime getUpdatedAt() { return course.getUpdatedAt(); }
+            public Long getInstructorId() { return course.getInstructor().getId(); }
+            public String getInstructorEmail() { return course.getInstructor().getEmail(); }
+            public String getInstructorFirstName() { return course.getInstructor().getFirstName(); }
+            public String getInstructorLastName() { return course.getInstructor().getLastName(); }
+        };
+    }
+
+    // Only countEnrollmentsByCourseId is reached by CourseMapper; a JDK proxy keeps mock overhead out of the numbers
+    static CourseRepository courseRepository(int enrollmentCount) {
+        return (CourseRepository) Proxy.newProxyInstance(
+                CourseRepository.class.getClassLoader(),
+                new Class<?>[]{CourseRepository.class},
+                (proxy, method, args) -> {
+                    if (method.getName().equals("countEnrollmentsByCourseId")) {
+                        return enrollmentCount;
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                });
+    }
+}
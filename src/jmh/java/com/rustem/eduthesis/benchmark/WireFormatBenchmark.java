@@ -0,0 +1,133 @@
+package com.rustem.eduthesis.benchmark;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.rustem.eduthesis.api.dto.CursorPage;
+import com.rustem.eduthesis.api.dto.EnrollmentResponse;
+import com.rustem.eduthesis.api.dto.ProgressResponse;
+import com.rustem.eduthesis.api.dto.SimpleCourseDTO;
+import com.rustem.eduthesis.infrastructure.entity.CourseEntity;
+import com.rustem.eduthesis.infrastructure.entity.LessonEntity;
+import com.rustem.eduthesis.infrastructure.entity.UserEntity;
+import com.rustem.eduthesis.infrastructure.mapper.CourseMapper;
+import com.rustem.eduthesis.infrastructure.mapper.EnrollmentMapper;
+import com.rustem.eduthesis.infrastructure.mapper.ProgressMapper;
+import com.rustem.eduthesis.infrastructure.repository.projection.CourseHeader;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+// Wire size and serialization CPU of the largest API responses per negotiated format, with and without the gzip
+// that Tomcat applies above server.compression.min-response-size. Payload sizes are reported as the
+// payloadBytes secondary result.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class WireFormatBenchmark {
+
+    @Param({"json", "smile", "cbor"})
+    private String format;
+
+    @Param({"coursePage", "studentEnrollments", "progressPage"})
+    private String payload;
+
+    @Param({"false", "true"})
+    private boolean gzip;
+
+    private ObjectMapper mapper;
+    private Object response;
+
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class PayloadSize {
+        public long payloadBytes;
+    }
+
+    @Setup
+    public void setUp() {
+        mapper = Jackson2ObjectMapperBuilder.json()
+                .factory(factory(format))
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        response = switch (payload) {
+            case "coursePage" -> coursePage();
+            case "studentEnrollments" -> studentEnrollments();
+            case "progressPage" -> progressPage();
+            default -> throw new IllegalArgumentException(payload);
+        };
+    }
+
+    @Benchmark
+    public byte[] serialize(PayloadSize size) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(16 * 1024);
+        try (OutputStream out = gzip ? new GZIPOutputStream(bytes) : bytes) {
+            mapper.writeValue(out, response);
+        }
+        size.payloadBytes = bytes.size();
+        return bytes.toByteArray();
+    }
+
+    private static JsonFactory factory(String format) {
+        return switch (format) {
+            case "json" -> new JsonFactory();
+            case "smile" -> new SmileFactory();
+            case "cbor" -> new CBORFactory();
+            default -> throw new IllegalArgumentException(format);
+        };
+    }
+
+    // GET /api/courses with the default page size, ten lessons per course
+    private static CursorPage<?> coursePage() {
+        CourseMapper courseMapper = new CourseMapper(SyntheticCatalog.courseRepository(120));
+        List<Object> courses = new ArrayList<>();
+        for (long id = 1; id <= 20; id++) {
+            courses.add(courseMapper.toResponse(SyntheticCatalog.course(id, 10)));
+        }
+        return CursorPage.builder().items(courses).nextCursor("MjA").hasNext(true).build();
+    }
+
+    // GET /api/enrollment/courses for a student with 50 courses, each inlining its course and instructor
+    private static List<EnrollmentResponse> studentEnrollments() {
+        CourseMapper courseMapper = new CourseMapper(SyntheticCatalog.courseRepository(120));
+        EnrollmentMapper enrollmentMapper = new EnrollmentMapper();
+        UserEntity student = SyntheticCatalog.user(42L, "STUDENT");
+        List<EnrollmentResponse> enrollments = new ArrayList<>();
+        for (long id = 1; id <= 50; id++) {
+            CourseEntity course = SyntheticCatalog.course(id, 10);
+            SimpleCourseDTO dto = courseMapper.toCourseDtos(List.of(SyntheticCatalog.courseHeader(course))).get(id);
+            enrollments.add(enrollmentMapper.toStudentEnrollment(SyntheticCatalog.enrollmentRow(course, student), dto));
+        }
+        return enrollments;
+    }
+
+    // GET /api/progress with a full page of 100 rows over 10 courses, course metadata sent once per page
+    private static CursorPage<ProgressResponse> progressPage() {
+        CourseMapper courseMapper = new CourseMapper(SyntheticCatalog.courseRepository(120));
+        ProgressMapper progressMapper = new ProgressMapper();
+        List<ProgressResponse> items = new ArrayList<>();
+        List<CourseHeader> headers = new ArrayList<>();
+        for (long id = 1; id <= 10; id++) {
+            CourseEntity course = SyntheticCatalog.course(id, 10);
+            headers.add(SyntheticCatalog.courseHeader(course));
+            for (LessonEntity lesson : course.getLessons()) {
+                items.add(progressMapper.toResponse(SyntheticCatalog.progressRow(lesson)));
+            }
+        }
+        Map<Long, SimpleCourseDTO> courses = courseMapper.toCourseDtos(headers);
+        return CursorPage.<ProgressResponse>builder().items(items).nextCursor("MTAw").hasNext(true).courses(courses).build();
+    }
+}
@@ -0,0 +1,126 @@
+package com.rustem.eduthesis.loadtest;
+
+import com.rustem.eduthesis.infrastructure.entity.CourseEntity;
+import com.rustem.eduthesis.infrastructure.entity.LessonContentEntity;
+import com.rustem.eduthesis.infrastructure.entity.LessonEntity;
+import com.rustem.eduthesis.infrastructure.entity.RoleEntity;
+import com.rustem.eduthesis.infrastructure.entity.UserEntity;
+import com.rustem.eduthesis.infrastructure.repository.CourseRepository;
+import com.rustem.eduthesis.infrastructure.repository.LessonContentRepository;
+import com.rustem.eduthesis.infrastructure.repository.LessonRepository;
+import com.rustem.eduthesis.infrastructure.repository.RoleRepository;
+import com.rustem.eduthesis.infrastructure.repository.UserRepository;
+import org.springframework.context.ApplicationContext;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Seeds straight through the repositories; only the traffic that is being measured goes over HTTP
+class CatalogSeeder {
+
+    static final String PASSWORD = "loadtest-password";
+
+    private final RoleRepository roleRepo;
+    private final UserRepository userRepo;
+    private final CourseRepository courseRepo;
+    private final LessonRepository lessonRepo;
+    private final LessonContentRepository lessonContentRepo;
+    private final PasswordEncoder passwordEncoder;
+
+    CatalogSeeder(ApplicationContext context) {
+        this.roleRepo = context.getBean(RoleRepository.class);
+        this.userRepo = context.getBean(UserRepository.class);
+        this.courseRepo = context.getBean(CourseRepository.class);
+        this.lessonRepo = context.getBean(LessonRepository.class);
+        this.lessonContentRepo = context.getBean(LessonContentRepository.class);
+        this.passwordEncoder = context.getBean(PasswordEncoder.class);
+    }
+
+    SeededCatalog seed(LoadTestConfig config) {
+        RoleEntity studentRole = role("STUDENT");
+        RoleEntity instructorRole = role("INSTRUCTOR");
+        role("ADMIN");
+
+        // One BCrypt hash for everybody; hashing per user would dominate seeding time
+        String passwordHash = passwordEncoder.encode(PASSWORD);
+
+        Map<Long, List<Long>> lessonsByCourse = new LinkedHashMap<>();
+        for (int i = 0; i < config.instructors(); i++) {
+            UserEntity instructor = userRepo.save(user("instructor" + i + "@loadtest.local", passwordHash, instructorRole));
+            for (int c = 0; c < config.coursesPerInstructor(); c++) {
+                CourseEntity course = courseRepo.save(CourseEntity.builder()
+                        .title("Course " + i + "-" + c)
+                        .description("Load test course " + c + " by instructor " + i)
+                        .instructor(instructor)
+                        .published(true)
+                        .publishedAt(LocalDateTime.now())
+                        .lessonCount(config.lessonsPerCourse())
+                        .build());
+
+                List<LessonEntity> lessons = new ArrayList<>();
+                for (int l = 1; l <= config.lessonsPerCourse(); l++) {
+                    lessons.add(LessonEntity.builder()
+                            .title("Lesson " + l)
+                            .orderIndex(l)
+                            .published(true)
+                            .durationMinutes(10 + l)
+                            .course(course)
+                            .createdAt(LocalDateTime.now())
+                            .build());
+                }
+                List<LessonEntity> saved = lessonRepo.saveAll(lessons);
+                // Bodies live in lesson_content, one row per lesson sharing its id
+                lessonContentRepo.saveAll(saved.stream()
+                        .map(lesson -> LessonContentEntity.builder()
+                                .lesson(lesson)
+                                .content("Lesson body ".repeat(100))
+                                .build())
+                        .toList());
+                lessonsByCourse.put(course.getId(), saved.stream()
+                        .map(LessonEntity::getId)
+                        .toList());
+            }
+        }
+
+        List<String> studentEmails = new ArrayList<>();
+        List<UserEntity> students = new ArrayList<>();
+        for (int s = 0; s < config.students(); s++) {
+            String email = "student" + s + "@loadtest.local";
+            studentEmails.add(email);
+            students.add(user(email, passwordHash, studentRole));
+        }
+        userRepo.saveAll(students);
+
+        return new SeededCatalog(lessonsByCourse, studentEmails);
+    }
+
+    private RoleEntity role(String name) {
+        return roleRepo.findByName(name)
+                .orElseGet(() -> roleRepo.save(RoleEntity.builder().name(name).build()));
+    }
+
+    private UserEntity user(String email, String passwordHash, RoleEntity role) {
+        return UserEntity.builder()
+                .email(email)
+                .password(passwordHash)
+                .firstName("Load")
+                .lastName("Test")
+                .provider("local")
+                .enabled(true)
+                .createdAt(LocalDateTime.now())
+                .roles(Set.of(role))
+                .build();
+    }
+
+    record SeededCatalog(Map<Long, List<Long>> lessonsByCourse, List<String> studentEmails) {
+
+        List<Long> courseIds() {
+            return List.copyOf(lessonsByCourse.keySet());
+        }
+    }
+}
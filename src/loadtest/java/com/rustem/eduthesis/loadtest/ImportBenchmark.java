@@ -0,0 +1,113 @@
+package com.rustem.eduthesis.loadtest;
+
+import com.rustem.eduthesis.EduThesisApplication;
+import com.rustem.eduthesis.api.dto.CourseImportRequest;
+import com.rustem.eduthesis.api.dto.LessonRequest;
+import com.rustem.eduthesis.infrastructure.entity.RoleEntity;
+import com.rustem.eduthesis.infrastructure.entity.UserEntity;
+import com.rustem.eduthesis.infrastructure.repository.RoleRepository;
+import com.rustem.eduthesis.infrastructure.repository.UserRepository;
+import com.rustem.eduthesis.infrastructure.security.AuthenticatedUser;
+import com.rustem.eduthesis.infrastructure.service.CourseImportService;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+// Bulk-import throughput in rows/second against PostgreSQL, with Hibernate JDBC batching disabled ("row-by-row",
+// one round trip per row as with the old IDENTITY ids) and enabled ("batched", pooled sequences + batch_size).
+// Run with: mvn -Ploadtest -DskipTests verify -Dloadtest.main=com.rustem.eduthesis.loadtest.ImportBenchmark
+public class ImportBenchmark {
+
+    private static final int WARMUP_ROUNDS = 2;
+
+    public static void main(String[] args) throws Exception {
+        LoadTestConfig config = LoadTestConfig.fromSystemProperties();
+        int coursesPerImport = Integer.getInteger("loadtest.import.courses", 50);
+        int lessonsPerCourse = Integer.getInteger("loadtest.import.lessonsPerCourse", 40);
+        int rounds = Integer.getInteger("loadtest.import.rounds", 5);
+
+        PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+        postgres.start();
+        try {
+            for (String mode : List.of("row-by-row", "batched")) {
+                LoadTestRunner.resetSchema(postgres);
+                List<String> appArgs = new ArrayList<>(LoadTestRunner.commonArguments(config));
+                appArgs.addAll(List.of(
+                        "--DB_URL=" + postgres.getJdbcUrl(),
+                        "--DB_USERNAME=" + postgres.getUsername(),
+                        "--DB_PASSWORD=" + postgres.getPassword()));
+                if (mode.equals("row-by-row")) {
+                    appArgs.add("--spring.jpa.properties.hibernate.jdbc.batch_size=0");
+                    appArgs.add("--spring.datasource.hikari.data-source-properties.reWriteBatchedInserts=false");
+                }
+
+                try (ConfigurableApplicationContext context = SpringApplication.run(EduThesisApplication.class, appArgs.toArray(String[]::new))) {
+                    authenticateAsInstructor(context);
+                    CourseImportService importService = context.getBean(CourseImportService.class);
+                    List<CourseImportRequest> batch = courses(coursesPerImport, lessonsPerCourse);
+                    long rowsPerImport = (long) coursesPerImport * (1 + lessonsPerCourse);
+
+                    for (int i = 0; i < WARMUP_ROUNDS; i++) {
+                        importService.importCourses(batch);
+                    }
+                    long start = System.nanoTime();
+                    for (int i = 0; i < rounds; i++) {
+                        importService.importCourses(batch);
+                    }
+                    double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+                    System.out.printf("%-10s %,d rows in %.2fs = %,.0f rows/s%n",
+                            mode, rowsPerImport * rounds, seconds, rowsPerImport * rounds / seconds);
+                } finally {
+                    SecurityContextHolder.clearContext();
+                }
+            }
+        } finally {
+            postgres.stop();
+        }
+    }
+
+    private static void authenticateAsInstructor(ConfigurableApplicationContext context) {
+        RoleRepository roleRepo = context.getBean(RoleRepository.class);
+        RoleEntity role = roleRepo.findByName("INSTRUCTOR")
+                .orElseGet(() -> roleRepo.save(RoleEntity.builder().name("INSTRUCTOR").build()));
+        UserEntity instructor = context.getBean(UserRepository.class).save(UserEntity.builder()
+                .email("importer@loadtest.local")
+                .password(CatalogSeeder.PASSWORD)
+                .firstName("Bulk")
+                .lastName("Importer")
+                .provider("local")
+                .enabled(true)
+                .createdAt(LocalDateTime.now())
+                .roles(Set.of(role))
+                .build());
+
+        List<SimpleGrantedAuthority> authorities = List.of(new SimpleGrantedAuthority("ROLE_INSTRUCTOR"));
+        AuthenticatedUser principal = new AuthenticatedUser(instructor.getId(), instructor.getEmail(), authorities);
+        SecurityContextHolder.getContext()
+                .setAuthentication(new UsernamePasswordAuthenticationToken(principal, null, authorities));
+    }
+
+    private static List<CourseImportRequest> courses(int count, int lessonsPerCourse) {
+        List<CourseImportRequest> courses = new ArrayList<>(count);
+        for (int c = 0; c < count; c++) {
+            List<LessonRequest> lessons = new ArrayList<>(lessonsPerCourse);
+            for (int l = 1; l <= lessonsPerCourse; l++) {
+                LessonRequest lesson = new LessonRequest();
+                lesson.setTitle("Lesson " + l);
+                lesson.setContent("Lesson body ".repeat(100));
+                lesson.setDurationMinutes(10 + l);
+                lessons.add(lesson);
+            }
+            courses.add(new CourseImportRequest("Imported course " + c, "Bulk import benchmark course " + c, null, lessons));
+        }
+        return courses;
+    }
+}
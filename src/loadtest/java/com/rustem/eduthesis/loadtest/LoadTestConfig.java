@@ -0,0 +1,37 @@
+package com.rustem.eduthesis.loadtest;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+
+// All knobs come from -Dloadtest.* system properties so runs can be scripted from Maven or CI
+record LoadTestConfig(
+        int instructors,
+        int coursesPerInstructor,
+        int lessonsPerCourse,
+        int students,
+        int concurrency,
+        Duration duration,
+        Duration thinkTime,
+        boolean rateLimitEnabled,
+        List<String> threadModes,
+        String reportDirectory) {
+
+    static LoadTestConfig fromSystemProperties() {
+        return new LoadTestConfig(
+                Integer.getInteger("loadtest.instructors", 10),
+                Integer.getInteger("loadtest.coursesPerInstructor", 5),
+                Integer.getInteger("loadtest.lessonsPerCourse", 12),
+                Integer.getInteger("loadtest.students", 500),
+                Integer.getInteger("loadtest.concurrency", 50),
+                Duration.parse(System.getProperty("loadtest.duration", "PT60S")),
+                Duration.parse(System.getProperty("loadtest.thinkTime", "PT0S")),
+                Boolean.parseBoolean(System.getProperty("loadtest.rateLimitEnabled", "false")),
+                // "platform", "virtual" or both; each mode gets a fresh application and report
+                Arrays.stream(System.getProperty("loadtest.threadModes", "platform").split(","))
+                        .map(String::trim)
+                        .filter(mode -> !mode.isEmpty())
+                        .toList(),
+                System.getProperty("loadtest.reportDirectory", "target/loadtest"));
+    }
+}
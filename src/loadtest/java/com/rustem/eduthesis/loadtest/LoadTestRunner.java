@@ -0,0 +1,122 @@
+package com.rustem.eduthesis.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rustem.eduthesis.EduThesisApplication;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import java.net.http.HttpClient;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+// Boots the application on a random port against a Testcontainers PostgreSQL (enrollment and progress
+// sync use PostgreSQL upserts, so H2 is not an option), seeds a catalog and replays student traffic over HTTP.
+// Run with: mvn -Ploadtest -DskipTests verify -Dloadtest.students=1000
+public class LoadTestRunner {
+
+    public static void main(String[] args) throws Exception {
+        LoadTestConfig config = LoadTestConfig.fromSystemProperties();
+
+        PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+        postgres.start();
+        try {
+            for (String threadMode : config.threadModes()) {
+                if (threadMode.equalsIgnoreCase("virtual") && Runtime.version().feature() < 21) {
+                    System.out.println("Virtual threads need Java 21 (build with -Pjava21); skipping the virtual run");
+                    continue;
+                }
+                resetSchema(postgres);
+                List<String> appArgs = new ArrayList<>(commonArguments(config));
+                appArgs.addAll(List.of(
+                        "--DB_URL=" + postgres.getJdbcUrl(),
+                        "--DB_USERNAME=" + postgres.getUsername(),
+                        "--DB_PASSWORD=" + postgres.getPassword(),
+                        "--spring.threads.virtual.enabled=" + threadMode.equalsIgnoreCase("virtual")));
+
+                try (ConfigurableApplicationContext context = SpringApplication.run(EduThesisApplication.class, appArgs.toArray(String[]::new))) {
+                    int port = ((ServletWebServerApplicationContext) context).getWebServer().getPort();
+                    System.out.printf("%n== %s threads ==%n", threadMode);
+                    run(config, context, "http://localhost:" + port, Path.of(config.reportDirectory(), threadMode));
+                }
+            }
+        } finally {
+            postgres.stop();
+        }
+    }
+
+    private static void run(LoadTestConfig config, ConfigurableApplicationContext context, String baseUrl,
+                            Path reportDirectory) throws Exception {
+        System.out.printf("Seeding %d instructors x %d courses x %d lessons, %d students%n",
+                config.instructors(), config.coursesPerInstructor(), config.lessonsPerCourse(), config.students());
+        CatalogSeeder.SeededCatalog catalog = new CatalogSeeder(context).seed(config);
+
+        System.out.printf("Running %d concurrent students for %s, action mix %s%n",
+                config.concurrency(), config.duration(), StudentScenario.weights());
+
+        HttpClient client = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        ObjectMapper objectMapper = context.getBean(ObjectMapper.class);
+        LatencyReport report = new LatencyReport();
+
+        long start = System.nanoTime();
+        long deadline = start + config.duration().toNanos();
+        ExecutorService executor = Executors.newFixedThreadPool(config.concurrency());
+        // Sessions last at most a quarter of the run, so logins keep recurring and the seeded accounts rotate
+        int scenario = 0;
+        while (System.nanoTime() < deadline) {
+            List<String> emails = catalog.studentEmails();
+            List<Runnable> batch = new ArrayList<>();
+            for (int i = 0; i < config.concurrency(); i++) {
+                String email = emails.get(scenario++ % emails.size());
+                batch.add(new StudentScenario(client, objectMapper, baseUrl, email, catalog, report,
+                        Math.min(deadline, System.nanoTime() + config.duration().toNanos() / 4), config.thinkTime()));
+            }
+            executor.invokeAll(batch.stream().map(Executors::callable).toList());
+        }
+        executor.shutdown();
+        executor.awaitTermination(1, TimeUnit.MINUTES);
+
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+        report.print(System.out, elapsed);
+        report.writeDistributions(reportDirectory);
+        System.out.println("Percentile distributions written to " + reportDirectory.toAbsolutePath());
+    }
+
+    // Every run starts from an empty schema in the same container, which the application then migrates
+    static void resetSchema(PostgreSQLContainer<?> postgres) throws SQLException {
+        try (Connection connection = DriverManager.getConnection(postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword());
+             Statement statement = connection.createStatement()) {
+            statement.execute("DROP SCHEMA public CASCADE");
+            statement.execute("CREATE SCHEMA public");
+        }
+    }
+
+    static List<String> commonArguments(LoadTestConfig config) {
+        return List.of(
+                "--server.port=0",
+                // Test resources turn Flyway off for the H2 slices; the load test runs the real migrations
+                "--spring.flyway.enabled=true",
+                "--spring.jpa.hibernate.ddl-auto=validate",
+                "--spring.jpa.show-sql=false",
+                "--spring.jpa.properties.hibernate.format_sql=false",
+                "--JWT_SECRET=load-test-secret-key-that-is-long-enough-for-hs256",
+                "--JWT_EXPIRATION=3600000",
+                "--OAUTH2_GOOGLE_CLIENT_ID=load-test",
+                "--OAUTH2_GOOGLE_CLIENT_SECRET=load-test",
+                "--OAUTH2_REDIRECT_URI=http://localhost/oauth2/redirect",
+                "--rate-limit.enabled=" + config.rateLimitEnabled(),
+                "--logging.level.com.rustem.eduthesis=WARN");
+    }
+}
@@ -0,0 +1,189 @@
+package com.rustem.eduthesis.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+// One virtual student: logs in once, then mixes browsing, enrolling, reading progress and completing lessons
+// until the deadline.
+// Action weights follow the read-heavy shape of production traffic.
+class StudentScenario implements Runnable {
+
+    private static final int BROWSE_WEIGHT = 40;
+    private static final int DETAIL_WEIGHT = 20;
+    private static final int ENROLL_WEIGHT = 10;
+    private static final int PROGRESS_WEIGHT = 10;
+    // EnrollmentAlreadyExistsException is mapped to 400 by GlobalExceptionHandler
+    private static final int ALREADY_ENROLLED = 400;
+
+    private final HttpClient client;
+    private final ObjectMapper objectMapper;
+    private final String baseUrl;
+    private final String email;
+    private final CatalogSeeder.SeededCatalog catalog;
+    private final LatencyReport report;
+    private final long deadlineNanos;
+    private final Duration thinkTime;
+
+    private final List<Long> enrolledCourses = new ArrayList<>();
+    private String token;
+    private String browseCursor;
+
+    StudentScenario(HttpClient client, ObjectMapper objectMapper, String baseUrl, String email,
+                    CatalogSeeder.SeededCatalog catalog, LatencyReport report, long deadlineNanos, Duration thinkTime) {
+        this.client = client;
+        this.objectMapper = objectMapper;
+        this.baseUrl = baseUrl;
+        this.email = email;
+        this.catalog = catalog;
+        this.report = report;
+        this.deadlineNanos = deadlineNanos;
+        this.thinkTime = thinkTime;
+    }
+
+    @Override
+    public void run() {
+        try {
+            login();
+            while (token != null && System.nanoTime() < deadlineNanos) {
+                nextAction();
+                if (!thinkTime.isZero()) {
+                    Thread.sleep(thinkTime.toMillis());
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void login() throws InterruptedException {
+        String body = "{\"email\":\"" + email + "\",\"password\":\"" + CatalogSeeder.PASSWORD + "\"}";
+        HttpResponse<String> response = send("POST /api/auth/login", HttpRequest.newBuilder(uri("/api/auth/login"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body)));
+        if (response != null && response.statusCode() == 200) {
+            token = readTree(response.body()).path("token").asText(null);
+        }
+    }
+
+    private void nextAction() throws InterruptedException {
+        int roll = ThreadLocalRandom.current().nextInt(100);
+        if (roll < BROWSE_WEIGHT) {
+            browseCatalog();
+        } else if (roll < BROWSE_WEIGHT + DETAIL_WEIGHT) {
+            viewCourse(randomCourse());
+        } else if (roll < BROWSE_WEIGHT + DETAIL_WEIGHT + ENROLL_WEIGHT || enrolledCourses.isEmpty()) {
+            enroll(randomCourse());
+        } else if (roll < BROWSE_WEIGHT + DETAIL_WEIGHT + ENROLL_WEIGHT + PROGRESS_WEIGHT) {
+            viewProgress(randomEnrolledCourse());
+        } else {
+            completeLesson();
+        }
+    }
+
+    private void browseCatalog() throws InterruptedException {
+        String path = browseCursor == null ? "/api/courses?limit=20" : "/api/courses?limit=20&cursor=" + browseCursor;
+        HttpResponse<String> response = send("GET /api/courses", authorized(path).GET());
+        if (response != null && response.statusCode() == 200) {
+            JsonNode page = readTree(response.body());
+            browseCursor = page.path("hasNext").asBoolean() ? page.path("nextCursor").asText(null) : null;
+        }
+    }
+
+    private void viewCourse(Long courseId) throws InterruptedException {
+        send("GET /api/courses/{id}", authorized("/api/courses/" + courseId).GET());
+    }
+
+    private void enroll(Long courseId) throws InterruptedException {
+        HttpResponse<String> response = send("POST /api/enrollment/courses/{courseId}",
+                authorized("/api/enrollment/courses/" + courseId).POST(HttpRequest.BodyPublishers.noBody()),
+                ALREADY_ENROLLED);
+        if (response != null && (response.statusCode() / 100 == 2 || response.statusCode() == ALREADY_ENROLLED)
+                && !enrolledCourses.contains(courseId)) {
+            enrolledCourses.add(courseId);
+        }
+    }
+
+    private void viewProgress(Long courseId) throws InterruptedException {
+        send("GET /api/progress/courses/{courseId}", authorized("/api/progress/courses/" + courseId).GET());
+    }
+
+    private void completeLesson() throws InterruptedException {
+        Long courseId = randomEnrolledCourse();
+        List<Long> lessons = catalog.lessonsByCourse().get(courseId);
+        Long lessonId = lessons.get(ThreadLocalRandom.current().nextInt(lessons.size()));
+        send("PATCH /api/progress/lessons/{lessonId}/complete",
+                authorized("/api/progress/lessons/" + lessonId + "/complete")
+                        .method("PATCH", HttpRequest.BodyPublishers.noBody()));
+    }
+
+    private Long randomCourse() {
+        List<Long> courseIds = catalog.courseIds();
+        return courseIds.get(ThreadLocalRandom.current().nextInt(courseIds.size()));
+    }
+
+    private Long randomEnrolledCourse() {
+        return enrolledCourses.get(ThreadLocalRandom.current().nextInt(enrolledCourses.size()));
+    }
+
+    private HttpRequest.Builder authorized(String path) {
+        return HttpRequest.newBuilder(uri(path)).header("Authorization", "Bearer " + token);
+    }
+
+    private URI uri(String path) {
+        return URI.create(baseUrl + path);
+    }
+
+    // Statuses listed in expectedStatuses are business outcomes (e.g. already enrolled), not errors
+    private HttpResponse<String> send(String endpoint, HttpRequest.Builder request, int... expectedStatuses)
+            throws InterruptedException {
+        long start = System.nanoTime();
+        try {
+            HttpResponse<String> response = client.send(request.build(), HttpResponse.BodyHandlers.ofString());
+            report.record(endpoint, System.nanoTime() - start, isSuccess(response.statusCode(), expectedStatuses));
+            return response;
+        } catch (IOException e) {
+            report.record(endpoint, System.nanoTime() - start, false);
+            return null;
+        }
+    }
+
+    private static boolean isSuccess(int status, int... expectedStatuses) {
+        if (status / 100 == 2) {
+            return true;
+        }
+        for (int expected : expectedStatuses) {
+            if (status == expected) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private JsonNode readTree(String body) {
+        try {
+            return objectMapper.readTree(body);
+        } catch (IOException e) {
+            return objectMapper.createObjectNode();
+        }
+    }
+
+    static Map<String, Integer> weights() {
+        return Map.of(
+                "browse", BROWSE_WEIGHT,
+                "detail", DETAIL_WEIGHT,
+                "enroll", ENROLL_WEIGHT,
+                "progress", PROGRESS_WEIGHT,
+                "complete", 100 - BROWSE_WEIGHT - DETAIL_WEIGHT - ENROLL_WEIGHT - PROGRESS_WEIGHT);
+    }
+}
@@ -0,0 +1,24 @@
+package com.rustem.eduthesis.api.controller;
+
+import com.rustem.eduthesis.api.dto.CourseAnalyticsResponse;
+import com.rustem.eduthesis.infrastructure.service.CourseAnalyticsService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/analytics")
+@RequiredArgsConstructor
+public class AnalyticsController {
+
+    private final CourseAnalyticsService analyticsService;
+
+    @GetMapping("/courses/{courseId}")
+    @PreAuthorize("isCourseOwnerOrAdmin(#courseId)")
+    public ResponseEntity<CourseAnalyticsResponse> getCourseAnalytics(
+            @PathVariable Long courseId,
+            @RequestParam(defaultValue = "30") int days) {
+        return ResponseEntity.ok(analyticsService.getCourseAnalytics(courseId, days));
+    }
+}
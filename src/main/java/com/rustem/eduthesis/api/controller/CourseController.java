@@ -1,19 +1,29 @@
 package com.rustem.eduthesis.api.controller;
 
+import com.rustem.eduthesis.api.dto.BulkCourseImportRequest;
+import com.rustem.eduthesis.api.dto.CourseImportResponse;
+import com.rustem.eduthesis.api.dto.CoursePatchRequest;
 import com.rustem.eduthesis.api.dto.CourseRequest;
 import com.rustem.eduthesis.api.dto.CourseResponse;
+import com.rustem.eduthesis.api.dto.CourseSearchResult;
+import com.rustem.eduthesis.api.dto.CursorPage;
 import com.rustem.eduthesis.api.dto.MessageResponse;
+import com.rustem.eduthesis.infrastructure.http.ConditionalGet;
+import com.rustem.eduthesis.infrastructure.http.IfMatch;
+import com.rustem.eduthesis.infrastructure.service.CourseImportService;
+import com.rustem.eduthesis.infrastructure.service.CourseSearchService;
 import com.rustem.eduthesis.infrastructure.service.CourseService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
-
-import java.util.List;
+import org.springframework.web.context.request.WebRequest;
 
 @RestController
 @RequiredArgsConstructor
@@ -21,29 +31,44 @@ import java.util.List;
 public class CourseController {
 
     private final CourseService courseService;
+    private final CourseImportService courseImportService;
+    private final CourseSearchService courseSearchService;
+    private final ConditionalGet conditionalGet;
 
     @GetMapping
-    public ResponseEntity<List<CourseResponse>> getCourses() {
+    public ResponseEntity<CursorPage<CourseResponse>> getCourses(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int limit) {
         Authentication auth = SecurityContextHolder.getContext().getAuthentication();
         boolean isAdmin = auth.getAuthorities().stream()
                 .anyMatch(a -> a.getAuthority().equals("ROLE_ADMIN"));
 
         if (isAdmin)
-            return ResponseEntity.ok(courseService.getAllCourses());
+            return ResponseEntity.ok(courseService.getAllCourses(cursor, limit));
         else
-            return ResponseEntity.ok(courseService.getAllPublishedCourses());
+            return ResponseEntity.ok(courseService.getAllPublishedCourses(cursor, limit));
+    }
+
+    @GetMapping("/search")
+    public ResponseEntity<CursorPage<CourseSearchResult>> searchCourses(
+            @RequestParam String q,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int limit) {
+        return ResponseEntity.ok(courseSearchService.search(q, cursor, limit));
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<CourseResponse> getCourseById(@PathVariable Long id) {
+    public ResponseEntity<CourseResponse> getCourseById(@PathVariable Long id, WebRequest request) {
         Authentication auth = SecurityContextHolder.getContext().getAuthentication();
         boolean isAdmin = auth.getAuthorities().stream()
                 .anyMatch(a -> a.getAuthority().equals("ROLE_ADMIN"));
 
         if (isAdmin) {
-            return ResponseEntity.ok(courseService.getCourseById(id));
+            return conditionalGet.respond(request, courseService.getCourseVersion(id),
+                    () -> courseService.getCourseById(id));
         } else {
-            return ResponseEntity.ok(courseService.getPublishedCourseById(id));
+            return conditionalGet.respond(request, courseService.getPublishedCourseVersion(id),
+                    () -> courseService.getPublishedCourseById(id));
         }
     }
 
@@ -53,10 +78,32 @@ public class CourseController {
         return ResponseEntity.status(HttpStatus.CREATED).body(courseService.createCourse(courseRequest));
     }
 
+    @PostMapping("/import")
+    @PreAuthorize("hasAnyRole('ADMIN', 'INSTRUCTOR')")
+    public ResponseEntity<CourseImportResponse> importCourses(@Valid @RequestBody BulkCourseImportRequest request) {
+        return ResponseEntity.status(HttpStatus.CREATED).body(courseImportService.importCourses(request.getCourses()));
+    }
+
     @PutMapping("/{id}")
     @PreAuthorize("isCourseOwnerOrAdmin(#id)")
-    public ResponseEntity<CourseResponse> updateCourse(@PathVariable Long id, @RequestBody CourseRequest courseRequest) {
-        return ResponseEntity.ok(courseService.updateCourse(id, courseRequest));
+    public ResponseEntity<CourseResponse> updateCourse(
+            @PathVariable Long id,
+            @RequestBody CourseRequest courseRequest,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        CourseResponse course = courseService.updateCourse(id, courseRequest,
+                IfMatch.expectedVersion(ifMatch));
+        return ResponseEntity.ok().eTag(IfMatch.tag(course.getVersion())).body(course);
+    }
+
+    @PatchMapping(value = "/{id}", consumes = {MediaType.APPLICATION_JSON_VALUE, "application/merge-patch+json"})
+    @PreAuthorize("isCourseOwnerOrAdmin(#id)")
+    public ResponseEntity<CourseResponse> patchCourse(
+            @PathVariable Long id,
+            @Valid @RequestBody CoursePatchRequest patch,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        CourseResponse course = courseService.patchCourse(id, patch,
+                IfMatch.expectedVersion(ifMatch));
+        return ResponseEntity.ok().eTag(IfMatch.tag(course.getVersion())).body(course);
     }
 
     @DeleteMapping("/{id}")
@@ -1,12 +1,15 @@
 package com.rustem.eduthesis.api.controller;
 
+import com.rustem.eduthesis.api.dto.CursorPage;
 import com.rustem.eduthesis.api.dto.EnrollmentResponse;
 import com.rustem.eduthesis.api.dto.MessageResponse;
+import com.rustem.eduthesis.infrastructure.export.NdjsonExporter;
 import com.rustem.eduthesis.infrastructure.service.EnrollmentService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
@@ -40,8 +43,20 @@ public class EnrollmentController {
 
     @GetMapping("/courses/{courseId}/students")
     @PreAuthorize("isCourseOwnerOrAdmin(#courseId)")
-    public ResponseEntity<List<EnrollmentResponse>> getEnrollmentsForCourse(@PathVariable Long courseId) {
-        List<EnrollmentResponse> students = enrollmentService.getEnrollmentsForCourse(courseId);
+    public ResponseEntity<CursorPage<EnrollmentResponse>> getEnrollmentsForCourse(
+            @PathVariable Long courseId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int limit) {
+        CursorPage<EnrollmentResponse> students = enrollmentService.getEnrollmentsForCourse(courseId, cursor, limit);
         return ResponseEntity.ok(students);
     }
+
+    @GetMapping("/courses/{courseId}/students/export")
+    @PreAuthorize("isCourseOwnerOrAdmin(#courseId)")
+    public ResponseEntity<StreamingResponseBody> exportEnrollmentsForCourse(@PathVariable Long courseId) {
+        StreamingResponseBody body = enrollmentService.exportEnrollmentsForCourse(courseId);
+        return ResponseEntity.ok()
+                .contentType(NdjsonExporter.APPLICATION_NDJSON)
+                .body(body);
+    }
 }
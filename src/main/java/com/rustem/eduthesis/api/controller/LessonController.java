@@ -1,15 +1,24 @@
 package com.rustem.eduthesis.api.controller;
 
+import com.rustem.eduthesis.api.dto.LessonMoveRequest;
+import com.rustem.eduthesis.api.dto.LessonOrderRequest;
+import com.rustem.eduthesis.api.dto.LessonPatchRequest;
 import com.rustem.eduthesis.api.dto.LessonRequest;
 import com.rustem.eduthesis.api.dto.LessonResponse;
+import com.rustem.eduthesis.infrastructure.http.ConditionalGet;
+import com.rustem.eduthesis.infrastructure.http.IfMatch;
 import com.rustem.eduthesis.infrastructure.service.LessonService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 
 @RestController
@@ -17,18 +26,34 @@ import java.util.List;
 @RequiredArgsConstructor
 public class LessonController {
 
+    // Plain text, so instructor markup is never rendered as a page of this origin
+    private static final MediaType LESSON_CONTENT_TYPE = new MediaType(MediaType.TEXT_PLAIN, StandardCharsets.UTF_8);
+
     private final LessonService lessonService;
+    private final ConditionalGet conditionalGet;
 
     @GetMapping
-    public ResponseEntity<List<LessonResponse>> getLessonsForCourse(@PathVariable Long courseId) {
-        return ResponseEntity.ok(lessonService.getLessonsForCourse(courseId));
+    public ResponseEntity<List<LessonResponse>> getLessonsForCourse(@PathVariable Long courseId, WebRequest request) {
+        return conditionalGet.respond(request, lessonService.getLessonsVersion(courseId),
+                () -> lessonService.getLessonsForCourse(courseId));
     }
 
     @GetMapping("/{lessonId}")
     public ResponseEntity<LessonResponse> getLessonById(
             @PathVariable Long courseId,
             @PathVariable Long lessonId) {
-        return ResponseEntity.ok(lessonService.getLessonById(courseId, lessonId));
+        LessonResponse lesson = lessonService.getLessonById(courseId, lessonId);
+        return ResponseEntity.ok().eTag(IfMatch.tag(lesson.getVersion())).body(lesson);
+    }
+
+    // Supports byte ranges
+    @GetMapping("/{lessonId}/content")
+    public ResponseEntity<?> getLessonContent(
+            @PathVariable Long courseId,
+            @PathVariable Long lessonId,
+            WebRequest request) {
+        return conditionalGet.respondWithRanges(request, lessonService.getLessonContentVersion(courseId, lessonId),
+                LESSON_CONTENT_TYPE, () -> lessonService.getLessonContent(courseId, lessonId));
     }
 
     @PostMapping
@@ -45,8 +70,38 @@ public class LessonController {
     public ResponseEntity<LessonResponse> updateLesson(
             @PathVariable Long courseId,
             @PathVariable Long lessonId,
-            @RequestBody @Valid LessonRequest lessonRequest) {
-        return ResponseEntity.ok(lessonService.updateLesson(courseId, lessonId, lessonRequest));
+            @RequestBody @Valid LessonRequest lessonRequest,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        LessonResponse lesson = lessonService.updateLesson(courseId, lessonId, lessonRequest, IfMatch.expectedVersion(ifMatch));
+        return ResponseEntity.ok().eTag(IfMatch.tag(lesson.getVersion())).body(lesson);
+    }
+
+    @PatchMapping(value = "/{lessonId}", consumes = {MediaType.APPLICATION_JSON_VALUE, "application/merge-patch+json"})
+    @PreAuthorize("isCourseOwnerOrAdmin(#courseId)")
+    public ResponseEntity<LessonResponse> patchLesson(
+            @PathVariable Long courseId,
+            @PathVariable Long lessonId,
+            @RequestBody @Valid LessonPatchRequest patch,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        LessonResponse lesson = lessonService.patchLesson(courseId, lessonId, patch, IfMatch.expectedVersion(ifMatch));
+        return ResponseEntity.ok().eTag(IfMatch.tag(lesson.getVersion())).body(lesson);
+    }
+
+    @PutMapping("/{lessonId}/position")
+    @PreAuthorize("isCourseOwnerOrAdmin(#courseId)")
+    public ResponseEntity<List<LessonResponse>> moveLesson(
+            @PathVariable Long courseId,
+            @PathVariable Long lessonId,
+            @RequestBody @Valid LessonMoveRequest moveRequest) {
+        return ResponseEntity.ok(lessonService.moveLesson(courseId, lessonId, moveRequest.getPosition()));
+    }
+
+    @PutMapping("/order")
+    @PreAuthorize("isCourseOwnerOrAdmin(#courseId)")
+    public ResponseEntity<List<LessonResponse>> reorderLessons(
+            @PathVariable Long courseId,
+            @RequestBody @Valid LessonOrderRequest orderRequest) {
+        return ResponseEntity.ok(lessonService.reorderLessons(courseId, orderRequest.getLessonIds()));
     }
 
     @DeleteMapping("/{lessonId}")
@@ -1,12 +1,18 @@
 package com.rustem.eduthesis.api.controller;
 
+import com.rustem.eduthesis.api.dto.BatchLessonCompletionRequest;
+import com.rustem.eduthesis.api.dto.CursorPage;
+import com.rustem.eduthesis.api.dto.LessonCompletionResult;
 import com.rustem.eduthesis.api.dto.MessageResponse;
 import com.rustem.eduthesis.api.dto.ProgressResponse;
+import com.rustem.eduthesis.infrastructure.export.NdjsonExporter;
 import com.rustem.eduthesis.infrastructure.service.ProgressService;
+import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
@@ -19,8 +25,10 @@ public class ProgressController {
 
     @GetMapping
     @PreAuthorize("hasRole('STUDENT')")
-    public ResponseEntity<List<ProgressResponse>> getMyProgress() {
-        List<ProgressResponse> progressForCurrentStudent = progressService.getProgressForCurrentStudent();
+    public ResponseEntity<CursorPage<ProgressResponse>> getMyProgress(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int limit) {
+        CursorPage<ProgressResponse> progressForCurrentStudent = progressService.getProgressForCurrentStudent(cursor, limit);
         return ResponseEntity.ok(progressForCurrentStudent);
     }
 
@@ -38,10 +46,27 @@ public class ProgressController {
         return ResponseEntity.ok(new MessageResponse("Lesson marked as completed"));
     }
 
+    @PatchMapping("/lessons/complete")
+    @PreAuthorize("hasRole('STUDENT')")
+    public ResponseEntity<List<LessonCompletionResult>> markLessonsAsCompleted(
+            @RequestBody @Valid BatchLessonCompletionRequest request) {
+        List<LessonCompletionResult> results = progressService.markLessonsAsCompleted(request.getLessons());
+        return ResponseEntity.ok(results);
+    }
+
     @GetMapping("/courses/{courseId}")
     @PreAuthorize("hasRole('STUDENT')")
     public ResponseEntity<List<ProgressResponse>> getProgressForCourse(@PathVariable Long courseId) {
         List<ProgressResponse> progressForCourse = progressService.getProgressForCourse(courseId);
         return ResponseEntity.ok(progressForCourse);
     }
+
+    @GetMapping("/courses/{courseId}/export")
+    @PreAuthorize("isCourseOwnerOrAdmin(#courseId)")
+    public ResponseEntity<StreamingResponseBody> exportProgressForCourse(@PathVariable Long courseId) {
+        StreamingResponseBody body = progressService.exportProgressForCourse(courseId);
+        return ResponseEntity.ok()
+                .contentType(NdjsonExporter.APPLICATION_NDJSON)
+                .body(body);
+    }
 }
@@ -0,0 +1,19 @@
+package com.rustem.eduthesis.api.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchLessonCompletionRequest {
+    @NotEmpty(message = "At least one lesson is required")
+    @Size(max = 500, message = "At most 500 lessons can be completed in one request")
+    private List<@Valid LessonCompletionRequest> lessons;
+}
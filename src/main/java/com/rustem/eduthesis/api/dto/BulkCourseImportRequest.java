@@ -0,0 +1,19 @@
+package com.rustem.eduthesis.api.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkCourseImportRequest {
+    @NotEmpty(message = "At least one course is required")
+    @Size(max = 100, message = "At most 100 courses can be imported in one request")
+    private List<@Valid CourseImportRequest> courses;
+}
@@ -0,0 +1,19 @@
+package com.rustem.eduthesis.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CourseAnalyticsResponse {
+    private Long courseId;
+    private long enrolledStudents;
+    private List<LessonFunnelStep> funnel;
+    private List<DailyActiveLearners> activeLearners;
+}
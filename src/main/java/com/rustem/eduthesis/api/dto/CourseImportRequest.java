@@ -0,0 +1,30 @@
+package com.rustem.eduthesis.api.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CourseImportRequest {
+    @NotBlank(message = "Course title is required")
+    @Size(min = 3, max = 100, message = "Course title should be between 3 and 100 characters")
+    private String title;
+
+    @NotBlank(message = "Course description is required")
+    @Size(min = 10, max = 2000, message = "Course description should be between 10 and 2000 characters")
+    private String description;
+
+    private String imageUrl;
+
+    // Imported in list order; the lessons' orderIndex values are not used
+    @Size(max = 500, message = "A course can be imported with at most 500 lessons")
+    private List<@Valid LessonRequest> lessons = new ArrayList<>();
+}
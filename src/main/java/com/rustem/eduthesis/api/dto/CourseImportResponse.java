@@ -0,0 +1,18 @@
+package com.rustem.eduthesis.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CourseImportResponse {
+    private List<Long> courseIds;
+    private int importedCourses;
+    private int importedLessons;
+}
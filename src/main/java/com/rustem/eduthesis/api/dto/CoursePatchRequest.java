@@ -0,0 +1,32 @@
+package com.rustem.eduthesis.api.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Size;
+import lombok.AccessLevel;
+import lombok.Data;
+import lombok.Setter;
+
+// JSON merge patch: missing fields are kept, an explicit null clears imageUrl
+@Data
+public class CoursePatchRequest {
+    @Size(min = 3, max = 100, message = "Course title should be between 3 and 100 characters")
+    @Pattern(regexp = ".*\\S.*", message = "Course title must not be blank")
+    private String title;
+
+    @Size(min = 10, max = 2000, message = "Course description should be between 10 and 2000 characters")
+    @Pattern(regexp = "(?s).*\\S.*", message = "Course description must not be blank")
+    private String description;
+
+    private String imageUrl;
+
+    // Jackson only calls setters for fields in the body
+    @JsonIgnore
+    @Setter(AccessLevel.NONE)
+    private boolean imageUrlPresent;
+
+    public void setImageUrl(String imageUrl) {
+        this.imageUrl = imageUrl;
+        this.imageUrlPresent = true;
+    }
+}
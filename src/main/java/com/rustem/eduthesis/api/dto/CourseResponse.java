@@ -21,4 +21,5 @@ public class CourseResponse {
     private Integer enrollmentCount;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
+    private Long version;
 }
@@ -0,0 +1,22 @@
+package com.rustem.eduthesis.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Highlights are escaped HTML with <mark> around matches
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CourseSearchResult {
+    private Long courseId;
+    private String title;
+    private String titleHighlight;
+    private String descriptionHighlight;
+    private Long matchedLessonId;
+    private String matchedLessonTitle;
+    private String matchedLessonHighlight;
+    private Double score;
+}
@@ -0,0 +1,23 @@
+package com.rustem.eduthesis.api.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorPage<T> {
+    private List<T> items;
+    private String nextCursor;
+    private boolean hasNext;
+    // Shared by the items that reference a course by id
+    @JsonInclude(JsonInclude.Include.NON_EMPTY)
+    private Map<Long, SimpleCourseDTO> courses;
+}
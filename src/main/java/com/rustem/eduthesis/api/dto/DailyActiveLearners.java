@@ -0,0 +1,17 @@
+package com.rustem.eduthesis.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DailyActiveLearners {
+    private LocalDate date;
+    private int activeLearners;
+}
@@ -0,0 +1,25 @@
+package com.rustem.eduthesis.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class EnrollmentExportRecord {
+    private Long enrollmentId;
+    private Long studentId;
+    private String email;
+    private String firstName;
+    private String lastName;
+    private LocalDateTime enrolledAt;
+    private LocalDateTime lastAccessedAt;
+    private LocalDateTime completedAt;
+    private Integer completedLessons;
+    private Double progressPercentage;
+}
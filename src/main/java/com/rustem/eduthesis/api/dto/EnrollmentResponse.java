@@ -1,5 +1,6 @@
 package com.rustem.eduthesis.api.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -13,7 +14,12 @@ import java.time.LocalDateTime;
 @AllArgsConstructor
 public class EnrollmentResponse {
     private Long id;
+    private Long studentId;
+    private Long courseId;
+    // Only the side that varies between rows is set
+    @JsonInclude(JsonInclude.Include.NON_NULL)
     private SimpleUserDTO student;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
     private SimpleCourseDTO course;
     private LocalDateTime enrolledAt;
     private LocalDateTime lastAccessedAt;
@@ -0,0 +1,19 @@
+package com.rustem.eduthesis.api.dto;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LessonCompletionRequest {
+    @NotNull(message = "Lesson ID is required")
+    private Long lessonId;
+
+    // Client-side completion time; missing or future values are replaced by the server time
+    private LocalDateTime completedAt;
+}
@@ -0,0 +1,22 @@
+package com.rustem.eduthesis.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LessonCompletionResult {
+    private Long lessonId;
+    private Status status;
+
+    public enum Status {
+        COMPLETED,
+        ALREADY_COMPLETED,
+        LESSON_NOT_FOUND,
+        NOT_ENROLLED
+    }
+}
@@ -0,0 +1,26 @@
+package com.rustem.eduthesis.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LessonFunnelStep {
+    private Long lessonId;
+    private String title;
+    private Integer orderIndex;
+    private long completions;
+    private Double completionRate;
+    // Negative when students skipped the previous lesson
+    private long dropOff;
+    // Histogram midpoint; null until someone completed the lesson
+    private Double medianHoursToComplete;
+    private LocalDateTime firstCompletedAt;
+    private LocalDateTime lastCompletedAt;
+}
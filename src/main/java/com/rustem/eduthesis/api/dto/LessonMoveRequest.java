@@ -0,0 +1,13 @@
+package com.rustem.eduthesis.api.dto;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+@Data
+public class LessonMoveRequest {
+    // 1-based; positions past the last lesson move it to the end
+    @NotNull(message = "Position is required")
+    @Min(value = 1, message = "Position must be at least 1")
+    private Integer position;
+}
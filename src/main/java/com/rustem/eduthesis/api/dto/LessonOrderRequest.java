@@ -0,0 +1,14 @@
+package com.rustem.eduthesis.api.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class LessonOrderRequest {
+    // Every lesson of the course exactly once, in the new order
+    @NotEmpty(message = "Lesson IDs are required")
+    private List<@NotNull(message = "Lesson IDs must not be null") Long> lessonIds;
+}
@@ -0,0 +1,46 @@
+package com.rustem.eduthesis.api.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Size;
+import lombok.AccessLevel;
+import lombok.Data;
+import lombok.Setter;
+
+// JSON merge patch: missing fields are kept, an explicit null clears videoUrl and additionalResources
+@Data
+public class LessonPatchRequest {
+    @Size(min = 3, max = 100, message = "Title must be between 3 and 100 characters")
+    @Pattern(regexp = ".*\\S.*", message = "Title must not be blank")
+    private String title;
+
+    @Size(min = 10, message = "Content must be at least 10 characters")
+    private String content;
+
+    @Min(value = 1, message = "Duration must be at least 1 minute")
+    private Integer durationMinutes;
+
+    private String videoUrl;
+
+    private String additionalResources;
+
+    // Jackson only calls setters for fields in the body
+    @JsonIgnore
+    @Setter(AccessLevel.NONE)
+    private boolean videoUrlPresent;
+
+    @JsonIgnore
+    @Setter(AccessLevel.NONE)
+    private boolean additionalResourcesPresent;
+
+    public void setVideoUrl(String videoUrl) {
+        this.videoUrl = videoUrl;
+        this.videoUrlPresent = true;
+    }
+
+    public void setAdditionalResources(String additionalResources) {
+        this.additionalResources = additionalResources;
+        this.additionalResourcesPresent = true;
+    }
+}
@@ -1,5 +1,6 @@
 package com.rustem.eduthesis.api.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -14,12 +15,18 @@ import java.time.LocalDateTime;
 public class LessonResponse {
     private Long id;
     private String title;
+    // Only on single-lesson responses
+    @JsonInclude(JsonInclude.Include.NON_NULL)
     private String content;
     private String videoUrl;
     private Integer orderIndex;
     private Integer durationMinutes;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
     private String additionalResources;
+    private Long courseId;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
     private SimpleCourseDTO course;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
+    private Long version;
 }
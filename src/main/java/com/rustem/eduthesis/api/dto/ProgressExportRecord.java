@@ -0,0 +1,22 @@
+package com.rustem.eduthesis.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProgressExportRecord {
+    private Long studentId;
+    private String email;
+    private Long lessonId;
+    private String lessonTitle;
+    private Integer orderIndex;
+    private Boolean completed;
+    private LocalDateTime completedAt;
+}
@@ -13,7 +13,7 @@ import java.time.LocalDateTime;
 @AllArgsConstructor
 public class ProgressResponse {
     private Long id;
-    private SimpleCourseDTO course;
+    private Long courseId;
     private SimpleLessonDTO lesson;
     private Boolean completed;
     private LocalDateTime completedAt;
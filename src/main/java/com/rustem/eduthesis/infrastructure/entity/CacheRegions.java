@@ -0,0 +1,14 @@
+package com.rustem.eduthesis.infrastructure.entity;
+
+// Names must not contain dots: Caffeine reads them as caffeine.jcache.<name>
+public final class CacheRegions {
+
+    public static final String COURSES = "catalog-courses";
+    public static final String LESSONS = "catalog-lessons";
+    public static final String ROLES = "catalog-roles";
+    public static final String USER_ROLES = "catalog-user-roles";
+    public static final String CATALOG_QUERIES = "catalog-queries";
+
+    private CacheRegions() {
+    }
+}
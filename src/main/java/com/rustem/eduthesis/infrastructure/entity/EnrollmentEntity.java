@@ -5,16 +5,20 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "enrollments")
+@Table(name = "enrollments", uniqueConstraints = {
+        @UniqueConstraint(columnNames = {"student_id", "course_id"})
+})
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
 @Builder
 public class EnrollmentEntity {
+    // Stays IDENTITY: rows are inserted by set-based native upserts that rely on the column default for the id
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -39,6 +43,10 @@ public class EnrollmentEntity {
     @Column(nullable = false)
     private boolean active;
 
+    @Column(name = "completed_lessons", nullable = false)
+    @ColumnDefault("0")
+    private int completedLessons;
+
     @PrePersist
     protected void onCreate() {
         enrolledAt = LocalDateTime.now();
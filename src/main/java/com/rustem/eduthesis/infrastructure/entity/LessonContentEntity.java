@@ -0,0 +1,32 @@
+package com.rustem.eduthesis.infrastructure.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
+// Kept apart from LessonEntity so lists never load the body
+@Entity
+@Table(name = "lesson_content")
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@ToString(exclude = "lesson")
+public class LessonContentEntity {
+    @Id
+    @Column(name = "lesson_id")
+    private Long lessonId;
+
+    @MapsId
+    @OneToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "lesson_id")
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    private LessonEntity lesson;
+
+    @Column(columnDefinition = "TEXT")
+    private String content;
+
+    @Column(name = "additional_resources", columnDefinition = "TEXT")
+    private String additionalResources;
+}
@@ -2,13 +2,19 @@ package com.rustem.eduthesis.infrastructure.entity;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.time.LocalDateTime;
 import java.util.HashSet;
 import java.util.Set;
 
 @Entity
-@Table(name = "lessons")
+// The database constraint is deferrable (V8), so keys can be permuted within one statement
+@Table(name = "lessons", uniqueConstraints =
+        @UniqueConstraint(name = "uq_lessons_course_order", columnNames = {"course_id", "order_index"}))
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheRegions.LESSONS)
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
@@ -16,15 +22,13 @@ import java.util.Set;
 @ToString(exclude = "course")
 public class LessonEntity {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "lessons_seq")
+    @SequenceGenerator(name = "lessons_seq", sequenceName = "lessons_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
     private String title;
 
-    @Column(columnDefinition = "TEXT")
-    private String content;
-
     @Column(name = "video_url")
     private String videoUrl;
 
@@ -37,15 +41,16 @@ public class LessonEntity {
     @Column(name = "duration_minutes")
     private Integer durationMinutes;
 
-    @Column(name = "additional_resources", columnDefinition = "TEXT")
-    private String additionalResources;
-
     @Column(name = "created_at", nullable = false)
     private LocalDateTime createdAt;
 
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
 
+    @Version
+    @Column(nullable = false)
+    private Long version;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "course_id", nullable = false)
     private CourseEntity course;
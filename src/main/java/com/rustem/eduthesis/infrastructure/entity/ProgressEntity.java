@@ -17,6 +17,7 @@ import java.time.LocalDateTime;
 @NoArgsConstructor
 @Builder
 public class ProgressEntity {
+    // Stays IDENTITY: rows are inserted by set-based native upserts that rely on the column default for the id
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
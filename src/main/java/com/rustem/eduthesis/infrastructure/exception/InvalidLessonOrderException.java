@@ -0,0 +1,7 @@
+package com.rustem.eduthesis.infrastructure.exception;
+
+public class InvalidLessonOrderException extends RuntimeException {
+    public InvalidLessonOrderException(String message) {
+        super(message);
+    }
+}
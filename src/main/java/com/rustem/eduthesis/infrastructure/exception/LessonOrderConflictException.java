@@ -0,0 +1,7 @@
+package com.rustem.eduthesis.infrastructure.exception;
+
+public class LessonOrderConflictException extends RuntimeException {
+    public LessonOrderConflictException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,73 @@
+package com.rustem.eduthesis.infrastructure.http;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.WebRequest;
+
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.function.Supplier;
+
+// Answers conditional GETs before the response body is built
+@Component
+public class ConditionalGet {
+
+    private final CacheControl publicCatalog;
+
+    public ConditionalGet(@Value("${http.catalog.max-age:PT1M}") Duration catalogMaxAge) {
+        this.publicCatalog = CacheControl.maxAge(catalogMaxAge).cachePublic();
+    }
+
+    public <T> ResponseEntity<T> respond(WebRequest request, ResourceVersion version, Supplier<T> body) {
+        CacheControl cacheControl = cacheControl(version);
+
+        // Varies on Accept: JSON, CBOR and Smile share the ETag
+        if (request.checkNotModified(version.etag(), version.lastModifiedMillis())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).cacheControl(cacheControl).varyBy(HttpHeaders.ACCEPT).build();
+        }
+        return ResponseEntity.ok().cacheControl(cacheControl).varyBy(HttpHeaders.ACCEPT).body(body.get());
+    }
+
+    // Spring writes the 206 for a Resource body; a stale If-Range gets plain bytes, so the whole body
+    public ResponseEntity<?> respondWithRanges(WebRequest request, ResourceVersion version, MediaType mediaType,
+                                               Supplier<byte[]> body) {
+        CacheControl cacheControl = cacheControl(version);
+
+        if (request.checkNotModified(version.etag(), version.lastModifiedMillis())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).cacheControl(cacheControl).build();
+        }
+        byte[] bytes = body.get();
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .cacheControl(cacheControl)
+                .contentType(mediaType)
+                .header(HttpHeaders.ACCEPT_RANGES, "bytes");
+        return ifRangeMatches(request, version) ? response.body(new ByteArrayResource(bytes)) : response.body(bytes);
+    }
+
+    private CacheControl cacheControl(ResourceVersion version) {
+        return version.publicCatalog() ? publicCatalog : CacheControl.noCache().cachePrivate();
+    }
+
+    // A strong ETag or the exact Last-Modified date (RFC 9110, 13.1.5)
+    private static boolean ifRangeMatches(WebRequest request, ResourceVersion version) {
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (ifRange == null) return true;
+        if (ifRange.startsWith("\"") || ifRange.startsWith("W/")) return ifRange.equals(version.etag()) && !ifRange.startsWith("W/");
+        if (version.lastModified() == null) return false;
+
+        try {
+            long date = ZonedDateTime.parse(ifRange, DateTimeFormatter.RFC_1123_DATE_TIME).toInstant().toEpochMilli();
+            return date == version.lastModifiedMillis() / 1000 * 1000;
+        } catch (DateTimeParseException e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.rustem.eduthesis.infrastructure.http;
+
+import com.rustem.eduthesis.infrastructure.exception.PreconditionFailedException;
+
+// If-Match on course and lesson edits: the strong tag of the entity's @Version, as sent by its GET, PUT and PATCH
+public final class IfMatch {
+
+    private IfMatch() {
+    }
+
+    public static String tag(Long version) {
+        return "\"" + version + "\"";
+    }
+
+    // null when the edit is unconditional: no header, or * (any current version of an existing entity)
+    public static Long expectedVersion(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) return null;
+
+        String tag = ifMatch.trim();
+        if (tag.length() > 2 && tag.startsWith("\"") && tag.endsWith("\"")) {
+            Long version = parseVersion(tag.substring(1, tag.length() - 1));
+            if (version != null) return version;
+        }
+        // If-Match uses the strong comparison, which no weak tag passes
+        throw new PreconditionFailedException("If-Match does not match the current version: " + tag);
+    }
+
+    public static void check(Long expectedVersion, Long currentVersion) {
+        if (expectedVersion != null && !expectedVersion.equals(currentVersion)) {
+            throw new PreconditionFailedException("Resource was modified; its current version is " + tag(currentVersion));
+        }
+    }
+
+    private static Long parseVersion(String version) {
+        try {
+            return Long.parseLong(version);
+        } catch (NumberFormatException e) {
+            // Not one of ours, falls through to the failed precondition
+            return null;
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.rustem.eduthesis.infrastructure.http;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+// Validators for a conditional GET, computed from version columns instead of the response
+public record ResourceVersion(String etag, LocalDateTime lastModified, boolean publicCatalog) {
+
+    public static ResourceVersion of(String kind, boolean publicCatalog, LocalDateTime lastModified, Object... parts) {
+        return new ResourceVersion("W/" + tag(kind, parts), lastModified, publicCatalog);
+    }
+
+    // Only for byte-identical representations; If-Range ignores weak tags
+    public static ResourceVersion strong(String kind, boolean publicCatalog, LocalDateTime lastModified, Object... parts) {
+        return new ResourceVersion(tag(kind, parts), lastModified, publicCatalog);
+    }
+
+    // -1 tells Spring that there is no Last-Modified validator
+    public long lastModifiedMillis() {
+        return lastModified == null ? -1 : toMillis(lastModified);
+    }
+
+    private static String tag(String kind, Object... parts) {
+        StringBuilder tag = new StringBuilder("\"").append(kind);
+        for (Object part : parts) {
+            tag.append('-').append(part instanceof LocalDateTime timestamp ? toMillis(timestamp) : part);
+        }
+        return tag.append('"').toString();
+    }
+
+    private static long toMillis(LocalDateTime timestamp) {
+        return timestamp.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
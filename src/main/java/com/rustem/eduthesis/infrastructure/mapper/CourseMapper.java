@@ -1,16 +1,21 @@
 package com.rustem.eduthesis.infrastructure.mapper;
 
 import com.rustem.eduthesis.api.dto.CourseResponse;
+import com.rustem.eduthesis.api.dto.SimpleCourseDTO;
 import com.rustem.eduthesis.api.dto.SimpleLessonDTO;
 import com.rustem.eduthesis.api.dto.SimpleUserDTO;
 import com.rustem.eduthesis.infrastructure.entity.CourseEntity;
 import com.rustem.eduthesis.infrastructure.entity.LessonEntity;
 import com.rustem.eduthesis.infrastructure.entity.UserEntity;
 import com.rustem.eduthesis.infrastructure.repository.CourseRepository;
+import com.rustem.eduthesis.infrastructure.repository.projection.CourseHeader;
+import com.rustem.eduthesis.infrastructure.repository.projection.LessonSummary;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
 
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 @Component
 @RequiredArgsConstructor
@@ -26,6 +31,10 @@ public class CourseMapper {
 
         int enrollmentCount = courseRepository.countEnrollmentsByCourseId(courseEntity.getId());
 
+        return toResponse(courseEntity, lessons, enrollmentCount);
+    }
+
+    public CourseResponse toResponse(CourseEntity courseEntity, List<SimpleLessonDTO> lessons, int enrollmentCount) {
         return CourseResponse.builder()
                 .id(courseEntity.getId())
                 .title(courseEntity.getTitle())
@@ -35,9 +44,30 @@ public class CourseMapper {
                 .instructor(toUserDto(courseEntity.getInstructor()))
                 .lessons(lessons)
                 .enrollmentCount(enrollmentCount)
+                .version(courseEntity.getVersion())
                 .build();
     }
 
+    public Map<Long, SimpleCourseDTO> toCourseDtos(List<CourseHeader> headers) {
+        Map<Long, SimpleCourseDTO> courses = new LinkedHashMap<>();
+        for (CourseHeader header : headers) {
+            courses.put(header.getId(), SimpleCourseDTO.builder()
+                    .id(header.getId())
+                    .title(header.getTitle())
+                    .description(header.getDescription())
+                    .createdAt(header.getCreatedAt())
+                    .updatedAt(header.getUpdatedAt())
+                    .instructor(header.getInstructorId() != null ? SimpleUserDTO.builder()
+                            .id(header.getInstructorId())
+                            .email(header.getInstructorEmail())
+                            .firstName(header.getInstructorFirstName())
+                            .lastName(header.getInstructorLastName())
+                            .build() : null)
+                    .build());
+        }
+        return courses;
+    }
+
     private SimpleUserDTO toUserDto(UserEntity userEntity) {
         if (userEntity == null) {
             return null; // Handle case where the user is not set
@@ -59,4 +89,13 @@ public class CourseMapper {
                 .durationMinutes(lessonEntity.getDurationMinutes())
                 .build();
     }
+
+    public SimpleLessonDTO toLessonDto(LessonSummary lessonSummary) {
+        return SimpleLessonDTO.builder()
+                .id(lessonSummary.getId())
+                .title(lessonSummary.getTitle())
+                .orderIndex(lessonSummary.getOrderIndex())
+                .durationMinutes(lessonSummary.getDurationMinutes())
+                .build();
+    }
 }
@@ -4,7 +4,9 @@ import com.rustem.eduthesis.api.dto.LessonRequest;
 import com.rustem.eduthesis.api.dto.LessonResponse;
 import com.rustem.eduthesis.api.dto.SimpleCourseDTO;
 import com.rustem.eduthesis.api.dto.SimpleUserDTO;
+import com.rustem.eduthesis.infrastructure.entity.LessonContentEntity;
 import com.rustem.eduthesis.infrastructure.entity.LessonEntity;
+import com.rustem.eduthesis.infrastructure.repository.projection.LessonRow;
 import org.springframework.stereotype.Component;
 
 @Component
@@ -14,8 +16,8 @@ public class LessonMapper {
         return LessonResponse.builder()
                 .id(entity.getId())
                 .title(entity.getTitle())
-                .content(entity.getContent())
                 .orderIndex(entity.getOrderIndex())
+                .courseId(entity.getCourse().getId())
                 .course(SimpleCourseDTO.builder()
                         .id(entity.getCourse().getId())
                         .title(entity.getCourse().getTitle())
@@ -33,16 +35,43 @@ public class LessonMapper {
                 .durationMinutes(entity.getDurationMinutes())
                 .createdAt(entity.getCreatedAt())
                 .updatedAt(entity.getUpdatedAt())
+                .version(entity.getVersion())
+                .build();
+    }
+
+    public LessonResponse toResponse(LessonEntity entity, LessonContentEntity content) {
+        LessonResponse response = toResponse(entity);
+        response.setContent(content.getContent());
+        response.setAdditionalResources(content.getAdditionalResources());
+        return response;
+    }
+
+    public LessonResponse toResponse(LessonRow row) {
+        return LessonResponse.builder()
+                .id(row.getId())
+                .title(row.getTitle())
+                .orderIndex(row.getOrderIndex())
+                .courseId(row.getCourseId())
+                .durationMinutes(row.getDurationMinutes())
+                .createdAt(row.getCreatedAt())
+                .updatedAt(row.getUpdatedAt())
+                .version(row.getVersion())
                 .build();
     }
 
     public LessonEntity toEntity(LessonRequest request) {
         return LessonEntity.builder()
                 .title(request.getTitle())
-                .content(request.getContent())
                 .videoUrl(request.getVideoUrl())
                 .durationMinutes(request.getDurationMinutes())
                 .orderIndex(request.getOrderIndex())
+                .build();
+    }
+
+    public LessonContentEntity toContent(LessonEntity lesson, LessonRequest request) {
+        return LessonContentEntity.builder()
+                .lesson(lesson)
+                .content(request.getContent())
                 .additionalResources(request.getAdditionalResources())
                 .build();
     }
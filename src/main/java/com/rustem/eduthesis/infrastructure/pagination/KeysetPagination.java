@@ -0,0 +1,123 @@
+package com.rustem.eduthesis.infrastructure.pagination;
+
+import com.rustem.eduthesis.api.dto.CursorPage;
+import com.rustem.eduthesis.infrastructure.exception.InvalidCursorException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+
+public final class KeysetPagination {
+
+    public static final int MAX_LIMIT = 100;
+
+    private static final String SEPARATOR = "|";
+
+    private KeysetPagination() {
+    }
+
+    public static int normalizeLimit(int limit) {
+        return Math.max(1, Math.min(limit, MAX_LIMIT));
+    }
+
+    // One extra row tells whether there is a next page
+    public static Pageable probe(int limit) {
+        return PageRequest.of(0, normalizeLimit(limit) + 1);
+    }
+
+    public static <E, R> CursorPage<R> toPage(List<E> rows, int limit,
+                                              Function<E, R> mapper, Function<E, String> cursorOf) {
+        int pageSize = normalizeLimit(limit);
+        boolean hasNext = rows.size() > pageSize;
+        List<E> pageRows = hasNext ? rows.subList(0, pageSize) : rows;
+
+        return CursorPage.<R>builder()
+                .items(pageRows.stream().map(mapper).toList())
+                .nextCursor(hasNext ? cursorOf.apply(pageRows.get(pageSize - 1)) : null)
+                .hasNext(hasNext)
+                .build();
+    }
+
+    public static String encodeId(Long id) {
+        return encode(String.valueOf(id));
+    }
+
+    public static Long decodeId(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return 0L;
+        }
+        try {
+            return Long.parseLong(decode(cursor));
+        } catch (NumberFormatException e) {
+            throw new InvalidCursorException("Malformed pagination cursor");
+        }
+    }
+
+    public static String encodeTimestamp(LocalDateTime timestamp, Long id) {
+        return encode(timestamp + SEPARATOR + id);
+    }
+
+    public static TimestampCursor decodeTimestamp(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        String raw = decode(cursor);
+        int separator = raw.lastIndexOf(SEPARATOR);
+        if (separator < 0) {
+            throw new InvalidCursorException("Malformed pagination cursor");
+        }
+        try {
+            return new TimestampCursor(
+                    LocalDateTime.parse(raw.substring(0, separator)),
+                    Long.parseLong(raw.substring(separator + 1)));
+        } catch (DateTimeParseException | NumberFormatException e) {
+            throw new InvalidCursorException("Malformed pagination cursor");
+        }
+    }
+
+    // Ranks are computed the same way on every request, so they round-trip as keys
+    public static String encodeRank(double rank, Long id) {
+        return encode(rank + SEPARATOR + id);
+    }
+
+    public static RankCursor decodeRank(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        String raw = decode(cursor);
+        int separator = raw.lastIndexOf(SEPARATOR);
+        if (separator < 0) {
+            throw new InvalidCursorException("Malformed pagination cursor");
+        }
+        try {
+            return new RankCursor(
+                    Double.parseDouble(raw.substring(0, separator)),
+                    Long.parseLong(raw.substring(separator + 1)));
+        } catch (NumberFormatException e) {
+            throw new InvalidCursorException("Malformed pagination cursor");
+        }
+    }
+
+    private static String encode(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String decode(String cursor) {
+        try {
+            return new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidCursorException("Malformed pagination cursor");
+        }
+    }
+
+    public record TimestampCursor(LocalDateTime timestamp, Long id) {
+    }
+
+    public record RankCursor(double rank, Long id) {
+    }
+}
@@ -1,13 +1,22 @@
 package com.rustem.eduthesis.infrastructure.repository;
 
+import com.rustem.eduthesis.infrastructure.entity.CacheRegions;
 import com.rustem.eduthesis.infrastructure.entity.CourseEntity;
-import org.springframework.data.domain.Page;
+import com.rustem.eduthesis.infrastructure.repository.projection.CourseEnrollmentCount;
+import com.rustem.eduthesis.infrastructure.repository.projection.CourseHeader;
+import com.rustem.eduthesis.infrastructure.repository.projection.CourseSearchHit;
+import com.rustem.eduthesis.infrastructure.repository.projection.CourseVersion;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -21,6 +30,113 @@ public interface CourseRepository extends JpaRepository<CourseEntity, Long> {
     @Query("SELECT COUNT(e) FROM EnrollmentEntity e WHERE e.course.id = :courseId")
     int countEnrollmentsByCourseId(@Param("courseId") Long courseId);
 
+    @Query("SELECT c FROM CourseEntity c LEFT JOIN FETCH c.instructor WHERE c.id > :afterId ORDER BY c.id")
+    List<CourseEntity> findWithInstructorAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    // Cached until courses or users are written
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = CacheRegions.CATALOG_QUERIES)
+    })
+    @Query("SELECT c FROM CourseEntity c LEFT JOIN FETCH c.instructor " +
+            "WHERE c.published = true AND c.id > :afterId ORDER BY c.id")
+    List<CourseEntity> findPublishedWithInstructorAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    @Query("SELECT e.course.id AS courseId, COUNT(e.id) AS enrollmentCount FROM EnrollmentEntity e " +
+            "WHERE e.course.id IN :courseIds GROUP BY e.course.id")
+    List<CourseEnrollmentCount> countEnrollmentsByCourseIds(@Param("courseIds") Collection<Long> courseIds);
+
+    // Null parameters keep the column; imageUrl is only written, null included, when setImageUrl is true
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE CourseEntity c SET c.title = COALESCE(:title, c.title), " +
+            "c.description = COALESCE(:description, c.description), " +
+            "c.imageUrl = CASE WHEN :setImageUrl = true THEN :imageUrl ELSE c.imageUrl END, " +
+            "c.version = c.version + 1, c.updatedAt = LOCAL DATETIME " +
+            "WHERE c.id = :id AND (:expectedVersion IS NULL OR c.version = :expectedVersion)")
+    int patch(@Param("id") Long id,
+              @Param("title") String title,
+              @Param("description") String description,
+              @Param("setImageUrl") boolean setImageUrl,
+              @Param("imageUrl") String imageUrl,
+              @Param("expectedVersion") Long expectedVersion);
+
+    // Serializes lesson order changes per course
+    @Query(value = "SELECT id FROM courses WHERE id = :courseId FOR NO KEY UPDATE", nativeQuery = true)
+    Optional<Long> lockForLessonOrdering(@Param("courseId") Long courseId);
+
+    // updatedAt too, for If-Modified-Since on the lesson list
+    @Modifying
+    @Query("UPDATE CourseEntity c SET c.lessonCount = c.lessonCount + :delta, c.version = c.version + 1, " +
+            "c.updatedAt = LOCAL DATETIME WHERE c.id = :courseId")
+    int adjustLessonCount(@Param("courseId") Long courseId, @Param("delta") int delta);
+
+    // For writes to lessons and enrollments, which are part of the course response
+    @Modifying
+    @Query("UPDATE CourseEntity c SET c.version = c.version + 1 WHERE c.id = :courseId")
+    int bumpVersion(@Param("courseId") Long courseId);
+
+    @Modifying
+    @Query("UPDATE CourseEntity c SET c.version = c.version + 1 WHERE c.instructor.id = :instructorId")
+    int bumpVersionsByInstructorId(@Param("instructorId") Long instructorId);
+
+    // One id range [fromId, toId) per call, to keep transactions short
+    @Modifying
+    @Query("UPDATE CourseEntity c SET c.lessonCount = " +
+            "(SELECT COUNT(l.id) FROM LessonEntity l WHERE l.course.id = c.id) " +
+            "WHERE c.id >= :fromId AND c.id < :toId " +
+            "AND c.lessonCount <> (SELECT COUNT(l.id) FROM LessonEntity l WHERE l.course.id = c.id)")
+    int reconcileLessonCounts(@Param("fromId") long fromId, @Param("toId") long toId);
+
+    @Query("SELECT COALESCE(MAX(c.id), 0) FROM CourseEntity c")
+    long findMaxId();
+
+    @Query("SELECT c.id AS id, c.title AS title, c.description AS description, c.createdAt AS createdAt, " +
+            "c.updatedAt AS updatedAt, i.id AS instructorId, i.email AS instructorEmail, " +
+            "i.firstName AS instructorFirstName, i.lastName AS instructorLastName " +
+            "FROM CourseEntity c LEFT JOIN c.instructor i WHERE c.id IN :ids")
+    List<CourseHeader> findHeadersByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT c.version AS version, c.published AS published FROM CourseEntity c WHERE c.id = :id")
+    Optional<CourseVersion> findVersionById(@Param("id") Long id);
+
+    @Query("SELECT c.instructor.id FROM CourseEntity c WHERE c.id = :courseId")
+    Optional<Long> findInstructorIdById(@Param("courseId") Long courseId);
+
+    // PostgreSQL only. Lessons match on title and body together, after probing both indexes for any_term (any lexeme)
+    @Query(value = "WITH query AS (SELECT websearch_to_tsquery('english', :query) AS q, " +
+            "(SELECT CAST(string_agg(chr(39) || replace(replace(t.lexeme, chr(92), chr(92) || chr(92)), " +
+            "chr(39), chr(39) || chr(39)) || chr(39), ' | ') AS tsquery) " +
+            "FROM unnest(tsvector_to_array(to_tsvector('english', :query))) AS t(lexeme)) AS any_term), " +
+            "lesson_hits AS (SELECT DISTINCT ON (l.course_id) l.course_id, l.id AS lesson_id, " +
+            "ts_rank_cd(l.search_vector || coalesce(lc.search_vector, ''), query.q) AS rank " +
+            "FROM lessons l LEFT JOIN lesson_content lc ON lc.lesson_id = l.id CROSS JOIN query " +
+            "WHERE l.id IN (SELECT t.id FROM lessons t, query tq WHERE t.search_vector @@ tq.any_term " +
+            "UNION SELECT b.lesson_id FROM lesson_content b, query bq WHERE b.search_vector @@ bq.any_term) " +
+            "AND l.search_vector || coalesce(lc.search_vector, '') @@ query.q " +
+            "ORDER BY l.course_id, rank DESC, l.id), " +
+            "ranked AS (SELECT c.id, h.lesson_id, CAST(ts_rank_cd(c.search_vector, query.q) AS double precision) " +
+            "+ 0.5 * CAST(coalesce(h.rank, 0) AS double precision) AS rank " +
+            "FROM courses c CROSS JOIN query LEFT JOIN lesson_hits h ON h.course_id = c.id " +
+            "WHERE c.published = true AND (c.search_vector @@ query.q OR h.course_id IS NOT NULL)), " +
+            "page AS (SELECT * FROM ranked WHERE rank < :afterRank OR (rank = :afterRank AND id > :afterId) " +
+            "ORDER BY rank DESC, id LIMIT :limit) " +
+            "SELECT p.id AS \"courseId\", p.rank AS \"rank\", c.title AS \"title\", " +
+            "ts_headline('english', html_escape(c.title), query.q, " +
+            "'HighlightAll=true, StartSel=<mark>, StopSel=</mark>') " +
+            "AS \"titleHighlight\", " +
+            "ts_headline('english', html_escape(coalesce(c.description, '')), query.q, " +
+            "'StartSel=<mark>, StopSel=</mark>, MaxFragments=2, MaxWords=25, MinWords=8') AS \"descriptionHighlight\", " +
+            "l.id AS \"lessonId\", l.title AS \"lessonTitle\", " +
+            "ts_headline('english', html_escape(coalesce(lc.content, '')), query.q, " +
+            "'StartSel=<mark>, StopSel=</mark>, MaxFragments=2, MaxWords=25, MinWords=8') AS \"lessonHighlight\" " +
+            "FROM page p JOIN courses c ON c.id = p.id CROSS JOIN query LEFT JOIN lessons l ON l.id = p.lesson_id " +
+            "LEFT JOIN lesson_content lc ON lc.lesson_id = l.id " +
+            "ORDER BY p.rank DESC, p.id", nativeQuery = true)
+    List<CourseSearchHit> searchPublished(@Param("query") String query,
+                                          @Param("afterRank") double afterRank,
+                                          @Param("afterId") long afterId,
+                                          @Param("limit") int limit);
+
     List<CourseEntity> findByInstructorId(Long id);
 
     List<CourseEntity> findByTitleContainingIgnoreCase(String title);
@@ -1,23 +1,118 @@
 package com.rustem.eduthesis.infrastructure.repository;
 
 import com.rustem.eduthesis.infrastructure.entity.EnrollmentEntity;
+import com.rustem.eduthesis.infrastructure.repository.projection.EnrollmentExportRow;
+import com.rustem.eduthesis.infrastructure.repository.projection.EnrollmentOutcome;
+import com.rustem.eduthesis.infrastructure.repository.projection.EnrollmentRow;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface EnrollmentRepository extends JpaRepository<EnrollmentEntity, Long> {
 
     boolean existsByStudentIdAndCourseId(Long studentId, Long courseId);
 
+    // PostgreSQL only. Not @Modifying as it returns a row, so the caller evicts the course it bumps
+    @Transactional
+    @Query(value = "WITH course AS (SELECT id FROM courses WHERE id = :courseId AND published = true), " +
+            "inserted AS (INSERT INTO enrollments (student_id, course_id, enrolled_at, last_accessed_at, active, completed_lessons) " +
+            "SELECT :studentId, id, :enrolledAt, :enrolledAt, true, 0 FROM course " +
+            "ON CONFLICT (student_id, course_id) DO NOTHING RETURNING id), " +
+            "bumped AS (UPDATE courses SET version = version + 1 WHERE id = :courseId AND EXISTS (SELECT 1 FROM inserted)) " +
+            "SELECT CASE WHEN NOT EXISTS (SELECT 1 FROM course) THEN 'COURSE_NOT_AVAILABLE' " +
+            "WHEN EXISTS (SELECT 1 FROM inserted) THEN 'CREATED' ELSE 'ALREADY_ENROLLED' END", nativeQuery = true)
+    EnrollmentOutcome enrollIfPublished(@Param("studentId") Long studentId,
+                                        @Param("courseId") Long courseId,
+                                        @Param("enrolledAt") LocalDateTime enrolledAt);
+
     Optional<EnrollmentEntity> findByStudentIdAndCourseId(Long studentId, Long courseId);
 
     List<EnrollmentEntity> findByStudentId(Long studentId);
 
     List<EnrollmentEntity> findByCourseId(Long courseId);
 
+    @Query("SELECT e.course.id FROM EnrollmentEntity e WHERE e.student.id = :studentId AND e.course.id IN :courseIds")
+    List<Long> findEnrolledCourseIds(@Param("studentId") Long studentId, @Param("courseIds") Collection<Long> courseIds);
+
+    @Query("SELECT e.id AS id, e.course.id AS courseId, s.id AS studentId, s.email AS email, s.firstName AS firstName, " +
+            "s.lastName AS lastName, e.enrolledAt AS enrolledAt, e.lastAccessedAt AS lastAccessedAt, " +
+            "e.completedLessons AS completedLessons, c.lessonCount AS lessonCount " +
+            "FROM EnrollmentEntity e JOIN e.student s JOIN e.course c WHERE s.id = :studentId ORDER BY e.enrolledAt, e.id")
+    List<EnrollmentRow> findRowsByStudentId(@Param("studentId") Long studentId);
+
+    @Query("SELECT e.id AS id, e.course.id AS courseId, s.id AS studentId, s.email AS email, s.firstName AS firstName, " +
+            "s.lastName AS lastName, e.enrolledAt AS enrolledAt, e.lastAccessedAt AS lastAccessedAt, " +
+            "e.completedLessons AS completedLessons, c.lessonCount AS lessonCount " +
+            "FROM EnrollmentEntity e JOIN e.student s JOIN e.course c WHERE c.id = :courseId ORDER BY e.enrolledAt, e.id")
+    List<EnrollmentRow> findRowPageByCourseId(@Param("courseId") Long courseId, Pageable pageable);
+
+    @Query("SELECT e.id AS id, e.course.id AS courseId, s.id AS studentId, s.email AS email, s.firstName AS firstName, " +
+            "s.lastName AS lastName, e.enrolledAt AS enrolledAt, e.lastAccessedAt AS lastAccessedAt, " +
+            "e.completedLessons AS completedLessons, c.lessonCount AS lessonCount " +
+            "FROM EnrollmentEntity e JOIN e.student s JOIN e.course c " +
+            "WHERE c.id = :courseId AND (e.enrolledAt > :enrolledAt OR (e.enrolledAt = :enrolledAt AND e.id > :afterId)) " +
+            "ORDER BY e.enrolledAt, e.id")
+    List<EnrollmentRow> findRowPageByCourseIdAfter(@Param("courseId") Long courseId,
+                                                   @Param("enrolledAt") LocalDateTime enrolledAt,
+                                                   @Param("afterId") Long afterId,
+                                                   Pageable pageable);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT e.id AS enrollmentId, s.id AS studentId, s.email AS email, s.firstName AS firstName, " +
+            "s.lastName AS lastName, e.enrolledAt AS enrolledAt, e.lastAccessedAt AS lastAccessedAt, " +
+            "e.completedAt AS completedAt, e.completedLessons AS completedLessons " +
+            "FROM EnrollmentEntity e JOIN e.student s WHERE e.course.id = :courseId ORDER BY e.enrolledAt, e.id")
+    Stream<EnrollmentExportRow> streamExportRowsByCourseId(@Param("courseId") Long courseId);
+
+    @Modifying
+    @Query("UPDATE EnrollmentEntity e SET e.completedLessons = e.completedLessons + 1 " +
+            "WHERE e.student.id = :studentId AND e.course.id = :courseId")
+    int incrementCompletedLessons(@Param("studentId") Long studentId, @Param("courseId") Long courseId);
+
+    @Modifying
+    @Query("UPDATE EnrollmentEntity e SET e.completedLessons = e.completedLessons - 1 " +
+            "WHERE e.course.id = :courseId AND e.completedLessons > 0 AND e.student.id IN " +
+            "(SELECT p.student.id FROM ProgressEntity p WHERE p.lesson.id = :lessonId AND p.completed = true)")
+    int decrementCompletedLessonsForLesson(@Param("courseId") Long courseId, @Param("lessonId") Long lessonId);
+
+    // One id range [fromId, toId) per call, to keep transactions short
+    @Modifying
+    @Query("UPDATE EnrollmentEntity e SET e.completedLessons = " +
+            "(SELECT COUNT(p.id) FROM ProgressEntity p " +
+            "WHERE p.student.id = e.student.id AND p.course.id = e.course.id AND p.completed = true) " +
+            "WHERE e.id >= :fromId AND e.id < :toId AND e.completedLessons <> (SELECT COUNT(p.id) FROM ProgressEntity p " +
+            "WHERE p.student.id = e.student.id AND p.course.id = e.course.id AND p.completed = true)")
+    int reconcileCompletedLessons(@Param("fromId") long fromId, @Param("toId") long toId);
+
+    @Query("SELECT COALESCE(MAX(e.id), 0) FROM EnrollmentEntity e")
+    long findMaxId();
+
+    @Modifying
+    @Query("UPDATE EnrollmentEntity e SET e.lastAccessedAt = :accessedAt, e.completedLessons = " +
+            "(SELECT COUNT(p.id) FROM ProgressEntity p " +
+            "WHERE p.student.id = e.student.id AND p.course.id = e.course.id AND p.completed = true) " +
+            "WHERE e.student.id = :studentId AND e.course.id IN :courseIds")
+    int refreshCompletedLessons(@Param("studentId") Long studentId,
+                                @Param("courseIds") Collection<Long> courseIds,
+                                @Param("accessedAt") LocalDateTime accessedAt);
+
     long countByStudentId(Long studentId);
 
     long countByCourseId(Long courseId);
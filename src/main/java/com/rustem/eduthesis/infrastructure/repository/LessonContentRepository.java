@@ -0,0 +1,29 @@
+package com.rustem.eduthesis.infrastructure.repository;
+
+import com.rustem.eduthesis.infrastructure.entity.LessonContentEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface LessonContentRepository extends JpaRepository<LessonContentEntity, Long> {
+
+    Optional<LessonContentEntity> findByLessonIdAndLesson_Course_Id(Long lessonId, Long courseId);
+
+    List<LessonContentEntity> findByContentContainingIgnoreCase(String content);
+
+    // additionalResources is only written, null included, when setAdditionalResources is true
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE LessonContentEntity c SET c.content = COALESCE(:content, c.content), " +
+            "c.additionalResources = CASE WHEN :setAdditionalResources = true THEN :additionalResources " +
+            "ELSE c.additionalResources END WHERE c.lessonId = :lessonId")
+    int patch(@Param("lessonId") Long lessonId,
+              @Param("content") String content,
+              @Param("setAdditionalResources") boolean setAdditionalResources,
+              @Param("additionalResources") String additionalResources);
+}
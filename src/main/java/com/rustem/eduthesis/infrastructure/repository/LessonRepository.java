@@ -1,11 +1,23 @@
 package com.rustem.eduthesis.infrastructure.repository;
 
-import com.rustem.eduthesis.infrastructure.entity.CourseEntity;
+import com.rustem.eduthesis.infrastructure.entity.CacheRegions;
 import com.rustem.eduthesis.infrastructure.entity.LessonEntity;
+import com.rustem.eduthesis.infrastructure.repository.projection.LessonContentVersion;
+import com.rustem.eduthesis.infrastructure.repository.projection.LessonCourseRef;
+import com.rustem.eduthesis.infrastructure.repository.projection.LessonListVersion;
+import com.rustem.eduthesis.infrastructure.repository.projection.LessonOrderKey;
+import com.rustem.eduthesis.infrastructure.repository.projection.LessonRow;
+import com.rustem.eduthesis.infrastructure.repository.projection.LessonSummary;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -14,15 +26,83 @@ public interface LessonRepository extends JpaRepository<LessonEntity, Long> {
 
     List<LessonEntity> findByCourseId(Long courseId);
 
-    List<LessonEntity> findByCourseOrderByOrderIndexAsc(CourseEntity course);
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = CacheRegions.CATALOG_QUERIES)
+    })
+    @Query("SELECT l.id AS id, l.course.id AS courseId, l.title AS title, l.orderIndex AS orderIndex, " +
+            "l.durationMinutes AS durationMinutes, l.createdAt AS createdAt, l.updatedAt AS updatedAt, " +
+            "l.version AS version FROM LessonEntity l WHERE l.course.id = :courseId ORDER BY l.orderIndex, l.id")
+    List<LessonRow> findRowsByCourseId(@Param("courseId") Long courseId);
 
     List<LessonEntity> findByCourseIdOrderByOrderIndex(Long courseId);
 
+    @Query("SELECT c.published AS published, c.updatedAt AS courseUpdatedAt, COUNT(l.id) AS lessonCount, " +
+            "COALESCE(SUM(l.version), 0) AS lessonVersionSum, COALESCE(MAX(l.id), 0) AS maxLessonId, " +
+            "MAX(COALESCE(l.updatedAt, l.createdAt)) AS lessonsUpdatedAt " +
+            "FROM CourseEntity c LEFT JOIN LessonEntity l ON l.course.id = c.id " +
+            "WHERE c.id = :courseId GROUP BY c.id, c.published, c.updatedAt")
+    Optional<LessonListVersion> findListVersionByCourseId(@Param("courseId") Long courseId);
+
+    // Body-only edits bump the lesson version too
+    @Query("SELECT l.version AS version, COALESCE(l.updatedAt, l.createdAt) AS updatedAt, c.published AS published " +
+            "FROM LessonEntity l JOIN l.course c WHERE l.id = :lessonId AND c.id = :courseId")
+    Optional<LessonContentVersion> findContentVersionByIdAndCourseId(@Param("lessonId") Long lessonId,
+                                                                    @Param("courseId") Long courseId);
+
     Optional<LessonEntity> findByIdAndCourseId(Long id, Long courseId);
 
     @Query("SELECT MAX(l.orderIndex) FROM LessonEntity l WHERE l.course.id = :courseId")
     Optional<Integer> findMaxOrderIndexByCourseId(Long courseId);
 
+    @Query("SELECT l.id AS id, l.orderIndex AS orderIndex FROM LessonEntity l " +
+            "WHERE l.course.id = :courseId ORDER BY l.orderIndex, l.id")
+    List<LessonOrderKey> findOrderKeysByCourseId(@Param("courseId") Long courseId);
+
+    // Null parameters keep the column; videoUrl is only written, null included, when setVideoUrl is true
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE LessonEntity l SET l.title = COALESCE(:title, l.title), " +
+            "l.videoUrl = CASE WHEN :setVideoUrl = true THEN :videoUrl ELSE l.videoUrl END, " +
+            "l.durationMinutes = COALESCE(:durationMinutes, l.durationMinutes), l.version = l.version + 1, " +
+            "l.updatedAt = LOCAL DATETIME WHERE l.id = :lessonId AND l.course.id = :courseId " +
+            "AND (:expectedVersion IS NULL OR l.version = :expectedVersion)")
+    int patch(@Param("lessonId") Long lessonId,
+              @Param("courseId") Long courseId,
+              @Param("title") String title,
+              @Param("setVideoUrl") boolean setVideoUrl,
+              @Param("videoUrl") String videoUrl,
+              @Param("durationMinutes") Integer durationMinutes,
+              @Param("expectedVersion") Long expectedVersion);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE LessonEntity l SET l.orderIndex = :orderIndex, l.version = l.version + 1, " +
+            "l.updatedAt = LOCAL DATETIME WHERE l.id = :lessonId")
+    int updateOrderIndex(@Param("lessonId") Long lessonId, @Param("orderIndex") Integer orderIndex);
+
+    // Respaces to gap, 2 * gap, ...; the deferrable unique constraint is checked at the end of the statement
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "lessons"))
+    @Query(value = "UPDATE lessons l SET order_index = r.rn * :gap, version = l.version + 1, updated_at = LOCALTIMESTAMP " +
+            "FROM (SELECT id, row_number() OVER (ORDER BY order_index, id) AS rn FROM lessons WHERE course_id = :courseId) r " +
+            "WHERE l.id = r.id AND l.order_index <> r.rn * :gap", nativeQuery = true)
+    int rebalanceOrder(@Param("courseId") Long courseId, @Param("gap") int gap);
+
+    // Rows already holding their key keep their version
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "lessons"))
+    @Query(value = "UPDATE lessons l SET order_index = o.ord * :gap, version = l.version + 1, updated_at = LOCALTIMESTAMP " +
+            "FROM unnest(CAST(:lessonIds AS bigint[])) WITH ORDINALITY AS o(id, ord) " +
+            "WHERE l.id = o.id AND l.course_id = :courseId AND l.order_index <> o.ord * :gap", nativeQuery = true)
+    int applyOrder(@Param("courseId") Long courseId, @Param("lessonIds") Long[] lessonIds, @Param("gap") int gap);
+
+    @Query("SELECT l.course.id AS courseId, l.id AS id, l.title AS title, l.orderIndex AS orderIndex, " +
+            "l.durationMinutes AS durationMinutes FROM LessonEntity l " +
+            "WHERE l.course.id IN :courseIds ORDER BY l.course.id, l.orderIndex")
+    List<LessonSummary> findSummariesByCourseIds(@Param("courseIds") Collection<Long> courseIds);
+
+    @Query("SELECT l.id AS id, l.course.id AS courseId FROM LessonEntity l WHERE l.id IN :ids")
+    List<LessonCourseRef> findCourseRefsByIdIn(@Param("ids") Collection<Long> ids);
+
     Boolean existsByIdAndCourseId(Long id, Long courseId);
 
     Boolean existsByTitleAndCourseId(String title, Long courseId);
@@ -31,8 +111,6 @@ public interface LessonRepository extends JpaRepository<LessonEntity, Long> {
 
     Optional<LessonEntity> findByCourseIdAndOrderIndex(Long courseId, Integer orderIndex);
 
-    List<LessonEntity> findByContentContainingIgnoreCase(String content);
-
     List<LessonEntity> findByOrderIndexGreaterThan(Integer orderIndex);
 
     Boolean existsByCourseIdAndOrderIndex(Long courseId, Integer orderIndex);
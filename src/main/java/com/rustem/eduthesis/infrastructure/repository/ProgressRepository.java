@@ -1,14 +1,24 @@
 package com.rustem.eduthesis.infrastructure.repository;
 
 import com.rustem.eduthesis.infrastructure.entity.ProgressEntity;
+import com.rustem.eduthesis.infrastructure.repository.projection.ProgressExportRow;
+import com.rustem.eduthesis.infrastructure.repository.projection.ProgressRow;
+import com.rustem.eduthesis.infrastructure.service.CourseAnalyticsService;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface ProgressRepository extends JpaRepository<ProgressEntity, Long> {
@@ -21,6 +31,45 @@ public interface ProgressRepository extends JpaRepository<ProgressEntity, Long>
 
     List<ProgressEntity> findByStudentId(Long studentId);
 
+    @Query("SELECT p.id AS id, p.course.id AS courseId, l.id AS lessonId, l.title AS lessonTitle, " +
+            "l.orderIndex AS orderIndex, l.durationMinutes AS durationMinutes, p.completed AS completed, " +
+            "p.completedAt AS completedAt FROM ProgressEntity p JOIN p.lesson l " +
+            "WHERE p.student.id = :studentId AND p.id > :afterId ORDER BY p.id")
+    List<ProgressRow> findRowPageByStudentIdAfter(@Param("studentId") Long studentId,
+                                                  @Param("afterId") Long afterId,
+                                                  Pageable pageable);
+
+    @Query("SELECT p.id AS id, p.course.id AS courseId, l.id AS lessonId, l.title AS lessonTitle, " +
+            "l.orderIndex AS orderIndex, l.durationMinutes AS durationMinutes, p.completed AS completed, " +
+            "p.completedAt AS completedAt FROM ProgressEntity p JOIN p.lesson l " +
+            "WHERE p.student.id = :studentId AND p.course.id = :courseId ORDER BY l.orderIndex, l.id")
+    List<ProgressRow> findRowsByStudentIdAndCourseId(@Param("studentId") Long studentId,
+                                                     @Param("courseId") Long courseId);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT s.id AS studentId, s.email AS email, l.id AS lessonId, l.title AS lessonTitle, " +
+            "l.orderIndex AS orderIndex, p.completed AS completed, p.completedAt AS completedAt " +
+            "FROM ProgressEntity p JOIN p.student s JOIN p.lesson l " +
+            "WHERE p.course.id = :courseId ORDER BY s.id, l.orderIndex")
+    Stream<ProgressExportRow> streamExportRowsByCourseId(@Param("courseId") Long courseId);
+
+    // PostgreSQL only; returns the lessons that were not completed before
+    @Transactional
+    @Query(value = "INSERT INTO progress (student_id, lesson_id, course_id, completed, completed_at) " +
+            "SELECT :studentId, c.lesson_id, c.course_id, true, c.completed_at " +
+            "FROM unnest(CAST(:lessonIds AS bigint[]), CAST(:courseIds AS bigint[]), " +
+            "CAST(:completedAts AS timestamp[])) AS c(lesson_id, course_id, completed_at) " +
+            "ON CONFLICT (student_id, lesson_id) DO UPDATE " +
+            "SET completed = true, completed_at = EXCLUDED.completed_at WHERE progress.completed = false " +
+            "RETURNING lesson_id", nativeQuery = true)
+    List<Long> upsertCompleted(@Param("studentId") Long studentId,
+                               @Param("lessonIds") Long[] lessonIds,
+                               @Param("courseIds") Long[] courseIds,
+                               @Param("completedAts") LocalDateTime[] completedAts);
+
     List<ProgressEntity> findByLessonId(Long lessonId);
 
     List<ProgressEntity> findByStudentIdAndCompleted(Long studentId, Boolean completed);
@@ -50,4 +99,21 @@ public interface ProgressRepository extends JpaRepository<ProgressEntity, Long>
     @Modifying
     @Query("DELETE FROM ProgressEntity p WHERE p.student.id = :studentId AND p.course.id = :courseId")
     void deleteByStudentIdAndCourseId(@Param("studentId") Long studentId, @Param("courseId") Long courseId);
+
+    // PostgreSQL only; also takes rolled-up completions back out. Needs the enrollment for its enrolled_at
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "progress"))
+    @Query(value = "WITH removed AS (" +
+            "DELETE FROM progress WHERE student_id = :studentId AND course_id = :courseId " +
+            "RETURNING lesson_id, completed_at, rolled_up), " +
+            "folded AS (SELECT lesson_id, completed_at FROM removed WHERE rolled_up), " +
+            "lesson_totals AS (" +
+            "UPDATE lesson_completion_stats s SET completions = s.completions - f.n " +
+            "FROM (SELECT lesson_id, count(*) AS n FROM folded GROUP BY lesson_id) f WHERE s.lesson_id = f.lesson_id) " +
+            "UPDATE lesson_completion_time_buckets b SET completions = b.completions - 1 " +
+            "FROM folded f JOIN enrollments en ON en.student_id = :studentId AND en.course_id = :courseId " +
+            "WHERE b.lesson_id = f.lesson_id AND b.bucket = CAST(LEAST(floor(2 * ln(GREATEST(" +
+            "EXTRACT(EPOCH FROM (f.completed_at - en.enrolled_at)) / 3600, 0) + 1) / ln(2)), " +
+            CourseAnalyticsService.MAX_BUCKET + ") AS smallint)", nativeQuery = true)
+    int deleteCourseProgressAndRollups(@Param("studentId") Long studentId, @Param("courseId") Long courseId);
 }
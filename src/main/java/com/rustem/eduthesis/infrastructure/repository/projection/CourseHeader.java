@@ -0,0 +1,23 @@
+package com.rustem.eduthesis.infrastructure.repository.projection;
+
+import java.time.LocalDateTime;
+
+public interface CourseHeader {
+    Long getId();
+
+    String getTitle();
+
+    String getDescription();
+
+    LocalDateTime getCreatedAt();
+
+    LocalDateTime getUpdatedAt();
+
+    Long getInstructorId();
+
+    String getInstructorEmail();
+
+    String getInstructorFirstName();
+
+    String getInstructorLastName();
+}
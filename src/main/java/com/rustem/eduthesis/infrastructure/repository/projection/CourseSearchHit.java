@@ -0,0 +1,20 @@
+package com.rustem.eduthesis.infrastructure.repository.projection;
+
+// Lesson columns are null when only the course text matched
+public interface CourseSearchHit {
+    Long getCourseId();
+
+    Double getRank();
+
+    String getTitle();
+
+    String getTitleHighlight();
+
+    String getDescriptionHighlight();
+
+    Long getLessonId();
+
+    String getLessonTitle();
+
+    String getLessonHighlight();
+}
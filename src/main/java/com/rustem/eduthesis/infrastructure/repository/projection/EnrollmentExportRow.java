@@ -0,0 +1,23 @@
+package com.rustem.eduthesis.infrastructure.repository.projection;
+
+import java.time.LocalDateTime;
+
+public interface EnrollmentExportRow {
+    Long getEnrollmentId();
+
+    Long getStudentId();
+
+    String getEmail();
+
+    String getFirstName();
+
+    String getLastName();
+
+    LocalDateTime getEnrolledAt();
+
+    LocalDateTime getLastAccessedAt();
+
+    LocalDateTime getCompletedAt();
+
+    Integer getCompletedLessons();
+}
@@ -0,0 +1,7 @@
+package com.rustem.eduthesis.infrastructure.repository.projection;
+
+public enum EnrollmentOutcome {
+    CREATED,
+    ALREADY_ENROLLED,
+    COURSE_NOT_AVAILABLE
+}
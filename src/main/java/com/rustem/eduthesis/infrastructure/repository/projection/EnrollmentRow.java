@@ -0,0 +1,25 @@
+package com.rustem.eduthesis.infrastructure.repository.projection;
+
+import java.time.LocalDateTime;
+
+public interface EnrollmentRow {
+    Long getId();
+
+    Long getCourseId();
+
+    Long getStudentId();
+
+    String getEmail();
+
+    String getFirstName();
+
+    String getLastName();
+
+    LocalDateTime getEnrolledAt();
+
+    LocalDateTime getLastAccessedAt();
+
+    Integer getCompletedLessons();
+
+    Integer getLessonCount();
+}
@@ -0,0 +1,11 @@
+package com.rustem.eduthesis.infrastructure.repository.projection;
+
+import java.time.LocalDateTime;
+
+public interface LessonContentVersion {
+    Long getVersion();
+
+    LocalDateTime getUpdatedAt();
+
+    Boolean getPublished();
+}
@@ -0,0 +1,17 @@
+package com.rustem.eduthesis.infrastructure.repository.projection;
+
+import java.time.LocalDateTime;
+
+public interface LessonListVersion {
+    Boolean getPublished();
+
+    LocalDateTime getCourseUpdatedAt();
+
+    Long getLessonCount();
+
+    Long getLessonVersionSum();
+
+    Long getMaxLessonId();
+
+    LocalDateTime getLessonsUpdatedAt();
+}
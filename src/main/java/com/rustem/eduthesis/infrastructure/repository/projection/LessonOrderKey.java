@@ -0,0 +1,7 @@
+package com.rustem.eduthesis.infrastructure.repository.projection;
+
+public interface LessonOrderKey {
+    Long getId();
+
+    Integer getOrderIndex();
+}
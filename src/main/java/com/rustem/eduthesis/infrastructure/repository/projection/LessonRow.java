@@ -0,0 +1,21 @@
+package com.rustem.eduthesis.infrastructure.repository.projection;
+
+import java.time.LocalDateTime;
+
+public interface LessonRow {
+    Long getId();
+
+    Long getCourseId();
+
+    String getTitle();
+
+    Integer getOrderIndex();
+
+    Integer getDurationMinutes();
+
+    LocalDateTime getCreatedAt();
+
+    LocalDateTime getUpdatedAt();
+
+    Long getVersion();
+}
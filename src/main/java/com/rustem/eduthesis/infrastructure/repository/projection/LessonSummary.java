@@ -0,0 +1,13 @@
+package com.rustem.eduthesis.infrastructure.repository.projection;
+
+public interface LessonSummary {
+    Long getCourseId();
+
+    Long getId();
+
+    String getTitle();
+
+    Integer getOrderIndex();
+
+    Integer getDurationMinutes();
+}
@@ -0,0 +1,19 @@
+package com.rustem.eduthesis.infrastructure.repository.projection;
+
+import java.time.LocalDateTime;
+
+public interface ProgressExportRow {
+    Long getStudentId();
+
+    String getEmail();
+
+    Long getLessonId();
+
+    String getLessonTitle();
+
+    Integer getOrderIndex();
+
+    Boolean getCompleted();
+
+    LocalDateTime getCompletedAt();
+}
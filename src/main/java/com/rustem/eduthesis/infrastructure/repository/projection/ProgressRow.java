@@ -0,0 +1,21 @@
+package com.rustem.eduthesis.infrastructure.repository.projection;
+
+import java.time.LocalDateTime;
+
+public interface ProgressRow {
+    Long getId();
+
+    Long getCourseId();
+
+    Long getLessonId();
+
+    String getLessonTitle();
+
+    Integer getOrderIndex();
+
+    Integer getDurationMinutes();
+
+    Boolean getCompleted();
+
+    LocalDateTime getCompletedAt();
+}
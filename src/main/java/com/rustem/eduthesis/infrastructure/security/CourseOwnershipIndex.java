@@ -0,0 +1,65 @@
+package com.rustem.eduthesis.infrastructure.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.rustem.eduthesis.infrastructure.repository.CourseRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+
+// course id -> instructor id, per node; a course's instructor never changes
+@Component
+public class CourseOwnershipIndex {
+
+    private final CourseRepository courseRepo;
+    private final Cache<Long, Long> instructorByCourse;
+
+    public CourseOwnershipIndex(CourseRepository courseRepo,
+                                @Value("${security.ownership-index.max-size:100000}") long maxSize,
+                                @Value("${security.ownership-index.expire-after-write:PT1H}") Duration expireAfterWrite) {
+        this.courseRepo = courseRepo;
+        this.instructorByCourse = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(expireAfterWrite)
+                .build();
+    }
+
+    public boolean isOwner(Long courseId, Long userId) {
+        return userId != null && userId.equals(instructorOf(courseId));
+    }
+
+    public Long instructorOf(Long courseId) {
+        return instructorByCourse.get(courseId, id -> courseRepo.findInstructorIdById(id).orElse(null));
+    }
+
+    // After commit, so a rolled-back course never looks owned
+    public void register(Long courseId, Long instructorId) {
+        if (instructorId == null) return;
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            instructorByCourse.put(courseId, instructorId);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                instructorByCourse.put(courseId, instructorId);
+            }
+        });
+    }
+
+    // Again after commit, so a concurrent check cannot re-cache it
+    public void evict(Long courseId) {
+        instructorByCourse.invalidate(courseId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    instructorByCourse.invalidate(courseId);
+                }
+            });
+        }
+    }
+}
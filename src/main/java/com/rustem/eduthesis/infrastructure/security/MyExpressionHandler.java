@@ -1,6 +1,5 @@
 package com.rustem.eduthesis.infrastructure.security;
 
-import com.rustem.eduthesis.infrastructure.repository.CourseRepository;
 import com.rustem.eduthesis.infrastructure.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import org.aopalliance.intercept.MethodInvocation;
@@ -17,14 +16,14 @@ import java.util.function.Supplier;
 @RequiredArgsConstructor
 public class MyExpressionHandler extends DefaultMethodSecurityExpressionHandler {
 
-    private final CourseRepository courseRepo;
     private final UserRepository userRepo;
+    private final CourseOwnershipIndex ownershipIndex;
 
     @Override
     public EvaluationContext createEvaluationContext(Supplier<Authentication> auth, MethodInvocation invocation) {
         StandardEvaluationContext context = (StandardEvaluationContext) super.createEvaluationContext(auth, invocation);
         MethodSecurityExpressionOperations delegate = (MethodSecurityExpressionOperations) context.getRootObject().getValue();
-        MySecurityExpressionRoot root = new MySecurityExpressionRoot(delegate, userRepo, courseRepo);
+        MySecurityExpressionRoot root = new MySecurityExpressionRoot(delegate, userRepo, ownershipIndex);
         context.setRootObject(root);
         return context;
     }
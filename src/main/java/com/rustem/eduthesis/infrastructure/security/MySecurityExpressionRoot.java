@@ -1,8 +1,6 @@
 package com.rustem.eduthesis.infrastructure.security;
 
-import com.rustem.eduthesis.infrastructure.entity.CourseEntity;
 import com.rustem.eduthesis.infrastructure.entity.UserEntity;
-import com.rustem.eduthesis.infrastructure.repository.CourseRepository;
 import com.rustem.eduthesis.infrastructure.repository.UserRepository;
 import org.springframework.context.annotation.Bean;
 import org.springframework.security.access.expression.method.MethodSecurityExpressionOperations;
@@ -12,26 +10,26 @@ import org.springframework.security.core.userdetails.User;
 public class MySecurityExpressionRoot implements MethodSecurityExpressionOperations {
 
     private final UserRepository userRepo;
-    private final CourseRepository courseRepo;
+    private final CourseOwnershipIndex ownershipIndex;
     private final MethodSecurityExpressionOperations delegate;
 
-    public MySecurityExpressionRoot(MethodSecurityExpressionOperations delegate, UserRepository userRepo, CourseRepository courseRepo) {
+    public MySecurityExpressionRoot(MethodSecurityExpressionOperations delegate, UserRepository userRepo, CourseOwnershipIndex ownershipIndex) {
         this.delegate = delegate;
         this.userRepo = userRepo;
-        this.courseRepo = courseRepo;
+        this.ownershipIndex = ownershipIndex;
     }
 
     @Bean
     public boolean isCourseOwnerOrAdmin(Long courseId) {
-        User user = (User) delegate.getAuthentication().getPrincipal();
-        CourseEntity course = courseRepo.findById(courseId).orElse(null);
-        UserEntity userEntity = userRepo.findByEmail(user.getUsername()).orElse(null);
-        if (course == null || userEntity == null) {
-            return false; // Course or user are not found
+        if (delegate.hasRole("ADMIN")) {
+            return true;
         }
-        // Check if the user is the course owner (instructor) or admin
-        return course.getInstructor() != null && course.getInstructor().getId().equals(userEntity.getId())
-                || user.getAuthorities().stream().anyMatch(a -> a.getAuthority().equals("ROLE_ADMIN"));
+        User user = (User) delegate.getAuthentication().getPrincipal();
+        Long userId = user instanceof AuthenticatedUser authenticatedUser && authenticatedUser.getId() != null
+                ? authenticatedUser.getId()
+                : userRepo.findByEmail(user.getUsername()).map(UserEntity::getId).orElse(null);
+        // Check if the user is the course owner (instructor)
+        return ownershipIndex.isOwner(courseId, userId);
     }
 
 
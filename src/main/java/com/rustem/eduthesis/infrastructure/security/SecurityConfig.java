@@ -4,8 +4,13 @@ import com.rustem.eduthesis.infrastructure.security.jwt.JwtAccessDeniedHandler;
 import com.rustem.eduthesis.infrastructure.security.jwt.JwtAuthenticationEntryPoint;
 import com.rustem.eduthesis.infrastructure.security.jwt.JwtTokenFilter;
 import com.rustem.eduthesis.infrastructure.security.oauth2.OAuth2SuccessHandler;
+import com.rustem.eduthesis.infrastructure.security.ratelimit.RateLimitFilter;
+import com.rustem.eduthesis.infrastructure.security.ratelimit.RateLimitProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import org.apache.catalina.filters.CorsFilter;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
@@ -34,6 +39,7 @@ import java.util.List;
         securedEnabled = true,
         jsr250Enabled = true
 )
+@EnableConfigurationProperties(RateLimitProperties.class)
 @RequiredArgsConstructor
 public class SecurityConfig {
 
@@ -42,6 +48,9 @@ public class SecurityConfig {
     private final JwtTokenFilter jwtTokenFilter;
     private final OAuth2SuccessHandler oAuth2SuccessHandler;
     private final PasswordEncoder passwordEncoder;
+    private final RateLimitProperties rateLimitProperties;
+    private final MeterRegistry meterRegistry;
+    private final ObjectMapper objectMapper;
 
     @Bean
     public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
@@ -62,7 +71,7 @@ public class SecurityConfig {
                         // Public endpoints
                         .requestMatchers("/api/auth/**").permitAll()
                         .requestMatchers("/api/public/**").permitAll()
-                        .requestMatchers(HttpMethod.GET, "/api/courses").permitAll()
+                        .requestMatchers(HttpMethod.GET, "/api/courses", "/api/courses/search").permitAll()
                         // Swagger endpoints
                         .requestMatchers("/swagger-ui/**", "/v3/api-docs/**").permitAll()
                         // Actuator endpoints
@@ -87,6 +96,11 @@ public class SecurityConfig {
         // Use addFilterBefore with UsernamePasswordAuthenticationFilter for both filters
         http.addFilterBefore(jwtTokenFilter, UsernamePasswordAuthenticationFilter.class);
 
+        // After the JWT filter, so authenticated callers are keyed by principal
+        if (rateLimitProperties.isEnabled()) {
+            http.addFilterAfter(new RateLimitFilter(rateLimitProperties, meterRegistry, objectMapper), JwtTokenFilter.class);
+        }
+
         return http.build();
     }
 
@@ -113,8 +127,11 @@ public class SecurityConfig {
 
         configuration.setAllowedOrigins(new ArrayList<>());
         configuration.setAllowedMethods(List.of("GET", "POST", "PUT", "PATCH", "DELETE", "OPTIONS"));
-        configuration.setAllowedHeaders(List.of("authorization", "content-type", "x-auth-token"));
-        configuration.setExposedHeaders(List.of("x-auth-token"));
+        // Conditional and range request headers, and the validators they are answered with
+        configuration.setAllowedHeaders(List.of("authorization", "content-type", "x-auth-token", "if-match",
+                "if-none-match", "if-modified-since", "range", "if-range"));
+        configuration.setExposedHeaders(List.of("x-auth-token", "etag", "last-modified", "accept-ranges",
+                "content-range"));
         configuration.setAllowCredentials(true);
         configuration.setMaxAge(8600000L);
 
@@ -5,7 +5,6 @@ import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
-import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
 import org.springframework.util.StringUtils;
@@ -24,9 +23,9 @@ public class JwtTokenFilter extends OncePerRequestFilter {
         try {
             String jwt = getJwtFromRequest(request);
 
-            if (StringUtils.hasText(jwt) && tokenProvider.validateToken(jwt)) {
-                Authentication auth = tokenProvider.getAuthentication(jwt);
-                SecurityContextHolder.getContext().setAuthentication(auth);
+            if (StringUtils.hasText(jwt)) {
+                tokenProvider.resolveAuthentication(jwt)
+                        .ifPresent(auth -> SecurityContextHolder.getContext().setAuthentication(auth));
             }
         } catch (Exception e) {
             logger.error("Could not set user authentication in security context", e);
@@ -1,5 +1,9 @@
 package com.rustem.eduthesis.infrastructure.security.jwt;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.rustem.eduthesis.infrastructure.security.AuthenticatedUser;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
 import jakarta.annotation.PostConstruct;
@@ -10,12 +14,15 @@ import org.springframework.security.authentication.UsernamePasswordAuthenticatio
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
-import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.oauth2.core.user.OAuth2User;
 import org.springframework.stereotype.Component;
 
+import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
 import java.util.*;
 
 @Slf4j
@@ -23,7 +30,11 @@ import java.util.*;
 @RequiredArgsConstructor
 public class JwtTokenProvider {
 
+    public static final String USER_ID_CLAIM = "uid";
+
     private Key key;
+    private JwtParser parser;
+    private Cache<String, CachedAuthentication> authenticationCache;
 
     @Value("${JWT_SECRET}")
     private String secretKey;
@@ -31,14 +42,25 @@ public class JwtTokenProvider {
     @Value("${JWT_EXPIRATION}")
     private Long expirationMs;
 
+    @Value("${jwt.authentication-cache.max-size:10000}")
+    private long authenticationCacheMaxSize;
+
     @PostConstruct
     protected void init() {
         key = Keys.hmacShaKeyFor(secretKey.getBytes());
+        parser = Jwts.parserBuilder()
+                .setSigningKey(key)
+                .build();
+        authenticationCache = Caffeine.newBuilder()
+                .maximumSize(authenticationCacheMaxSize)
+                .expireAfter(Expiry.<String, CachedAuthentication>creating((tokenHash, cached) -> timeUntil(cached.expiration())))
+                .build();
         log.debug("JWT token provider initialized with key derived from secret");
     }
 
     public String createToken(Authentication authentication) {
         String username;
+        Long userId = null;
         Collection<? extends GrantedAuthority> authorities;
 
         Object principal = authentication.getPrincipal();
@@ -46,11 +68,17 @@ public class JwtTokenProvider {
         if (principal instanceof UserDetails userDetails) {
             username = userDetails.getUsername();
             authorities = userDetails.getAuthorities();
+            if (userDetails instanceof AuthenticatedUser authenticatedUser) {
+                userId = authenticatedUser.getId();
+            }
         } else if (principal instanceof OAuth2User oAuth2User) {
             username = oAuth2User.getAttribute("email");
             if (username == null) {
                 username = oAuth2User.getName();
             }
+            if (oAuth2User.getAttribute(USER_ID_CLAIM) instanceof Number id) {
+                userId = id.longValue();
+            }
             authorities = oAuth2User.getAuthorities();
         } else {
             username = authentication.getName();
@@ -61,6 +89,9 @@ public class JwtTokenProvider {
         claims.put("auth", authorities.stream()
                 .map(GrantedAuthority::getAuthority)
                 .toList());
+        if (userId != null) {
+            claims.put(USER_ID_CLAIM, userId);
+        }
 
         Date now = new Date();
         Date validity = new Date(now.getTime() + expirationMs);
@@ -73,26 +104,31 @@ public class JwtTokenProvider {
                 .compact();
     }
 
-    public boolean validateToken(String token) {
+    // Empty when the signature, format or expiry is invalid
+    public Optional<Claims> parseClaims(String token) {
         try {
-            Jws<Claims> claims = Jwts.parserBuilder()
-                    .setSigningKey(key)
-                    .build()
-                    .parseClaimsJws(token);
-            return !claims.getBody().getExpiration().before(new Date());
+            return Optional.of(parser.parseClaimsJws(token).getBody());
         } catch (JwtException | IllegalArgumentException e) {
             log.error("Invalid JWT token: {}", e.getMessage());
-            return false;
+            return Optional.empty();
         }
     }
 
-    public Authentication getAuthentication(String token) {
-        Claims claims = Jwts.parserBuilder()
-                .setSigningKey(key)
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+    public Optional<Authentication> resolveAuthentication(String token) {
+        String tokenHash = hash(token);
+        CachedAuthentication cached = authenticationCache.getIfPresent(tokenHash);
+        if (cached != null) {
+            return Optional.of(cached.authentication());
+        }
+
+        return parseClaims(token).map(claims -> {
+            Authentication authentication = toAuthentication(claims, token);
+            authenticationCache.put(tokenHash, new CachedAuthentication(authentication, claims.getExpiration()));
+            return authentication;
+        });
+    }
 
+    private Authentication toAuthentication(Claims claims, String token) {
         Collection<? extends GrantedAuthority> authorities;
 
         if (claims.get("auth") instanceof List<?> authList) {
@@ -103,7 +139,26 @@ public class JwtTokenProvider {
             authorities = Collections.emptyList();
         }
 
-        User principal = new User(claims.getSubject(), "", authorities);
+        AuthenticatedUser principal = new AuthenticatedUser(claims.get(USER_ID_CLAIM, Long.class), claims.getSubject(), authorities);
         return new UsernamePasswordAuthenticationToken(principal, token, authorities);
     }
+
+    private static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private static Duration timeUntil(Date expiration) {
+        if (expiration == null) {
+            return Duration.ZERO;
+        }
+        return Duration.ofMillis(Math.max(0, expiration.getTime() - System.currentTimeMillis()));
+    }
+
+    private record CachedAuthentication(Authentication authentication, Date expiration) {
+    }
 }
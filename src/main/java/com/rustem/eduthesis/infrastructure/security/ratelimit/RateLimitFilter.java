@@ -0,0 +1,205 @@
+package com.rustem.eduthesis.infrastructure.security.ratelimit;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.rustem.eduthesis.api.dto.ErrorResponse;
+import io.github.bucket4j.Bandwidth;
+import io.github.bucket4j.Bucket;
+import io.github.bucket4j.ConsumptionProbe;
+import io.github.bucket4j.Refill;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+// Not a @Component: SecurityConfig adds it after JwtTokenFilter
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private static final String THROTTLED_METRIC = "http.server.requests.throttled";
+
+    // Larger bodies all share one account bucket
+    private static final int MAX_USERNAME_BODY_BYTES = 8 * 1024;
+    private static final String OVERSIZED_BODY_ACCOUNT = "?oversized";
+
+    private final List<RoutePolicy> policies;
+    private final Cache<String, Bucket> buckets;
+    private final MeterRegistry meterRegistry;
+    private final ObjectMapper objectMapper;
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+
+    public RateLimitFilter(RateLimitProperties properties, MeterRegistry meterRegistry, ObjectMapper objectMapper) {
+        this.policies = properties.getPolicies().entrySet().stream()
+                .map(entry -> new RoutePolicy(entry.getKey(), entry.getValue()))
+                .toList();
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(properties.getMaxTrackedKeys())
+                .expireAfterAccess(properties.getIdleExpiry())
+                .build();
+        this.meterRegistry = meterRegistry;
+        this.objectMapper = objectMapper;
+
+        Gauge.builder("rate.limit.tracked.keys", buckets, Cache::estimatedSize)
+                .description("Client buckets currently held in memory")
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+        RoutePolicy policy = resolvePolicy(request);
+        if (policy == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        ClientKey client = resolveClient(request);
+        ConsumptionProbe probe = consume(policy, client);
+        if (!probe.isConsumed()) {
+            throttled(request, response, policy, client, probe);
+            return;
+        }
+        long remaining = probe.getRemainingTokens();
+
+        RateLimitProperties.AccountLimit accountLimit = policy.policy().getAccount();
+        if (accountLimit != null && hasJsonBody(request)) {
+            CachedBodyRequest cached = new CachedBodyRequest(request, MAX_USERNAME_BODY_BYTES);
+            request = cached;
+            String username = username(cached.body(), accountLimit.getUsernameField());
+            if (username != null) {
+                ClientKey account = new ClientKey("account", "account:" + username);
+                ConsumptionProbe accountProbe = consume(policy, account);
+                if (!accountProbe.isConsumed()) {
+                    throttled(request, response, policy, account, accountProbe);
+                    return;
+                }
+                remaining = Math.min(remaining, accountProbe.getRemainingTokens());
+            }
+        }
+
+        response.setHeader("X-RateLimit-Remaining", String.valueOf(remaining));
+        filterChain.doFilter(request, response);
+    }
+
+    private ConsumptionProbe consume(RoutePolicy policy, ClientKey client) {
+        Bucket bucket = buckets.get(policy.name() + ":" + client.value(),
+                key -> client.type().equals("account") ? policy.newAccountBucket() : policy.newBucket());
+        return bucket.tryConsumeAndReturnRemaining(1);
+    }
+
+    private void throttled(HttpServletRequest request, HttpServletResponse response, RoutePolicy policy,
+                           ClientKey client, ConsumptionProbe probe) throws IOException {
+        Counter.builder(THROTTLED_METRIC)
+                .description("Requests rejected by the rate limiter")
+                .tag("policy", policy.name())
+                .tag("client", client.type())
+                .register(meterRegistry)
+                .increment();
+        reject(request, response, probe.getNanosToWaitForRefill());
+    }
+
+    private static boolean hasJsonBody(HttpServletRequest request) {
+        String contentType = request.getContentType();
+        if (contentType == null) return false;
+        try {
+            return MediaType.APPLICATION_JSON.isCompatibleWith(MediaType.parseMediaType(contentType));
+        } catch (InvalidMediaTypeException e) {
+            return false;
+        }
+    }
+
+    // Trimmed and lower-cased, like email addresses
+    private String username(byte[] body, String field) {
+        if (body == null) return OVERSIZED_BODY_ACCOUNT;
+        try {
+            JsonNode value = objectMapper.readTree(body).path(field);
+            if (!value.isTextual() || value.asText().isBlank()) return null;
+            return value.asText().trim().toLowerCase(Locale.ROOT);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private RoutePolicy resolvePolicy(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        for (RoutePolicy policy : policies) {
+            if (policy.matches(request.getMethod(), path, pathMatcher)) {
+                return policy;
+            }
+        }
+        return null;
+    }
+
+    // Never X-Forwarded-For, or callers could pick their bucket; use server.forward-headers-strategy
+    private ClientKey resolveClient(HttpServletRequest request) {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        if (auth != null && auth.isAuthenticated() && !(auth instanceof AnonymousAuthenticationToken)) {
+            return new ClientKey("principal", "user:" + auth.getName());
+        }
+        return new ClientKey("ip", "ip:" + request.getRemoteAddr());
+    }
+
+    private void reject(HttpServletRequest request, HttpServletResponse response, long nanosToWait) throws IOException {
+        long retryAfterSeconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(nanosToWait + TimeUnit.SECONDS.toNanos(1) - 1));
+
+        ErrorResponse errorResponse = ErrorResponse.builder()
+                .timestamp(LocalDateTime.now())
+                .status(HttpStatus.TOO_MANY_REQUESTS.value())
+                .error("Too Many Requests")
+                .message("Rate limit exceeded, retry in " + retryAfterSeconds + " seconds")
+                .path(request.getRequestURI())
+                .build();
+
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), errorResponse);
+    }
+
+    private record ClientKey(String type, String value) {
+    }
+
+    private record RoutePolicy(String name, RateLimitProperties.Policy policy) {
+
+        boolean matches(String method, String path, AntPathMatcher pathMatcher) {
+            if (!policy.getMethods().isEmpty()
+                    && policy.getMethods().stream().noneMatch(method::equalsIgnoreCase)) {
+                return false;
+            }
+            return policy.getPaths().stream().anyMatch(pattern -> pathMatcher.match(pattern, path));
+        }
+
+        Bucket newBucket() {
+            return bucket(policy.getCapacity(), policy.getRefillTokens(), policy.getRefillPeriod());
+        }
+
+        Bucket newAccountBucket() {
+            RateLimitProperties.AccountLimit account = policy.getAccount();
+            return bucket(account.getCapacity(), account.getRefillTokens(), account.getRefillPeriod());
+        }
+
+        private static Bucket bucket(long capacity, long refillTokens, Duration refillPeriod) {
+            Bandwidth limit = Bandwidth.classic(capacity, Refill.greedy(refillTokens, refillPeriod));
+            return Bucket.builder().addLimit(limit).build();
+        }
+    }
+}
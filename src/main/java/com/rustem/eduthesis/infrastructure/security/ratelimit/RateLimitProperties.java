@@ -0,0 +1,46 @@
+package com.rustem.eduthesis.infrastructure.security.ratelimit;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@Data
+@ConfigurationProperties(prefix = "rate-limit")
+public class RateLimitProperties {
+
+    private boolean enabled = true;
+
+    // Least recently used clients are evicted first
+    private long maxTrackedKeys = 100_000;
+
+    private Duration idleExpiry = Duration.ofMinutes(10);
+
+    // First match wins
+    private Map<String, Policy> policies = new LinkedHashMap<>();
+
+    @Data
+    public static class Policy {
+        private List<String> paths = new ArrayList<>();
+        // Empty means every HTTP method
+        private List<String> methods = new ArrayList<>();
+        private long capacity;
+        private long refillTokens;
+        private Duration refillPeriod = Duration.ofMinutes(1);
+        // Bucket per account, shared by every client trying it
+        private AccountLimit account;
+    }
+
+    @Data
+    public static class AccountLimit {
+        // JSON body field naming the account, such as the login email
+        private String usernameField;
+        private long capacity;
+        private long refillTokens;
+        private Duration refillPeriod = Duration.ofMinutes(1);
+    }
+}
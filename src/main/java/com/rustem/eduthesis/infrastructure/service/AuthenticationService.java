@@ -8,6 +8,7 @@ import com.rustem.eduthesis.infrastructure.exception.RoleNotFoundException;
 import com.rustem.eduthesis.infrastructure.exception.UserNotFoundException;
 import com.rustem.eduthesis.infrastructure.repository.RoleRepository;
 import com.rustem.eduthesis.infrastructure.repository.UserRepository;
+import com.rustem.eduthesis.infrastructure.security.AuthenticatedUser;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -15,6 +16,8 @@ import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
 
 import java.time.LocalDateTime;
 import java.util.HashSet;
@@ -23,6 +26,8 @@ import java.util.Set;
 @Service
 @RequiredArgsConstructor
 public class AuthenticationService {
+    private static final String CURRENT_USER_ATTRIBUTE = AuthenticationService.class.getName() + ".CURRENT_USER";
+
     private final UserRepository userRepo;
     private final RoleRepository roleRepo;
     private final PasswordEncoder passwordEncoder;
@@ -67,12 +72,51 @@ public class AuthenticationService {
         return null;
     }
 
+    // Cached in the request attributes
     public UserEntity getCurrentUser() {
         UserDetails userDetails = getCurrentUserDetails();
         if (userDetails == null) {
             return null;
         }
 
+        RequestAttributes request = RequestContextHolder.getRequestAttributes();
+        if (request != null
+                && request.getAttribute(CURRENT_USER_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST) instanceof UserEntity cached) {
+            return cached;
+        }
+
+        UserEntity user = loadUser(userDetails);
+        if (request != null) {
+            request.setAttribute(CURRENT_USER_ATTRIBUTE, user, RequestAttributes.SCOPE_REQUEST);
+        }
+        return user;
+    }
+
+    public Long getCurrentUserId() {
+        UserDetails userDetails = getCurrentUserDetails();
+        if (userDetails == null) {
+            return null;
+        }
+        if (userDetails instanceof AuthenticatedUser authenticatedUser && authenticatedUser.getId() != null) {
+            return authenticatedUser.getId();
+        }
+        return getCurrentUser().getId();
+    }
+
+    public boolean currentUserHasRole(String role) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated()) {
+            return false;
+        }
+        return authentication.getAuthorities().stream()
+                .anyMatch(authority -> authority.getAuthority().equals("ROLE_" + role));
+    }
+
+    private UserEntity loadUser(UserDetails userDetails) {
+        if (userDetails instanceof AuthenticatedUser authenticatedUser && authenticatedUser.getId() != null) {
+            return userRepo.findById(authenticatedUser.getId())
+                    .orElseThrow(() -> new UserNotFoundException("User not found: " + userDetails.getUsername()));
+        }
         return userRepo.findByEmail(userDetails.getUsername())
                 .orElseThrow(() -> new UserNotFoundException("User not found: " + userDetails.getUsername()));
     }
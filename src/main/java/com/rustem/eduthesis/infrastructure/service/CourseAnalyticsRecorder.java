@@ -0,0 +1,142 @@
+package com.rustem.eduthesis.infrastructure.service;
+
+import com.rustem.eduthesis.infrastructure.writebehind.WriteBehindBuffer;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+// Folds lesson completions into the V5 rollups off the request path, so hot rollup rows are not locked per request
+@Slf4j
+@Component
+public class CourseAnalyticsRecorder {
+
+    // Claims events by flipping progress.rolled_up (V9), so each is folded at most once
+    private static final String FLUSH_SQL = "WITH events AS (" +
+            "UPDATE progress p SET rolled_up = true " +
+            "FROM unnest(CAST(? AS bigint[]), CAST(? AS bigint[])) AS e(student_id, lesson_id) " +
+            "WHERE p.student_id = e.student_id AND p.lesson_id = e.lesson_id " +
+            "AND p.completed AND p.completed_at IS NOT NULL AND NOT p.rolled_up " +
+            "RETURNING p.student_id, p.course_id, p.lesson_id, p.completed_at), " +
+            "lesson_totals AS (" +
+            "INSERT INTO lesson_completion_stats AS s (lesson_id, course_id, completions, first_completed_at, last_completed_at) " +
+            "SELECT lesson_id, min(course_id), count(*), min(completed_at), max(completed_at) FROM events GROUP BY lesson_id " +
+            "ON CONFLICT (lesson_id) DO UPDATE SET completions = s.completions + EXCLUDED.completions, " +
+            "first_completed_at = LEAST(s.first_completed_at, EXCLUDED.first_completed_at), " +
+            "last_completed_at = GREATEST(s.last_completed_at, EXCLUDED.last_completed_at)), " +
+            "time_buckets AS (" +
+            "INSERT INTO lesson_completion_time_buckets AS b (lesson_id, bucket, completions) " +
+            "SELECT ev.lesson_id, CAST(LEAST(floor(2 * ln(GREATEST(EXTRACT(EPOCH FROM (ev.completed_at - en.enrolled_at)) " +
+            "/ 3600, 0) + 1) / ln(2)), " + CourseAnalyticsService.MAX_BUCKET + ") AS smallint), count(*) " +
+            "FROM events ev JOIN enrollments en ON en.student_id = ev.student_id AND en.course_id = ev.course_id " +
+            "GROUP BY 1, 2 " +
+            "ON CONFLICT (lesson_id, bucket) DO UPDATE SET completions = b.completions + EXCLUDED.completions), " +
+            "learner_days AS (" +
+            "INSERT INTO course_learner_days (course_id, activity_date, student_id) " +
+            "SELECT DISTINCT course_id, CAST(completed_at AS date), student_id FROM events WHERE completed_at >= ? " +
+            "ON CONFLICT DO NOTHING RETURNING course_id, activity_date) " +
+            "INSERT INTO course_daily_learners AS d (course_id, activity_date, active_learners) " +
+            "SELECT course_id, activity_date, count(*) FROM learner_days GROUP BY 1, 2 " +
+            "ON CONFLICT (course_id, activity_date) DO UPDATE SET active_learners = d.active_learners + EXCLUDED.active_learners";
+
+    private static final String PRUNE_SQL = "DELETE FROM course_learner_days WHERE activity_date < ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Duration learnerDaysRetention;
+    private final WriteBehindBuffer<CompletionKey, Boolean> buffer;
+
+    public CourseAnalyticsRecorder(JdbcTemplate jdbcTemplate,
+                                   MeterRegistry meterRegistry,
+                                   PlatformTransactionManager transactionManager,
+                                   TaskScheduler taskScheduler,
+                                   @Value("${analytics.rollups.max-pending:50000}") int maxPending,
+                                   @Value("${analytics.rollups.chunk-size:1000}") int chunkSize,
+                                   @Value("${analytics.rollups.learner-days-retention:P7D}") Duration learnerDaysRetention) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.learnerDaysRetention = learnerDaysRetention;
+        this.buffer = new WriteBehindBuffer<>("analytics.rollups", meterRegistry, transactionManager,
+                task -> taskScheduler.schedule(task, Instant.now()),
+                maxPending, chunkSize, (buffered, added) -> buffered, this::fold);
+    }
+
+    // Buffered after commit, so a rolled-back completion is never counted
+    public void recordCompletion(Long studentId, Long lessonId) {
+        CompletionKey key = new CompletionKey(studentId, lessonId);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            buffer.add(key, Boolean.TRUE);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                buffer.add(key, Boolean.TRUE);
+            }
+        });
+    }
+
+    @Scheduled(
+            initialDelayString = "${analytics.rollups.flush-interval:PT10S}",
+            fixedDelayString = "${analytics.rollups.flush-interval:PT10S}")
+    public void flush() {
+        buffer.flush();
+    }
+
+    @Scheduled(cron = "${analytics.rollups.prune-cron:0 30 3 * * *}")
+    public void pruneLearnerDays() {
+        int pruned = jdbcTemplate.update(PRUNE_SQL, Date.valueOf(learnerDaysFrom()));
+        log.debug("Pruned {} learner-day marker(s) outside the retention window", pruned);
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    private LocalDate learnerDaysFrom() {
+        return LocalDate.now().minusDays(learnerDaysRetention.toDays());
+    }
+
+    // Older completions are no longer deduplicated, so they skip the daily counts
+    private void fold(List<Map.Entry<CompletionKey, Boolean>> chunk) {
+        Timestamp learnerDaysFrom = Timestamp.valueOf(learnerDaysFrom().atStartOfDay());
+        jdbcTemplate.update(connection -> prepare(connection, chunk, learnerDaysFrom));
+    }
+
+    private PreparedStatement prepare(Connection connection, List<Map.Entry<CompletionKey, Boolean>> chunk,
+                                      Timestamp learnerDaysFrom) throws SQLException {
+        Long[] studentIds = new Long[chunk.size()];
+        Long[] lessonIds = new Long[chunk.size()];
+        for (int i = 0; i < chunk.size(); i++) {
+            CompletionKey key = chunk.get(i).getKey();
+            studentIds[i] = key.studentId();
+            lessonIds[i] = key.lessonId();
+        }
+
+        PreparedStatement statement = connection.prepareStatement(FLUSH_SQL);
+        statement.setArray(1, connection.createArrayOf("bigint", studentIds));
+        statement.setArray(2, connection.createArrayOf("bigint", lessonIds));
+        statement.setTimestamp(3, learnerDaysFrom);
+        return statement;
+    }
+
+    private record CompletionKey(Long studentId, Long lessonId) {
+    }
+}
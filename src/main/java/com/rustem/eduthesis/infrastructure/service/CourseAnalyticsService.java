@@ -0,0 +1,111 @@
+package com.rustem.eduthesis.infrastructure.service;
+
+import com.rustem.eduthesis.api.dto.CourseAnalyticsResponse;
+import com.rustem.eduthesis.api.dto.DailyActiveLearners;
+import com.rustem.eduthesis.api.dto.LessonFunnelStep;
+import com.rustem.eduthesis.infrastructure.exception.CourseNotFoundException;
+import com.rustem.eduthesis.infrastructure.repository.CourseRepository;
+import com.rustem.eduthesis.infrastructure.repository.EnrollmentRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Reads the rollups kept by CourseAnalyticsRecorder, never the progress rows
+@Service
+@RequiredArgsConstructor
+public class CourseAnalyticsService {
+
+    public static final int MAX_BUCKET = 31;
+    public static final int MAX_DAYS = 365;
+
+    private static final String FUNNEL_SQL = "SELECT l.id, l.title, l.order_index, coalesce(s.completions, 0) AS completions, " +
+            "s.first_completed_at, s.last_completed_at FROM lessons l " +
+            "LEFT JOIN lesson_completion_stats s ON s.lesson_id = l.id " +
+            "WHERE l.course_id = ? ORDER BY l.order_index, l.id";
+
+    private static final String BUCKETS_SQL = "SELECT b.lesson_id, b.bucket, b.completions " +
+            "FROM lesson_completion_time_buckets b JOIN lessons l ON l.id = b.lesson_id WHERE l.course_id = ?";
+
+    private static final String ACTIVE_LEARNERS_SQL = "SELECT activity_date, active_learners FROM course_daily_learners " +
+            "WHERE course_id = ? AND activity_date >= ? ORDER BY activity_date";
+
+    private final CourseRepository courseRepo;
+    private final EnrollmentRepository enrollmentRepo;
+    private final JdbcTemplate jdbcTemplate;
+
+    @Transactional(readOnly = true)
+    public CourseAnalyticsResponse getCourseAnalytics(Long courseId, int days) {
+        if (!courseRepo.existsById(courseId)) throw new CourseNotFoundException("Course not found with ID: " + courseId);
+
+        long enrolled = enrollmentRepo.countByCourseId(courseId);
+
+        Map<Long, long[]> histograms = new HashMap<>();
+        jdbcTemplate.query(BUCKETS_SQL, rs -> {
+            histograms.computeIfAbsent(rs.getLong("lesson_id"), id -> new long[MAX_BUCKET + 1])
+                    [rs.getInt("bucket")] = rs.getLong("completions");
+        }, courseId);
+
+        List<LessonFunnelStep> funnel = new ArrayList<>();
+        jdbcTemplate.query(FUNNEL_SQL, rs -> {
+            long completions = rs.getLong("completions");
+            long previous = funnel.isEmpty() ? enrolled : funnel.get(funnel.size() - 1).getCompletions();
+            long[] histogram = histograms.get(rs.getLong("id"));
+            funnel.add(LessonFunnelStep.builder()
+                    .lessonId(rs.getLong("id"))
+                    .title(rs.getString("title"))
+                    .orderIndex(rs.getInt("order_index"))
+                    .completions(completions)
+                    .completionRate(enrolled == 0 ? null : (double) completions / enrolled)
+                    .dropOff(previous - completions)
+                    .medianHoursToComplete(histogram == null ? null : medianHours(histogram))
+                    .firstCompletedAt(toLocalDateTime(rs.getTimestamp("first_completed_at")))
+                    .lastCompletedAt(toLocalDateTime(rs.getTimestamp("last_completed_at")))
+                    .build());
+        }, courseId);
+
+        int window = Math.max(1, Math.min(days, MAX_DAYS));
+        List<DailyActiveLearners> activeLearners = jdbcTemplate.query(ACTIVE_LEARNERS_SQL,
+                (rs, rowNum) -> new DailyActiveLearners(rs.getDate("activity_date").toLocalDate(), rs.getInt("active_learners")),
+                courseId, Date.valueOf(LocalDate.now().minusDays(window - 1L)));
+
+        return CourseAnalyticsResponse.builder()
+                .courseId(courseId)
+                .enrolledStudents(enrolled)
+                .funnel(funnel)
+                .activeLearners(activeLearners)
+                .build();
+    }
+
+    // Bucket b: 2^(b/2) - 1 to 2^((b+1)/2) - 1 hours; the median is a bucket midpoint, within about 20%
+    public static Double medianHours(long[] histogram) {
+        long total = 0;
+        for (long count : histogram) total += count;
+        if (total == 0) return null;
+
+        long middle = (total + 1) / 2;
+        long seen = 0;
+        for (int bucket = 0; bucket < histogram.length; bucket++) {
+            seen += histogram[bucket];
+            if (seen >= middle) {
+                double lower = Math.pow(2, bucket / 2.0) - 1;
+                double upper = Math.pow(2, (bucket + 1) / 2.0) - 1;
+                return Math.round((lower + upper) / 2 * 10) / 10.0;
+            }
+        }
+        return null;
+    }
+
+    private static LocalDateTime toLocalDateTime(Timestamp timestamp) {
+        return timestamp == null ? null : timestamp.toLocalDateTime();
+    }
+}
@@ -0,0 +1,97 @@
+package com.rustem.eduthesis.infrastructure.service;
+
+import com.rustem.eduthesis.api.dto.CourseImportRequest;
+import com.rustem.eduthesis.api.dto.CourseImportResponse;
+import com.rustem.eduthesis.api.dto.LessonRequest;
+import com.rustem.eduthesis.infrastructure.entity.CourseEntity;
+import com.rustem.eduthesis.infrastructure.entity.LessonContentEntity;
+import com.rustem.eduthesis.infrastructure.entity.LessonEntity;
+import com.rustem.eduthesis.infrastructure.entity.UserEntity;
+import com.rustem.eduthesis.infrastructure.mapper.LessonMapper;
+import com.rustem.eduthesis.infrastructure.repository.CourseRepository;
+import com.rustem.eduthesis.infrastructure.security.CourseOwnershipIndex;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+// Flushes and clears the persistence context every few courses, so large imports keep memory flat
+@Service
+@RequiredArgsConstructor
+public class CourseImportService {
+
+    private final CourseRepository courseRepo;
+    private final LessonMapper lessonMapper;
+    private final AuthenticationService authService;
+    private final CourseOwnershipIndex ownershipIndex;
+    private final EntityManager entityManager;
+
+    @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}")
+    private int batchSize;
+
+    @Transactional
+    public CourseImportResponse importCourses(List<CourseImportRequest> requests) {
+        UserEntity instructor = authService.getCurrentUser();
+        Long instructorId = instructor.getId();
+        LocalDateTime now = LocalDateTime.now();
+
+        List<Long> courseIds = new ArrayList<>(requests.size());
+        int importedLessons = 0;
+        int pendingRows = 0;
+        for (CourseImportRequest request : requests) {
+            List<LessonContentEntity> contents = new ArrayList<>();
+            CourseEntity course = toCourse(request, entityManager.getReference(UserEntity.class, instructorId), now, contents);
+            courseRepo.save(course);
+            // The content rows share the ids the cascade has just given the lessons
+            contents.forEach(entityManager::persist);
+            courseIds.add(course.getId());
+            importedLessons += course.getLessons().size();
+
+            pendingRows += 1 + course.getLessons().size() + contents.size();
+            if (pendingRows >= batchSize) {
+                entityManager.flush();
+                entityManager.clear();
+                pendingRows = 0;
+            }
+        }
+        entityManager.flush();
+
+        courseIds.forEach(courseId -> ownershipIndex.register(courseId, instructorId));
+        return CourseImportResponse.builder()
+                .courseIds(courseIds)
+                .importedCourses(courseIds.size())
+                .importedLessons(importedLessons)
+                .build();
+    }
+
+    private CourseEntity toCourse(CourseImportRequest request, UserEntity instructor, LocalDateTime now,
+                                  List<LessonContentEntity> contents) {
+        CourseEntity course = CourseEntity.builder()
+                .title(request.getTitle())
+                .description(request.getDescription())
+                .imageUrl(request.getImageUrl())
+                .published(false)
+                .instructor(instructor)
+                .build();
+
+        List<LessonRequest> lessonRequests = request.getLessons() != null ? request.getLessons() : List.of();
+        for (int i = 0; i < lessonRequests.size(); i++) {
+            LessonRequest lessonRequest = lessonRequests.get(i);
+            LessonEntity lesson = lessonMapper.toEntity(lessonRequest);
+            lesson.setCourse(course);
+            // Keys follow the order sent; a client orderIndex could collide and fail the whole import
+            lesson.setOrderIndex(LessonOrderKeys.atPosition(i + 1));
+            lesson.setCreatedAt(now);
+            lesson.setUpdatedAt(now);
+            course.getLessons().add(lesson);
+            contents.add(lessonMapper.toContent(lesson, lessonRequest));
+        }
+        course.setLessonCount(course.getLessons().size());
+        return course;
+    }
+}
@@ -0,0 +1,54 @@
+package com.rustem.eduthesis.infrastructure.service;
+
+import com.rustem.eduthesis.api.dto.CourseSearchResult;
+import com.rustem.eduthesis.api.dto.CursorPage;
+import com.rustem.eduthesis.infrastructure.pagination.KeysetPagination;
+import com.rustem.eduthesis.infrastructure.repository.CourseRepository;
+import com.rustem.eduthesis.infrastructure.repository.projection.CourseSearchHit;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+@Service
+@RequiredArgsConstructor
+public class CourseSearchService {
+
+    public static final int MAX_QUERY_LENGTH = 200;
+
+    private final CourseRepository courseRepo;
+
+    @Transactional(readOnly = true)
+    public CursorPage<CourseSearchResult> search(String query, String cursor, int limit) {
+        String terms = query == null ? "" : query.strip();
+        if (terms.isEmpty()) {
+            return CursorPage.<CourseSearchResult>builder().items(List.of()).build();
+        }
+        if (terms.length() > MAX_QUERY_LENGTH) {
+            terms = terms.substring(0, MAX_QUERY_LENGTH);
+        }
+
+        KeysetPagination.RankCursor after = KeysetPagination.decodeRank(cursor);
+        List<CourseSearchHit> hits = courseRepo.searchPublished(terms,
+                after == null ? Double.MAX_VALUE : after.rank(),
+                after == null ? 0L : after.id(),
+                KeysetPagination.normalizeLimit(limit) + 1);
+
+        return KeysetPagination.toPage(hits, limit, this::toResult,
+                hit -> KeysetPagination.encodeRank(hit.getRank(), hit.getCourseId()));
+    }
+
+    private CourseSearchResult toResult(CourseSearchHit hit) {
+        return CourseSearchResult.builder()
+                .courseId(hit.getCourseId())
+                .title(hit.getTitle())
+                .titleHighlight(hit.getTitleHighlight())
+                .descriptionHighlight(hit.getDescriptionHighlight())
+                .matchedLessonId(hit.getLessonId())
+                .matchedLessonTitle(hit.getLessonTitle())
+                .matchedLessonHighlight(hit.getLessonHighlight())
+                .score(hit.getRank())
+                .build();
+    }
+}
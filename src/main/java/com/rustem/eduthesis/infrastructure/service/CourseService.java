@@ -1,52 +1,57 @@
 package com.rustem.eduthesis.infrastructure.service;
 
+import com.rustem.eduthesis.api.dto.CoursePatchRequest;
 import com.rustem.eduthesis.api.dto.CourseRequest;
 import com.rustem.eduthesis.api.dto.CourseResponse;
+import com.rustem.eduthesis.api.dto.CursorPage;
+import com.rustem.eduthesis.api.dto.SimpleLessonDTO;
 import com.rustem.eduthesis.infrastructure.entity.CourseEntity;
 import com.rustem.eduthesis.infrastructure.entity.UserEntity;
 import com.rustem.eduthesis.infrastructure.exception.CourseNotFoundException;
-import com.rustem.eduthesis.infrastructure.exception.UserNotFoundException;
+import com.rustem.eduthesis.infrastructure.exception.PreconditionFailedException;
+import com.rustem.eduthesis.infrastructure.http.IfMatch;
+import com.rustem.eduthesis.infrastructure.http.ResourceVersion;
 import com.rustem.eduthesis.infrastructure.mapper.CourseMapper;
+import com.rustem.eduthesis.infrastructure.pagination.KeysetPagination;
 import com.rustem.eduthesis.infrastructure.repository.CourseRepository;
-import com.rustem.eduthesis.infrastructure.repository.UserRepository;
+import com.rustem.eduthesis.infrastructure.repository.LessonRepository;
+import com.rustem.eduthesis.infrastructure.repository.projection.CourseEnrollmentCount;
+import com.rustem.eduthesis.infrastructure.repository.projection.CourseVersion;
+import com.rustem.eduthesis.infrastructure.repository.projection.LessonSummary;
+import com.rustem.eduthesis.infrastructure.security.CourseOwnershipIndex;
 
 import lombok.RequiredArgsConstructor;
-import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
-import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
 public class CourseService {
 
     private final CourseRepository courseRepo;
-    private final UserRepository userRepo;
+    private final AuthenticationService authService;
+    private final LessonRepository lessonRepo;
     private final CourseMapper courseMapper;
+    private final CourseOwnershipIndex ownershipIndex;
 
     @Transactional(readOnly = true)
-    public List<CourseResponse> getAllCourses() {
-        return courseRepo.findAll().stream()
-                .map(courseMapper::toResponse)
-                .collect(Collectors.toList());
+    public CursorPage<CourseResponse> getAllCourses(String cursor, int limit) {
+        List<CourseEntity> courses = courseRepo.findWithInstructorAfter(
+                KeysetPagination.decodeId(cursor), KeysetPagination.probe(limit));
+        return toPage(courses, limit);
     }
 
     @Transactional(readOnly = true)
-    public List<CourseResponse> getAllPublishedCourses() {
-        // Fetch all published courses and create a new list to prevent concurrent modification
-        List<CourseEntity> publishedCourses = new ArrayList<>(courseRepo.findByPublishedTrue());
-
-        // Map to responses in a thread-safe way
-        return publishedCourses.stream()
-                .map(courseMapper::toResponse)
-                .collect(Collectors.toList());
+    public CursorPage<CourseResponse> getAllPublishedCourses(String cursor, int limit) {
+        List<CourseEntity> courses = courseRepo.findPublishedWithInstructorAfter(
+                KeysetPagination.decodeId(cursor), KeysetPagination.probe(limit));
+        return toPage(courses, limit);
     }
 
     @Transactional(readOnly = true)
@@ -56,6 +61,14 @@ public class CourseService {
         return courseMapper.toResponse(courseEntity);
     }
 
+    @Transactional(readOnly = true)
+    public ResourceVersion getPublishedCourseVersion(Long id) {
+        CourseVersion version = courseRepo.findVersionById(id)
+                .filter(CourseVersion::getPublished)
+                .orElseThrow(() -> new CourseNotFoundException("Published course not found with ID: " + id));
+        return toResourceVersion(version);
+    }
+
     @Transactional(readOnly = true)
     public CourseResponse getCourseById(Long id) {
         CourseEntity courseEntity = courseRepo.findById(id)
@@ -63,9 +76,16 @@ public class CourseService {
         return courseMapper.toResponse(courseEntity);
     }
 
+    @Transactional(readOnly = true)
+    public ResourceVersion getCourseVersion(Long id) {
+        CourseVersion version = courseRepo.findVersionById(id)
+                .orElseThrow(() -> new CourseNotFoundException("Course not found with ID: " + id));
+        return toResourceVersion(version);
+    }
+
     @Transactional
     public CourseResponse createCourse(CourseRequest courseRequest) {
-        UserEntity instructor = getCurrentUserEntity();
+        UserEntity instructor = authService.getCurrentUser();
 
         CourseEntity courseEntity = CourseEntity.builder()
                 .title(courseRequest.getTitle())
@@ -76,6 +96,7 @@ public class CourseService {
                 .build();
 
         CourseEntity savedCourseEntity = courseRepo.save(courseEntity);
+        ownershipIndex.register(savedCourseEntity.getId(), instructor.getId());
 
         CourseResponse courseResponse = courseMapper.toResponse(savedCourseEntity);
         courseResponse.setCreatedAt(LocalDateTime.now());
@@ -84,27 +105,46 @@ public class CourseService {
         return courseResponse;
     }
 
+    // A concurrent edit still fails on the @Version check
     @Transactional
-    public CourseResponse updateCourse(Long id, CourseRequest courseRequest) {
+    public CourseResponse updateCourse(Long id, CourseRequest courseRequest, Long expectedVersion) {
         CourseEntity courseEntity = courseRepo.findById(id)
                 .orElseThrow(() -> new CourseNotFoundException("Course not found with ID: " + id));
+        IfMatch.check(expectedVersion, courseEntity.getVersion());
 
         courseEntity.setTitle(courseRequest.getTitle());
         courseEntity.setDescription(courseRequest.getDescription());
         Optional.ofNullable(courseRequest.getImageUrl()).ifPresent(courseEntity::setImageUrl);
+        courseEntity.setUpdatedAt(LocalDateTime.now());
 
-        CourseEntity updatedCourse = courseRepo.save(courseEntity);
-        updatedCourse.setUpdatedAt(LocalDateTime.now());
+        // Flushed here so the response carries the incremented version
+        CourseEntity updatedCourse = courseRepo.saveAndFlush(courseEntity);
 
         return courseMapper.toResponse(updatedCourse);
     }
 
+    @Transactional
+    public CourseResponse patchCourse(Long id, CoursePatchRequest patch, Long expectedVersion) {
+        int updated = courseRepo.patch(id, patch.getTitle(), patch.getDescription(),
+                patch.isImageUrlPresent(), patch.getImageUrl(), expectedVersion);
+        if (updated == 0) {
+            if (!courseRepo.existsById(id)) throw new CourseNotFoundException("Course not found with ID: " + id);
+            throw new PreconditionFailedException("Course with ID: " + id + " was modified; its version is no longer "
+                    + IfMatch.tag(expectedVersion));
+        }
+
+        CourseEntity courseEntity = courseRepo.findById(id)
+                .orElseThrow(() -> new CourseNotFoundException("Course not found with ID: " + id));
+        return courseMapper.toResponse(courseEntity);
+    }
+
     @Transactional
     public void deleteCourse(Long id) {
         if (!courseRepo.existsById(id)) {
             throw new CourseNotFoundException("Course not found with ID: " + id);
         }
         courseRepo.deleteById(id);
+        ownershipIndex.evict(id);
     }
 
     @Transactional
@@ -118,9 +158,33 @@ public class CourseService {
         courseRepo.save(course);
     }
 
-    private UserEntity getCurrentUserEntity() {
-        UserDetails userDetails = (UserDetails) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
-        return userRepo.findByEmail(userDetails.getUsername())
-                .orElseThrow(() -> new UserNotFoundException("User not found with email: " + userDetails.getUsername()));
+    private CursorPage<CourseResponse> toPage(List<CourseEntity> rows, int limit) {
+        List<CourseEntity> courses = rows.subList(0, Math.min(rows.size(), KeysetPagination.normalizeLimit(limit)));
+        if (courses.isEmpty()) {
+            return CursorPage.<CourseResponse>builder().items(List.of()).build();
+        }
+
+        List<Long> courseIds = courses.stream()
+                .map(CourseEntity::getId)
+                .toList();
+
+        Map<Long, Long> enrollmentCounts = courseRepo.countEnrollmentsByCourseIds(courseIds).stream()
+                .collect(Collectors.toMap(CourseEnrollmentCount::getCourseId, CourseEnrollmentCount::getEnrollmentCount));
+
+        Map<Long, List<SimpleLessonDTO>> lessonsByCourse = lessonRepo.findSummariesByCourseIds(courseIds).stream()
+                .collect(Collectors.groupingBy(LessonSummary::getCourseId,
+                        Collectors.mapping(courseMapper::toLessonDto, Collectors.toList())));
+
+        return KeysetPagination.toPage(rows, limit,
+                course -> courseMapper.toResponse(
+                        course,
+                        lessonsByCourse.getOrDefault(course.getId(), List.of()),
+                        enrollmentCounts.getOrDefault(course.getId(), 0L).intValue()),
+                course -> KeysetPagination.encodeId(course.getId()));
+    }
+
+    // No Last-Modified: enrollments move the version but not updatedAt
+    private ResourceVersion toResourceVersion(CourseVersion version) {
+        return new ResourceVersion(IfMatch.tag(version.getVersion()), null, version.getPublished());
     }
 }
@@ -5,6 +5,7 @@ import com.rustem.eduthesis.infrastructure.entity.UserEntity;
 import com.rustem.eduthesis.infrastructure.exception.RoleNotFoundException;
 import com.rustem.eduthesis.infrastructure.repository.RoleRepository;
 import com.rustem.eduthesis.infrastructure.repository.UserRepository;
+import com.rustem.eduthesis.infrastructure.security.jwt.JwtTokenProvider;
 import com.rustem.eduthesis.infrastructure.security.oauth2.OAuth2UserInfo;
 import com.rustem.eduthesis.infrastructure.security.oauth2.OAuth2UserInfoFactory;
 import lombok.RequiredArgsConstructor;
@@ -22,6 +23,8 @@ import org.springframework.transaction.annotation.Transactional;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
 
@@ -61,7 +64,7 @@ public class CustomOAuth2UserService extends DefaultOAuth2UserService {
         else
             userEntity = registerNewUser(userInfo, providerName);
 
-        userRepo.save(userEntity);
+        userEntity = userRepo.save(userEntity);
 
         // Return the OAuth2User with the right attributes and authorities
         Collection<SimpleGrantedAuthority> authorities = new ArrayList<>();
@@ -69,9 +72,12 @@ public class CustomOAuth2UserService extends DefaultOAuth2UserService {
                 authorities.add(new SimpleGrantedAuthority("ROLE_" + role.getName()))
         );
 
+        Map<String, Object> attributes = new HashMap<>(oAuth2User.getAttributes());
+        attributes.put(JwtTokenProvider.USER_ID_CLAIM, userEntity.getId());
+
         return new DefaultOAuth2User(
                 authorities,
-                oAuth2User.getAttributes(),
+                attributes,
                 userInfo.getAttributeKey()
         );
     }
@@ -2,9 +2,9 @@ package com.rustem.eduthesis.infrastructure.service;
 
 import com.rustem.eduthesis.infrastructure.entity.UserEntity;
 import com.rustem.eduthesis.infrastructure.repository.UserRepository;
+import com.rustem.eduthesis.infrastructure.security.AuthenticatedUser;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
-import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
@@ -27,12 +27,11 @@ public class CustomUserDetailsService implements UserDetailsService {
                 .map(role -> new SimpleGrantedAuthority("ROLE_" + role.getName()))
                 .toList();
 
-        return new User(
+        return new AuthenticatedUser(
+                user.getId(),
                 user.getEmail(),
                 user.getPassword(),
                 user.isEnabled(),
-                true, // account not expired
-                true, // credentials not expired
                 !user.isLocked(),
                 authorities
         );
@@ -0,0 +1,63 @@
+package com.rustem.eduthesis.infrastructure.service;
+
+import com.rustem.eduthesis.infrastructure.writebehind.WriteBehindBuffer;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDateTime;
+
+// Batches enrollments.last_accessed_at updates, so progress requests never wait on the hot enrollment rows
+@Component
+public class EnrollmentAccessRecorder {
+
+    private static final String UPDATE_SQL = "UPDATE enrollments SET last_accessed_at = ? " +
+            "WHERE student_id = ? AND course_id = ? AND (last_accessed_at IS NULL OR last_accessed_at < ?)";
+
+    private final WriteBehindBuffer<AccessKey, LocalDateTime> buffer;
+
+    public EnrollmentAccessRecorder(JdbcTemplate jdbcTemplate,
+                                    MeterRegistry meterRegistry,
+                                    PlatformTransactionManager transactionManager,
+                                    TaskScheduler taskScheduler,
+                                    @Value("${enrollment.last-accessed.max-pending:50000}") int maxPending,
+                                    @Value("${enrollment.last-accessed.batch-size:500}") int batchSize) {
+        // The latest touch wins
+        this.buffer = new WriteBehindBuffer<>("enrollment.last_accessed", meterRegistry, transactionManager,
+                task -> taskScheduler.schedule(task, Instant.now()),
+                maxPending, batchSize, (buffered, touched) -> touched.isAfter(buffered) ? touched : buffered,
+                chunk -> jdbcTemplate.batchUpdate(UPDATE_SQL, chunk, batchSize, (ps, entry) -> {
+                    Timestamp accessedAt = Timestamp.valueOf(entry.getValue());
+                    ps.setTimestamp(1, accessedAt);
+                    ps.setLong(2, entry.getKey().studentId());
+                    ps.setLong(3, entry.getKey().courseId());
+                    ps.setTimestamp(4, accessedAt);
+                }));
+    }
+
+    public void touch(Long studentId, Long courseId) {
+        buffer.add(new AccessKey(studentId, courseId), LocalDateTime.now());
+    }
+
+    @Scheduled(
+            initialDelayString = "${enrollment.last-accessed.flush-interval:PT5S}",
+            fixedDelayString = "${enrollment.last-accessed.flush-interval:PT5S}")
+    public void flush() {
+        buffer.flush();
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    private record AccessKey(Long studentId, Long courseId) {
+    }
+}
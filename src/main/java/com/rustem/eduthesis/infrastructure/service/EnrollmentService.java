@@ -1,22 +1,35 @@
 package com.rustem.eduthesis.infrastructure.service;
 
+import com.rustem.eduthesis.api.dto.CursorPage;
+import com.rustem.eduthesis.api.dto.EnrollmentExportRecord;
 import com.rustem.eduthesis.api.dto.EnrollmentResponse;
+import com.rustem.eduthesis.api.dto.SimpleCourseDTO;
 import com.rustem.eduthesis.infrastructure.entity.CourseEntity;
 import com.rustem.eduthesis.infrastructure.entity.EnrollmentEntity;
-import com.rustem.eduthesis.infrastructure.entity.UserEntity;
 import com.rustem.eduthesis.infrastructure.exception.CourseNotFoundException;
 import com.rustem.eduthesis.infrastructure.exception.EnrollmentAlreadyExistsException;
 import com.rustem.eduthesis.infrastructure.exception.EnrollmentNotFoundException;
 import com.rustem.eduthesis.infrastructure.exception.NotStudentException;
+import com.rustem.eduthesis.infrastructure.export.NdjsonExporter;
+import com.rustem.eduthesis.infrastructure.mapper.CourseMapper;
 import com.rustem.eduthesis.infrastructure.mapper.EnrollmentMapper;
+import com.rustem.eduthesis.infrastructure.pagination.KeysetPagination;
 import com.rustem.eduthesis.infrastructure.repository.CourseRepository;
 import com.rustem.eduthesis.infrastructure.repository.EnrollmentRepository;
 import com.rustem.eduthesis.infrastructure.repository.ProgressRepository;
+import com.rustem.eduthesis.infrastructure.repository.projection.EnrollmentOutcome;
+import com.rustem.eduthesis.infrastructure.repository.projection.EnrollmentRow;
+import jakarta.persistence.EntityManagerFactory;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 
 @Service
 @RequiredArgsConstructor
@@ -26,71 +39,96 @@ public class EnrollmentService {
     private final ProgressRepository progressRepo;
     private final AuthenticationService authService;
     private final EnrollmentMapper mapper;
+    private final CourseMapper courseMapper;
+    private final NdjsonExporter exporter;
+    private final EntityManagerFactory entityManagerFactory;
 
     @Transactional
     public void enrollCurrentUserInCourse(Long courseId) {
-        UserEntity student = authService.getCurrentUser();
-        CourseEntity course = courseRepo.findById(courseId)
-                .orElseThrow(() -> new CourseNotFoundException("Course not found with ID: " + courseId));
-
-        boolean isStudent = student.getRoles().stream()
-                .anyMatch(role -> role.getName().equals("STUDENT"));
-
-        if (!isStudent) {
+        if (!authService.currentUserHasRole("STUDENT")) {
             throw new NotStudentException("Only students can enroll in courses");
         }
 
-        if (!course.isPublished()) {
+        EnrollmentOutcome outcome = enrollmentRepo.enrollIfPublished(
+                authService.getCurrentUserId(), courseId, LocalDateTime.now());
+
+        if (outcome == EnrollmentOutcome.COURSE_NOT_AVAILABLE) {
             throw new CourseNotFoundException("Course not found with ID: " + courseId);
         }
 
-        if (enrollmentRepo.existsByStudentIdAndCourseId(student.getId(), courseId)) {
+        if (outcome == EnrollmentOutcome.ALREADY_ENROLLED) {
             throw new EnrollmentAlreadyExistsException("Already enrolled in this course");
         }
-
-        EnrollmentEntity enrollment = EnrollmentEntity.builder()
-                .student(student)
-                .course(course)
-                .build();
-        enrollmentRepo.save(enrollment);
+        evictCourse(courseId);
     }
 
     @Transactional
     public void unenrollCurrentUserFromCourse(Long courseId) {
-        UserEntity student = authService.getCurrentUser();
+        Long studentId = authService.getCurrentUserId();
 
         if (!courseRepo.existsById(courseId)) {
             throw new CourseNotFoundException("Course not found with ID: " + courseId);
         }
 
-        EnrollmentEntity enrollment = enrollmentRepo.findByStudentIdAndCourseId(student.getId(), courseId)
+        EnrollmentEntity enrollment = enrollmentRepo.findByStudentIdAndCourseId(studentId, courseId)
                 .orElseThrow(() -> new EnrollmentNotFoundException("Not enrolled in this course"));
 
-        progressRepo.deleteByStudentIdAndCourseId(student.getId(), courseId);
+        progressRepo.deleteCourseProgressAndRollups(studentId, courseId);
 
         enrollmentRepo.delete(enrollment);
+        courseRepo.bumpVersion(courseId);
     }
 
     @Transactional(readOnly = true)
     public List<EnrollmentResponse> getEnrollmentsForCurrentUser() {
-        UserEntity student = authService.getCurrentUser();
-        List<EnrollmentEntity> enrollments = enrollmentRepo.findByStudentId(student.getId());
+        List<EnrollmentRow> rows = enrollmentRepo.findRowsByStudentId(authService.getCurrentUserId());
+        if (rows.isEmpty()) return List.of();
+
+        Map<Long, SimpleCourseDTO> courses = courseMapper.toCourseDtos(
+                courseRepo.findHeadersByIdIn(rows.stream().map(EnrollmentRow::getCourseId).toList()));
 
-        return enrollments.stream()
-                .map(mapper::toResponse)
+        return rows.stream()
+                .map(row -> mapper.toStudentEnrollment(row, courses.get(row.getCourseId())))
                 .toList();
     }
 
     @Transactional(readOnly = true)
-    public List<EnrollmentResponse> getEnrollmentsForCourse(Long courseId) {
+    public CursorPage<EnrollmentResponse> getEnrollmentsForCourse(Long courseId, String cursor, int limit) {
         if (!courseRepo.existsById(courseId)) {
             throw new CourseNotFoundException("Course not found with ID: " + courseId);
         }
 
-        List<EnrollmentEntity> enrollments = enrollmentRepo.findByCourseId(courseId);
+        KeysetPagination.TimestampCursor after = KeysetPagination.decodeTimestamp(cursor);
+        List<EnrollmentRow> rows = after == null
+                ? enrollmentRepo.findRowPageByCourseId(courseId, KeysetPagination.probe(limit))
+                : enrollmentRepo.findRowPageByCourseIdAfter(courseId, after.timestamp(), after.id(), KeysetPagination.probe(limit));
 
-        return enrollments.stream()
-                .map(mapper::toResponse)
-                .toList();
+        return KeysetPagination.toPage(rows, limit, mapper::toCourseEnrollment,
+                row -> KeysetPagination.encodeTimestamp(row.getEnrolledAt(), row.getId()));
+    }
+
+    @Transactional(readOnly = true)
+    public StreamingResponseBody exportEnrollmentsForCourse(Long courseId) {
+        CourseEntity course = courseRepo.findById(courseId)
+                .orElseThrow(() -> new CourseNotFoundException("Course not found with ID: " + courseId));
+
+        long totalLessons = course.getLessonCount();
+
+        return exporter.export(
+                () -> enrollmentRepo.streamExportRowsByCourseId(courseId),
+                row -> mapper.toExportRecord(row, totalLessons));
+    }
+
+    // Again after commit, so a concurrent read cannot cache the old version
+    private void evictCourse(Long courseId) {
+        entityManagerFactory.getCache().evict(CourseEntity.class, courseId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    entityManagerFactory.getCache().evict(CourseEntity.class, courseId);
+                }
+            });
+        }
     }
 }
@@ -0,0 +1,28 @@
+package com.rustem.eduthesis.infrastructure.service;
+
+// Sparse order keys GAP apart, so a move only rewrites the moved lesson's key
+public final class LessonOrderKeys {
+
+    public static final int GAP = 1024;
+
+    // Leaves int headroom for appends
+    static final long MAX_KEY = Integer.MAX_VALUE - GAP;
+
+    private LessonOrderKeys() {
+    }
+
+    public static int atPosition(int position) {
+        return position * GAP;
+    }
+
+    // null when there is no free key between the neighbours
+    public static Integer between(Integer before, Integer after) {
+        long low = before != null ? before : 0;
+        if (after == null) {
+            long key = low + GAP;
+            return key <= MAX_KEY ? (int) key : null;
+        }
+        long high = after;
+        return high - low >= 2 ? (int) (low + (high - low) / 2) : null;
+    }
+}
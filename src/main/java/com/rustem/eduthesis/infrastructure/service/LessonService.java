@@ -1,20 +1,35 @@
 package com.rustem.eduthesis.infrastructure.service;
 
+import com.rustem.eduthesis.api.dto.LessonPatchRequest;
 import com.rustem.eduthesis.api.dto.LessonRequest;
 import com.rustem.eduthesis.api.dto.LessonResponse;
 import com.rustem.eduthesis.infrastructure.entity.CourseEntity;
+import com.rustem.eduthesis.infrastructure.entity.LessonContentEntity;
 import com.rustem.eduthesis.infrastructure.entity.LessonEntity;
 import com.rustem.eduthesis.infrastructure.exception.CourseNotFoundException;
+import com.rustem.eduthesis.infrastructure.exception.InvalidLessonOrderException;
 import com.rustem.eduthesis.infrastructure.exception.LessonNotFoundException;
+import com.rustem.eduthesis.infrastructure.exception.LessonOrderConflictException;
+import com.rustem.eduthesis.infrastructure.exception.PreconditionFailedException;
+import com.rustem.eduthesis.infrastructure.http.IfMatch;
+import com.rustem.eduthesis.infrastructure.http.ResourceVersion;
 import com.rustem.eduthesis.infrastructure.mapper.LessonMapper;
 import com.rustem.eduthesis.infrastructure.repository.CourseRepository;
+import com.rustem.eduthesis.infrastructure.repository.EnrollmentRepository;
+import com.rustem.eduthesis.infrastructure.repository.LessonContentRepository;
 import com.rustem.eduthesis.infrastructure.repository.LessonRepository;
+import com.rustem.eduthesis.infrastructure.repository.projection.LessonContentVersion;
+import com.rustem.eduthesis.infrastructure.repository.projection.LessonListVersion;
+import com.rustem.eduthesis.infrastructure.repository.projection.LessonOrderKey;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
@@ -22,41 +37,77 @@ import java.util.stream.Collectors;
 public class LessonService {
 
     private final LessonRepository lessonRepo;
+    private final LessonContentRepository lessonContentRepo;
     private final CourseRepository courseRepo;
+    private final EnrollmentRepository enrollmentRepo;
     private final LessonMapper lessonMapper;
 
     @Transactional(readOnly = true)
     public List<LessonResponse> getLessonsForCourse(Long courseId) {
-        CourseEntity courseEntity = courseRepo.findById(courseId)
-                .orElseThrow(() -> new CourseNotFoundException("Course not found with ID: " + courseId));
-
-        List<LessonEntity> lessons = lessonRepo.findByCourseOrderByOrderIndexAsc(courseEntity);
+        // findById is answered by the course cache, existsById would always query
+        if (courseRepo.findById(courseId).isEmpty()) {
+            throw new CourseNotFoundException("Course not found with ID: " + courseId);
+        }
 
-        return lessons.stream()
+        return lessonRepo.findRowsByCourseId(courseId).stream()
                 .map(lessonMapper::toResponse)
                 .collect(Collectors.toList());
     }
 
+    @Transactional(readOnly = true)
+    public ResourceVersion getLessonsVersion(Long courseId) {
+        LessonListVersion version = lessonRepo.findListVersionByCourseId(courseId)
+                .orElseThrow(() -> new CourseNotFoundException("Course not found with ID: " + courseId));
+
+        // Deletions leave no lesson timestamp behind, only the course's updatedAt
+        LocalDateTime lastModified = version.getLessonsUpdatedAt();
+        if (lastModified == null || (version.getCourseUpdatedAt() != null && version.getCourseUpdatedAt().isAfter(lastModified))) {
+            lastModified = version.getCourseUpdatedAt();
+        }
+        return ResourceVersion.of("lessons", version.getPublished(), lastModified,
+                courseId, version.getLessonCount(), version.getLessonVersionSum(), version.getMaxLessonId());
+    }
+
     @Transactional(readOnly = true)
     public LessonResponse getLessonById(Long courseId, Long lessonId) {
         if (!courseRepo.existsById(courseId)) throw new CourseNotFoundException("Course not found with ID: " + courseId);
 
         LessonEntity lesson = lessonRepo.findByIdAndCourseId(lessonId, courseId)
                 .orElseThrow(() -> new LessonNotFoundException("Lesson not found with ID: " + lessonId + " for Course ID: " + courseId));
-        return lessonMapper.toResponse(lesson);
+        return lessonContentRepo.findById(lessonId)
+                .map(content -> lessonMapper.toResponse(lesson, content))
+                .orElseGet(() -> lessonMapper.toResponse(lesson));
+    }
+
+    @Transactional(readOnly = true)
+    public ResourceVersion getLessonContentVersion(Long courseId, Long lessonId) {
+        LessonContentVersion version = lessonRepo.findContentVersionByIdAndCourseId(lessonId, courseId)
+                .orElseThrow(() -> new LessonNotFoundException("Lesson not found with ID: " + lessonId + " for Course ID: " + courseId));
+
+        // Strong, as If-Range needs
+        return ResourceVersion.strong("lesson-content", version.getPublished(), version.getUpdatedAt(),
+                lessonId, version.getVersion());
+    }
+
+    // The whole body, also for range requests; PostgreSQL would detoast all of it for a substring anyway
+    @Transactional(readOnly = true)
+    public byte[] getLessonContent(Long courseId, Long lessonId) {
+        LessonContentEntity content = lessonContentRepo.findByLessonIdAndLesson_Course_Id(lessonId, courseId)
+                .orElseThrow(() -> new LessonNotFoundException("Lesson not found with ID: " + lessonId + " for Course ID: " + courseId));
+        return content.getContent() == null ? new byte[0] : content.getContent().getBytes(StandardCharsets.UTF_8);
     }
 
     @Transactional
     public LessonResponse createLesson(Long courseId, LessonRequest lessonRequest) {
+        lockLessonOrdering(courseId);
+        Integer orderIndex = lessonRequest.getOrderIndex() != null
+                ? claimOrderIndex(courseId, lessonRequest.getOrderIndex())
+                : appendOrderIndex(courseId);
+
+        // After the lock and a possible rebalance, which clears the persistence context
         CourseEntity courseEntity = courseRepo.findById(courseId)
                 .orElseThrow(() -> new CourseNotFoundException("Course not found with ID: " + courseId));
 
-        Integer maxOrderIndex = lessonRepo.findMaxOrderIndexByCourseId(courseId).orElse(0);
-
-        Integer orderIndex = lessonRequest.getOrderIndex() != null
-                ? lessonRequest.getOrderIndex()
-                : maxOrderIndex + 1;
-
         LessonEntity lesson = lessonMapper.toEntity(lessonRequest);
         lesson.setCourse(courseEntity);
         lesson.setOrderIndex(orderIndex);
@@ -64,25 +115,104 @@ public class LessonService {
         lesson.setUpdatedAt(LocalDateTime.now());
 
         LessonEntity savedLesson = lessonRepo.save(lesson);
-        return lessonMapper.toResponse(savedLesson);
+        LessonContentEntity content = lessonContentRepo.save(lessonMapper.toContent(savedLesson, lessonRequest));
+        courseRepo.adjustLessonCount(courseId, 1);
+        return lessonMapper.toResponse(savedLesson, content);
     }
 
+    // expectedVersion is the If-Match version, null for an unconditional edit
     @Transactional
-    public LessonResponse updateLesson(Long courseId, Long lessonId, LessonRequest lessonRequest) {
-        if (!courseRepo.existsById(courseId)) throw new CourseNotFoundException("Course not found with ID: " + courseId);
+    public LessonResponse updateLesson(Long courseId, Long lessonId, LessonRequest lessonRequest, Long expectedVersion) {
+        // Locks the course row before the lesson's, as the reorder endpoints do
+        if (courseRepo.bumpVersion(courseId) == 0) throw new CourseNotFoundException("Course not found with ID: " + courseId);
 
         LessonEntity lesson = lessonRepo.findByIdAndCourseId(lessonId, courseId)
                 .orElseThrow(() -> new LessonNotFoundException("Lesson not found with ID: " + lessonId + " for Course ID: " + courseId));
+        IfMatch.check(expectedVersion, lesson.getVersion());
 
         lesson.setTitle(lessonRequest.getTitle());
-        lesson.setContent(lessonRequest.getContent());
         lesson.setVideoUrl(lessonRequest.getVideoUrl());
         lesson.setDurationMinutes(lessonRequest.getDurationMinutes());
-        lesson.setOrderIndex(lessonRequest.getOrderIndex() != null ? lessonRequest.getOrderIndex() : lesson.getOrderIndex());
-        lesson.setAdditionalResources(lessonRequest.getAdditionalResources());
+        // Only a free key is taken; moving lessons is what the reorder endpoints are for
+        if (lessonRequest.getOrderIndex() != null && !lessonRequest.getOrderIndex().equals(lesson.getOrderIndex())) {
+            lockLessonOrdering(courseId);
+            lesson.setOrderIndex(claimOrderIndex(courseId, lessonRequest.getOrderIndex()));
+        }
+        // Also makes a body-only edit bump the version
         lesson.setUpdatedAt(LocalDateTime.now());
 
-        return lessonMapper.toResponse(lesson);
+        LessonContentEntity content = lessonContentRepo.findById(lessonId)
+                .orElseGet(() -> lessonMapper.toContent(lesson, lessonRequest));
+        content.setContent(lessonRequest.getContent());
+        content.setAdditionalResources(lessonRequest.getAdditionalResources());
+        lessonContentRepo.save(content);
+        // Flushed here so the response carries the incremented version
+        lessonRepo.saveAndFlush(lesson);
+
+        return lessonMapper.toResponse(lesson, content);
+    }
+
+    @Transactional
+    public LessonResponse patchLesson(Long courseId, Long lessonId, LessonPatchRequest patch, Long expectedVersion) {
+        if (courseRepo.bumpVersion(courseId) == 0) throw new CourseNotFoundException("Course not found with ID: " + courseId);
+        // The lesson row lock orders concurrent patches of the body
+        int updated = lessonRepo.patch(lessonId, courseId, patch.getTitle(), patch.isVideoUrlPresent(),
+                patch.getVideoUrl(), patch.getDurationMinutes(), expectedVersion);
+        if (updated == 0) {
+            if (!Boolean.TRUE.equals(lessonRepo.existsByIdAndCourseId(lessonId, courseId))) {
+                throw new LessonNotFoundException("Lesson not found with ID: " + lessonId + " for Course ID: " + courseId);
+            }
+            throw new PreconditionFailedException("Lesson with ID: " + lessonId + " was modified; its version is no longer "
+                    + IfMatch.tag(expectedVersion));
+        }
+        if (patch.getContent() != null || patch.isAdditionalResourcesPresent()) {
+            lessonContentRepo.patch(lessonId, patch.getContent(), patch.isAdditionalResourcesPresent(),
+                    patch.getAdditionalResources());
+        }
+        return getLessonById(courseId, lessonId);
+    }
+
+    // Takes the midpoint of the new neighbours' keys, rebalancing first only when they are adjacent
+    @Transactional
+    public List<LessonResponse> moveLesson(Long courseId, Long lessonId, int position) {
+        lockLessonOrdering(courseId);
+
+        List<LessonOrderKey> keys = lessonRepo.findOrderKeysByCourseId(courseId);
+        LessonOrderKey moved = keys.stream()
+                .filter(key -> key.getId().equals(lessonId))
+                .findFirst()
+                .orElseThrow(() -> new LessonNotFoundException("Lesson not found with ID: " + lessonId + " for Course ID: " + courseId));
+
+        int target = Math.min(position, keys.size()) - 1;
+        if (keys.indexOf(moved) != target) {
+            Integer orderIndex = keyAt(keys, lessonId, target);
+            if (orderIndex == null) {
+                lessonRepo.rebalanceOrder(courseId, LessonOrderKeys.GAP);
+                orderIndex = keyAt(lessonRepo.findOrderKeysByCourseId(courseId), lessonId, target);
+            }
+            lessonRepo.updateOrderIndex(lessonId, orderIndex);
+            courseRepo.bumpVersion(courseId);
+        }
+        return getLessonsForCourse(courseId);
+    }
+
+    // lessonIds has to list every lesson of the course exactly once
+    @Transactional
+    public List<LessonResponse> reorderLessons(Long courseId, List<Long> lessonIds) {
+        lockLessonOrdering(courseId);
+
+        Set<Long> current = lessonRepo.findOrderKeysByCourseId(courseId).stream()
+                .map(LessonOrderKey::getId)
+                .collect(Collectors.toSet());
+        if (lessonIds.size() != current.size() || !current.equals(new HashSet<>(lessonIds))) {
+            throw new InvalidLessonOrderException("Lesson order must list each of the " + current.size()
+                    + " lessons of Course ID: " + courseId + " exactly once");
+        }
+
+        if (lessonRepo.applyOrder(courseId, lessonIds.toArray(Long[]::new), LessonOrderKeys.GAP) > 0) {
+            courseRepo.bumpVersion(courseId);
+        }
+        return getLessonsForCourse(courseId);
     }
 
     @Transactional
@@ -91,6 +221,39 @@ public class LessonService {
 
         LessonEntity lesson = lessonRepo.findByIdAndCourseId(lessonId, courseId)
                 .orElseThrow(() -> new LessonNotFoundException("Lesson not found with ID: " + lessonId + " for Course ID: " + courseId));
+
+        // Its progress rows go away with it
+        enrollmentRepo.decrementCompletedLessonsForLesson(courseId, lessonId);
+        courseRepo.adjustLessonCount(courseId, -1);
         lessonRepo.delete(lesson);
     }
+
+    private void lockLessonOrdering(Long courseId) {
+        courseRepo.lockForLessonOrdering(courseId)
+                .orElseThrow(() -> new CourseNotFoundException("Course not found with ID: " + courseId));
+    }
+
+    private Integer claimOrderIndex(Long courseId, Integer orderIndex) {
+        if (Boolean.TRUE.equals(lessonRepo.existsByCourseIdAndOrderIndex(courseId, orderIndex))) {
+            throw new LessonOrderConflictException("Order index " + orderIndex + " is already taken in Course ID: " + courseId);
+        }
+        return orderIndex;
+    }
+
+    private Integer appendOrderIndex(Long courseId) {
+        Integer orderIndex = LessonOrderKeys.between(lessonRepo.findMaxOrderIndexByCourseId(courseId).orElse(null), null);
+        if (orderIndex == null) {
+            lessonRepo.rebalanceOrder(courseId, LessonOrderKeys.GAP);
+            orderIndex = LessonOrderKeys.between(lessonRepo.findMaxOrderIndexByCourseId(courseId).orElse(null), null);
+        }
+        return orderIndex;
+    }
+
+    // null when the new neighbours are adjacent
+    private static Integer keyAt(List<LessonOrderKey> keys, Long lessonId, int target) {
+        List<LessonOrderKey> siblings = keys.stream().filter(key -> !key.getId().equals(lessonId)).toList();
+        Integer before = target > 0 ? siblings.get(target - 1).getOrderIndex() : null;
+        Integer after = target < siblings.size() ? siblings.get(target).getOrderIndex() : null;
+        return LessonOrderKeys.between(before, after);
+    }
 }
@@ -0,0 +1,63 @@
+package com.rustem.eduthesis.infrastructure.service;
+
+import com.rustem.eduthesis.infrastructure.repository.CourseRepository;
+import com.rustem.eduthesis.infrastructure.repository.EnrollmentRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.function.LongSupplier;
+
+@Slf4j
+@Component
+public class ProgressCounterReconciler {
+
+    @FunctionalInterface
+    private interface RangeRepair {
+        int repair(long fromId, long toId);
+    }
+
+    private final CourseRepository courseRepo;
+    private final EnrollmentRepository enrollmentRepo;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+
+    public ProgressCounterReconciler(CourseRepository courseRepo,
+                                     EnrollmentRepository enrollmentRepo,
+                                     PlatformTransactionManager transactionManager,
+                                     @Value("${progress.counters.reconcile-batch-size:1000}") int batchSize) {
+        this.courseRepo = courseRepo;
+        this.enrollmentRepo = enrollmentRepo;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+    }
+
+    // Only rewrites counters that drifted; each id range commits on its own
+    @Scheduled(
+            initialDelayString = "${progress.counters.reconcile-initial-delay:PT1M}",
+            fixedDelayString = "${progress.counters.reconcile-interval:PT6H}")
+    public void reconcile() {
+        int courses = inBatches(courseRepo::findMaxId, courseRepo::reconcileLessonCounts);
+        int enrollments = inBatches(enrollmentRepo::findMaxId, enrollmentRepo::reconcileCompletedLessons);
+
+        if (courses > 0 || enrollments > 0) {
+            log.warn("Repaired progress counter drift: {} course(s), {} enrollment(s)", courses, enrollments);
+        } else {
+            log.debug("Progress counters are consistent");
+        }
+    }
+
+    private int inBatches(LongSupplier maxId, RangeRepair repair) {
+        long lastId = maxId.getAsLong();
+        int repaired = 0;
+        for (long fromId = 1; fromId <= lastId; fromId += batchSize) {
+            long from = fromId;
+            Integer rows = transactionTemplate.execute(status -> repair.repair(from, from + batchSize));
+            repaired += rows == null ? 0 : rows;
+        }
+        return repaired;
+    }
+}
@@ -1,16 +1,26 @@
 package com.rustem.eduthesis.infrastructure.service;
 
+import com.rustem.eduthesis.api.dto.CursorPage;
+import com.rustem.eduthesis.api.dto.LessonCompletionRequest;
+import com.rustem.eduthesis.api.dto.LessonCompletionResult;
 import com.rustem.eduthesis.api.dto.ProgressResponse;
 import com.rustem.eduthesis.infrastructure.entity.*;
 import com.rustem.eduthesis.infrastructure.exception.*;
+import com.rustem.eduthesis.infrastructure.export.NdjsonExporter;
+import com.rustem.eduthesis.infrastructure.mapper.CourseMapper;
 import com.rustem.eduthesis.infrastructure.mapper.ProgressMapper;
+import com.rustem.eduthesis.infrastructure.pagination.KeysetPagination;
 import com.rustem.eduthesis.infrastructure.repository.*;
+import com.rustem.eduthesis.infrastructure.repository.projection.LessonCourseRef;
+import com.rustem.eduthesis.infrastructure.repository.projection.ProgressRow;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.time.LocalDateTime;
-import java.util.List;
+import java.util.*;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -21,7 +31,11 @@ public class ProgressService {
     private final CourseRepository courseRepo;
     private final UserRepository userRepo;
     private final ProgressMapper mapper;
+    private final CourseMapper courseMapper;
     private final AuthenticationService authService;
+    private final NdjsonExporter exporter;
+    private final EnrollmentAccessRecorder accessRecorder;
+    private final CourseAnalyticsRecorder analyticsRecorder;
 
     @Transactional
     public void markLessonAsCompleted(Long lessonId) {
@@ -32,9 +46,10 @@ public class ProgressService {
 
         CourseEntity course = lesson.getCourse();
 
-        EnrollmentEntity enrollment = enrollmentRepo.findByStudentIdAndCourseId(student.getId(), course.getId())
-                .orElseThrow(() -> new EnrollmentNotFoundException("Enrollment not found"));
-        enrollment.setLastAccessedAt(LocalDateTime.now());
+        if (!enrollmentRepo.existsByStudentIdAndCourseId(student.getId(), course.getId())) {
+            throw new EnrollmentNotFoundException("Enrollment not found");
+        }
+        accessRecorder.touch(student.getId(), course.getId());
 
         ProgressEntity progress = progressRepo
                 .findByStudentIdAndLessonId(student.getId(), lessonId)
@@ -47,40 +62,96 @@ public class ProgressService {
             progress.setCompleted(true);
             progress.setCompletedAt(LocalDateTime.now());
             progressRepo.save(progress);
+            enrollmentRepo.incrementCompletedLessons(student.getId(), course.getId());
+            analyticsRecorder.recordCompletion(student.getId(), lessonId);
         }
     }
 
-    @Transactional(readOnly = true)
-    public List<ProgressResponse> getProgressForCurrentStudent() {
-        UserEntity student = authService.getCurrentUser();
+    // One enrollment check per course and one upsert for the batch
+    @Transactional
+    public List<LessonCompletionResult> markLessonsAsCompleted(List<LessonCompletionRequest> completions) {
+        Long studentId = authService.getCurrentUserId();
+        LocalDateTime now = LocalDateTime.now();
+
+        // First occurrence wins; future client times are clamped
+        Map<Long, LocalDateTime> completedAtByLesson = new LinkedHashMap<>();
+        for (LessonCompletionRequest completion : completions) {
+            LocalDateTime completedAt = completion.getCompletedAt();
+            if (completedAt == null || completedAt.isAfter(now)) completedAt = now;
+            completedAtByLesson.putIfAbsent(completion.getLessonId(), completedAt);
+        }
 
-        boolean isStudent = student.getRoles().stream()
-                .anyMatch(role -> role.getName().equals("STUDENT"));
+        Map<Long, Long> courseByLesson = lessonRepo.findCourseRefsByIdIn(completedAtByLesson.keySet()).stream()
+                .collect(Collectors.toMap(LessonCourseRef::getId, LessonCourseRef::getCourseId));
+        Set<Long> enrolledCourseIds = courseByLesson.isEmpty()
+                ? Set.of()
+                : new HashSet<>(enrollmentRepo.findEnrolledCourseIds(studentId, new HashSet<>(courseByLesson.values())));
+
+        List<Long> lessonIds = new ArrayList<>();
+        List<Long> courseIds = new ArrayList<>();
+        List<LocalDateTime> completedAts = new ArrayList<>();
+        completedAtByLesson.forEach((lessonId, completedAt) -> {
+            Long courseId = courseByLesson.get(lessonId);
+            if (courseId != null && enrolledCourseIds.contains(courseId)) {
+                lessonIds.add(lessonId);
+                courseIds.add(courseId);
+                completedAts.add(completedAt);
+            }
+        });
+
+        Set<Long> newlyCompleted = Set.of();
+        if (!lessonIds.isEmpty()) {
+            newlyCompleted = new HashSet<>(progressRepo.upsertCompleted(studentId,
+                    lessonIds.toArray(Long[]::new),
+                    courseIds.toArray(Long[]::new),
+                    completedAts.toArray(LocalDateTime[]::new)));
+            enrollmentRepo.refreshCompletedLessons(studentId, enrolledCourseIds, now);
+            for (Long lessonId : newlyCompleted) {
+                analyticsRecorder.recordCompletion(studentId, lessonId);
+            }
+        }
 
-        if (!isStudent) throw new RoleNotFoundException("Only students can track own progress");
+        List<LessonCompletionResult> results = new ArrayList<>(completedAtByLesson.size());
+        for (Long lessonId : completedAtByLesson.keySet()) {
+            Long courseId = courseByLesson.get(lessonId);
+            LessonCompletionResult.Status status;
+            if (courseId == null) status = LessonCompletionResult.Status.LESSON_NOT_FOUND;
+            else if (!enrolledCourseIds.contains(courseId)) status = LessonCompletionResult.Status.NOT_ENROLLED;
+            else if (newlyCompleted.contains(lessonId)) status = LessonCompletionResult.Status.COMPLETED;
+            else status = LessonCompletionResult.Status.ALREADY_COMPLETED;
+            results.add(new LessonCompletionResult(lessonId, status));
+        }
+        return results;
+    }
 
-        List<ProgressEntity> progressList = progressRepo.findByStudentId(student.getId());
+    @Transactional(readOnly = true)
+    public CursorPage<ProgressResponse> getProgressForCurrentStudent(String cursor, int limit) {
+        if (!authService.currentUserHasRole("STUDENT")) throw new RoleNotFoundException("Only students can track own progress");
 
-        return progressList.stream()
-                .map(mapper::toResponse)
-                .toList();
+        List<ProgressRow> rows = progressRepo.findRowPageByStudentIdAfter(
+                authService.getCurrentUserId(), KeysetPagination.decodeId(cursor), KeysetPagination.probe(limit));
+
+        CursorPage<ProgressResponse> page = KeysetPagination.toPage(rows, limit, mapper::toResponse,
+                row -> KeysetPagination.encodeId(row.getId()));
+
+        Set<Long> courseIds = page.getItems().stream().map(ProgressResponse::getCourseId).collect(Collectors.toSet());
+        if (!courseIds.isEmpty()) page.setCourses(courseMapper.toCourseDtos(courseRepo.findHeadersByIdIn(courseIds)));
+        return page;
     }
 
     @Transactional(readOnly = true)
     public List<ProgressResponse> getProgressForCourse(Long courseId) {
-        UserEntity student = authService.getCurrentUser();
+        Long studentId = authService.getCurrentUserId();
 
         if (!courseRepo.existsById(courseId)) {
             throw new CourseNotFoundException("Course not found with ID: " + courseId);
         }
 
-        if (!enrollmentRepo.existsByStudentIdAndCourseId(student.getId(), courseId)) {
+        if (!enrollmentRepo.existsByStudentIdAndCourseId(studentId, courseId)) {
             throw new EnrollmentNotFoundException("You must be enrolled in the course to track progress");
         }
 
-        List<ProgressEntity> progressList = progressRepo.findByStudentIdAndCourseId(student.getId(), courseId);
-
-        return progressList.stream()
+        return progressRepo.findRowsByStudentIdAndCourseId(studentId, courseId).stream()
                 .map(mapper::toResponse)
                 .toList();
     }
@@ -95,10 +166,17 @@ public class ProgressService {
             throw new EnrollmentNotFoundException("Student is not enrolled in the course");
         }
 
-        List<ProgressEntity> progressList = progressRepo.findByStudentIdAndCourseId(studentId, courseId);
-
-        return progressList.stream()
+        return progressRepo.findRowsByStudentIdAndCourseId(studentId, courseId).stream()
                 .map(mapper::toResponse)
                 .toList();
     }
+
+    @Transactional(readOnly = true)
+    public StreamingResponseBody exportProgressForCourse(Long courseId) {
+        if (!courseRepo.existsById(courseId)) throw new CourseNotFoundException("Course not found with ID: " + courseId);
+
+        return exporter.export(
+                () -> progressRepo.streamExportRowsByCourseId(courseId),
+                mapper::toExportRecord);
+    }
 }
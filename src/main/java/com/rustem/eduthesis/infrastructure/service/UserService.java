@@ -5,15 +5,18 @@ import com.rustem.eduthesis.api.dto.UserResponse;
 import com.rustem.eduthesis.infrastructure.entity.UserEntity;
 import com.rustem.eduthesis.infrastructure.exception.UserNotFoundException;
 import com.rustem.eduthesis.infrastructure.mapper.UserMapper;
+import com.rustem.eduthesis.infrastructure.repository.CourseRepository;
 import com.rustem.eduthesis.infrastructure.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 @Service
 @RequiredArgsConstructor
 public class UserService {
 
     private final UserRepository userRepository;
+    private final CourseRepository courseRepository;
     private final AuthenticationService authService;
     private final UserMapper mapper;
 
@@ -33,6 +36,7 @@ public class UserService {
         return mapper.toResponse(user);
     }
 
+    @Transactional
     public UserResponse updateCurrentUserProfile(UserRequest userRequest) {
         UserEntity currentUser = authService.getCurrentUser();
         if (currentUser == null) {
@@ -45,6 +49,8 @@ public class UserService {
 
         // Save the updated user
         UserEntity updatedUser = userRepository.save(currentUser);
+        // The instructor's name is part of their course responses
+        courseRepository.bumpVersionsByInstructorId(updatedUser.getId());
 
         return mapper.toResponse(updatedUser);
     }
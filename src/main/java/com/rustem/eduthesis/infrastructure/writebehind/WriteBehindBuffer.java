@@ -0,0 +1,114 @@
+package com.rustem.eduthesis.infrastructure.writebehind;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BinaryOperator;
+
+// Coalesces values per key in memory; a full buffer drops new keys until flushExecutor has drained it
+@Slf4j
+public class WriteBehindBuffer<K, V> {
+
+    @FunctionalInterface
+    public interface ChunkWriter<K, V> {
+        void write(List<Map.Entry<K, V>> chunk);
+    }
+
+    private final String name;
+    private final int maxPending;
+    private final int chunkSize;
+    private final BinaryOperator<V> merge;
+    private final ChunkWriter<K, V> writer;
+    private final TransactionTemplate transactionTemplate;
+    private final Executor flushExecutor;
+    private final AtomicBoolean flushRequested = new AtomicBoolean();
+    private final Map<K, V> pending = new ConcurrentHashMap<>();
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private final Timer flushTimer;
+    private final Counter droppedCounter;
+    private final Counter failedCounter;
+
+    // merge(buffered, added) also applies when a failed chunk is put back
+    public WriteBehindBuffer(String name, MeterRegistry meterRegistry, PlatformTransactionManager transactionManager,
+                             Executor flushExecutor, int maxPending, int chunkSize, BinaryOperator<V> merge,
+                             ChunkWriter<K, V> writer) {
+        this.name = name;
+        this.maxPending = maxPending;
+        this.chunkSize = chunkSize;
+        this.merge = merge;
+        this.writer = writer;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.flushExecutor = flushExecutor;
+        Gauge.builder(name + ".pending", pending, Map::size)
+                .description("Entries waiting to be written behind")
+                .register(meterRegistry);
+        this.flushTimer = Timer.builder(name + ".flush")
+                .description("Time spent writing one chunk of buffered entries")
+                .register(meterRegistry);
+        this.droppedCounter = Counter.builder(name + ".dropped")
+                .description("Entries dropped because the buffer was full")
+                .register(meterRegistry);
+        this.failedCounter = Counter.builder(name + ".flush.failures")
+                .register(meterRegistry);
+    }
+
+    public void add(K key, V value) {
+        if (pending.size() >= maxPending && !pending.containsKey(key)) {
+            droppedCounter.increment();
+            if (flushRequested.compareAndSet(false, true)) {
+                try {
+                    flushExecutor.execute(this::flush);
+                } catch (RejectedExecutionException e) {
+                    flushRequested.set(false);
+                    log.warn("Could not request a flush of the full {} buffer", name, e);
+                }
+            }
+            return;
+        }
+        pending.merge(key, value, merge);
+    }
+
+    public void flush() {
+        flushLock.lock();
+        try {
+            flushRequested.set(false);
+            if (pending.isEmpty()) return;
+
+            List<Map.Entry<K, V>> drained = new ArrayList<>(pending.size());
+            for (K key : pending.keySet()) {
+                V value = pending.remove(key);
+                if (value != null) drained.add(Map.entry(key, value));
+            }
+
+            for (int from = 0; from < drained.size(); from += chunkSize) {
+                List<Map.Entry<K, V>> chunk = drained.subList(from, Math.min(from + chunkSize, drained.size()));
+                try {
+                    flushTimer.record(() -> transactionTemplate.executeWithoutResult(status -> writer.write(chunk)));
+                } catch (DataAccessException | TransactionException e) {
+                    failedCounter.increment();
+                    chunk.forEach(entry -> pending.merge(entry.getKey(), entry.getValue(), merge));
+                    log.warn("Failed to write {} buffered {} entries, will retry", chunk.size(), name, e);
+                }
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+}
@@ -0,0 +1,8 @@
+-- Search headlines are HTML: ts_headline only adds <mark> around matches and copies the rest of the text as is,
+-- so the stored text is escaped first and <mark> stays the only markup in a highlight
+CREATE FUNCTION html_escape(input TEXT) RETURNS TEXT
+    LANGUAGE SQL IMMUTABLE STRICT PARALLEL SAFE
+AS $$
+    SELECT replace(replace(replace(replace(replace(input,
+        '&', '&amp;'), '<', '&lt;'), '>', '&gt;'), '"', '&quot;'), '''', '&#39;')
+$$;
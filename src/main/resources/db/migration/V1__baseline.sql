@@ -0,0 +1,108 @@
+-- Baseline schema, taken from the former db/schema.sql and aligned with the entity mappings.
+-- Courses, lessons and users draw ids from pooled sequences (allocationSize = 50), so the sequences step by 50.
+-- Enrollments and progress keep identity columns: their native upserts rely on the column default.
+
+CREATE SEQUENCE users_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE courses_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE lessons_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE roles (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    name VARCHAR(50) NOT NULL UNIQUE
+);
+
+CREATE TABLE users (
+    id BIGINT PRIMARY KEY,
+    email VARCHAR(100) NOT NULL UNIQUE,
+    password VARCHAR(255) NOT NULL,
+    first_name VARCHAR(100) NOT NULL,
+    last_name VARCHAR(100) NOT NULL,
+    enabled BOOLEAN NOT NULL DEFAULT TRUE,
+    locked BOOLEAN NOT NULL DEFAULT FALSE,
+    provider VARCHAR(50) DEFAULT 'local',
+    provider_id VARCHAR(255),
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP
+);
+
+CREATE TABLE user_roles (
+    user_id BIGINT NOT NULL,
+    role_id BIGINT NOT NULL,
+    PRIMARY KEY (user_id, role_id),
+    FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE,
+    FOREIGN KEY (role_id) REFERENCES roles(id) ON DELETE CASCADE
+);
+
+CREATE TABLE courses (
+    id BIGINT PRIMARY KEY,
+    title VARCHAR(255) NOT NULL,
+    description TEXT,
+    image_url TEXT,
+    instructor_id BIGINT NOT NULL,
+    published BOOLEAN NOT NULL DEFAULT FALSE,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP,
+    published_at TIMESTAMP,
+    lesson_count INTEGER NOT NULL DEFAULT 0,
+    FOREIGN KEY (instructor_id) REFERENCES users(id) ON DELETE CASCADE
+);
+
+CREATE TABLE lessons (
+    id BIGINT PRIMARY KEY,
+    title VARCHAR(255) NOT NULL,
+    content TEXT,
+    video_url TEXT,
+    order_index INTEGER NOT NULL,
+    published BOOLEAN NOT NULL DEFAULT FALSE,
+    duration_minutes INTEGER,
+    additional_resources TEXT,
+    course_id BIGINT NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP,
+    FOREIGN KEY (course_id) REFERENCES courses(id) ON DELETE CASCADE
+);
+
+CREATE TABLE enrollments (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    student_id BIGINT NOT NULL,
+    course_id BIGINT NOT NULL,
+    enrolled_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    completed_at TIMESTAMP,
+    last_accessed_at TIMESTAMP,
+    active BOOLEAN NOT NULL DEFAULT TRUE,
+    completed_lessons INTEGER NOT NULL DEFAULT 0,
+    FOREIGN KEY (student_id) REFERENCES users(id) ON DELETE CASCADE,
+    FOREIGN KEY (course_id) REFERENCES courses(id) ON DELETE CASCADE,
+    UNIQUE (student_id, course_id)
+);
+
+CREATE TABLE progress (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    student_id BIGINT NOT NULL,
+    course_id BIGINT NOT NULL,
+    lesson_id BIGINT NOT NULL,
+    completed BOOLEAN NOT NULL DEFAULT FALSE,
+    completed_at TIMESTAMP,
+    FOREIGN KEY (student_id) REFERENCES users(id) ON DELETE CASCADE,
+    FOREIGN KEY (course_id) REFERENCES courses(id) ON DELETE CASCADE,
+    FOREIGN KEY (lesson_id) REFERENCES lessons(id) ON DELETE CASCADE,
+    UNIQUE (student_id, lesson_id)
+);
+
+CREATE INDEX idx_users_email ON users(email);
+CREATE INDEX idx_courses_instructor ON courses(instructor_id);
+CREATE INDEX idx_lessons_course ON lessons(course_id);
+CREATE INDEX idx_enrollments_student ON enrollments(student_id);
+CREATE INDEX idx_enrollments_course ON enrollments(course_id);
+CREATE INDEX idx_progress_student ON progress(student_id);
+CREATE INDEX idx_progress_course ON progress(course_id);
+CREATE INDEX idx_progress_lesson ON progress(lesson_id);
+
+INSERT INTO roles (name) VALUES ('STUDENT'), ('INSTRUCTOR'), ('ADMIN');
+
+INSERT INTO users (id, email, password, first_name, last_name, enabled, locked, created_at)
+VALUES (nextval('users_seq'), 'admin@edu.com', '$2a$12$zzTf3uPsNOfRtV1yE1fldeXzkCjiLsfC/4Oi1JrK2ySObV5bPhEYe',
+        'Admin', 'User', TRUE, FALSE, CURRENT_TIMESTAMP);
+
+INSERT INTO user_roles (user_id, role_id)
+SELECT u.id, r.id FROM users u, roles r WHERE u.email = 'admin@edu.com' AND r.name = 'ADMIN';
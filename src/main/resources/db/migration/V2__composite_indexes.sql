@@ -0,0 +1,35 @@
+-- Built CONCURRENTLY so existing tables stay writable; Flyway runs this migration outside a transaction.
+-- A failed build leaves an INVALID index that IF NOT EXISTS would keep, so a retry drops those first.
+DO $$
+DECLARE
+    idx TEXT;
+BEGIN
+    FOR idx IN
+        SELECT c.relname FROM pg_index i JOIN pg_class c ON c.oid = i.indexrelid
+        WHERE NOT i.indisvalid AND c.relname IN ('idx_progress_student_course_completed', 'idx_lessons_course_order',
+                                                 'idx_courses_published_id', 'idx_enrollments_course_enrolled_at')
+    LOOP
+        EXECUTE format('DROP INDEX %I', idx);
+    END LOOP;
+END $$;
+
+-- Completed-lesson counts per student and course, and per-course progress listings
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_progress_student_course_completed
+    ON progress(student_id, course_id, completed);
+
+-- Ordered lesson lists, max(order_index) and order_index lookups within a course
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_lessons_course_order
+    ON lessons(course_id, order_index);
+
+-- Published catalog pages: published = true AND id > :afterId ORDER BY id
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_courses_published_id
+    ON courses(published, id);
+
+-- Course roster, paged by (enrolled_at, id)
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_enrollments_course_enrolled_at
+    ON enrollments(course_id, enrolled_at, id);
+
+-- Single-column indexes that are now a prefix of one of the composites above
+DROP INDEX CONCURRENTLY IF EXISTS idx_progress_student;
+DROP INDEX CONCURRENTLY IF EXISTS idx_lessons_course;
+DROP INDEX CONCURRENTLY IF EXISTS idx_enrollments_course;
@@ -0,0 +1,17 @@
+-- Databases that predate the migrations were baselined at V1. Their courses, lessons and users ids came from
+-- identity columns, so the pooled sequences may be missing or behind max(id). Hibernate's pooled optimizer hands
+-- out the block (value - 49, value] for every nextval, so setting the sequence to max(id) is enough.
+-- On a database created by V1 this is a no-op.
+
+CREATE SEQUENCE IF NOT EXISTS users_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS courses_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS lessons_seq START WITH 1 INCREMENT BY 50;
+
+SELECT setval('users_seq', max_id) FROM (SELECT max(id) AS max_id FROM users) t
+WHERE max_id >= (SELECT last_value FROM users_seq);
+
+SELECT setval('courses_seq', max_id) FROM (SELECT max(id) AS max_id FROM courses) t
+WHERE max_id >= (SELECT last_value FROM courses_seq);
+
+SELECT setval('lessons_seq', max_id) FROM (SELECT max(id) AS max_id FROM lessons) t
+WHERE max_id >= (SELECT last_value FROM lessons_seq);
@@ -0,0 +1,17 @@
+-- Full-text search over the catalog. The tsvector columns are generated, so PostgreSQL recomputes them on
+-- every insert and update, whichever path writes the row (services, bulk import, native SQL), and the GIN
+-- indexes pick the change up incrementally. Unmapped in JPA; only the native search query reads them.
+-- Adding a stored generated column rewrites the table under an exclusive lock.
+
+ALTER TABLE courses ADD COLUMN search_vector tsvector GENERATED ALWAYS AS (
+    setweight(to_tsvector('english', coalesce(title, '')), 'A') ||
+    setweight(to_tsvector('english', coalesce(description, '')), 'B')
+) STORED;
+
+ALTER TABLE lessons ADD COLUMN search_vector tsvector GENERATED ALWAYS AS (
+    setweight(to_tsvector('english', coalesce(title, '')), 'A') ||
+    setweight(to_tsvector('english', coalesce(content, '')), 'C')
+) STORED;
+
+CREATE INDEX idx_courses_search ON courses USING GIN (search_vector);
+CREATE INDEX idx_lessons_search ON lessons USING GIN (search_vector);
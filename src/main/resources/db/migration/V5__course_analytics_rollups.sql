@@ -0,0 +1,67 @@
+-- Instructor analytics rollups, maintained incrementally from lesson completions (CourseAnalyticsRecorder)
+-- so the dashboard reads O(lessons) rows instead of scanning progress.
+
+-- Per lesson: how many completions, and when the first and latest happened
+CREATE TABLE lesson_completion_stats (
+    lesson_id BIGINT PRIMARY KEY REFERENCES lessons(id) ON DELETE CASCADE,
+    course_id BIGINT NOT NULL REFERENCES courses(id) ON DELETE CASCADE,
+    completions BIGINT NOT NULL DEFAULT 0,
+    first_completed_at TIMESTAMP,
+    last_completed_at TIMESTAMP
+);
+
+CREATE INDEX idx_lesson_completion_stats_course ON lesson_completion_stats(course_id);
+
+-- Per lesson: completions bucketed by hours from enrollment, on a half-power-of-two scale
+-- (bucket b holds 2^(b/2) - 1 <= hours < 2^((b+1)/2) - 1), so a median can be read from the histogram
+CREATE TABLE lesson_completion_time_buckets (
+    lesson_id BIGINT NOT NULL REFERENCES lessons(id) ON DELETE CASCADE,
+    bucket SMALLINT NOT NULL,
+    completions BIGINT NOT NULL DEFAULT 0,
+    PRIMARY KEY (lesson_id, bucket)
+);
+
+-- Per course and day: distinct students that completed at least one lesson
+CREATE TABLE course_daily_learners (
+    course_id BIGINT NOT NULL REFERENCES courses(id) ON DELETE CASCADE,
+    activity_date DATE NOT NULL,
+    active_learners INTEGER NOT NULL DEFAULT 0,
+    PRIMARY KEY (course_id, activity_date)
+);
+
+-- Students already counted in course_daily_learners; only the retention window is kept
+CREATE TABLE course_learner_days (
+    course_id BIGINT NOT NULL,
+    activity_date DATE NOT NULL,
+    student_id BIGINT NOT NULL,
+    PRIMARY KEY (course_id, activity_date, student_id)
+);
+
+CREATE INDEX idx_course_learner_days_date ON course_learner_days(activity_date);
+
+-- Seed the rollups from the progress recorded so far
+INSERT INTO lesson_completion_stats (lesson_id, course_id, completions, first_completed_at, last_completed_at)
+SELECT p.lesson_id, min(p.course_id), count(*), min(p.completed_at), max(p.completed_at)
+FROM progress p
+WHERE p.completed = true
+GROUP BY p.lesson_id;
+
+INSERT INTO lesson_completion_time_buckets (lesson_id, bucket, completions)
+SELECT p.lesson_id,
+       CAST(LEAST(floor(2 * ln(GREATEST(EXTRACT(EPOCH FROM (p.completed_at - e.enrolled_at)) / 3600, 0) + 1) / ln(2)), 31) AS SMALLINT),
+       count(*)
+FROM progress p
+JOIN enrollments e ON e.student_id = p.student_id AND e.course_id = p.course_id
+WHERE p.completed = true AND p.completed_at IS NOT NULL
+GROUP BY 1, 2;
+
+INSERT INTO course_daily_learners (course_id, activity_date, active_learners)
+SELECT p.course_id, CAST(p.completed_at AS DATE), count(DISTINCT p.student_id)
+FROM progress p
+WHERE p.completed = true AND p.completed_at IS NOT NULL
+GROUP BY 1, 2;
+
+INSERT INTO course_learner_days (course_id, activity_date, student_id)
+SELECT DISTINCT p.course_id, CAST(p.completed_at AS DATE), p.student_id
+FROM progress p
+WHERE p.completed = true AND p.completed_at >= CURRENT_DATE - 7;
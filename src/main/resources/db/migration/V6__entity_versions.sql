@@ -0,0 +1,5 @@
+-- Version counters for courses and lessons. Hibernate increments them on every entity update, and the
+-- conditional GETs on course and lesson responses derive their ETags from them without loading the rows.
+-- A constant default makes both ALTERs metadata-only, so existing rows are not rewritten.
+ALTER TABLE courses ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE lessons ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
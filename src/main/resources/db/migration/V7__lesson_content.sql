@@ -0,0 +1,39 @@
+-- Lesson bodies move out of lessons into a 1:1 side table, so lesson lists, progress and course pages read
+-- narrow rows (and cache narrow entities) while the body is only read by the lesson and content endpoints.
+
+CREATE TABLE lesson_content (
+    lesson_id BIGINT PRIMARY KEY REFERENCES lessons(id) ON DELETE CASCADE,
+    content TEXT,
+    additional_resources TEXT
+);
+
+-- Bodies over ~2 kB are compressed in TOAST storage; lz4 is much cheaper to decompress than the default pglz.
+-- Servers built without lz4 keep pglz.
+DO $$
+BEGIN
+    ALTER TABLE lesson_content ALTER COLUMN content SET COMPRESSION lz4;
+    ALTER TABLE lesson_content ALTER COLUMN additional_resources SET COMPRESSION lz4;
+EXCEPTION
+    WHEN feature_not_supported THEN NULL;
+END $$;
+
+INSERT INTO lesson_content (lesson_id, content, additional_resources)
+SELECT id, content, additional_resources FROM lessons;
+
+-- The body's share of the search vector moves with it. The search query matches and ranks lessons on both
+-- vectors concatenated, title first, as the single V4 vector was built.
+ALTER TABLE lesson_content ADD COLUMN search_vector tsvector GENERATED ALWAYS AS (
+    setweight(to_tsvector('english', coalesce(content, '')), 'C')
+) STORED;
+
+CREATE INDEX idx_lesson_content_search ON lesson_content USING GIN (search_vector);
+
+ALTER TABLE lessons DROP COLUMN search_vector;
+ALTER TABLE lessons DROP COLUMN content;
+ALTER TABLE lessons DROP COLUMN additional_resources;
+
+ALTER TABLE lessons ADD COLUMN search_vector tsvector GENERATED ALWAYS AS (
+    setweight(to_tsvector('english', coalesce(title, '')), 'A')
+) STORED;
+
+CREATE INDEX idx_lessons_search ON lessons USING GIN (search_vector);
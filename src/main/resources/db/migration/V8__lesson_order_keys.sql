@@ -0,0 +1,17 @@
+-- Lesson order becomes sparse keys GAP (1024) apart, so moving a lesson rewrites one row instead of its
+-- siblings. Existing orders are respaced per course; duplicates left by earlier updates are broken by id.
+-- Every row changes its key, so versions and timestamps move too and cached lesson lists stop validating.
+UPDATE lessons l
+SET order_index = r.rn * 1024,
+    version = l.version + 1,
+    updated_at = now()
+FROM (SELECT id, row_number() OVER (PARTITION BY course_id ORDER BY order_index, id) AS rn FROM lessons) r
+WHERE l.id = r.id;
+
+-- One lesson per key within a course. Deferrable, so the statements that permute keys (rebalancing, replacing
+-- the whole order) are checked once at their end rather than row by row; the check still happens at the end
+-- of every statement. Its index replaces the plain (course_id, order_index) index from V2.
+DROP INDEX IF EXISTS idx_lessons_course_order;
+
+ALTER TABLE lessons ADD CONSTRAINT uq_lessons_course_order
+    UNIQUE (course_id, order_index) DEFERRABLE INITIALLY IMMEDIATE;
@@ -0,0 +1,5 @@
+-- Marks the completions already folded into the analytics rollups (V5), so the recorder folds each completion
+-- exactly once and unenrolling can take exactly those back out. V5 seeded the rollups from every completed row.
+ALTER TABLE progress ADD COLUMN rolled_up BOOLEAN NOT NULL DEFAULT false;
+
+UPDATE progress SET rolled_up = true WHERE completed = true;
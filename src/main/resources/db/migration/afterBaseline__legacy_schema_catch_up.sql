@@ -0,0 +1,52 @@
+-- Runs once, when a database from the former schema.sql or ddl-auto=update is baselined at V1 without running it
+
+ALTER TABLE courses ADD COLUMN IF NOT EXISTS lesson_count INTEGER NOT NULL DEFAULT 0;
+ALTER TABLE enrollments ADD COLUMN IF NOT EXISTS completed_lessons INTEGER NOT NULL DEFAULT 0;
+
+UPDATE courses c
+SET lesson_count = l.lessons
+FROM (SELECT course_id, count(*) AS lessons FROM lessons GROUP BY course_id) l
+WHERE l.course_id = c.id AND c.lesson_count <> l.lessons;
+
+UPDATE enrollments e
+SET completed_lessons = p.completed
+FROM (SELECT student_id, course_id, count(*) AS completed FROM progress WHERE completed = true
+      GROUP BY student_id, course_id) p
+WHERE p.student_id = e.student_id AND p.course_id = e.course_id AND e.completed_lessons <> p.completed;
+
+-- Their SERIAL ids and foreign keys are INTEGER where the entities map BIGINT
+DO $$
+DECLARE
+    col RECORD;
+    seq TEXT;
+BEGIN
+    FOR col IN
+        SELECT table_name, column_name, is_identity
+        FROM information_schema.columns
+        WHERE table_schema = current_schema()
+          AND data_type = 'integer'
+          AND (table_name::text, column_name::text) IN (
+              ('roles', 'id'),
+              ('users', 'id'),
+              ('user_roles', 'user_id'),
+              ('user_roles', 'role_id'),
+              ('courses', 'id'),
+              ('courses', 'instructor_id'),
+              ('lessons', 'id'),
+              ('lessons', 'course_id'),
+              ('enrollments', 'id'),
+              ('enrollments', 'student_id'),
+              ('enrollments', 'course_id'),
+              ('progress', 'id'),
+              ('progress', 'student_id'),
+              ('progress', 'course_id'),
+              ('progress', 'lesson_id'))
+    LOOP
+        EXECUTE format('ALTER TABLE %I ALTER COLUMN %I TYPE BIGINT', col.table_name, col.column_name);
+        seq := pg_get_serial_sequence(quote_ident(col.table_name), col.column_name);
+        -- Identity sequences follow their column's type already
+        IF seq IS NOT NULL AND col.is_identity = 'NO' THEN
+            EXECUTE format('ALTER SEQUENCE %s AS BIGINT', seq);
+        END IF;
+    END LOOP;
+END $$;
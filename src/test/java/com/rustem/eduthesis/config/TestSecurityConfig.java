@@ -2,6 +2,7 @@ package com.rustem.eduthesis.config;
 
 import com.rustem.eduthesis.infrastructure.repository.CourseRepository;
 import com.rustem.eduthesis.infrastructure.repository.UserRepository;
+import com.rustem.eduthesis.infrastructure.security.CourseOwnershipIndex;
 import com.rustem.eduthesis.infrastructure.security.MyExpressionHandler;
 import com.rustem.eduthesis.infrastructure.security.MySecurityExpressionRoot;
 import org.springframework.boot.test.context.TestConfiguration;
@@ -12,6 +13,8 @@ import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.web.SecurityFilterChain;
 
+import java.time.Duration;
+
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
@@ -54,6 +57,6 @@ public class TestSecurityConfig {
     @Bean
     @Primary
     public MyExpressionHandler myExpressionHandler(CourseRepository courseRepository, UserRepository userRepository) {
-        return new MyExpressionHandler(courseRepository, userRepository);
+        return new MyExpressionHandler(userRepository, new CourseOwnershipIndex(courseRepository, 1000, Duration.ofHours(1)));
     }
 }
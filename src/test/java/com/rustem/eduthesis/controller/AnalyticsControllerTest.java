@@ -0,0 +1,87 @@
+package com.rustem.eduthesis.controller;
+
+import com.rustem.eduthesis.api.controller.AnalyticsController;
+import com.rustem.eduthesis.api.dto.CourseAnalyticsResponse;
+import com.rustem.eduthesis.api.dto.LessonFunnelStep;
+import com.rustem.eduthesis.config.TestSecurityConfig;
+import com.rustem.eduthesis.infrastructure.entity.UserEntity;
+import com.rustem.eduthesis.infrastructure.repository.CourseRepository;
+import com.rustem.eduthesis.infrastructure.repository.UserRepository;
+import com.rustem.eduthesis.infrastructure.security.jwt.JwtTokenProvider;
+import com.rustem.eduthesis.infrastructure.service.CourseAnalyticsService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(AnalyticsController.class)
+@Import(TestSecurityConfig.class)
+public class AnalyticsControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @MockitoBean
+    private CourseAnalyticsService analyticsService;
+
+    @MockitoBean
+    private JwtTokenProvider jwtTokenProvider;
+
+    @Test
+    @WithMockUser(username = "owner@mail.com", roles = {"INSTRUCTOR"})
+    void getCourseAnalytics_asCourseOwner_shouldReturnFunnel() throws Exception {
+        Long courseId = 501L;
+        UserEntity instructor = UserEntity.builder().id(301L).email("owner@mail.com").build();
+        when(userRepository.findByEmail("owner@mail.com")).thenReturn(Optional.of(instructor));
+        when(courseRepository.findInstructorIdById(courseId)).thenReturn(Optional.of(instructor.getId()));
+        when(analyticsService.getCourseAnalytics(courseId, 7)).thenReturn(CourseAnalyticsResponse.builder()
+                .courseId(courseId)
+                .enrolledStudents(10)
+                .funnel(List.of(
+                        LessonFunnelStep.builder().lessonId(1L).completions(8).dropOff(2).build(),
+                        LessonFunnelStep.builder().lessonId(2L).completions(5).dropOff(3).build()))
+                .activeLearners(List.of())
+                .build());
+
+        mockMvc.perform(get("/api/analytics/courses/{courseId}", courseId).param("days", "7"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.enrolledStudents", is(10)))
+                .andExpect(jsonPath("$.funnel", hasSize(2)))
+                .andExpect(jsonPath("$.funnel[1].dropOff", is(3)));
+    }
+
+    @Test
+    @WithMockUser(username = "other@mail.com", roles = {"INSTRUCTOR"})
+    void getCourseAnalytics_asOtherInstructor_shouldReturnForbidden() throws Exception {
+        Long courseId = 502L;
+        when(userRepository.findByEmail("other@mail.com"))
+                .thenReturn(Optional.of(UserEntity.builder().id(302L).email("other@mail.com").build()));
+        when(courseRepository.findInstructorIdById(courseId)).thenReturn(Optional.of(301L));
+
+        mockMvc.perform(get("/api/analytics/courses/{courseId}", courseId))
+                .andExpect(status().isForbidden());
+
+        verify(analyticsService, never()).getCourseAnalytics(anyLong(), anyInt());
+    }
+}
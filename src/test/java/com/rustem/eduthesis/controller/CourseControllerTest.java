@@ -1,13 +1,28 @@
 package com.rustem.eduthesis.controller;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
 import com.rustem.eduthesis.api.controller.CourseController;
+import com.rustem.eduthesis.api.dto.BulkCourseImportRequest;
+import com.rustem.eduthesis.api.dto.CourseImportRequest;
+import com.rustem.eduthesis.api.dto.CourseImportResponse;
+import com.rustem.eduthesis.api.dto.CoursePatchRequest;
 import com.rustem.eduthesis.api.dto.CourseRequest;
 import com.rustem.eduthesis.api.dto.CourseResponse;
+import com.rustem.eduthesis.api.dto.CourseSearchResult;
+import com.rustem.eduthesis.api.dto.CursorPage;
 import com.rustem.eduthesis.config.TestSecurityConfig;
+import com.rustem.eduthesis.infrastructure.exception.PreconditionFailedException;
+import com.rustem.eduthesis.infrastructure.http.ConditionalGet;
+import com.rustem.eduthesis.infrastructure.http.ResourceVersion;
+import com.rustem.eduthesis.infrastructure.http.WireFormatConfig;
 import com.rustem.eduthesis.infrastructure.security.MyExpressionHandler;
 import com.rustem.eduthesis.infrastructure.security.MySecurityExpressionRoot;
 import com.rustem.eduthesis.infrastructure.security.jwt.JwtTokenProvider;
+import com.rustem.eduthesis.infrastructure.service.CourseImportService;
+import com.rustem.eduthesis.infrastructure.service.CourseSearchService;
 import com.rustem.eduthesis.infrastructure.service.CourseService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -21,17 +36,23 @@ import org.springframework.test.web.servlet.MockMvc;
 
 import java.util.List;
 
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.hasItem;
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.*;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(CourseController.class)
-@Import({TestSecurityConfig.class})
+@Import({TestSecurityConfig.class, ConditionalGet.class, WireFormatConfig.class})
 public class CourseControllerTest {
 
     @Autowired
@@ -49,6 +70,12 @@ public class CourseControllerTest {
     @MockitoBean
     private CourseService courseService;
 
+    @MockitoBean
+    private CourseImportService courseImportService;
+
+    @MockitoBean
+    private CourseSearchService courseSearchService;
+
     @MockitoBean
     private JwtTokenProvider jwtTokenProvider;
 
@@ -77,22 +104,26 @@ public class CourseControllerTest {
     @WithMockUser(roles = "ADMIN")
     void getCourses_ShouldReturnAllCourses_WhenUserIsAdmin() throws Exception {
         List<CourseResponse> courses = List.of(sampleCourse1, sampleCourse2);
-        when(courseService.getAllCourses()).thenReturn(courses);
+        when(courseService.getAllCourses(null, 20)).thenReturn(CursorPage.<CourseResponse>builder().items(courses).build());
 
         mockMvc.perform(get("/api/courses"))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$", hasSize(2)))
-                .andExpect(jsonPath("$[0].title", is("Java Programming")))
-                .andExpect(jsonPath("$[1].title", is("Spring Boot")));
+                .andExpect(jsonPath("$.items", hasSize(2)))
+                .andExpect(jsonPath("$.items[0].title", is("Java Programming")))
+                .andExpect(jsonPath("$.items[1].title", is("Spring Boot")))
+                .andExpect(jsonPath("$.hasNext", is(false)));
     }
 
     @Test
     @WithMockUser(roles = "ADMIN")
     void getCourseById_ShouldReturnCourse_WhenUserIsAdmin() throws Exception {
+        when(courseService.getCourseVersion(1L)).thenReturn(new ResourceVersion("\"0\"", null, false));
         when(courseService.getCourseById(1L)).thenReturn(sampleCourse1);
 
         mockMvc.perform(get("/api/courses/1"))
                 .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"0\""))
+                .andExpect(header().string("Cache-Control", "no-cache, private"))
                 .andExpect(jsonPath("$.title", is("Java Programming")));
     }
 
@@ -100,25 +131,103 @@ public class CourseControllerTest {
     @WithMockUser(roles = "STUDENT")
     void getPublishedCourses_ShouldReturnPublishedCourses_WhenUserIsStudent() throws Exception {
         List<CourseResponse> courses = List.of(sampleCourse1, sampleCourse2);
-        when(courseService.getAllPublishedCourses()).thenReturn(courses);
+        when(courseService.getAllPublishedCourses(null, 20)).thenReturn(CursorPage.<CourseResponse>builder().items(courses).build());
 
         mockMvc.perform(get("/api/courses"))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$", hasSize(2)))
-                .andExpect(jsonPath("$[0].title", is("Java Programming")))
-                .andExpect(jsonPath("$[1].title", is("Spring Boot")));
+                .andExpect(jsonPath("$.items", hasSize(2)))
+                .andExpect(jsonPath("$.items[0].title", is("Java Programming")))
+                .andExpect(jsonPath("$.items[1].title", is("Spring Boot")))
+                .andExpect(jsonPath("$.hasNext", is(false)));
     }
 
     @Test
     @WithMockUser(roles = "STUDENT")
     void getPublishedCourseById_ShouldReturnPublishedCourse_WhenUserIsStudent() throws Exception {
+        when(courseService.getPublishedCourseVersion(1L)).thenReturn(new ResourceVersion("\"3\"", null, true));
         when(courseService.getPublishedCourseById(1L)).thenReturn(sampleCourse1);
 
         mockMvc.perform(get("/api/courses/1"))
                 .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"3\""))
+                .andExpect(header().string("Cache-Control", "max-age=60, public"))
+                .andExpect(header().stringValues("Vary", hasItem("Accept")))
                 .andExpect(jsonPath("$.title", is("Java Programming")));
     }
 
+    @Test
+    @WithMockUser(roles = "STUDENT")
+    void getPublishedCourseById_withCborAccept_shouldReturnCbor() throws Exception {
+        when(courseService.getPublishedCourseVersion(1L)).thenReturn(new ResourceVersion("\"3\"", null, true));
+        when(courseService.getPublishedCourseById(1L)).thenReturn(sampleCourse1);
+
+        byte[] body = mockMvc.perform(get("/api/courses/1").accept(MediaType.APPLICATION_CBOR))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        JsonNode course = new CBORMapper().readTree(body);
+        assertThat(course.get("title").asText()).isEqualTo("Java Programming");
+        assertThat(course.get("description").asText()).isEqualTo("Learn Java from scratch");
+    }
+
+    @Test
+    @WithMockUser(roles = "STUDENT")
+    void getPublishedCourses_withSmileAccept_shouldReturnSmile() throws Exception {
+        when(courseService.getAllPublishedCourses(null, 20))
+                .thenReturn(CursorPage.<CourseResponse>builder().items(List.of(sampleCourse1, sampleCourse2)).build());
+
+        byte[] body = mockMvc.perform(get("/api/courses").accept("application/x-jackson-smile"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-jackson-smile"))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        JsonNode page = new SmileMapper().readTree(body);
+        assertThat(page.get("items")).hasSize(2);
+        assertThat(page.get("items").get(1).get("title").asText()).isEqualTo("Spring Boot");
+    }
+
+    @Test
+    @WithMockUser(roles = "STUDENT")
+    void getPublishedCourseById_withMatchingETag_shouldReturnNotModifiedWithoutLoadingCourse() throws Exception {
+        when(courseService.getPublishedCourseVersion(1L)).thenReturn(new ResourceVersion("\"3\"", null, true));
+
+        mockMvc.perform(get("/api/courses/1").header("If-None-Match", "\"3\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", "\"3\""))
+                .andExpect(header().string("Cache-Control", "max-age=60, public"));
+
+        verify(courseService, never()).getPublishedCourseById(any());
+    }
+
+    @Test
+    @WithMockUser(roles = "STUDENT")
+    void getPublishedCourseById_withStaleETag_shouldReturnCourse() throws Exception {
+        when(courseService.getPublishedCourseVersion(1L)).thenReturn(new ResourceVersion("\"4\"", null, true));
+        when(courseService.getPublishedCourseById(1L)).thenReturn(sampleCourse1);
+
+        mockMvc.perform(get("/api/courses/1").header("If-None-Match", "\"3\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"4\""))
+                .andExpect(jsonPath("$.title", is("Java Programming")));
+    }
+
+    @Test
+    @WithMockUser(roles = "STUDENT")
+    void getPublishedCourses_ShouldPassCursorAndLimit_WhenProvided() throws Exception {
+        when(courseService.getAllPublishedCourses("abc", 5)).thenReturn(CursorPage.<CourseResponse>builder()
+                .items(List.of(sampleCourse2))
+                .nextCursor("def")
+                .hasNext(true)
+                .build());
+
+        mockMvc.perform(get("/api/courses").param("cursor", "abc").param("limit", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items", hasSize(1)))
+                .andExpect(jsonPath("$.nextCursor", is("def")))
+                .andExpect(jsonPath("$.hasNext", is(true)));
+    }
+
     @Test
     @WithMockUser(roles = "INSTRUCTOR")
     void createCourse_ShouldReturnCreatedCourse_WhenUserIsInstructor() throws Exception {
@@ -144,4 +253,156 @@ public class CourseControllerTest {
 
         verify(courseService, never()).createCourse(any(CourseRequest.class));
     }
+
+    @Test
+    @WithMockUser(roles = "INSTRUCTOR")
+    void importCourses_ShouldReturnImportSummary_WhenUserIsInstructor() throws Exception {
+        CourseImportRequest course = new CourseImportRequest("Imported Course", "Imported course description", null, List.of());
+        when(courseImportService.importCourses(List.of(course))).thenReturn(CourseImportResponse.builder()
+                .courseIds(List.of(10L))
+                .importedCourses(1)
+                .importedLessons(0)
+                .build());
+
+        mockMvc.perform(post("/api/courses/import")
+                        .with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new BulkCourseImportRequest(List.of(course)))))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.courseIds[0]", is(10)))
+                .andExpect(jsonPath("$.importedCourses", is(1)));
+    }
+
+    @Test
+    @WithMockUser(roles = "STUDENT")
+    void importCourses_withoutInstructorRole_shouldReturnForbidden() throws Exception {
+        CourseImportRequest course = new CourseImportRequest("Imported Course", "Imported course description", null, List.of());
+
+        mockMvc.perform(post("/api/courses/import")
+                        .with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new BulkCourseImportRequest(List.of(course)))))
+                .andExpect(status().isForbidden());
+
+        verifyNoInteractions(courseImportService);
+    }
+
+    @Test
+    @WithMockUser(roles = "STUDENT")
+    void searchCourses_ShouldReturnRankedHitsWithHighlights() throws Exception {
+        CourseSearchResult hit = CourseSearchResult.builder()
+                .courseId(1L)
+                .title("Java Programming")
+                .titleHighlight("<mark>Java</mark> Programming")
+                .matchedLessonId(7L)
+                .matchedLessonHighlight("Variables in <mark>Java</mark>")
+                .score(0.8)
+                .build();
+        when(courseSearchService.search("java", "abc", 5)).thenReturn(CursorPage.<CourseSearchResult>builder()
+                .items(List.of(hit))
+                .nextCursor("def")
+                .hasNext(true)
+                .build());
+
+        mockMvc.perform(get("/api/courses/search")
+                        .param("q", "java")
+                        .param("cursor", "abc")
+                        .param("limit", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items", hasSize(1)))
+                .andExpect(jsonPath("$.items[0].titleHighlight", is("<mark>Java</mark> Programming")))
+                .andExpect(jsonPath("$.items[0].matchedLessonId", is(7)))
+                .andExpect(jsonPath("$.nextCursor", is("def")));
+
+        verifyNoInteractions(courseService);
+    }
+
+    @Test
+    @WithMockUser(roles = "STUDENT")
+    void searchCourses_withoutQuery_shouldReturnBadRequest() throws Exception {
+        mockMvc.perform(get("/api/courses/search"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(courseSearchService);
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void updateCourse_withIfMatch_shouldPassVersionAndReturnNewETag() throws Exception {
+        sampleCourse1.setVersion(4L);
+        when(courseService.updateCourse(eq(1L), any(CourseRequest.class), eq(3L))).thenReturn(sampleCourse1);
+
+        mockMvc.perform(put("/api/courses/1")
+                        .header("If-Match", "\"3\"")
+                        .contentType("application/json")
+                        .content(objectMapper.writeValueAsString(courseRequest)))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"4\""))
+                .andExpect(jsonPath("$.version", is(4)));
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void updateCourse_withStaleIfMatch_shouldReturnPreconditionFailed() throws Exception {
+        when(courseService.updateCourse(eq(1L), any(CourseRequest.class), eq(2L)))
+                .thenThrow(new PreconditionFailedException("Course 1 has changed since version 2"));
+
+        mockMvc.perform(put("/api/courses/1")
+                        .header("If-Match", "\"2\"")
+                        .contentType("application/json")
+                        .content(objectMapper.writeValueAsString(courseRequest)))
+                .andExpect(status().isPreconditionFailed());
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void updateCourse_withWeakIfMatch_shouldReturnPreconditionFailedWithoutUpdating() throws Exception {
+        mockMvc.perform(put("/api/courses/1")
+                        .header("If-Match", "W/\"3\"")
+                        .contentType("application/json")
+                        .content(objectMapper.writeValueAsString(courseRequest)))
+                .andExpect(status().isPreconditionFailed());
+
+        verifyNoInteractions(courseService);
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void patchCourse_shouldPassOnlyGivenFields() throws Exception {
+        sampleCourse1.setVersion(5L);
+        when(courseService.patchCourse(eq(1L), any(CoursePatchRequest.class), isNull())).thenReturn(sampleCourse1);
+
+        mockMvc.perform(patch("/api/courses/1")
+                        .contentType("application/merge-patch+json")
+                        .content("{\"title\":\"Java Programming\"}"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"5\""));
+
+        verify(courseService).patchCourse(eq(1L), argThat(p ->
+                "Java Programming".equals(p.getTitle()) && p.getDescription() == null && !p.isImageUrlPresent()), isNull());
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void patchCourse_withNullImageUrl_shouldAskToClearIt() throws Exception {
+        when(courseService.patchCourse(eq(1L), any(CoursePatchRequest.class), isNull())).thenReturn(sampleCourse1);
+
+        mockMvc.perform(patch("/api/courses/1")
+                        .contentType("application/merge-patch+json")
+                        .content("{\"imageUrl\":null}"))
+                .andExpect(status().isOk());
+
+        verify(courseService).patchCourse(eq(1L), argThat(p -> p.isImageUrlPresent() && p.getImageUrl() == null), isNull());
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void patchCourse_withBlankTitle_shouldReturnBadRequest() throws Exception {
+        mockMvc.perform(patch("/api/courses/1")
+                        .contentType("application/json")
+                        .content("{\"title\":\"    \"}"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(courseService);
+    }
 }
@@ -6,6 +6,9 @@ import com.rustem.eduthesis.api.dto.EnrollmentResponse;
 import com.rustem.eduthesis.api.dto.SimpleCourseDTO;
 import com.rustem.eduthesis.api.dto.SimpleUserDTO;
 import com.rustem.eduthesis.config.TestSecurityConfig;
+import com.rustem.eduthesis.infrastructure.entity.UserEntity;
+import com.rustem.eduthesis.infrastructure.repository.CourseRepository;
+import com.rustem.eduthesis.infrastructure.repository.UserRepository;
 import com.rustem.eduthesis.infrastructure.security.jwt.JwtTokenProvider;
 import com.rustem.eduthesis.infrastructure.service.EnrollmentService;
 import org.junit.jupiter.api.BeforeEach;
@@ -16,18 +19,20 @@ import org.springframework.context.annotation.Import;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Optional;
 
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
 import static org.mockito.Mockito.*;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
-import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
-import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @WebMvcTest(EnrollmentController.class)
 @Import(TestSecurityConfig.class)
@@ -39,6 +44,12 @@ public class EnrollmentControllerTest {
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
     @MockitoBean
     private EnrollmentService enrollmentService;
 
@@ -142,4 +153,44 @@ public class EnrollmentControllerTest {
 
         verify(enrollmentService, never()).getEnrollmentsForCurrentUser();
     }
+
+    @Test
+    @WithMockUser(username = "instructor@mail.com", roles = {"INSTRUCTOR"})
+    void exportEnrollmentsForCourse_shouldStreamNdjson() throws Exception {
+        Long courseId = 101L;
+        UserEntity instructor = UserEntity.builder().id(301L).email("instructor@mail.com").build();
+        when(userRepository.findByEmail("instructor@mail.com")).thenReturn(Optional.of(instructor));
+        when(courseRepository.findInstructorIdById(courseId)).thenReturn(Optional.of(instructor.getId()));
+        StreamingResponseBody body = out -> out.write("{\"enrollmentId\":1}\n{\"enrollmentId\":2}\n".getBytes());
+        when(enrollmentService.exportEnrollmentsForCourse(courseId)).thenReturn(body);
+
+        MvcResult result = mockMvc.perform(get("/api/enrollment/courses/{courseId}/students/export", courseId))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-ndjson"))
+                .andExpect(content().string("{\"enrollmentId\":1}\n{\"enrollmentId\":2}\n"));
+
+        verify(enrollmentService).exportEnrollmentsForCourse(courseId);
+    }
+
+    @Test
+    @WithMockUser(username = "admin@mail.com", roles = {"ADMIN"})
+    void exportEnrollmentsForCourse_asAdmin_shouldSkipOwnershipLookup() throws Exception {
+        Long courseId = 102L;
+        StreamingResponseBody body = out -> out.write("{\"enrollmentId\":3}\n".getBytes());
+        when(enrollmentService.exportEnrollmentsForCourse(courseId)).thenReturn(body);
+
+        MvcResult result = mockMvc.perform(get("/api/enrollment/courses/{courseId}/students/export", courseId))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk());
+
+        verify(courseRepository, never()).findInstructorIdById(courseId);
+        verify(userRepository, never()).findByEmail("admin@mail.com");
+    }
 }
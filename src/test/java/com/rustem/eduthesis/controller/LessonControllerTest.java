@@ -2,10 +2,18 @@ package com.rustem.eduthesis.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.rustem.eduthesis.api.controller.LessonController;
+import com.rustem.eduthesis.api.dto.LessonMoveRequest;
+import com.rustem.eduthesis.api.dto.LessonOrderRequest;
+import com.rustem.eduthesis.api.dto.LessonPatchRequest;
 import com.rustem.eduthesis.api.dto.LessonRequest;
 import com.rustem.eduthesis.api.dto.LessonResponse;
 import com.rustem.eduthesis.api.dto.SimpleCourseDTO;
 import com.rustem.eduthesis.config.TestSecurityConfig;
+import com.rustem.eduthesis.infrastructure.exception.InvalidLessonOrderException;
+import com.rustem.eduthesis.infrastructure.exception.LessonOrderConflictException;
+import com.rustem.eduthesis.infrastructure.exception.PreconditionFailedException;
+import com.rustem.eduthesis.infrastructure.http.ConditionalGet;
+import com.rustem.eduthesis.infrastructure.http.ResourceVersion;
 import com.rustem.eduthesis.infrastructure.security.jwt.JwtTokenProvider;
 import com.rustem.eduthesis.infrastructure.service.LessonService;
 import org.junit.jupiter.api.BeforeEach;
@@ -18,24 +26,34 @@ import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
 
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(LessonController.class)
-@Import(TestSecurityConfig.class)
+@Import({TestSecurityConfig.class, ConditionalGet.class})
 public class LessonControllerTest {
 
+    private static final byte[] LESSON_BODY = "Java basics content".getBytes(StandardCharsets.UTF_8);
+
     @Autowired
     private MockMvc mockMvc;
 
@@ -90,11 +108,13 @@ public class LessonControllerTest {
         // Arrange
         Long courseId = 1L;
         List<LessonResponse> lessons = Arrays.asList(lessonResponse1, lessonResponse2);
+        when(lessonService.getLessonsVersion(courseId)).thenReturn(ResourceVersion.of("lessons", true, null, courseId, 2L));
         when(lessonService.getLessonsForCourse(courseId)).thenReturn(lessons);
 
         // Act & Assert
         mockMvc.perform(get("/api/courses/{courseId}/lessons", courseId))
                 .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "W/\"lessons-1-2\""))
                 .andExpect(jsonPath("$", hasSize(2)))
                 .andExpect(jsonPath("$[0].id", is(1)))
                 .andExpect(jsonPath("$[0].title", is("Introduction to Java")))
@@ -106,15 +126,35 @@ public class LessonControllerTest {
 
     @Test
     @WithMockUser
-    void getLessonById_shouldReturnLesson() throws Exception {
+    void getLessonsForCourse_notModifiedSince_shouldReturnNotModifiedWithoutLoadingLessons() throws Exception {
+        // Arrange
+        Long courseId = 1L;
+        LocalDateTime lastModified = LocalDateTime.of(2024, 1, 15, 10, 30);
+        ResourceVersion version = ResourceVersion.of("lessons", true, lastModified, courseId, 2L);
+        when(lessonService.getLessonsVersion(courseId)).thenReturn(version);
+
+        // Act & Assert
+        mockMvc.perform(get("/api/courses/{courseId}/lessons", courseId)
+                        .header("If-Modified-Since", version.lastModifiedMillis()))
+                .andExpect(status().isNotModified())
+                .andExpect(header().exists("Last-Modified"));
+
+        verify(lessonService, never()).getLessonsForCourse(anyLong());
+    }
+
+    @Test
+    @WithMockUser
+    void getLessonById_shouldReturnLessonWithEditETag() throws Exception {
         // Arrange
         Long courseId = 1L;
         Long lessonId = 1L;
+        lessonResponse1.setVersion(6L);
         when(lessonService.getLessonById(courseId, lessonId)).thenReturn(lessonResponse1);
 
         // Act & Assert
         mockMvc.perform(get("/api/courses/{courseId}/lessons/{lessonId}", courseId, lessonId))
                 .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"6\""))
                 .andExpect(jsonPath("$.id", is(1)))
                 .andExpect(jsonPath("$.title", is("Introduction to Java")))
                 .andExpect(jsonPath("$.content", is("Java basics content")));
@@ -122,6 +162,53 @@ public class LessonControllerTest {
         verify(lessonService).getLessonById(courseId, lessonId);
     }
 
+    @Test
+    @WithMockUser
+    void getLessonContent_shouldReturnWholeBodyAsText() throws Exception {
+        // Arrange
+        when(lessonService.getLessonContentVersion(1L, 1L)).thenReturn(ResourceVersion.strong("lesson-content", true, null, 1L, 0L));
+        when(lessonService.getLessonContent(1L, 1L)).thenReturn(LESSON_BODY);
+
+        // Act & Assert
+        mockMvc.perform(get("/api/courses/{courseId}/lessons/{lessonId}/content", 1L, 1L))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Accept-Ranges", "bytes"))
+                .andExpect(header().string("ETag", "\"lesson-content-1-0\""))
+                .andExpect(content().contentTypeCompatibleWith(MediaType.TEXT_PLAIN))
+                .andExpect(content().bytes(LESSON_BODY));
+    }
+
+    @Test
+    @WithMockUser
+    void getLessonContent_withRange_shouldReturnPartialContent() throws Exception {
+        // Arrange
+        when(lessonService.getLessonContentVersion(1L, 1L)).thenReturn(ResourceVersion.strong("lesson-content", true, null, 1L, 0L));
+        when(lessonService.getLessonContent(1L, 1L)).thenReturn(LESSON_BODY);
+
+        // Act & Assert
+        mockMvc.perform(get("/api/courses/{courseId}/lessons/{lessonId}/content", 1L, 1L)
+                        .header("Range", "bytes=0-3")
+                        .header("If-Range", "\"lesson-content-1-0\""))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string("Content-Range", "bytes 0-3/" + LESSON_BODY.length))
+                .andExpect(content().string("Java"));
+    }
+
+    @Test
+    @WithMockUser
+    void getLessonContent_withStaleIfRange_shouldReturnWholeBody() throws Exception {
+        // Arrange
+        when(lessonService.getLessonContentVersion(1L, 1L)).thenReturn(ResourceVersion.strong("lesson-content", true, null, 1L, 1L));
+        when(lessonService.getLessonContent(1L, 1L)).thenReturn(LESSON_BODY);
+
+        // Act & Assert
+        mockMvc.perform(get("/api/courses/{courseId}/lessons/{lessonId}/content", 1L, 1L)
+                        .header("Range", "bytes=0-3")
+                        .header("If-Range", "\"lesson-content-1-0\""))
+                .andExpect(status().isOk())
+                .andExpect(content().bytes(LESSON_BODY));
+    }
+
     @Test
     @WithMockUser
     void createLesson_withoutInstructorRole_shouldReturnForbidden() throws Exception {
@@ -135,4 +222,169 @@ public class LessonControllerTest {
 
         verify(lessonService, never()).createLesson(anyLong(), any(LessonRequest.class));
     }
+
+    @Test
+    @WithMockUser(roles = {"ADMIN"})
+    void createLesson_withTakenOrderIndex_shouldReturnConflict() throws Exception {
+        // Arrange
+        when(lessonService.createLesson(eq(1L), any(LessonRequest.class)))
+                .thenThrow(new LessonOrderConflictException("Order index 1 is already taken in Course ID: 1"));
+
+        // Act & Assert
+        mockMvc.perform(post("/api/courses/{courseId}/lessons", 1L)
+                        .with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(lessonRequest)))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.message", is("Order index 1 is already taken in Course ID: 1")));
+    }
+
+    @Test
+    @WithMockUser(roles = {"ADMIN"})
+    void moveLesson_shouldReturnLessonsInNewOrder() throws Exception {
+        // Arrange
+        LessonMoveRequest moveRequest = new LessonMoveRequest();
+        moveRequest.setPosition(1);
+        when(lessonService.moveLesson(1L, 2L, 1)).thenReturn(Arrays.asList(lessonResponse2, lessonResponse1));
+
+        // Act & Assert
+        mockMvc.perform(put("/api/courses/{courseId}/lessons/{lessonId}/position", 1L, 2L)
+                        .with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(moveRequest)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].id", is(2)));
+
+        verify(lessonService).moveLesson(1L, 2L, 1);
+    }
+
+    @Test
+    @WithMockUser(roles = {"ADMIN"})
+    void moveLesson_withZeroPosition_shouldReturnBadRequest() throws Exception {
+        // Act & Assert
+        mockMvc.perform(put("/api/courses/{courseId}/lessons/{lessonId}/position", 1L, 2L)
+                        .with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"position\": 0}"))
+                .andExpect(status().isBadRequest());
+
+        verify(lessonService, never()).moveLesson(anyLong(), anyLong(), anyInt());
+    }
+
+    @Test
+    @WithMockUser
+    void moveLesson_withoutInstructorRole_shouldReturnForbidden() throws Exception {
+        // Arrange
+        LessonMoveRequest moveRequest = new LessonMoveRequest();
+        moveRequest.setPosition(1);
+
+        // Act & Assert
+        mockMvc.perform(put("/api/courses/{courseId}/lessons/{lessonId}/position", 1L, 2L)
+                        .with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(moveRequest)))
+                .andExpect(status().isForbidden());
+
+        verify(lessonService, never()).moveLesson(anyLong(), anyLong(), anyInt());
+    }
+
+    @Test
+    @WithMockUser(roles = {"ADMIN"})
+    void reorderLessons_shouldReturnLessonsInNewOrder() throws Exception {
+        // Arrange
+        LessonOrderRequest orderRequest = new LessonOrderRequest();
+        orderRequest.setLessonIds(List.of(2L, 1L));
+        when(lessonService.reorderLessons(1L, List.of(2L, 1L))).thenReturn(Arrays.asList(lessonResponse2, lessonResponse1));
+
+        // Act & Assert
+        mockMvc.perform(put("/api/courses/{courseId}/lessons/order", 1L)
+                        .with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(orderRequest)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id", is(2)))
+                .andExpect(jsonPath("$[1].id", is(1)));
+    }
+
+    @Test
+    @WithMockUser(roles = {"ADMIN"})
+    void reorderLessons_withIncompleteOrder_shouldReturnBadRequest() throws Exception {
+        // Arrange
+        LessonOrderRequest orderRequest = new LessonOrderRequest();
+        orderRequest.setLessonIds(List.of(2L));
+        when(lessonService.reorderLessons(1L, List.of(2L)))
+                .thenThrow(new InvalidLessonOrderException("Lesson order must list each of the 2 lessons of Course ID: 1 exactly once"));
+
+        // Act & Assert
+        mockMvc.perform(put("/api/courses/{courseId}/lessons/order", 1L)
+                        .with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(orderRequest)))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.status", is(400)));
+    }
+
+    @Test
+    @WithMockUser(roles = {"ADMIN"})
+    void updateLesson_withStaleIfMatch_shouldReturnPreconditionFailed() throws Exception {
+        // Arrange
+        when(lessonService.updateLesson(eq(1L), eq(2L), any(LessonRequest.class), eq(6L)))
+                .thenThrow(new PreconditionFailedException("Lesson 2 has changed since version 6"));
+
+        // Act & Assert
+        mockMvc.perform(put("/api/courses/{courseId}/lessons/{lessonId}", 1L, 2L)
+                        .with(csrf())
+                        .header("If-Match", "\"6\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(lessonRequest)))
+                .andExpect(status().isPreconditionFailed());
+    }
+
+    @Test
+    @WithMockUser(roles = {"ADMIN"})
+    void patchLesson_shouldReturnLessonWithNewETag() throws Exception {
+        // Arrange
+        lessonResponse2.setVersion(8L);
+        when(lessonService.patchLesson(eq(1L), eq(2L), any(LessonPatchRequest.class), eq(7L))).thenReturn(lessonResponse2);
+
+        // Act & Assert
+        mockMvc.perform(patch("/api/courses/{courseId}/lessons/{lessonId}", 1L, 2L)
+                        .with(csrf())
+                        .header("If-Match", "\"7\"")
+                        .contentType("application/merge-patch+json")
+                        .content("{\"durationMinutes\":50}"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"8\""))
+                .andExpect(jsonPath("$.version", is(8)));
+
+        verify(lessonService).patchLesson(eq(1L), eq(2L),
+                argThat(p -> p.getDurationMinutes() == 50 && p.getTitle() == null && p.getContent() == null), eq(7L));
+    }
+
+    @Test
+    @WithMockUser(roles = {"ADMIN"})
+    void patchLesson_withShortContent_shouldReturnBadRequest() throws Exception {
+        // Act & Assert
+        mockMvc.perform(patch("/api/courses/{courseId}/lessons/{lessonId}", 1L, 2L)
+                        .with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"content\":\"short\"}"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(lessonService);
+    }
+
+    @Test
+    @WithMockUser
+    void patchLesson_withoutInstructorRole_shouldReturnForbidden() throws Exception {
+        // Act & Assert
+        mockMvc.perform(patch("/api/courses/{courseId}/lessons/{lessonId}", 1L, 2L)
+                        .with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\":\"Renamed lesson\"}"))
+                .andExpect(status().isForbidden());
+
+        verifyNoInteractions(lessonService);
+    }
 }
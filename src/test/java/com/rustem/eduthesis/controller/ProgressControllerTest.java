@@ -2,6 +2,10 @@ package com.rustem.eduthesis.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.rustem.eduthesis.api.controller.ProgressController;
+import com.rustem.eduthesis.api.dto.BatchLessonCompletionRequest;
+import com.rustem.eduthesis.api.dto.CursorPage;
+import com.rustem.eduthesis.api.dto.LessonCompletionRequest;
+import com.rustem.eduthesis.api.dto.LessonCompletionResult;
 import com.rustem.eduthesis.api.dto.ProgressResponse;
 import com.rustem.eduthesis.api.dto.SimpleCourseDTO;
 import com.rustem.eduthesis.api.dto.SimpleLessonDTO;
@@ -13,6 +17,7 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
@@ -20,6 +25,7 @@ import org.springframework.test.web.servlet.MockMvc;
 import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
@@ -52,10 +58,7 @@ public class ProgressControllerTest {
     void setUp() {
         progressResponse1 = new ProgressResponse();
         progressResponse1.setId(1L);
-        progressResponse1.setCourse(SimpleCourseDTO.builder()
-                        .id(101L)
-                        .title("Java Programming")
-                .build());
+        progressResponse1.setCourseId(101L);
         progressResponse1.setLesson(SimpleLessonDTO.builder()
                         .id(201L)
                         .title("Introduction to Java")
@@ -65,10 +68,7 @@ public class ProgressControllerTest {
 
         progressResponse2 = new ProgressResponse();
         progressResponse2.setId(2L);
-        progressResponse2.setCourse(SimpleCourseDTO.builder()
-                .id(101L)
-                .title("Java Programming")
-                .build());
+        progressResponse2.setCourseId(101L);
         progressResponse2.setLesson(SimpleLessonDTO.builder()
                 .id(202L)
                 .title("Variables and Data Types")
@@ -91,6 +91,39 @@ public class ProgressControllerTest {
         verify(progressService).markLessonAsCompleted(lessonId);
     }
 
+    @Test
+    @WithMockUser(roles = {"STUDENT"})
+    void markLessonsAsCompleted_shouldReturnPerItemResults() throws Exception {
+        List<LessonCompletionRequest> lessons = List.of(
+                new LessonCompletionRequest(201L, LocalDateTime.now().minusHours(1)),
+                new LessonCompletionRequest(999L, null));
+        when(progressService.markLessonsAsCompleted(lessons)).thenReturn(List.of(
+                new LessonCompletionResult(201L, LessonCompletionResult.Status.COMPLETED),
+                new LessonCompletionResult(999L, LessonCompletionResult.Status.LESSON_NOT_FOUND)));
+
+        mockMvc.perform(patch("/api/progress/lessons/complete")
+                        .with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new BatchLessonCompletionRequest(lessons))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].status", is("COMPLETED")))
+                .andExpect(jsonPath("$[1].lessonId", is(999)))
+                .andExpect(jsonPath("$[1].status", is("LESSON_NOT_FOUND")));
+    }
+
+    @Test
+    @WithMockUser(roles = {"STUDENT"})
+    void markLessonsAsCompleted_withEmptyBatch_shouldReturnBadRequest() throws Exception {
+        mockMvc.perform(patch("/api/progress/lessons/complete")
+                        .with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new BatchLessonCompletionRequest(List.of()))))
+                .andExpect(status().isBadRequest());
+
+        verify(progressService, never()).markLessonsAsCompleted(any());
+    }
+
     @Test
     @WithMockUser(roles = {"STUDENT"})
     void getProgressForCourse_shouldReturnProgressList() throws Exception {
@@ -115,15 +148,20 @@ public class ProgressControllerTest {
     void getMyProgress_shouldReturnProgressSummary() throws Exception {
         List<ProgressResponse> progressList = Arrays.asList(progressResponse1, progressResponse2);
 
-        when(progressService.getProgressForCurrentStudent()).thenReturn(progressList);
+        when(progressService.getProgressForCurrentStudent(null, 20))
+                .thenReturn(CursorPage.<ProgressResponse>builder()
+                        .items(progressList)
+                        .courses(Map.of(101L, SimpleCourseDTO.builder().id(101L).title("Java Programming").build()))
+                        .build());
 
         mockMvc.perform(get("/api/progress"))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$", hasSize(2)))
-                .andExpect(jsonPath("$[0].course.title", is("Java Programming")))
-                .andExpect(jsonPath("$[1].course.title", is("Java Programming")));
+                .andExpect(jsonPath("$.items", hasSize(2)))
+                .andExpect(jsonPath("$.items[0].courseId", is(101)))
+                .andExpect(jsonPath("$.items[1].course").doesNotExist())
+                .andExpect(jsonPath("$.courses['101'].title", is("Java Programming")));
 
-        verify(progressService).getProgressForCurrentStudent();
+        verify(progressService).getProgressForCurrentStudent(null, 20);
     }
 
     @Test
@@ -153,6 +191,6 @@ public class ProgressControllerTest {
         mockMvc.perform(get("/api/progress"))
                 .andExpect(status().isForbidden());
 
-        verify(progressService, never()).getProgressForCurrentStudent();
+        verify(progressService, never()).getProgressForCurrentStudent(any(), anyInt());
     }
 }
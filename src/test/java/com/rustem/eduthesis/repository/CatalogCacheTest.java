@@ -0,0 +1,146 @@
+package com.rustem.eduthesis.repository;
+
+import com.rustem.eduthesis.infrastructure.entity.CacheRegions;
+import com.rustem.eduthesis.infrastructure.entity.CourseEntity;
+import com.rustem.eduthesis.infrastructure.entity.LessonEntity;
+import com.rustem.eduthesis.infrastructure.entity.UserEntity;
+import com.rustem.eduthesis.infrastructure.repository.CourseRepository;
+import com.rustem.eduthesis.infrastructure.repository.LessonRepository;
+import com.rustem.eduthesis.infrastructure.repository.UserRepository;
+import com.rustem.eduthesis.infrastructure.repository.projection.LessonRow;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Runs without a surrounding test transaction: the second-level cache is only populated after commit
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class CatalogCacheTest {
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private LessonRepository lessonRepository;
+
+    private Statistics statistics;
+    private UserEntity instructor;
+    private CourseEntity course;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        instructor = userRepository.save(UserEntity.builder()
+                .email("cache-instructor@example.com")
+                .password("password123")
+                .firstName("Cache")
+                .lastName("Instructor")
+                .enabled(true)
+                .createdAt(LocalDateTime.now())
+                .build());
+        course = courseRepository.save(CourseEntity.builder()
+                .title("Cached Course")
+                .description("Course served from the second-level cache")
+                .instructor(instructor)
+                .published(true)
+                .build());
+        for (int orderIndex = 1; orderIndex <= 2; orderIndex++) {
+            lessonRepository.save(LessonEntity.builder()
+                    .title("Lesson " + orderIndex)
+                    .orderIndex(orderIndex)
+                    .course(course)
+                    .createdAt(LocalDateTime.now())
+                    .build());
+        }
+        statistics.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        courseRepository.deleteById(course.getId());
+        userRepository.deleteById(instructor.getId());
+    }
+
+    @Test
+    void findById_shouldBeServedFromSecondLevelCache() {
+        courseRepository.findById(course.getId());
+        long statementsAfterFirstLoad = statistics.getPrepareStatementCount();
+
+        CourseEntity cached = courseRepository.findById(course.getId()).orElseThrow();
+
+        assertThat(cached.getTitle()).isEqualTo("Cached Course");
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(statementsAfterFirstLoad);
+        assertThat(statistics.getDomainDataRegionStatistics(CacheRegions.COURSES).getHitCount()).isPositive();
+    }
+
+    @Test
+    void lessonRows_shouldBeServedFromQueryCache() {
+        lessonRepository.findRowsByCourseId(course.getId());
+        long statementsAfterFirstLoad = statistics.getPrepareStatementCount();
+
+        List<LessonRow> lessons = lessonRepository.findRowsByCourseId(course.getId());
+
+        assertThat(lessons).extracting(LessonRow::getOrderIndex).containsExactly(1, 2);
+        assertThat(statistics.getQueryCacheHitCount()).isEqualTo(1);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(statementsAfterFirstLoad);
+    }
+
+    @Test
+    void lessonWrite_shouldInvalidateCachedLessonRows() {
+        lessonRepository.findRowsByCourseId(course.getId());
+
+        lessonRepository.save(LessonEntity.builder()
+                .title("Lesson 3")
+                .orderIndex(3)
+                .course(course)
+                .createdAt(LocalDateTime.now())
+                .build());
+        List<LessonRow> lessons = lessonRepository.findRowsByCourseId(course.getId());
+
+        assertThat(lessons).extracting(LessonRow::getOrderIndex).containsExactly(1, 2, 3);
+    }
+
+    @Test
+    void publishedCatalogPage_shouldBeServedFromQueryCache() {
+        courseRepository.findPublishedWithInstructorAfter(0L, PageRequest.of(0, 20));
+        long statementsAfterFirstLoad = statistics.getPrepareStatementCount();
+
+        List<CourseEntity> page = courseRepository.findPublishedWithInstructorAfter(0L, PageRequest.of(0, 20));
+
+        assertThat(page).extracting(CourseEntity::getTitle).contains("Cached Course");
+        assertThat(page).allSatisfy(cached -> assertThat(cached.getInstructor().getEmail()).isNotBlank());
+        assertThat(statistics.getQueryCacheHitCount()).isEqualTo(1);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(statementsAfterFirstLoad);
+    }
+
+    @Test
+    void courseWrite_shouldInvalidateCachedCatalogPage() {
+        courseRepository.findPublishedWithInstructorAfter(0L, PageRequest.of(0, 20));
+
+        course.setTitle("Renamed Course");
+        course = courseRepository.save(course);
+        List<CourseEntity> page = courseRepository.findPublishedWithInstructorAfter(0L, PageRequest.of(0, 20));
+
+        assertThat(page).extracting(CourseEntity::getTitle).contains("Renamed Course");
+    }
+}
@@ -0,0 +1,238 @@
+package com.rustem.eduthesis.repository;
+
+import com.rustem.eduthesis.api.dto.CourseAnalyticsResponse;
+import com.rustem.eduthesis.api.dto.DailyActiveLearners;
+import com.rustem.eduthesis.api.dto.LessonFunnelStep;
+import com.rustem.eduthesis.infrastructure.entity.CourseEntity;
+import com.rustem.eduthesis.infrastructure.entity.EnrollmentEntity;
+import com.rustem.eduthesis.infrastructure.entity.LessonEntity;
+import com.rustem.eduthesis.infrastructure.entity.UserEntity;
+import com.rustem.eduthesis.infrastructure.repository.CourseRepository;
+import com.rustem.eduthesis.infrastructure.repository.EnrollmentRepository;
+import com.rustem.eduthesis.infrastructure.repository.LessonRepository;
+import com.rustem.eduthesis.infrastructure.repository.ProgressRepository;
+import com.rustem.eduthesis.infrastructure.repository.UserRepository;
+import com.rustem.eduthesis.infrastructure.service.CourseAnalyticsRecorder;
+import com.rustem.eduthesis.infrastructure.service.CourseAnalyticsService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.concurrent.SimpleAsyncTaskScheduler;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// The rollups are PostgreSQL tables written with ON CONFLICT, so this runs against PostgreSQL. No surrounding test
+// transaction: completions are buffered after commit and folded in transactions of their own.
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers(disabledWithoutDocker = true)
+@Import({CourseAnalyticsRecorder.class, CourseAnalyticsService.class, CourseAnalyticsPostgresTest.Metrics.class})
+public class CourseAnalyticsPostgresTest {
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+        registry.add("spring.flyway.enabled", () -> true);
+        registry.add("spring.jpa.hibernate.ddl-auto", () -> "validate");
+    }
+
+    @TestConfiguration
+    static class Metrics {
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+
+        @Bean
+        TaskScheduler taskScheduler() {
+            return new SimpleAsyncTaskScheduler();
+        }
+    }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private LessonRepository lessonRepository;
+
+    @Autowired
+    private EnrollmentRepository enrollmentRepository;
+
+    @Autowired
+    private ProgressRepository progressRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private CourseAnalyticsRecorder recorder;
+
+    @Autowired
+    private CourseAnalyticsService analyticsService;
+
+    private CourseEntity course;
+    private LessonEntity lesson1;
+    private LessonEntity lesson2;
+    private final List<UserEntity> students = new ArrayList<>();
+    private LocalDateTime enrolledAt;
+
+    @BeforeEach
+    void setUp() {
+        UserEntity instructor = saveUser("analytics-instructor@example.com");
+        course = courseRepository.save(CourseEntity.builder()
+                .title("Analytics Course")
+                .description("Course with a funnel")
+                .instructor(instructor)
+                .published(true)
+                .build());
+        lesson1 = saveLesson("Lesson 1", 1);
+        lesson2 = saveLesson("Lesson 2", 2);
+
+        enrolledAt = LocalDateTime.now().minusHours(10);
+        for (int i = 0; i < 3; i++) {
+            UserEntity student = saveUser("analytics-student-" + i + "@example.com");
+            students.add(student);
+            enrollmentRepository.save(EnrollmentEntity.builder()
+                    .student(student)
+                    .course(course)
+                    .active(true)
+                    .build());
+        }
+        // onCreate stamps enrolled_at with the current time
+        jdbcTemplate.update("UPDATE enrollments SET enrolled_at = ? WHERE course_id = ?",
+                Timestamp.valueOf(enrolledAt), course.getId());
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM course_learner_days WHERE course_id = ?", course.getId());
+        jdbcTemplate.update("DELETE FROM courses WHERE id = ?", course.getId());
+        jdbcTemplate.update("DELETE FROM users WHERE email LIKE 'analytics-%'");
+    }
+
+    @Test
+    void getCourseAnalytics_shouldReportFunnelFromRecordedCompletions() {
+        complete(students.get(0), lesson1, enrolledAt.plusHours(1));
+        complete(students.get(1), lesson1, enrolledAt.plusHours(2));
+        complete(students.get(2), lesson1, enrolledAt.plusHours(3));
+        complete(students.get(0), lesson2, enrolledAt.plusHours(5));
+        recorder.flush();
+
+        CourseAnalyticsResponse analytics = analyticsService.getCourseAnalytics(course.getId(), 30);
+
+        assertThat(analytics.getEnrolledStudents()).isEqualTo(3);
+        assertThat(analytics.getFunnel()).extracting(LessonFunnelStep::getCompletions).containsExactly(3L, 1L);
+        assertThat(analytics.getFunnel()).extracting(LessonFunnelStep::getDropOff).containsExactly(0L, 2L);
+        LessonFunnelStep first = analytics.getFunnel().get(0);
+        assertThat(first.getFirstCompletedAt()).isEqualToIgnoringNanos(enrolledAt.plusHours(1));
+        assertThat(first.getLastCompletedAt()).isEqualToIgnoringNanos(enrolledAt.plusHours(3));
+        assertThat(first.getMedianHoursToComplete()).isBetween(1.5, 2.5);
+    }
+
+    @Test
+    void flush_shouldCountEachLearnerOncePerDay() {
+        LocalDateTime now = LocalDateTime.now();
+        complete(students.get(0), lesson1, now);
+        recorder.flush();
+        complete(students.get(0), lesson2, now);
+        recorder.flush();
+
+        CourseAnalyticsResponse analytics = analyticsService.getCourseAnalytics(course.getId(), 1);
+
+        assertThat(analytics.getActiveLearners()).containsExactly(new DailyActiveLearners(now.toLocalDate(), 1));
+    }
+
+    @Test
+    void flush_shouldFoldEachCompletionOnce() {
+        complete(students.get(0), lesson1, enrolledAt.plusHours(1));
+        recorder.flush();
+        recorder.recordCompletion(students.get(0).getId(), lesson1.getId());
+        recorder.flush();
+
+        CourseAnalyticsResponse analytics = analyticsService.getCourseAnalytics(course.getId(), 30);
+
+        assertThat(analytics.getFunnel()).extracting(LessonFunnelStep::getCompletions).containsExactly(1L, 0L);
+    }
+
+    @Test
+    void deleteCourseProgressAndRollups_shouldTakeFoldedCompletionsBackOut() {
+        complete(students.get(0), lesson1, enrolledAt.plusHours(1));
+        complete(students.get(1), lesson1, enrolledAt.plusHours(2));
+        recorder.flush();
+        // Still buffered when the student unenrolls: dropped by the flush because its progress row is gone
+        complete(students.get(0), lesson2, enrolledAt.plusHours(3));
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+                progressRepository.deleteCourseProgressAndRollups(students.get(0).getId(), course.getId()));
+        recorder.flush();
+
+        CourseAnalyticsResponse analytics = analyticsService.getCourseAnalytics(course.getId(), 30);
+
+        assertThat(analytics.getFunnel()).extracting(LessonFunnelStep::getCompletions).containsExactly(1L, 0L);
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT sum(completions) FROM lesson_completion_time_buckets WHERE lesson_id = ?",
+                Long.class, lesson1.getId())).isEqualTo(1L);
+    }
+
+    // What ProgressService does: the progress row is written first, then the completion is recorded
+    private void complete(UserEntity student, LessonEntity lesson, LocalDateTime completedAt) {
+        jdbcTemplate.update("INSERT INTO progress (student_id, lesson_id, course_id, completed, completed_at) " +
+                        "VALUES (?, ?, ?, true, ?)",
+                student.getId(), lesson.getId(), course.getId(), Timestamp.valueOf(completedAt));
+        recorder.recordCompletion(student.getId(), lesson.getId());
+    }
+
+    private UserEntity saveUser(String email) {
+        return userRepository.save(UserEntity.builder()
+                .firstName("Test")
+                .lastName("User")
+                .email(email)
+                .password("password")
+                .build());
+    }
+
+    private LessonEntity saveLesson(String title, int orderIndex) {
+        return lessonRepository.save(LessonEntity.builder()
+                .title(title)
+                .course(course)
+                .orderIndex(orderIndex)
+                .createdAt(LocalDateTime.now())
+                .build());
+    }
+}
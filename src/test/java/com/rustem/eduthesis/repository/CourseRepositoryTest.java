@@ -1,11 +1,14 @@
 package com.rustem.eduthesis.repository;
 
 import com.rustem.eduthesis.infrastructure.entity.CourseEntity;
+import com.rustem.eduthesis.infrastructure.entity.LessonEntity;
 import com.rustem.eduthesis.infrastructure.entity.RoleEntity;
 import com.rustem.eduthesis.infrastructure.entity.UserEntity;
 import com.rustem.eduthesis.infrastructure.repository.CourseRepository;
 import com.rustem.eduthesis.infrastructure.repository.RoleRepository;
 import com.rustem.eduthesis.infrastructure.repository.UserRepository;
+import com.rustem.eduthesis.infrastructure.repository.projection.CourseHeader;
+import com.rustem.eduthesis.infrastructure.repository.projection.CourseVersion;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -110,6 +113,48 @@ public class CourseRepositoryTest {
                 .containsExactlyInAnyOrder("Java Programming", "Spring Boot Development");
     }
 
+    @Test
+    void findHeadersByIdIn_shouldSelectCourseAndInstructorColumns() {
+        // Act
+        List<CourseHeader> headers = courseRepository.findHeadersByIdIn(List.of(course1.getId(), course3.getId()));
+
+        // Assert
+        assertThat(headers).extracting(CourseHeader::getTitle)
+                .containsExactlyInAnyOrder("Java Programming", "Python Basics");
+        assertThat(headers).extracting(CourseHeader::getInstructorEmail)
+                .containsExactlyInAnyOrder("instructor1@example.com", "instructor2@example.com");
+    }
+
+    @Test
+    void findVersionById_shouldMoveWithCourseAndLessonWrites() {
+        // Act
+        CourseVersion created = courseRepository.findVersionById(course1.getId()).orElseThrow();
+        course1.setTitle("Modern Java Programming");
+        entityManager.flush();
+        CourseVersion edited = courseRepository.findVersionById(course1.getId()).orElseThrow();
+        courseRepository.adjustLessonCount(course1.getId(), 1);
+        courseRepository.bumpVersion(course1.getId());
+        CourseVersion lessonsWritten = courseRepository.findVersionById(course1.getId()).orElseThrow();
+
+        // Assert
+        assertThat(edited.getVersion()).isEqualTo(created.getVersion() + 1);
+        assertThat(lessonsWritten.getVersion()).isEqualTo(edited.getVersion() + 2);
+        assertThat(courseRepository.findVersionById(999L)).isEmpty();
+    }
+
+    @Test
+    void bumpVersionsByInstructorId_shouldOnlyMoveThatInstructorsCourses() {
+        // Arrange
+        Long otherVersion = courseRepository.findVersionById(course3.getId()).orElseThrow().getVersion();
+
+        // Act
+        int bumped = courseRepository.bumpVersionsByInstructorId(instructor1.getId());
+
+        // Assert
+        assertThat(bumped).isEqualTo(2);
+        assertThat(courseRepository.findVersionById(course3.getId()).orElseThrow().getVersion()).isEqualTo(otherVersion);
+    }
+
     @Test
     void findByInstructorId_withNonExistentInstructor_shouldReturnEmptyList() {
         // Act
@@ -248,4 +293,29 @@ public class CourseRepositoryTest {
         // Assert
         assertThat(count).isEqualTo(0);
     }
-}
\ No newline at end of file
+
+    @Test
+    void adjustLessonCount_andReconcileLessonCounts_shouldKeepCounterInSync() {
+        // Arrange
+        entityManager.persist(LessonEntity.builder()
+                .title("Introduction")
+                .orderIndex(1)
+                .course(course1)
+                .createdAt(LocalDateTime.now())
+                .build());
+        courseRepository.adjustLessonCount(course1.getId(), 1);
+        courseRepository.adjustLessonCount(course2.getId(), 3);
+        entityManager.flush();
+
+        // Act
+        int repaired = courseRepository.reconcileLessonCounts(1, courseRepository.findMaxId() + 1);
+        entityManager.clear();
+
+        // Assert
+        assertThat(repaired).isEqualTo(1);
+        assertThat(courseRepository.findById(course1.getId())).get()
+                .extracting(CourseEntity::getLessonCount).isEqualTo(1);
+        assertThat(courseRepository.findById(course2.getId())).get()
+                .extracting(CourseEntity::getLessonCount).isEqualTo(0);
+    }
+}
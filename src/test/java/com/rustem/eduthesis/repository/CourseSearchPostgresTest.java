@@ -0,0 +1,172 @@
+package com.rustem.eduthesis.repository;
+
+import com.rustem.eduthesis.infrastructure.entity.CourseEntity;
+import com.rustem.eduthesis.infrastructure.entity.LessonContentEntity;
+import com.rustem.eduthesis.infrastructure.entity.LessonEntity;
+import com.rustem.eduthesis.infrastructure.entity.UserEntity;
+import com.rustem.eduthesis.infrastructure.repository.CourseRepository;
+import com.rustem.eduthesis.infrastructure.repository.LessonRepository;
+import com.rustem.eduthesis.infrastructure.repository.UserRepository;
+import com.rustem.eduthesis.infrastructure.repository.projection.CourseSearchHit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// The search vectors are generated PostgreSQL columns created by the migrations, so this runs against PostgreSQL
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers(disabledWithoutDocker = true)
+public class CourseSearchPostgresTest {
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+        registry.add("spring.flyway.enabled", () -> true);
+        registry.add("spring.jpa.hibernate.ddl-auto", () -> "validate");
+    }
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private LessonRepository lessonRepository;
+
+    private UserEntity instructor;
+    private CourseEntity javaCourse;
+    private CourseEntity streamsCourse;
+
+    @BeforeEach
+    void setUp() {
+        instructor = userRepository.save(UserEntity.builder()
+                .firstName("Jane")
+                .lastName("Smith")
+                .email("search-instructor@example.com")
+                .password("password")
+                .build());
+        javaCourse = saveCourse("Java Programming", "Classes, generics and collections", true);
+        streamsCourse = saveCourse("Functional Programming", "Lambdas and composition", true);
+        CourseEntity draftCourse = saveCourse("Java Internals", "Unpublished draft", false);
+        saveLesson(streamsCourse, "Streams", "Java streams replace most explicit loops", 1);
+        saveLesson(draftCourse, "Bytecode", "How Java compiles", 1);
+        entityManager.flush();
+    }
+
+    @Test
+    void searchPublished_shouldRankTitleMatchesFirst_AndIncludeLessonMatches() {
+        List<CourseSearchHit> hits = courseRepository.searchPublished("java", Double.MAX_VALUE, 0L, 10);
+
+        assertThat(hits).extracting(CourseSearchHit::getCourseId)
+                .containsExactly(javaCourse.getId(), streamsCourse.getId());
+        assertThat(hits.get(0).getTitleHighlight()).isEqualTo("<mark>Java</mark> Programming");
+        assertThat(hits.get(0).getLessonId()).isNull();
+        assertThat(hits.get(1).getLessonTitle()).isEqualTo("Streams");
+        assertThat(hits.get(1).getLessonHighlight()).contains("<mark>Java</mark>");
+    }
+
+    @Test
+    void searchPublished_shouldEscapeStoredTextInHighlights() {
+        CourseEntity course = saveCourse("Scala <script>alert(1)</script>", "Scala & \"friends\" <img src=x>", true);
+        entityManager.flush();
+
+        List<CourseSearchHit> hits = courseRepository.searchPublished("scala", Double.MAX_VALUE, 0L, 10);
+
+        assertThat(hits).extracting(CourseSearchHit::getCourseId).containsExactly(course.getId());
+        assertThat(hits.get(0).getTitleHighlight())
+                .isEqualTo("<mark>Scala</mark> &lt;script&gt;alert(1)&lt;/script&gt;");
+        assertThat(hits.get(0).getDescriptionHighlight())
+                .startsWith("<mark>Scala</mark> &amp; &quot;friends")
+                .doesNotContain("<img", "\"");
+    }
+
+    @Test
+    void searchPublished_shouldMatchLessonTitles() {
+        List<CourseSearchHit> hits = courseRepository.searchPublished("streams", Double.MAX_VALUE, 0L, 10);
+
+        assertThat(hits).extracting(CourseSearchHit::getCourseId).containsExactly(streamsCourse.getId());
+        assertThat(hits.get(0).getLessonTitle()).isEqualTo("Streams");
+    }
+
+    @Test
+    void searchPublished_shouldStemTerms() {
+        List<CourseSearchHit> hits = courseRepository.searchPublished("stream loop", Double.MAX_VALUE, 0L, 10);
+
+        assertThat(hits).extracting(CourseSearchHit::getCourseId).containsExactly(streamsCourse.getId());
+    }
+
+    @Test
+    void searchPublished_shouldMatchTermsSplitBetweenLessonTitleAndBody() {
+        saveLesson(javaCourse, "Collectors", "Grouping results into maps", 1);
+        entityManager.flush();
+
+        List<CourseSearchHit> hits = courseRepository.searchPublished("collectors grouping", Double.MAX_VALUE, 0L, 10);
+
+        assertThat(hits).extracting(CourseSearchHit::getCourseId).containsExactly(javaCourse.getId());
+        assertThat(hits.get(0).getLessonTitle()).isEqualTo("Collectors");
+    }
+
+    @Test
+    void searchPublished_shouldContinueAfterKeyset() {
+        CourseSearchHit first = courseRepository.searchPublished("java", Double.MAX_VALUE, 0L, 1).get(0);
+
+        List<CourseSearchHit> next = courseRepository.searchPublished("java", first.getRank(), first.getCourseId(), 10);
+
+        assertThat(next).extracting(CourseSearchHit::getCourseId).containsExactly(streamsCourse.getId());
+    }
+
+    @Test
+    void searchPublished_shouldSeeUpdatedTextImmediately() {
+        javaCourse.setTitle("Kotlin Programming");
+        javaCourse.setDescription("Coroutines");
+        entityManager.flush();
+
+        assertThat(courseRepository.searchPublished("kotlin", Double.MAX_VALUE, 0L, 10))
+                .extracting(CourseSearchHit::getCourseId)
+                .containsExactly(javaCourse.getId());
+    }
+
+    private CourseEntity saveCourse(String title, String description, boolean published) {
+        return courseRepository.save(CourseEntity.builder()
+                .title(title)
+                .description(description)
+                .instructor(instructor)
+                .published(published)
+                .build());
+    }
+
+    private void saveLesson(CourseEntity course, String title, String content, int orderIndex) {
+        LessonEntity lesson = lessonRepository.save(LessonEntity.builder()
+                .title(title)
+                .course(course)
+                .orderIndex(orderIndex)
+                .createdAt(LocalDateTime.now())
+                .build());
+        entityManager.persist(LessonContentEntity.builder()
+                .lesson(lesson)
+                .content(content)
+                .build());
+    }
+}
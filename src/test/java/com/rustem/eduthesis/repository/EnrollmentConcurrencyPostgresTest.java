@@ -0,0 +1,155 @@
+package com.rustem.eduthesis.repository;
+
+import com.rustem.eduthesis.infrastructure.entity.CourseEntity;
+import com.rustem.eduthesis.infrastructure.entity.UserEntity;
+import com.rustem.eduthesis.infrastructure.repository.CourseRepository;
+import com.rustem.eduthesis.infrastructure.repository.EnrollmentRepository;
+import com.rustem.eduthesis.infrastructure.repository.UserRepository;
+import com.rustem.eduthesis.infrastructure.repository.projection.EnrollmentOutcome;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Every enroll call commits on its own connection, so the test runs without a surrounding test transaction
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Testcontainers(disabledWithoutDocker = true)
+public class EnrollmentConcurrencyPostgresTest {
+
+    private static final int STUDENTS = 50;
+    private static final int ATTEMPTS = 5_000;
+    private static final int THREADS = 64;
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+        registry.add("spring.flyway.enabled", () -> true);
+        registry.add("spring.jpa.hibernate.ddl-auto", () -> "validate");
+        registry.add("spring.datasource.hikari.maximum-pool-size", () -> THREADS);
+    }
+
+    @Autowired
+    private EnrollmentRepository enrollmentRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    private final List<Long> studentIds = new ArrayList<>();
+    private CourseEntity publishedCourse;
+    private CourseEntity draftCourse;
+
+    @BeforeEach
+    void setUp() {
+        UserEntity instructor = userRepository.save(UserEntity.builder()
+                .firstName("Jane")
+                .lastName("Smith")
+                .email("race-instructor@example.com")
+                .password("password")
+                .build());
+        for (int i = 0; i < STUDENTS; i++) {
+            studentIds.add(userRepository.save(UserEntity.builder()
+                    .firstName("Student")
+                    .lastName(String.valueOf(i))
+                    .email("race-student-" + i + "@example.com")
+                    .password("password")
+                    .build()).getId());
+        }
+        publishedCourse = courseRepository.save(CourseEntity.builder()
+                .title("Launch Day Course")
+                .description("Everyone enrolls at once")
+                .instructor(instructor)
+                .published(true)
+                .build());
+        draftCourse = courseRepository.save(CourseEntity.builder()
+                .title("Draft Course")
+                .description("Not published yet")
+                .instructor(instructor)
+                .published(false)
+                .build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        enrollmentRepository.deleteAllInBatch();
+        courseRepository.deleteAllInBatch();
+        userRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void enrollIfPublished_underConcurrentDuplicates_shouldCreateExactlyOneEnrollmentPerStudent() throws Exception {
+        // Arrange
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Callable<EnrollmentOutcome>> attempts = new ArrayList<>();
+        for (int i = 0; i < ATTEMPTS; i++) {
+            Long studentId = studentIds.get(i % STUDENTS);
+            attempts.add(() -> {
+                start.await();
+                return enrollmentRepository.enrollIfPublished(studentId, publishedCourse.getId(), LocalDateTime.now());
+            });
+        }
+
+        // Act
+        List<Future<EnrollmentOutcome>> futures = new ArrayList<>();
+        for (Callable<EnrollmentOutcome> attempt : attempts) {
+            futures.add(executor.submit(attempt));
+        }
+        start.countDown();
+        Map<EnrollmentOutcome, Integer> outcomes = new EnumMap<>(EnrollmentOutcome.class);
+        for (Future<EnrollmentOutcome> future : futures) {
+            outcomes.merge(future.get(), 1, Integer::sum);
+        }
+        executor.shutdown();
+
+        // Assert
+        assertThat(outcomes).containsEntry(EnrollmentOutcome.CREATED, STUDENTS)
+                .containsEntry(EnrollmentOutcome.ALREADY_ENROLLED, ATTEMPTS - STUDENTS)
+                .doesNotContainKey(EnrollmentOutcome.COURSE_NOT_AVAILABLE);
+        assertThat(enrollmentRepository.countByCourseId(publishedCourse.getId())).isEqualTo(STUDENTS);
+        assertThat(courseRepository.findVersionById(publishedCourse.getId()).orElseThrow().getVersion())
+                .isEqualTo(publishedCourse.getVersion() + STUDENTS);
+    }
+
+    @Test
+    void enrollIfPublished_withDraftOrMissingCourse_shouldNotInsert() {
+        Long studentId = studentIds.get(0);
+
+        assertThat(enrollmentRepository.enrollIfPublished(studentId, draftCourse.getId(), LocalDateTime.now()))
+                .isEqualTo(EnrollmentOutcome.COURSE_NOT_AVAILABLE);
+        assertThat(enrollmentRepository.enrollIfPublished(studentId, Long.MAX_VALUE, LocalDateTime.now()))
+                .isEqualTo(EnrollmentOutcome.COURSE_NOT_AVAILABLE);
+        assertThat(enrollmentRepository.countByStudentId(studentId)).isZero();
+    }
+}
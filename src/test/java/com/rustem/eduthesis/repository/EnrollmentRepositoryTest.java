@@ -2,12 +2,16 @@ package com.rustem.eduthesis.repository;
 
 import com.rustem.eduthesis.infrastructure.entity.CourseEntity;
 import com.rustem.eduthesis.infrastructure.entity.EnrollmentEntity;
+import com.rustem.eduthesis.infrastructure.entity.LessonEntity;
+import com.rustem.eduthesis.infrastructure.entity.ProgressEntity;
 import com.rustem.eduthesis.infrastructure.entity.RoleEntity;
 import com.rustem.eduthesis.infrastructure.entity.UserEntity;
 import com.rustem.eduthesis.infrastructure.repository.CourseRepository;
 import com.rustem.eduthesis.infrastructure.repository.EnrollmentRepository;
 import com.rustem.eduthesis.infrastructure.repository.RoleRepository;
 import com.rustem.eduthesis.infrastructure.repository.UserRepository;
+import com.rustem.eduthesis.infrastructure.repository.projection.EnrollmentExportRow;
+import com.rustem.eduthesis.infrastructure.repository.projection.EnrollmentRow;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -18,6 +22,7 @@ import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -146,6 +151,19 @@ public class EnrollmentRepositoryTest {
                 .containsExactlyInAnyOrder("Java Programming", "Spring Boot Development");
     }
 
+    @Test
+    void findRowsByStudentId_shouldSelectEnrollmentAndStudentColumns() {
+        // Act
+        List<EnrollmentRow> rows = enrollmentRepository.findRowsByStudentId(student1.getId());
+
+        // Assert
+        assertThat(rows).hasSize(2);
+        assertThat(rows).extracting(EnrollmentRow::getCourseId)
+                .containsExactlyInAnyOrder(course1.getId(), course2.getId());
+        assertThat(rows).extracting(EnrollmentRow::getEmail).containsOnly(student1.getEmail());
+        assertThat(rows).allMatch(row -> row.getLessonCount() != null && row.getCompletedLessons() != null);
+    }
+
     @Test
     void findByStudentId_withNonExistentStudent_shouldReturnEmptyList() {
         // Act
@@ -362,4 +380,44 @@ public class EnrollmentRepositoryTest {
         List<EnrollmentEntity> remainingEnrollments = enrollmentRepository.findByStudentId(student1.getId());
         assertThat(remainingEnrollments).hasSize(1);
     }
-}
\ No newline at end of file
+
+    @Test
+    void reconcileCompletedLessons_shouldRepairDriftedCounters() {
+        // Arrange
+        LessonEntity lesson = entityManager.persist(LessonEntity.builder()
+                .title("Introduction")
+                .orderIndex(1)
+                .course(course1)
+                .createdAt(LocalDateTime.now())
+                .build());
+        entityManager.persist(ProgressEntity.builder()
+                .student(student1)
+                .course(course1)
+                .lesson(lesson)
+                .completed(true)
+                .completedAt(LocalDateTime.now())
+                .build());
+        entityManager.flush();
+
+        // Act
+        int repaired = enrollmentRepository.reconcileCompletedLessons(1, enrollmentRepository.findMaxId() + 1);
+        entityManager.clear();
+
+        List<EnrollmentExportRow> rows;
+        try (Stream<EnrollmentExportRow> stream = enrollmentRepository.streamExportRowsByCourseId(course1.getId())) {
+            rows = stream.toList();
+        }
+
+        // Assert
+        assertThat(repaired).isEqualTo(1);
+        assertThat(rows).hasSize(2);
+        assertThat(rows).extracting(EnrollmentExportRow::getEmail)
+                .containsExactlyInAnyOrder("student1@example.com", "student2@example.com");
+        assertThat(rows).filteredOn(row -> row.getStudentId().equals(student1.getId()))
+                .extracting(EnrollmentExportRow::getCompletedLessons)
+                .containsExactly(1);
+        assertThat(rows).filteredOn(row -> row.getStudentId().equals(student2.getId()))
+                .extracting(EnrollmentExportRow::getCompletedLessons)
+                .containsExactly(0);
+    }
+}
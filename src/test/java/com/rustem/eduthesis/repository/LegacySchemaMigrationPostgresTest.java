@@ -0,0 +1,105 @@
+package com.rustem.eduthesis.repository;
+
+import com.rustem.eduthesis.infrastructure.entity.CourseEntity;
+import com.rustem.eduthesis.infrastructure.entity.UserEntity;
+import com.rustem.eduthesis.infrastructure.repository.CourseRepository;
+import com.rustem.eduthesis.infrastructure.repository.UserRepository;
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.MigrationInfo;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Starts from the schema the app used before the migrations (db/legacy/schema.sql, as ddl-auto=update left it)
+// with some data in it; starting the context proves the baselined database passes ddl-auto=validate
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers(disabledWithoutDocker = true)
+public class LegacySchemaMigrationPostgresTest {
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine")
+            .withInitScripts("db/legacy/schema.sql", "db/legacy/data.sql");
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+        registry.add("spring.flyway.enabled", () -> true);
+        registry.add("spring.jpa.hibernate.ddl-auto", () -> "validate");
+    }
+
+    @Autowired
+    private Flyway flyway;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    void migrate_shouldBaselineAtV1_AndApplyEverythingAfterIt() {
+        MigrationInfo[] applied = flyway.info().applied();
+
+        assertThat(applied[0].getType().isBaseline()).isTrue();
+        assertThat(applied[0].getVersion().getVersion()).isEqualTo("1");
+        assertThat(applied[1].getVersion().getVersion()).isEqualTo("2");
+        assertThat(flyway.info().pending()).isEmpty();
+    }
+
+    @Test
+    void migrate_shouldWidenLegacyIdColumnsToBigint() {
+        List<String> integerIds = jdbcTemplate.queryForList(
+                "SELECT table_name || '.' || column_name FROM information_schema.columns " +
+                        "WHERE table_schema = current_schema() AND data_type = 'integer' " +
+                        "AND (column_name = 'id' OR column_name LIKE '%\\_id')", String.class);
+
+        assertThat(integerIds).isEmpty();
+    }
+
+    @Test
+    void migrate_shouldBackfillProgressCounters() {
+        CourseEntity course = courseRepository.findAll().stream()
+                .filter(c -> c.getTitle().equals("Legacy Course"))
+                .findFirst()
+                .orElseThrow();
+        Integer completedLessons = jdbcTemplate.queryForObject(
+                "SELECT completed_lessons FROM enrollments WHERE course_id = ?", Integer.class, course.getId());
+
+        assertThat(course.getLessonCount()).isEqualTo(2);
+        assertThat(completedLessons).isEqualTo(1);
+    }
+
+    @Test
+    void save_shouldNotReuseLegacyUserIds() {
+        UserEntity user = userRepository.save(UserEntity.builder()
+                .email("after-migration@example.com")
+                .password("password123")
+                .firstName("After")
+                .lastName("Migration")
+                .enabled(true)
+                .createdAt(LocalDateTime.now())
+                .build());
+
+        assertThat(userRepository.findAll()).extracting(UserEntity::getEmail)
+                .contains("admin@edu.com", "legacy-instructor@example.com", "after-migration@example.com");
+        assertThat(user.getId()).isGreaterThan(3L);
+    }
+}
@@ -0,0 +1,111 @@
+package com.rustem.eduthesis.repository;
+
+import com.rustem.eduthesis.infrastructure.entity.CourseEntity;
+import com.rustem.eduthesis.infrastructure.entity.LessonContentEntity;
+import com.rustem.eduthesis.infrastructure.entity.LessonEntity;
+import com.rustem.eduthesis.infrastructure.entity.UserEntity;
+import com.rustem.eduthesis.infrastructure.repository.LessonContentRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+public class LessonContentRepositoryTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private LessonContentRepository lessonContentRepository;
+
+    private CourseEntity course;
+    private LessonEntity lesson1;
+    private LessonEntity lesson2;
+
+    @BeforeEach
+    void setUp() {
+        UserEntity instructor = entityManager.persist(UserEntity.builder()
+                .email("content-instructor@example.com")
+                .firstName("Jane")
+                .lastName("Smith")
+                .password("password123")
+                .createdAt(LocalDateTime.now())
+                .build());
+
+        course = entityManager.persist(CourseEntity.builder()
+                .title("Java Programming")
+                .description("Learn Java programming")
+                .instructor(instructor)
+                .published(true)
+                .createdAt(LocalDateTime.now())
+                .build());
+
+        lesson1 = saveLesson("Introduction to Java", 1, "This lesson covers Java basics");
+        lesson2 = saveLesson("Java Variables", 2, "Learn about Java variables and data types");
+        entityManager.flush();
+    }
+
+    @Test
+    void findById_shouldShareTheLessonId() {
+        // Act
+        LessonContentEntity content = lessonContentRepository.findById(lesson1.getId()).orElseThrow();
+
+        // Assert
+        assertThat(content.getContent()).isEqualTo("This lesson covers Java basics");
+        assertThat(content.getAdditionalResources()).isEqualTo("Resources for Introduction to Java");
+    }
+
+    @Test
+    void findByLessonIdAndLesson_Course_Id_withOtherCourse_shouldReturnEmpty() {
+        // Assert
+        assertThat(lessonContentRepository.findByLessonIdAndLesson_Course_Id(lesson1.getId(), course.getId())).isPresent();
+        assertThat(lessonContentRepository.findByLessonIdAndLesson_Course_Id(lesson1.getId(), 999L)).isEmpty();
+    }
+
+    @Test
+    void findByContentContainingIgnoreCase_shouldReturnMatchingContent() {
+        // Act
+        List<LessonContentEntity> contents = lessonContentRepository.findByContentContainingIgnoreCase("VARIABLES");
+
+        // Assert
+        assertThat(contents).extracting(LessonContentEntity::getLessonId).containsExactly(lesson2.getId());
+    }
+
+    @Test
+    void deletingLesson_shouldDeleteItsContent() {
+        // Arrange
+        Long lessonId = lesson1.getId();
+        entityManager.clear();
+
+        // Act
+        entityManager.remove(entityManager.find(LessonEntity.class, lessonId));
+        entityManager.flush();
+        entityManager.clear();
+
+        // Assert
+        assertThat(lessonContentRepository.findById(lessonId)).isEmpty();
+        assertThat(lessonContentRepository.findById(lesson2.getId())).isPresent();
+    }
+
+    private LessonEntity saveLesson(String title, int orderIndex, String body) {
+        LessonEntity lesson = entityManager.persist(LessonEntity.builder()
+                .title(title)
+                .orderIndex(orderIndex)
+                .course(course)
+                .createdAt(LocalDateTime.now())
+                .build());
+        entityManager.persist(LessonContentEntity.builder()
+                .lesson(lesson)
+                .content(body)
+                .additionalResources("Resources for " + title)
+                .build());
+        return lesson;
+    }
+}
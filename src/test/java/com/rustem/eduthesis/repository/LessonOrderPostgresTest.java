@@ -0,0 +1,222 @@
+package com.rustem.eduthesis.repository;
+
+import com.rustem.eduthesis.api.dto.LessonResponse;
+import com.rustem.eduthesis.infrastructure.entity.CourseEntity;
+import com.rustem.eduthesis.infrastructure.entity.LessonEntity;
+import com.rustem.eduthesis.infrastructure.entity.UserEntity;
+import com.rustem.eduthesis.infrastructure.mapper.LessonMapper;
+import com.rustem.eduthesis.infrastructure.repository.CourseRepository;
+import com.rustem.eduthesis.infrastructure.repository.LessonRepository;
+import com.rustem.eduthesis.infrastructure.repository.UserRepository;
+import com.rustem.eduthesis.infrastructure.repository.projection.LessonOrderKey;
+import com.rustem.eduthesis.infrastructure.service.LessonOrderKeys;
+import com.rustem.eduthesis.infrastructure.service.LessonService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// Rebalancing and whole-order replacement are PostgreSQL statements that rely on the deferrable unique constraint,
+// and every service call commits on its own, so the test runs without a surrounding test transaction
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({LessonService.class, LessonMapper.class})
+@Testcontainers(disabledWithoutDocker = true)
+public class LessonOrderPostgresTest {
+
+    private static final int LESSONS = 10;
+    private static final int THREADS = 8;
+    private static final int MOVES_PER_THREAD = 40;
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+        registry.add("spring.flyway.enabled", () -> true);
+        registry.add("spring.jpa.hibernate.ddl-auto", () -> "validate");
+    }
+
+    @Autowired
+    private LessonService lessonService;
+
+    @Autowired
+    private LessonRepository lessonRepository;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private UserEntity instructor;
+    private CourseEntity course;
+    private final List<Long> lessonIds = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        instructor = userRepository.save(UserEntity.builder()
+                .firstName("Jane")
+                .lastName("Smith")
+                .email("order-instructor@example.com")
+                .password("password")
+                .build());
+        course = courseRepository.save(CourseEntity.builder()
+                .title("Java Programming")
+                .description("Learn Java programming")
+                .instructor(instructor)
+                .build());
+        for (int i = 1; i <= LESSONS; i++) {
+            lessonIds.add(saveLesson("Lesson " + i, LessonOrderKeys.atPosition(i)).getId());
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        lessonRepository.deleteAllInBatch();
+        courseRepository.deleteAllInBatch();
+        userRepository.deleteById(instructor.getId());
+    }
+
+    @Test
+    void moveLesson_repeatedlyToFront_shouldRebalanceWhenKeysRunOut() {
+        // Act: each move halves the first key, so the gap in front runs out after about log2(GAP) moves
+        List<LessonResponse> lessons = List.of();
+        for (int i = 0; i < 2 * LESSONS; i++) {
+            lessons = lessonService.moveLesson(course.getId(), lessonIds.get(LESSONS - 1 - i % LESSONS), 1);
+        }
+
+        // Assert: moving the last lesson to the front LESSONS times is a full rotation, twice
+        assertThat(lessons).extracting(LessonResponse::getId).containsExactlyElementsOf(lessonIds);
+        assertThat(orderKeys()).doesNotHaveDuplicates().allMatch(key -> key > 0);
+    }
+
+    @Test
+    void reorderLessons_shouldPermuteKeysInOneStatement() {
+        // Arrange
+        List<Long> reversed = new ArrayList<>(lessonIds);
+        Collections.reverse(reversed);
+
+        // Act: every key is taken by another lesson before the statement ends
+        List<LessonResponse> lessons = lessonService.reorderLessons(course.getId(), reversed);
+
+        // Assert
+        assertThat(lessons).extracting(LessonResponse::getId).containsExactlyElementsOf(reversed);
+        assertThat(orderKeys()).containsExactly(1024, 2048, 3072, 4096, 5120, 6144, 7168, 8192, 9216, 10240);
+    }
+
+    @Test
+    void rebalanceOrder_shouldRespaceKeysAndBumpVersionsOfMovedLessons() {
+        // Arrange
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.executeWithoutResult(status -> lessonRepository.updateOrderIndex(lessonIds.get(1), 1025));
+        long versionsBefore = versionSum();
+
+        // Act
+        Integer updated = transaction.execute(status -> lessonRepository.rebalanceOrder(course.getId(), LessonOrderKeys.GAP));
+
+        // Assert: only the lesson off its slot is rewritten
+        assertThat(updated).isEqualTo(1);
+        assertThat(orderKeys()).containsExactly(1024, 2048, 3072, 4096, 5120, 6144, 7168, 8192, 9216, 10240);
+        assertThat(versionSum()).isEqualTo(versionsBefore + 1);
+    }
+
+    @Test
+    void save_withTakenOrderIndex_shouldBeRejectedByConstraint() {
+        assertThatThrownBy(() -> saveLesson("Duplicate", LessonOrderKeys.atPosition(1)))
+                .isInstanceOf(DataIntegrityViolationException.class);
+    }
+
+    @Test
+    void moveLesson_underConcurrentInstructors_shouldKeepOneLessonPerKey() throws Exception {
+        // Arrange
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Callable<Void>> instructors = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            Random random = new Random(t);
+            instructors.add(() -> {
+                start.await();
+                for (int i = 0; i < MOVES_PER_THREAD; i++) {
+                    lessonService.moveLesson(course.getId(), lessonIds.get(random.nextInt(LESSONS)),
+                            1 + random.nextInt(LESSONS));
+                }
+                return null;
+            });
+        }
+
+        // Act
+        List<Future<Void>> futures = new ArrayList<>();
+        for (Callable<Void> moves : instructors) {
+            futures.add(executor.submit(moves));
+        }
+        start.countDown();
+        for (Future<Void> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+
+        // Assert
+        assertThat(lessonRepository.findOrderKeysByCourseId(course.getId()))
+                .extracting(LessonOrderKey::getId)
+                .containsExactlyInAnyOrderElementsOf(lessonIds);
+        assertThat(orderKeys()).hasSize(LESSONS).doesNotHaveDuplicates();
+    }
+
+    private List<Integer> orderKeys() {
+        return lessonRepository.findOrderKeysByCourseId(course.getId()).stream()
+                .map(LessonOrderKey::getOrderIndex)
+                .toList();
+    }
+
+    private long versionSum() {
+        return jdbcTemplate.queryForObject("SELECT sum(version) FROM lessons WHERE course_id = ?", Long.class, course.getId());
+    }
+
+    private LessonEntity saveLesson(String title, int orderIndex) {
+        return lessonRepository.saveAndFlush(LessonEntity.builder()
+                .title(title)
+                .course(course)
+                .orderIndex(orderIndex)
+                .createdAt(LocalDateTime.now())
+                .build());
+    }
+}
@@ -8,6 +8,8 @@ import com.rustem.eduthesis.infrastructure.repository.CourseRepository;
 import com.rustem.eduthesis.infrastructure.repository.LessonRepository;
 import com.rustem.eduthesis.infrastructure.repository.RoleRepository;
 import com.rustem.eduthesis.infrastructure.repository.UserRepository;
+import com.rustem.eduthesis.infrastructure.repository.projection.LessonContentVersion;
+import com.rustem.eduthesis.infrastructure.repository.projection.LessonListVersion;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -85,7 +87,6 @@ public class LessonRepositoryTest {
 
         lesson1 = LessonEntity.builder()
                 .title("Introduction to Java")
-                .content("This lesson covers Java basics")
                 .videoUrl("https://example.com/video1")
                 .orderIndex(1)
                 .course(course1)
@@ -94,7 +95,6 @@ public class LessonRepositoryTest {
 
         lesson2 = LessonEntity.builder()
                 .title("Java Variables")
-                .content("Learn about Java variables and data types")
                 .videoUrl("https://example.com/video2")
                 .orderIndex(2)
                 .course(course1)
@@ -103,7 +103,6 @@ public class LessonRepositoryTest {
 
         lesson3 = LessonEntity.builder()
                 .title("Control Structures")
-                .content("Understanding if-else and loops")
                 .videoUrl("https://example.com/video3")
                 .orderIndex(3)
                 .course(course1)
@@ -112,7 +111,6 @@ public class LessonRepositoryTest {
 
         lesson4 = LessonEntity.builder()
                 .title("Spring Boot Basics")
-                .content("Introduction to Spring Boot framework")
                 .videoUrl("https://example.com/video4")
                 .orderIndex(1)
                 .course(course2)
@@ -138,6 +136,43 @@ public class LessonRepositoryTest {
                 .containsExactlyInAnyOrder("Introduction to Java", "Java Variables", "Control Structures");
     }
 
+    @Test
+    void findListVersionByCourseId_shouldChangeWhenALessonIsUpdated() {
+        // Act
+        LessonListVersion before = lessonRepository.findListVersionByCourseId(course1.getId()).orElseThrow();
+        lesson2.setTitle("Java Variables and Types");
+        entityManager.flush();
+        LessonListVersion after = lessonRepository.findListVersionByCourseId(course1.getId()).orElseThrow();
+
+        // Assert
+        assertThat(before.getLessonCount()).isEqualTo(3L);
+        assertThat(before.getMaxLessonId()).isEqualTo(lesson3.getId());
+        assertThat(after.getLessonVersionSum()).isEqualTo(before.getLessonVersionSum() + 1);
+        assertThat(after.getPublished()).isTrue();
+    }
+
+    @Test
+    void findListVersionByCourseId_withoutLessons_shouldReturnZeroCounters() {
+        // Arrange
+        CourseEntity emptyCourse = courseRepository.save(CourseEntity.builder()
+                .title("Empty Course")
+                .description("No lessons yet")
+                .instructor(instructor)
+                .published(false)
+                .createdAt(LocalDateTime.now())
+                .build());
+        entityManager.flush();
+
+        // Act
+        Optional<LessonListVersion> version = lessonRepository.findListVersionByCourseId(emptyCourse.getId());
+
+        // Assert
+        assertThat(version).isPresent();
+        assertThat(version.get().getLessonCount()).isZero();
+        assertThat(version.get().getLessonVersionSum()).isZero();
+        assertThat(version.get().getLessonsUpdatedAt()).isNull();
+    }
+
     @Test
     void findByCourseId_withNonExistentCourse_shouldReturnEmptyList() {
         // Act
@@ -269,7 +304,6 @@ public class LessonRepositoryTest {
         // Arrange
         LessonEntity lessonWithoutVideo = LessonEntity.builder()
                 .title("Text Only Lesson")
-                .content("This lesson has no video")
                 .orderIndex(4)
                 .course(course1)
                 .createdAt(LocalDateTime.now())
@@ -330,7 +364,6 @@ public class LessonRepositoryTest {
         // Arrange
         LessonEntity newLesson = LessonEntity.builder()
                 .title("New Java Lesson")
-                .content("This is a new lesson")
                 .videoUrl("https://example.com/new-video")
                 .orderIndex(4)
                 .course(course1)
@@ -361,13 +394,17 @@ public class LessonRepositoryTest {
     }
 
     @Test
-    void findByContentContainingIgnoreCase_shouldReturnMatchingLessons() {
+    void findContentVersionByIdAndCourseId_shouldOnlyMatchLessonsOfTheCourse() {
         // Act
-        List<LessonEntity> lessons = lessonRepository.findByContentContainingIgnoreCase("variables");
+        Optional<LessonContentVersion> version = lessonRepository.findContentVersionByIdAndCourseId(lesson2.getId(), course1.getId());
+        Optional<LessonContentVersion> otherCourse = lessonRepository.findContentVersionByIdAndCourseId(lesson2.getId(), course2.getId());
 
         // Assert
-        assertThat(lessons).hasSize(1);
-        assertThat(lessons.get(0).getTitle()).isEqualTo("Java Variables");
+        assertThat(version).isPresent();
+        assertThat(version.get().getVersion()).isEqualTo(lesson2.getVersion());
+        assertThat(version.get().getUpdatedAt()).isNotNull();
+        assertThat(version.get().getPublished()).isTrue();
+        assertThat(otherCourse).isEmpty();
     }
 
     @Test
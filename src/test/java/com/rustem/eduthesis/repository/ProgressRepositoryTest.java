@@ -2,11 +2,13 @@ package com.rustem.eduthesis.repository;
 
 import com.rustem.eduthesis.infrastructure.entity.*;
 import com.rustem.eduthesis.infrastructure.repository.*;
+import com.rustem.eduthesis.infrastructure.repository.projection.ProgressRow;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
 
 import java.time.LocalDateTime;
 import java.util.HashSet;
@@ -106,7 +108,6 @@ public class ProgressRepositoryTest {
 
         lesson1 = LessonEntity.builder()
                 .title("Introduction to Java")
-                .content("Basic Java concepts")
                 .course(course1)
                 .orderIndex(1)
                 .createdAt(LocalDateTime.now())
@@ -115,7 +116,6 @@ public class ProgressRepositoryTest {
 
         lesson2 = LessonEntity.builder()
                 .title("Java Variables")
-                .content("Understanding variables in Java")
                 .course(course1)
                 .orderIndex(2)
                 .createdAt(LocalDateTime.now())
@@ -124,7 +124,6 @@ public class ProgressRepositoryTest {
 
         lesson3 = LessonEntity.builder()
                 .title("Control Structures")
-                .content("If statements and loops")
                 .course(course2)
                 .orderIndex(1)
                 .createdAt(LocalDateTime.now())
@@ -172,6 +171,28 @@ public class ProgressRepositoryTest {
                 .containsExactlyInAnyOrder("Introduction to Java", "Java Variables");
     }
 
+    @Test
+    void findRowsByStudentIdAndCourseId_shouldSelectLessonColumnsInLessonOrder() {
+        // Act
+        List<ProgressRow> rows = progressRepository.findRowsByStudentIdAndCourseId(student1.getId(), course1.getId());
+
+        // Assert
+        assertThat(rows).extracting(ProgressRow::getLessonTitle).containsExactly("Introduction to Java", "Java Variables");
+        assertThat(rows).extracting(ProgressRow::getCourseId).containsOnly(course1.getId());
+        assertThat(rows).extracting(ProgressRow::getCompleted).containsExactly(true, false);
+    }
+
+    @Test
+    void findRowPageByStudentIdAfter_shouldContinueAfterId() {
+        // Act
+        List<ProgressRow> rows = progressRepository.findRowPageByStudentIdAfter(
+                student1.getId(), progress1.getId(), PageRequest.of(0, 10));
+
+        // Assert
+        assertThat(rows).extracting(ProgressRow::getId).containsExactly(progress2.getId());
+        assertThat(rows.get(0).getLessonId()).isEqualTo(lesson2.getId());
+    }
+
     @Test
     void findByStudentId_withNonExistentStudent_shouldReturnEmptyList() {
         // Act
@@ -0,0 +1,159 @@
+package com.rustem.eduthesis.repository;
+
+import com.rustem.eduthesis.infrastructure.entity.*;
+import com.rustem.eduthesis.infrastructure.repository.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// The batch upsert is PostgreSQL-specific SQL, so it runs against a real PostgreSQL instead of H2
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers(disabledWithoutDocker = true)
+public class ProgressUpsertPostgresTest {
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+        registry.add("spring.flyway.enabled", () -> true);
+        registry.add("spring.jpa.hibernate.ddl-auto", () -> "validate");
+    }
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private ProgressRepository progressRepository;
+
+    @Autowired
+    private EnrollmentRepository enrollmentRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private LessonRepository lessonRepository;
+
+    private UserEntity student;
+    private CourseEntity course;
+    private LessonEntity lesson1;
+    private LessonEntity lesson2;
+    private LessonEntity lesson3;
+
+    @BeforeEach
+    void setUp() {
+        UserEntity instructor = userRepository.save(UserEntity.builder()
+                .firstName("Jane")
+                .lastName("Smith")
+                .email("upsert-instructor@example.com")
+                .password("password")
+                .build());
+        student = userRepository.save(UserEntity.builder()
+                .firstName("John")
+                .lastName("Doe")
+                .email("upsert-student@example.com")
+                .password("password")
+                .build());
+        course = courseRepository.save(CourseEntity.builder()
+                .title("Java Programming")
+                .description("Learn Java programming")
+                .instructor(instructor)
+                .build());
+        lesson1 = saveLesson("Introduction to Java", 1);
+        lesson2 = saveLesson("Java Variables", 2);
+        lesson3 = saveLesson("Control Structures", 3);
+
+        enrollmentRepository.save(EnrollmentEntity.builder()
+                .student(student)
+                .course(course)
+                .build());
+        progressRepository.save(ProgressEntity.builder()
+                .student(student)
+                .lesson(lesson1)
+                .course(course)
+                .completed(true)
+                .completedAt(LocalDateTime.now().minusDays(1))
+                .build());
+        progressRepository.save(ProgressEntity.builder()
+                .student(student)
+                .lesson(lesson2)
+                .course(course)
+                .completed(false)
+                .build());
+        entityManager.flush();
+    }
+
+    @Test
+    void upsertCompleted_shouldInsertNewRows_FlipIncompleteRows_AndSkipCompletedOnes() {
+        // Arrange
+        LocalDateTime offlineAt = LocalDateTime.now().minusHours(3).truncatedTo(ChronoUnit.MICROS);
+
+        // Act
+        List<Long> newlyCompleted = progressRepository.upsertCompleted(student.getId(),
+                new Long[]{lesson1.getId(), lesson2.getId(), lesson3.getId()},
+                new Long[]{course.getId(), course.getId(), course.getId()},
+                new LocalDateTime[]{offlineAt, offlineAt, offlineAt});
+        entityManager.clear();
+
+        // Assert
+        assertThat(newlyCompleted).containsExactlyInAnyOrder(lesson2.getId(), lesson3.getId());
+        List<ProgressEntity> progress = progressRepository.findByStudentIdAndCourseId(student.getId(), course.getId());
+        assertThat(progress).hasSize(3).allMatch(ProgressEntity::isCompleted);
+        assertThat(progress).filteredOn(p -> p.getLesson().getId().equals(lesson3.getId()))
+                .extracting(ProgressEntity::getCompletedAt)
+                .containsExactly(offlineAt);
+        assertThat(progress).filteredOn(p -> p.getLesson().getId().equals(lesson1.getId()))
+                .extracting(ProgressEntity::getCompletedAt)
+                .noneMatch(offlineAt::equals);
+    }
+
+    @Test
+    void refreshCompletedLessons_shouldRecountCompletedProgress() {
+        // Arrange
+        progressRepository.upsertCompleted(student.getId(),
+                new Long[]{lesson3.getId()}, new Long[]{course.getId()}, new LocalDateTime[]{LocalDateTime.now()});
+
+        // Act
+        int updated = enrollmentRepository.refreshCompletedLessons(student.getId(), Set.of(course.getId()), LocalDateTime.now());
+        entityManager.clear();
+
+        // Assert
+        assertThat(updated).isEqualTo(1);
+        assertThat(enrollmentRepository.findByStudentIdAndCourseId(student.getId(), course.getId()))
+                .get()
+                .extracting(EnrollmentEntity::getCompletedLessons)
+                .isEqualTo(2);
+    }
+
+    private LessonEntity saveLesson(String title, int orderIndex) {
+        return lessonRepository.save(LessonEntity.builder()
+                .title(title)
+                .course(course)
+                .orderIndex(orderIndex)
+                .createdAt(LocalDateTime.now())
+                .build());
+    }
+}
@@ -0,0 +1,103 @@
+package com.rustem.eduthesis.repository;
+
+import com.rustem.eduthesis.infrastructure.entity.UserEntity;
+import com.rustem.eduthesis.infrastructure.repository.UserRepository;
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.MigrationInfo;
+import org.flywaydb.core.api.MigrationState;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Starting the context already proves the migrated schema passes ddl-auto=validate
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers(disabledWithoutDocker = true)
+public class SchemaMigrationPostgresTest {
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+        registry.add("spring.flyway.enabled", () -> true);
+        registry.add("spring.jpa.hibernate.ddl-auto", () -> "validate");
+    }
+
+    @Autowired
+    private Flyway flyway;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    void migrate_shouldApplyEveryVersion() {
+        MigrationInfo[] applied = flyway.info().applied();
+
+        assertThat(applied).hasSameSizeAs(flyway.info().all());
+        assertThat(Arrays.stream(applied).map(MigrationInfo::getState)).allMatch(MigrationState::isApplied);
+        assertThat(applied[0].getVersion().getVersion()).isEqualTo("1");
+        assertThat(flyway.info().pending()).isEmpty();
+    }
+
+    @Test
+    void migrate_shouldCreateCompositeIndexes_AndDropTheirPrefixes() {
+        List<String> indexes = jdbcTemplate.queryForList(
+                "SELECT c.relname FROM pg_index i JOIN pg_class c ON c.oid = i.indexrelid " +
+                        "WHERE i.indisvalid AND c.relname LIKE 'idx_%'", String.class);
+
+        assertThat(indexes).contains(
+                "idx_progress_student_course_completed",
+                "idx_courses_published_id",
+                "idx_enrollments_course_enrolled_at");
+        assertThat(indexes).doesNotContain("idx_progress_student", "idx_lessons_course", "idx_enrollments_course");
+    }
+
+    @Test
+    void migrate_shouldReplaceLessonOrderIndexWithDeferrableUniqueConstraint() {
+        List<String> indexes = jdbcTemplate.queryForList(
+                "SELECT indexname FROM pg_indexes WHERE tablename = 'lessons'", String.class);
+        Boolean deferrable = jdbcTemplate.queryForObject(
+                "SELECT condeferrable FROM pg_constraint WHERE conname = 'uq_lessons_course_order' AND contype = 'u'",
+                Boolean.class);
+
+        assertThat(indexes).contains("uq_lessons_course_order").doesNotContain("idx_lessons_course_order");
+        assertThat(deferrable).isTrue();
+    }
+
+    @Test
+    void save_shouldNotReuseTheSeededAdminId() {
+        Long adminId = userRepository.findByEmail("admin@edu.com").orElseThrow().getId();
+
+        UserEntity user = userRepository.save(UserEntity.builder()
+                .email("migration-user@example.com")
+                .password("password123")
+                .firstName("Migration")
+                .lastName("User")
+                .enabled(true)
+                .createdAt(LocalDateTime.now())
+                .build());
+
+        assertThat(user.getId()).isNotEqualTo(adminId);
+        assertThat(userRepository.findByEmail("admin@edu.com")).isPresent();
+    }
+}
@@ -0,0 +1,98 @@
+package com.rustem.eduthesis.security;
+
+import com.rustem.eduthesis.infrastructure.repository.CourseRepository;
+import com.rustem.eduthesis.infrastructure.security.CourseOwnershipIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class CourseOwnershipIndexTest {
+
+    @Mock
+    private CourseRepository courseRepository;
+
+    private CourseOwnershipIndex ownershipIndex;
+
+    @BeforeEach
+    void setUp() {
+        ownershipIndex = new CourseOwnershipIndex(courseRepository, 100, Duration.ofHours(1));
+    }
+
+    @Test
+    void isOwner_shouldQueryInstructorOnlyOnce() {
+        when(courseRepository.findInstructorIdById(101L)).thenReturn(Optional.of(301L));
+
+        assertThat(ownershipIndex.isOwner(101L, 301L)).isTrue();
+        assertThat(ownershipIndex.isOwner(101L, 302L)).isFalse();
+        assertThat(ownershipIndex.isOwner(101L, 301L)).isTrue();
+
+        verify(courseRepository, times(1)).findInstructorIdById(101L);
+    }
+
+    @Test
+    void isOwner_shouldNotCacheUnknownCourse() {
+        when(courseRepository.findInstructorIdById(999L)).thenReturn(Optional.empty());
+
+        assertThat(ownershipIndex.isOwner(999L, 301L)).isFalse();
+        assertThat(ownershipIndex.isOwner(999L, 301L)).isFalse();
+
+        verify(courseRepository, times(2)).findInstructorIdById(999L);
+    }
+
+    @Test
+    void register_shouldAnswerWithoutQuery_AndEvictShouldForgetCourse() {
+        ownershipIndex.register(101L, 301L);
+
+        assertThat(ownershipIndex.isOwner(101L, 301L)).isTrue();
+        verifyNoInteractions(courseRepository);
+
+        ownershipIndex.evict(101L);
+        when(courseRepository.findInstructorIdById(101L)).thenReturn(Optional.empty());
+
+        assertThat(ownershipIndex.isOwner(101L, 301L)).isFalse();
+    }
+
+    @Test
+    void register_insideTransaction_shouldTakeEffectOnlyAfterCommit() {
+        when(courseRepository.findInstructorIdById(101L)).thenReturn(Optional.empty());
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            ownershipIndex.register(101L, 301L);
+            assertThat(ownershipIndex.isOwner(101L, 301L)).isFalse();
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertThat(ownershipIndex.isOwner(101L, 301L)).isTrue();
+    }
+
+    @Test
+    void register_insideRolledBackTransaction_shouldNotCacheCourse() {
+        when(courseRepository.findInstructorIdById(101L)).thenReturn(Optional.empty());
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            ownershipIndex.register(101L, 301L);
+
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertThat(ownershipIndex.isOwner(101L, 301L)).isFalse();
+    }
+}
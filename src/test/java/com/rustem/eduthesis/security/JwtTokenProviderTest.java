@@ -0,0 +1,84 @@
+package com.rustem.eduthesis.security;
+
+import com.rustem.eduthesis.infrastructure.security.AuthenticatedUser;
+import com.rustem.eduthesis.infrastructure.security.jwt.JwtTokenProvider;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class JwtTokenProviderTest {
+
+    private static final String SECRET = "test-secret-key-that-is-long-enough-for-hs256-signing";
+
+    private JwtTokenProvider tokenProvider;
+
+    @BeforeEach
+    void setUp() {
+        tokenProvider = newProvider(3_600_000L);
+    }
+
+    @Test
+    void resolveAuthentication_ShouldReturnPrincipalAndAuthorities() {
+        String token = tokenProvider.createToken(studentAuthentication());
+
+        Optional<Authentication> authentication = tokenProvider.resolveAuthentication(token);
+
+        assertThat(authentication).isPresent();
+        assertThat(authentication.get().getName()).isEqualTo("student@example.com");
+        assertThat(authentication.get().getPrincipal())
+                .isInstanceOfSatisfying(AuthenticatedUser.class, user -> assertThat(user.getId()).isEqualTo(42L));
+        assertThat(authentication.get().getAuthorities())
+                .extracting(GrantedAuthority::getAuthority)
+                .containsExactly("ROLE_STUDENT");
+    }
+
+    @Test
+    void resolveAuthentication_ShouldReuseCachedAuthentication_ForSameToken() {
+        String token = tokenProvider.createToken(studentAuthentication());
+
+        Authentication first = tokenProvider.resolveAuthentication(token).orElseThrow();
+        Authentication second = tokenProvider.resolveAuthentication(token).orElseThrow();
+
+        assertThat(second).isSameAs(first);
+    }
+
+    @Test
+    void resolveAuthentication_ShouldRejectTamperedToken() {
+        String token = tokenProvider.createToken(studentAuthentication());
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("A") ? "BB" : "AA");
+
+        assertThat(tokenProvider.resolveAuthentication(tampered)).isEmpty();
+    }
+
+    @Test
+    void resolveAuthentication_ShouldRejectExpiredToken() {
+        JwtTokenProvider expiredProvider = newProvider(-1_000L);
+        String token = expiredProvider.createToken(studentAuthentication());
+
+        assertThat(expiredProvider.resolveAuthentication(token)).isEmpty();
+    }
+
+    private JwtTokenProvider newProvider(long expirationMs) {
+        JwtTokenProvider provider = new JwtTokenProvider();
+        ReflectionTestUtils.setField(provider, "secretKey", SECRET);
+        ReflectionTestUtils.setField(provider, "expirationMs", expirationMs);
+        ReflectionTestUtils.setField(provider, "authenticationCacheMaxSize", 100L);
+        ReflectionTestUtils.invokeMethod(provider, "init");
+        return provider;
+    }
+
+    private Authentication studentAuthentication() {
+        List<SimpleGrantedAuthority> authorities = List.of(new SimpleGrantedAuthority("ROLE_STUDENT"));
+        AuthenticatedUser user = new AuthenticatedUser(42L, "student@example.com", authorities);
+        return new UsernamePasswordAuthenticationToken(user, null, authorities);
+    }
+}
@@ -0,0 +1,170 @@
+package com.rustem.eduthesis.security;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.rustem.eduthesis.infrastructure.security.ratelimit.RateLimitFilter;
+import com.rustem.eduthesis.infrastructure.security.ratelimit.RateLimitProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class RateLimitFilterTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private RateLimitFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        RateLimitProperties.AccountLimit account = new RateLimitProperties.AccountLimit();
+        account.setUsernameField("email");
+        account.setCapacity(3);
+        account.setRefillTokens(3);
+        account.setRefillPeriod(Duration.ofMinutes(1));
+
+        RateLimitProperties.Policy login = new RateLimitProperties.Policy();
+        login.setPaths(List.of("/api/auth/login"));
+        login.setCapacity(2);
+        login.setRefillTokens(2);
+        login.setRefillPeriod(Duration.ofMinutes(1));
+        login.setAccount(account);
+
+        RateLimitProperties.Policy auth = new RateLimitProperties.Policy();
+        auth.setPaths(List.of("/api/auth/**"));
+        auth.setCapacity(2);
+        auth.setRefillTokens(2);
+        auth.setRefillPeriod(Duration.ofMinutes(1));
+
+        RateLimitProperties.Policy write = new RateLimitProperties.Policy();
+        write.setPaths(List.of("/api/**"));
+        write.setMethods(List.of("POST"));
+        write.setCapacity(1);
+        write.setRefillTokens(1);
+        write.setRefillPeriod(Duration.ofMinutes(1));
+
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.getPolicies().put("login", login);
+        properties.getPolicies().put("auth", auth);
+        properties.getPolicies().put("write", write);
+
+        meterRegistry = new SimpleMeterRegistry();
+        filter = new RateLimitFilter(properties, meterRegistry, new ObjectMapper().registerModule(new JavaTimeModule()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void shouldRejectWithRetryAfter_WhenIpBucketIsExhausted() throws Exception {
+        assertThat(execute(request("POST", "/api/auth/login", "10.0.0.1")).getStatus()).isEqualTo(200);
+        assertThat(execute(request("POST", "/api/auth/login", "10.0.0.1")).getStatus()).isEqualTo(200);
+
+        MockHttpServletResponse throttled = execute(request("POST", "/api/auth/login", "10.0.0.1"));
+
+        assertThat(throttled.getStatus()).isEqualTo(429);
+        assertThat(Long.parseLong(throttled.getHeader("Retry-After"))).isPositive();
+        assertThat(throttled.getContentAsString()).contains("Too Many Requests");
+        assertThat(meterRegistry.get("http.server.requests.throttled")
+                .tag("policy", "login")
+                .tag("client", "ip")
+                .counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void shouldKeepSeparateBuckets_PerIp() throws Exception {
+        execute(request("POST", "/api/auth/login", "10.0.0.1"));
+        execute(request("POST", "/api/auth/login", "10.0.0.1"));
+
+        assertThat(execute(request("POST", "/api/auth/login", "10.0.0.2")).getStatus()).isEqualTo(200);
+    }
+
+    @Test
+    void shouldThrottleAttemptsOnOneAccount_AcrossIps() throws Exception {
+        execute(login("10.0.0.1", "student@example.com"));
+        execute(login("10.0.0.2", "Student@Example.com"));
+        assertThat(execute(login("10.0.0.3", " student@example.com ")).getStatus()).isEqualTo(200);
+
+        MockHttpServletResponse throttled = execute(login("10.0.0.4", "student@example.com"));
+
+        assertThat(throttled.getStatus()).isEqualTo(429);
+        assertThat(meterRegistry.get("http.server.requests.throttled")
+                .tag("policy", "login")
+                .tag("client", "account")
+                .counter().count()).isEqualTo(1.0);
+        assertThat(execute(login("10.0.0.4", "other@example.com")).getStatus()).isEqualTo(200);
+    }
+
+    @Test
+    void shouldNotChargeAccountBuckets_OnOtherAuthRoutes() throws Exception {
+        for (int i = 1; i <= 5; i++) {
+            MockHttpServletRequest register = login("10.0.0." + i, "student@example.com");
+            register.setRequestURI("/api/auth/register");
+            assertThat(execute(register).getStatus()).isEqualTo(200);
+        }
+
+        assertThat(execute(login("10.0.0.1", "student@example.com")).getStatus()).isEqualTo(200);
+    }
+
+    @Test
+    void shouldPassTheWholeBodyOn_AfterReadingTheUsername() throws Exception {
+        MockHttpServletRequest request = login("10.0.0.1", "student@example.com");
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+
+        assertThat(chain.getRequest().getInputStream().readAllBytes()).isEqualTo(request.getContentAsByteArray());
+    }
+
+    @Test
+    void shouldKeyAuthenticatedRequests_ByPrincipal() throws Exception {
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken("student@example.com", null, List.of()));
+
+        assertThat(execute(request("POST", "/api/progress/lessons/1/complete", "10.0.0.1")).getStatus()).isEqualTo(200);
+        MockHttpServletResponse throttled = execute(request("POST", "/api/progress/lessons/2/complete", "10.0.0.2"));
+
+        assertThat(throttled.getStatus()).isEqualTo(429);
+        assertThat(meterRegistry.get("http.server.requests.throttled")
+                .tag("client", "principal")
+                .counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void shouldPassThrough_WhenNoPolicyMatches() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            assertThat(execute(request("GET", "/api/courses", "10.0.0.1")).getStatus()).isEqualTo(200);
+        }
+    }
+
+    private MockHttpServletRequest request(String method, String uri, String remoteAddr) {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, uri);
+        request.setRemoteAddr(remoteAddr);
+        return request;
+    }
+
+    private MockHttpServletRequest login(String remoteAddr, String email) {
+        MockHttpServletRequest request = request("POST", "/api/auth/login", remoteAddr);
+        request.setContentType("application/json");
+        request.setContent(("{\"email\":\"" + email + "\",\"password\":\"secret123\"}").getBytes(StandardCharsets.UTF_8));
+        return request;
+    }
+
+    private MockHttpServletResponse execute(MockHttpServletRequest request) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+}
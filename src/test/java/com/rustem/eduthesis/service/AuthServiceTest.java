@@ -7,6 +7,7 @@ import com.rustem.eduthesis.infrastructure.exception.EmailAlreadyExistsException
 import com.rustem.eduthesis.infrastructure.exception.UserNotFoundException;
 import com.rustem.eduthesis.infrastructure.repository.RoleRepository;
 import com.rustem.eduthesis.infrastructure.repository.UserRepository;
+import com.rustem.eduthesis.infrastructure.security.AuthenticatedUser;
 import com.rustem.eduthesis.infrastructure.service.AuthenticationService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -15,12 +16,18 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
 
+import java.util.List;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -168,4 +175,55 @@ public class AuthServiceTest {
         UserEntity capturedUser = userCaptor.getValue();
         assertThat(capturedUser.getCreatedAt()).isNotNull();
     }
+
+    @Test
+    void getCurrentUser_shouldLoadUserOncePerRequest() {
+        // Arrange
+        UserEntity user = new UserEntity();
+        user.setId(1L);
+        user.setEmail("test@example.com");
+
+        AuthenticatedUser principal = new AuthenticatedUser(1L, "test@example.com",
+                List.of(new SimpleGrantedAuthority("ROLE_STUDENT")));
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+
+        try {
+            // Act
+            UserEntity first = authService.getCurrentUser();
+            UserEntity second = authService.getCurrentUser();
+
+            // Assert
+            assertThat(first).isSameAs(user);
+            assertThat(second).isSameAs(user);
+            verify(userRepository, times(1)).findById(1L);
+            verify(userRepository, never()).findByEmail(anyString());
+        } finally {
+            // Clean up
+            RequestContextHolder.resetRequestAttributes();
+            SecurityContextHolder.clearContext();
+        }
+    }
+
+    @Test
+    void getCurrentUserIdAndRole_shouldBeServedFromToken() {
+        // Arrange
+        AuthenticatedUser principal = new AuthenticatedUser(7L, "test@example.com",
+                List.of(new SimpleGrantedAuthority("ROLE_STUDENT")));
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+
+        try {
+            // Act & Assert
+            assertThat(authService.getCurrentUserId()).isEqualTo(7L);
+            assertThat(authService.currentUserHasRole("STUDENT")).isTrue();
+            assertThat(authService.currentUserHasRole("ADMIN")).isFalse();
+            verifyNoInteractions(userRepository);
+        } finally {
+            // Clean up
+            SecurityContextHolder.clearContext();
+        }
+    }
 }
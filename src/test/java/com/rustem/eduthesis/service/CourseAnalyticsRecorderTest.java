@@ -0,0 +1,155 @@
+package com.rustem.eduthesis.service;
+
+import com.rustem.eduthesis.infrastructure.service.CourseAnalyticsRecorder;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class CourseAnalyticsRecorderTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private TaskScheduler taskScheduler;
+
+    private MeterRegistry meterRegistry;
+    private CourseAnalyticsRecorder recorder;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        recorder = new CourseAnalyticsRecorder(jdbcTemplate, meterRegistry, transactionManager, taskScheduler, 3, 2, Duration.ofDays(7));
+    }
+
+    @Test
+    void flush_shouldWriteOneStatementPerChunk() {
+        recorder.recordCompletion(1L, 201L);
+        recorder.recordCompletion(1L, 202L);
+        recorder.recordCompletion(2L, 201L);
+
+        recorder.flush();
+
+        verify(jdbcTemplate, times(2)).update(any(PreparedStatementCreator.class));
+        assertThat(pending()).isZero();
+        assertThat(meterRegistry.get("analytics.rollups.flush").timer().count()).isEqualTo(2);
+    }
+
+    @Test
+    void recordCompletion_shouldKeepOneEventPerStudentAndLesson() {
+        recorder.recordCompletion(1L, 201L);
+        recorder.recordCompletion(1L, 201L);
+
+        assertThat(pending()).isEqualTo(1);
+    }
+
+    @Test
+    void flush_withNothingPending_shouldNotTouchDatabase() {
+        recorder.flush();
+
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    @Test
+    void recordCompletion_whenBufferIsFull_shouldDropCompletion_AndRequestFlushOffTheCallerThread() {
+        recorder.recordCompletion(1L, 201L);
+        recorder.recordCompletion(2L, 201L);
+        recorder.recordCompletion(3L, 201L);
+
+        recorder.recordCompletion(4L, 201L);
+
+        verifyNoInteractions(jdbcTemplate);
+        assertThat(pending()).isEqualTo(3);
+        assertThat(meterRegistry.get("analytics.rollups.dropped").counter().count()).isEqualTo(1);
+
+        ArgumentCaptor<Runnable> requestedFlush = ArgumentCaptor.forClass(Runnable.class);
+        verify(taskScheduler).schedule(requestedFlush.capture(), any(Instant.class));
+        requestedFlush.getValue().run();
+
+        verify(jdbcTemplate, times(2)).update(any(PreparedStatementCreator.class));
+        assertThat(pending()).isZero();
+    }
+
+    @Test
+    void flush_shouldWriteEachChunkInItsOwnTransaction() {
+        recorder.recordCompletion(1L, 201L);
+        recorder.recordCompletion(2L, 201L);
+        recorder.recordCompletion(3L, 201L);
+
+        recorder.flush();
+
+        verify(transactionManager, times(2)).getTransaction(argThat(definition ->
+                definition.getPropagationBehavior() == TransactionDefinition.PROPAGATION_REQUIRES_NEW));
+        verify(transactionManager, times(2)).commit(any());
+    }
+
+    @Test
+    void flush_whenStatementFails_shouldKeepCompletionsForNextFlush() {
+        when(jdbcTemplate.update(any(PreparedStatementCreator.class))).thenThrow(new QueryTimeoutException("timeout"));
+        recorder.recordCompletion(1L, 201L);
+
+        recorder.flush();
+
+        assertThat(pending()).isEqualTo(1);
+        assertThat(meterRegistry.get("analytics.rollups.flush.failures").counter().count()).isEqualTo(1);
+        verify(transactionManager).rollback(any());
+    }
+
+    @Test
+    void recordCompletion_insideTransaction_shouldBufferOnlyAfterCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            recorder.recordCompletion(1L, 201L);
+            assertThat(pending()).isZero();
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertThat(pending()).isEqualTo(1);
+    }
+
+    @Test
+    void recordCompletion_insideRolledBackTransaction_shouldNotBuffer() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            recorder.recordCompletion(1L, 201L);
+
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertThat(pending()).isZero();
+    }
+
+    private double pending() {
+        return meterRegistry.get("analytics.rollups.pending").gauge().value();
+    }
+}
@@ -0,0 +1,59 @@
+package com.rustem.eduthesis.service;
+
+import com.rustem.eduthesis.infrastructure.exception.CourseNotFoundException;
+import com.rustem.eduthesis.infrastructure.repository.CourseRepository;
+import com.rustem.eduthesis.infrastructure.repository.EnrollmentRepository;
+import com.rustem.eduthesis.infrastructure.service.CourseAnalyticsService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class CourseAnalyticsServiceTest {
+
+    @Mock
+    private CourseRepository courseRepository;
+
+    @Mock
+    private EnrollmentRepository enrollmentRepository;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @InjectMocks
+    private CourseAnalyticsService analyticsService;
+
+    @Test
+    void getCourseAnalytics_withNonExistentCourse_shouldThrowException() {
+        when(courseRepository.existsById(999L)).thenReturn(false);
+
+        assertThatThrownBy(() -> analyticsService.getCourseAnalytics(999L, 30))
+                .isInstanceOf(CourseNotFoundException.class)
+                .hasMessage("Course not found with ID: 999");
+        verifyNoInteractions(jdbcTemplate, enrollmentRepository);
+    }
+
+    @Test
+    void medianHours_shouldUseBucketHoldingTheMiddleCompletion() {
+        long[] histogram = new long[CourseAnalyticsService.MAX_BUCKET + 1];
+        histogram[2] = 1;
+        histogram[3] = 1;
+        histogram[4] = 1;
+
+        // Bucket 3 spans 2^1.5 - 1 to 2^2 - 1 hours
+        assertThat(CourseAnalyticsService.medianHours(histogram)).isEqualTo(2.4);
+    }
+
+    @Test
+    void medianHours_withEmptyHistogram_shouldBeNull() {
+        assertThat(CourseAnalyticsService.medianHours(new long[CourseAnalyticsService.MAX_BUCKET + 1])).isNull();
+    }
+}
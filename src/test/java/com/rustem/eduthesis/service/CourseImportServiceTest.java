@@ -0,0 +1,144 @@
+package com.rustem.eduthesis.service;
+
+import com.rustem.eduthesis.api.dto.CourseImportRequest;
+import com.rustem.eduthesis.api.dto.CourseImportResponse;
+import com.rustem.eduthesis.api.dto.LessonRequest;
+import com.rustem.eduthesis.infrastructure.entity.CourseEntity;
+import com.rustem.eduthesis.infrastructure.entity.LessonEntity;
+import com.rustem.eduthesis.infrastructure.entity.UserEntity;
+import com.rustem.eduthesis.infrastructure.mapper.LessonMapper;
+import com.rustem.eduthesis.infrastructure.repository.CourseRepository;
+import com.rustem.eduthesis.infrastructure.repository.LessonContentRepository;
+import com.rustem.eduthesis.infrastructure.repository.LessonRepository;
+import com.rustem.eduthesis.infrastructure.security.CourseOwnershipIndex;
+import com.rustem.eduthesis.infrastructure.service.AuthenticationService;
+import com.rustem.eduthesis.infrastructure.service.CourseImportService;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Import({CourseImportService.class, LessonMapper.class, CourseOwnershipIndex.class})
+public class CourseImportServiceTest {
+
+    private static final int LESSONS_PER_COURSE = 60;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private CourseImportService courseImportService;
+
+    @Autowired
+    private CourseOwnershipIndex ownershipIndex;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private LessonRepository lessonRepository;
+
+    @Autowired
+    private LessonContentRepository lessonContentRepository;
+
+    @MockitoBean
+    private AuthenticationService authService;
+
+    private Statistics statistics;
+    private UserEntity instructor;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManager.getEntityManager()
+                .getEntityManagerFactory()
+                .unwrap(SessionFactory.class)
+                .getStatistics();
+
+        instructor = entityManager.persist(UserEntity.builder()
+                .email("import-instructor@example.com")
+                .password("password")
+                .firstName("Import")
+                .lastName("Instructor")
+                .enabled(true)
+                .createdAt(LocalDateTime.now())
+                .build());
+        entityManager.flush();
+        when(authService.getCurrentUser()).thenReturn(instructor);
+    }
+
+    @Test
+    void importCourses_shouldPersistCoursesWithOrderedLessons() {
+        CourseImportResponse response = courseImportService.importCourses(
+                List.of(courseRequest("Imported Java"), courseRequest("Imported Spring")));
+        entityManager.clear();
+
+        assertThat(response.getImportedCourses()).isEqualTo(2);
+        assertThat(response.getImportedLessons()).isEqualTo(2 * LESSONS_PER_COURSE);
+
+        CourseEntity course = courseRepository.findById(response.getCourseIds().get(1)).orElseThrow();
+        assertThat(course.getTitle()).isEqualTo("Imported Spring");
+        assertThat(course.isPublished()).isFalse();
+        assertThat(course.getLessonCount()).isEqualTo(LESSONS_PER_COURSE);
+        assertThat(lessonRepository.findByCourseIdOrderByOrderIndex(course.getId()))
+                .extracting(LessonEntity::getOrderIndex)
+                .startsWith(1024, 2048, 3072)
+                .hasSize(LESSONS_PER_COURSE);
+        assertThat(ownershipIndex.isOwner(course.getId(), instructor.getId())).isTrue();
+        assertThat(lessonContentRepository.count()).isEqualTo(2L * LESSONS_PER_COURSE);
+        assertThat(lessonContentRepository.findByContentContainingIgnoreCase("Imported lesson content 7"))
+                .isNotEmpty();
+    }
+
+    @Test
+    void importCourses_shouldOrderLessonsAsSent_IgnoringClientOrderIndexes() {
+        CourseImportRequest request = courseRequest("Imported Order");
+        request.getLessons().get(0).setOrderIndex(2048);
+        request.getLessons().get(1).setOrderIndex(7);
+        request.getLessons().get(2).setOrderIndex(7);
+
+        CourseImportResponse response = courseImportService.importCourses(List.of(request));
+        entityManager.clear();
+
+        List<LessonEntity> lessons = lessonRepository.findByCourseIdOrderByOrderIndex(response.getCourseIds().get(0));
+        assertThat(lessons).extracting(LessonEntity::getOrderIndex).startsWith(1024, 2048, 3072);
+        assertThat(lessons).extracting(LessonEntity::getTitle).startsWith("Lesson 1", "Lesson 2", "Lesson 3");
+    }
+
+    @Test
+    void importCourses_shouldSendInsertsInJdbcBatches() {
+        statistics.clear();
+
+        courseImportService.importCourses(List.of(courseRequest("Batch One"), courseRequest("Batch Two")));
+
+        // A course row, plus a lesson row and a lesson content row per lesson
+        long rows = 2 + 2L * 2 * LESSONS_PER_COURSE;
+        assertThat(statistics.getEntityInsertCount()).isEqualTo(rows);
+        // One prepared statement per batch and per sequence block, instead of one per row
+        assertThat(statistics.getPrepareStatementCount()).isLessThan(rows / 4);
+    }
+
+    private CourseImportRequest courseRequest(String title) {
+        List<LessonRequest> lessons = new ArrayList<>();
+        for (int i = 1; i <= LESSONS_PER_COURSE; i++) {
+            LessonRequest lesson = new LessonRequest();
+            lesson.setTitle("Lesson " + i);
+            lesson.setContent("Imported lesson content " + i);
+            lesson.setDurationMinutes(10);
+            lessons.add(lesson);
+        }
+        return new CourseImportRequest(title, "Imported course description", null, lessons);
+    }
+}
@@ -0,0 +1,164 @@
+package com.rustem.eduthesis.service;
+
+import com.rustem.eduthesis.api.dto.CourseResponse;
+import com.rustem.eduthesis.api.dto.CursorPage;
+import com.rustem.eduthesis.infrastructure.entity.CourseEntity;
+import com.rustem.eduthesis.infrastructure.entity.EnrollmentEntity;
+import com.rustem.eduthesis.infrastructure.entity.LessonEntity;
+import com.rustem.eduthesis.infrastructure.entity.UserEntity;
+import com.rustem.eduthesis.infrastructure.mapper.CourseMapper;
+import com.rustem.eduthesis.infrastructure.pagination.KeysetPagination;
+import com.rustem.eduthesis.infrastructure.security.CourseOwnershipIndex;
+import com.rustem.eduthesis.infrastructure.service.AuthenticationService;
+import com.rustem.eduthesis.infrastructure.service.CourseService;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Import({CourseService.class, CourseMapper.class, CourseOwnershipIndex.class})
+public class CourseListingQueryCountTest {
+
+    // Courses with instructors, the instructors' roles (one batch), enrollment counts, lesson summaries
+    private static final long LISTING_STATEMENTS = 4;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private CourseService courseService;
+
+    // Only listings are exercised here; they never ask who the current user is
+    @MockitoBean
+    private AuthenticationService authService;
+
+    private Statistics statistics;
+    private UserEntity instructor;
+    private UserEntity student;
+    private int userSequence;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManager.getEntityManager()
+                .getEntityManagerFactory()
+                .unwrap(SessionFactory.class)
+                .getStatistics();
+
+        instructor = entityManager.persist(newUser("instructor"));
+        student = entityManager.persist(newUser("student"));
+    }
+
+    @Test
+    void getAllPublishedCourses_shouldUseConstantNumberOfStatementsPerPage() {
+        createPublishedCourses(2);
+        long smallCatalogStatements = countListingStatements(2);
+
+        createPublishedCourses(25, () -> entityManager.persist(newUser("instructor")));
+        long largeCatalogStatements = countListingStatements(27);
+
+        assertThat(smallCatalogStatements).isEqualTo(LISTING_STATEMENTS);
+        assertThat(largeCatalogStatements).isEqualTo(LISTING_STATEMENTS);
+    }
+
+    @Test
+    void getAllPublishedCourses_shouldAssembleLessonsAndEnrollmentCounts() {
+        createPublishedCourses(3);
+        entityManager.flush();
+        entityManager.clear();
+
+        List<CourseResponse> courses = courseService.getAllPublishedCourses(null, 20).getItems();
+
+        assertThat(courses).hasSize(3);
+        assertThat(courses).allSatisfy(course -> {
+            assertThat(course.getInstructor().getEmail()).isEqualTo(instructor.getEmail());
+            assertThat(course.getEnrollmentCount()).isEqualTo(1);
+            assertThat(course.getLessons()).extracting("orderIndex").containsExactly(1, 2);
+        });
+    }
+
+    @Test
+    void getAllPublishedCourses_shouldContinueFromCursor() {
+        createPublishedCourses(5);
+        entityManager.flush();
+        entityManager.clear();
+
+        CursorPage<CourseResponse> firstPage = courseService.getAllPublishedCourses(null, 2);
+        CursorPage<CourseResponse> secondPage = courseService.getAllPublishedCourses(firstPage.getNextCursor(), 2);
+        CursorPage<CourseResponse> lastPage = courseService.getAllPublishedCourses(secondPage.getNextCursor(), 2);
+
+        assertThat(firstPage.isHasNext()).isTrue();
+        assertThat(secondPage.isHasNext()).isTrue();
+        assertThat(lastPage.isHasNext()).isFalse();
+        assertThat(lastPage.getNextCursor()).isNull();
+        assertThat(firstPage.getItems()).extracting(CourseResponse::getTitle).containsExactly("Course 0", "Course 1");
+        assertThat(secondPage.getItems()).extracting(CourseResponse::getTitle).containsExactly("Course 2", "Course 3");
+        assertThat(lastPage.getItems()).extracting(CourseResponse::getTitle).containsExactly("Course 4");
+    }
+
+    private long countListingStatements(int expectedCourses) {
+        entityManager.flush();
+        entityManager.clear();
+        // Counted against a cold second-level cache, the worst case for a listing
+        entityManager.getEntityManager().getEntityManagerFactory().getCache().evictAll();
+        statistics.clear();
+
+        List<CourseResponse> courses = courseService.getAllPublishedCourses(null, KeysetPagination.MAX_LIMIT).getItems();
+
+        assertThat(courses).hasSize(expectedCourses);
+        return statistics.getPrepareStatementCount();
+    }
+
+    private void createPublishedCourses(int count) {
+        createPublishedCourses(count, () -> instructor);
+    }
+
+    private void createPublishedCourses(int count, Supplier<UserEntity> instructors) {
+        for (int i = 0; i < count; i++) {
+            CourseEntity course = entityManager.persist(CourseEntity.builder()
+                    .title("Course " + i)
+                    .description("Course description " + i)
+                    .instructor(instructors.get())
+                    .published(true)
+                    .build());
+
+            for (int orderIndex = 1; orderIndex <= 2; orderIndex++) {
+                entityManager.persist(LessonEntity.builder()
+                        .title("Lesson " + orderIndex)
+                        .orderIndex(orderIndex)
+                        .durationMinutes(10)
+                        .course(course)
+                        .createdAt(LocalDateTime.now())
+                        .build());
+            }
+
+            entityManager.persist(EnrollmentEntity.builder()
+                    .student(student)
+                    .course(course)
+                    .build());
+        }
+    }
+
+    private UserEntity newUser(String prefix) {
+        userSequence++;
+        return UserEntity.builder()
+                .email(prefix + userSequence + "@example.com")
+                .password("password123")
+                .firstName("Test")
+                .lastName("User")
+                .enabled(true)
+                .createdAt(LocalDateTime.now())
+                .build();
+    }
+}
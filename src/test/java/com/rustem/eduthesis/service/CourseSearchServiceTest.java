@@ -0,0 +1,100 @@
+package com.rustem.eduthesis.service;
+
+import com.rustem.eduthesis.api.dto.CourseSearchResult;
+import com.rustem.eduthesis.api.dto.CursorPage;
+import com.rustem.eduthesis.infrastructure.exception.InvalidCursorException;
+import com.rustem.eduthesis.infrastructure.pagination.KeysetPagination;
+import com.rustem.eduthesis.infrastructure.repository.CourseRepository;
+import com.rustem.eduthesis.infrastructure.repository.projection.CourseSearchHit;
+import com.rustem.eduthesis.infrastructure.service.CourseSearchService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class CourseSearchServiceTest {
+
+    @Mock
+    private CourseRepository courseRepository;
+
+    @InjectMocks
+    private CourseSearchService courseSearchService;
+
+    @Test
+    void search_shouldStartFromTheTopRank_AndReturnCursorOfLastHit() {
+        when(courseRepository.searchPublished("java streams", Double.MAX_VALUE, 0L, 3))
+                .thenReturn(List.of(hit(5L, 0.9), hit(2L, 0.4), hit(8L, 0.1)));
+
+        CursorPage<CourseSearchResult> page = courseSearchService.search("  java streams ", null, 2);
+
+        assertThat(page.getItems()).extracting(CourseSearchResult::getCourseId).containsExactly(5L, 2L);
+        assertThat(page.getItems().get(0).getTitleHighlight()).isEqualTo("<mark>Course</mark> 5");
+        assertThat(page.isHasNext()).isTrue();
+        assertThat(page.getNextCursor()).isEqualTo(KeysetPagination.encodeRank(0.4, 2L));
+    }
+
+    @Test
+    void search_shouldContinueAfterTheCursorRankAndId() {
+        String cursor = KeysetPagination.encodeRank(0.4, 2L);
+        when(courseRepository.searchPublished("java", 0.4, 2L, 21)).thenReturn(List.of(hit(8L, 0.1)));
+
+        CursorPage<CourseSearchResult> page = courseSearchService.search("java", cursor, 20);
+
+        assertThat(page.getItems()).extracting(CourseSearchResult::getCourseId).containsExactly(8L);
+        assertThat(page.isHasNext()).isFalse();
+        assertThat(page.getNextCursor()).isNull();
+    }
+
+    @Test
+    void search_withBlankQuery_shouldReturnEmptyPageWithoutQuerying() {
+        CursorPage<CourseSearchResult> page = courseSearchService.search("   ", null, 20);
+
+        assertThat(page.getItems()).isEmpty();
+        verifyNoInteractions(courseRepository);
+    }
+
+    @Test
+    void search_shouldTruncateOverlongQueries() {
+        String longQuery = "a".repeat(CourseSearchService.MAX_QUERY_LENGTH + 50);
+        when(courseRepository.searchPublished(anyString(), anyDouble(), anyLong(), anyInt())).thenReturn(List.of());
+
+        courseSearchService.search(longQuery, null, 20);
+
+        verify(courseRepository).searchPublished("a".repeat(CourseSearchService.MAX_QUERY_LENGTH), Double.MAX_VALUE, 0L, 21);
+    }
+
+    @Test
+    void search_withMalformedCursor_shouldThrow() {
+        String cursor = KeysetPagination.encodeId(7L);
+
+        assertThrows(InvalidCursorException.class, () -> courseSearchService.search("java", cursor, 20));
+        verifyNoInteractions(courseRepository);
+    }
+
+    private CourseSearchHit hit(Long courseId, double rank) {
+        return new CourseSearchHit() {
+            public Long getCourseId() { return courseId; }
+            public Double getRank() { return rank; }
+            public String getTitle() { return "Course " + courseId; }
+            public String getTitleHighlight() { return "<mark>Course</mark> " + courseId; }
+            public String getDescriptionHighlight() { return null; }
+            public Long getLessonId() { return null; }
+            public String getLessonTitle() { return null; }
+            public String getLessonHighlight() { return null; }
+        };
+    }
+}
@@ -1,14 +1,22 @@
 package com.rustem.eduthesis.service;
 
+import com.rustem.eduthesis.api.dto.CoursePatchRequest;
 import com.rustem.eduthesis.api.dto.CourseRequest;
 import com.rustem.eduthesis.api.dto.CourseResponse;
+import com.rustem.eduthesis.api.dto.CursorPage;
 import com.rustem.eduthesis.api.dto.SimpleUserDTO;
 import com.rustem.eduthesis.infrastructure.entity.CourseEntity;
 import com.rustem.eduthesis.infrastructure.entity.RoleEntity;
 import com.rustem.eduthesis.infrastructure.entity.UserEntity;
 import com.rustem.eduthesis.infrastructure.exception.CourseNotFoundException;
+import com.rustem.eduthesis.infrastructure.exception.PreconditionFailedException;
+import com.rustem.eduthesis.infrastructure.http.ResourceVersion;
 import com.rustem.eduthesis.infrastructure.mapper.CourseMapper;
 import com.rustem.eduthesis.infrastructure.repository.CourseRepository;
+import com.rustem.eduthesis.infrastructure.repository.LessonRepository;
+import com.rustem.eduthesis.infrastructure.repository.projection.CourseVersion;
+import com.rustem.eduthesis.infrastructure.security.CourseOwnershipIndex;
+import com.rustem.eduthesis.infrastructure.service.AuthenticationService;
 import com.rustem.eduthesis.infrastructure.service.CourseService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -17,6 +25,7 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
 
 import java.time.LocalDateTime;
 import java.util.Collections;
@@ -27,6 +36,9 @@ import java.util.Optional;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -36,9 +48,18 @@ public class CourseServiceTest {
     @Mock
     private CourseRepository courseRepository;
 
+    @Mock
+    private LessonRepository lessonRepository;
+
     @Mock
     private CourseMapper courseMapper;
 
+    @Mock
+    private CourseOwnershipIndex ownershipIndex;
+
+    @Mock
+    private AuthenticationService authService;
+
     @InjectMocks
     private CourseService courseService;
 
@@ -71,6 +92,7 @@ public class CourseServiceTest {
         courseEntity.setPublished(true);
         courseEntity.setCreatedAt(LocalDateTime.now());
         courseEntity.setUpdatedAt(LocalDateTime.now());
+        courseEntity.setVersion(3L);
 
         // Use a builder pattern correctly matching the actual CourseResponse structure
         courseResponse = CourseResponse.builder()
@@ -96,18 +118,21 @@ public class CourseServiceTest {
         // Arrange
         List<CourseEntity> courses = Collections.singletonList(courseEntity);
 
-        when(courseRepository.findByPublishedTrue()).thenReturn(courses);
-        when(courseMapper.toResponse(courseEntity)).thenReturn(courseResponse);
+        when(courseRepository.findPublishedWithInstructorAfter(eq(0L), any(Pageable.class))).thenReturn(courses);
+        when(courseRepository.countEnrollmentsByCourseIds(List.of(101L))).thenReturn(Collections.emptyList());
+        when(lessonRepository.findSummariesByCourseIds(List.of(101L))).thenReturn(Collections.emptyList());
+        when(courseMapper.toResponse(courseEntity, List.of(), 0)).thenReturn(courseResponse);
 
         // Act
-        List<CourseResponse> result = courseService.getAllPublishedCourses();
+        CursorPage<CourseResponse> result = courseService.getAllPublishedCourses(null, 20);
 
         // Assert
-        assertThat(result).hasSize(1);
-        assertThat(result.get(0).getTitle()).isEqualTo("Java Programming");
+        assertThat(result.getItems()).hasSize(1);
+        assertThat(result.getItems().get(0).getTitle()).isEqualTo("Java Programming");
+        assertThat(result.isHasNext()).isFalse();
 
-        verify(courseRepository).findByPublishedTrue();
-        verify(courseMapper).toResponse(courseEntity);
+        verify(courseRepository).findPublishedWithInstructorAfter(eq(0L), any(Pageable.class));
+        verify(courseMapper).toResponse(courseEntity, List.of(), 0);
     }
 
     @Test
@@ -137,19 +162,56 @@ public class CourseServiceTest {
                 courseService.getCourseById(999L));
     }
 
+    @Test
+    void getPublishedCourseVersion_shouldBuildETagFromCourseVersion() {
+        // Arrange
+        CourseVersion version = mock(CourseVersion.class);
+        when(version.getPublished()).thenReturn(true);
+        when(version.getVersion()).thenReturn(2L);
+        when(courseRepository.findVersionById(101L)).thenReturn(Optional.of(version));
+
+        // Act
+        ResourceVersion result = courseService.getPublishedCourseVersion(101L);
+
+        // Assert
+        assertThat(result.etag()).isEqualTo("\"2\"");
+        assertThat(result.publicCatalog()).isTrue();
+        assertThat(result.lastModifiedMillis()).isEqualTo(-1);
+    }
+
+    @Test
+    void getPublishedCourseVersion_withUnpublishedCourse_shouldThrowException() {
+        // Arrange
+        CourseVersion version = mock(CourseVersion.class);
+        when(version.getPublished()).thenReturn(false);
+        when(courseRepository.findVersionById(101L)).thenReturn(Optional.of(version));
+
+        // Act & Assert
+        assertThrows(CourseNotFoundException.class, () -> courseService.getPublishedCourseVersion(101L));
+    }
+
+    @Test
+    void getCourseVersion_withNonExistingId_shouldThrowException() {
+        // Arrange
+        when(courseRepository.findVersionById(999L)).thenReturn(Optional.empty());
+
+        // Act & Assert
+        assertThrows(CourseNotFoundException.class, () -> courseService.getCourseVersion(999L));
+    }
+
     @Test
     void updateCourse_shouldUpdateAndReturnCourse() {
         // Arrange
         when(courseRepository.findById(101L)).thenReturn(Optional.of(courseEntity));
-        when(courseRepository.save(any(CourseEntity.class))).thenReturn(courseEntity);
+        when(courseRepository.saveAndFlush(any(CourseEntity.class))).thenReturn(courseEntity);
         when(courseMapper.toResponse(courseEntity)).thenReturn(courseResponse);
 
         // Act
-        CourseResponse result = courseService.updateCourse(101L, courseRequest);
+        CourseResponse result = courseService.updateCourse(101L, courseRequest, null);
 
         // Assert
         ArgumentCaptor<CourseEntity> courseCaptor = ArgumentCaptor.forClass(CourseEntity.class);
-        verify(courseRepository).save(courseCaptor.capture());
+        verify(courseRepository).saveAndFlush(courseCaptor.capture());
 
         CourseEntity capturedCourse = courseCaptor.getValue();
         assertThat(capturedCourse.getTitle()).isEqualTo("New Course");
@@ -166,10 +228,117 @@ public class CourseServiceTest {
 
         // Act & Assert
         assertThrows(CourseNotFoundException.class, () ->
-                courseService.updateCourse(999L, courseRequest)
+                courseService.updateCourse(999L, courseRequest, null)
         );
     }
 
+    @Test
+    void updateCourse_withMatchingVersion_shouldUpdate() {
+        // Arrange
+        when(courseRepository.findById(101L)).thenReturn(Optional.of(courseEntity));
+        when(courseRepository.saveAndFlush(courseEntity)).thenReturn(courseEntity);
+        when(courseMapper.toResponse(courseEntity)).thenReturn(courseResponse);
+
+        // Act
+        CourseResponse result = courseService.updateCourse(101L, courseRequest, 3L);
+
+        // Assert
+        assertThat(result).isEqualTo(courseResponse);
+        assertThat(courseEntity.getTitle()).isEqualTo("New Course");
+    }
+
+    @Test
+    void updateCourse_withStaleVersion_shouldThrowPreconditionFailed() {
+        // Arrange
+        when(courseRepository.findById(101L)).thenReturn(Optional.of(courseEntity));
+
+        // Act & Assert
+        assertThrows(PreconditionFailedException.class, () -> courseService.updateCourse(101L, courseRequest, 2L));
+
+        assertThat(courseEntity.getTitle()).isEqualTo("Java Programming");
+        verify(courseRepository, never()).saveAndFlush(any());
+    }
+
+    @Test
+    void createCourse_shouldMakeCurrentUserTheInstructor() {
+        // Arrange
+        UserEntity instructor = courseEntity.getInstructor();
+        when(authService.getCurrentUser()).thenReturn(instructor);
+        when(courseRepository.save(any(CourseEntity.class))).thenAnswer(invocation -> {
+            CourseEntity saved = invocation.getArgument(0);
+            saved.setId(102L);
+            return saved;
+        });
+        when(courseMapper.toResponse(any(CourseEntity.class))).thenReturn(courseResponse);
+
+        // Act
+        courseService.createCourse(courseRequest);
+
+        // Assert
+        ArgumentCaptor<CourseEntity> saved = ArgumentCaptor.forClass(CourseEntity.class);
+        verify(courseRepository).save(saved.capture());
+        assertThat(saved.getValue().getInstructor()).isSameAs(instructor);
+        assertThat(saved.getValue().isPublished()).isFalse();
+        verify(ownershipIndex).register(102L, 1L);
+    }
+
+    @Test
+    void patchCourse_shouldUpdateOnlyGivenFieldsInOneStatement() {
+        // Arrange
+        CoursePatchRequest patch = new CoursePatchRequest();
+        patch.setDescription("A new description for the course");
+        when(courseRepository.patch(101L, null, "A new description for the course", false, null, null)).thenReturn(1);
+        when(courseRepository.findById(101L)).thenReturn(Optional.of(courseEntity));
+        when(courseMapper.toResponse(courseEntity)).thenReturn(courseResponse);
+
+        // Act
+        CourseResponse result = courseService.patchCourse(101L, patch, null);
+
+        // Assert
+        assertThat(result).isEqualTo(courseResponse);
+        verify(courseRepository).patch(101L, null, "A new description for the course", false, null, null);
+    }
+
+    @Test
+    void patchCourse_withExplicitNullImageUrl_shouldClearIt() {
+        // Arrange
+        CoursePatchRequest patch = new CoursePatchRequest();
+        patch.setImageUrl(null);
+        when(courseRepository.patch(101L, null, null, true, null, null)).thenReturn(1);
+        when(courseRepository.findById(101L)).thenReturn(Optional.of(courseEntity));
+        when(courseMapper.toResponse(courseEntity)).thenReturn(courseResponse);
+
+        // Act
+        courseService.patchCourse(101L, patch, null);
+
+        // Assert
+        verify(courseRepository).patch(101L, null, null, true, null, null);
+    }
+
+    @Test
+    void patchCourse_withStaleVersion_shouldThrowPreconditionFailed() {
+        // Arrange
+        CoursePatchRequest patch = new CoursePatchRequest();
+        patch.setTitle("Renamed Course");
+        when(courseRepository.patch(101L, "Renamed Course", null, false, null, 2L)).thenReturn(0);
+        when(courseRepository.existsById(101L)).thenReturn(true);
+
+        // Act & Assert
+        assertThrows(PreconditionFailedException.class, () -> courseService.patchCourse(101L, patch, 2L));
+    }
+
+    @Test
+    void patchCourse_withNonExistingId_shouldThrowException() {
+        // Arrange
+        CoursePatchRequest patch = new CoursePatchRequest();
+        patch.setTitle("Renamed Course");
+        when(courseRepository.patch(999L, "Renamed Course", null, false, null, null)).thenReturn(0);
+        when(courseRepository.existsById(999L)).thenReturn(false);
+
+        // Act & Assert
+        assertThrows(CourseNotFoundException.class, () -> courseService.patchCourse(999L, patch, null));
+    }
+
     @Test
     void deleteCourse_shouldDeleteCourse() {
         // Arrange
@@ -180,6 +349,7 @@ public class CourseServiceTest {
 
         // Assert
         verify(courseRepository).deleteById(101L);
+        verify(ownershipIndex).evict(101L);
     }
 
     @Test
@@ -0,0 +1,113 @@
+package com.rustem.eduthesis.service;
+
+import com.rustem.eduthesis.infrastructure.service.EnrollmentAccessRecorder;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+
+import java.time.Instant;
+import java.util.Collection;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class EnrollmentAccessRecorderTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private TaskScheduler taskScheduler;
+
+    private MeterRegistry meterRegistry;
+    private EnrollmentAccessRecorder recorder;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        recorder = new EnrollmentAccessRecorder(jdbcTemplate, meterRegistry, transactionManager, taskScheduler, 3, 500);
+    }
+
+    @Test
+    void flush_shouldCoalesceTouchesPerEnrollment_IntoOneBatch() {
+        recorder.touch(1L, 101L);
+        recorder.touch(1L, 101L);
+        recorder.touch(1L, 102L);
+        recorder.touch(2L, 101L);
+
+        recorder.flush();
+
+        assertThat(flushedRows()).hasSize(3);
+        assertThat(pending()).isZero();
+        assertThat(meterRegistry.get("enrollment.last_accessed.flush").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void flush_withNothingPending_shouldNotTouchDatabase() {
+        recorder.flush();
+
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    @Test
+    void touch_whenBufferIsFull_shouldDropTouch_AndRequestOneFlushOffTheCallerThread() {
+        recorder.touch(1L, 101L);
+        recorder.touch(2L, 101L);
+        recorder.touch(3L, 101L);
+
+        recorder.touch(1L, 101L);
+        verifyNoInteractions(taskScheduler);
+
+        recorder.touch(4L, 101L);
+        recorder.touch(5L, 101L);
+
+        verifyNoInteractions(jdbcTemplate);
+        assertThat(pending()).isEqualTo(3);
+        assertThat(meterRegistry.get("enrollment.last_accessed.dropped").counter().count()).isEqualTo(2);
+
+        ArgumentCaptor<Runnable> requestedFlush = ArgumentCaptor.forClass(Runnable.class);
+        verify(taskScheduler).schedule(requestedFlush.capture(), any(Instant.class));
+        requestedFlush.getValue().run();
+
+        assertThat(flushedRows()).hasSize(3);
+        assertThat(pending()).isZero();
+    }
+
+    @Test
+    void flush_whenBatchFails_shouldKeepTouchesForNextFlush() {
+        when(jdbcTemplate.batchUpdate(anyString(), anyCollection(), anyInt(), any(ParameterizedPreparedStatementSetter.class)))
+                .thenThrow(new QueryTimeoutException("timeout"));
+        recorder.touch(1L, 101L);
+
+        recorder.flush();
+
+        assertThat(pending()).isEqualTo(1);
+        assertThat(meterRegistry.get("enrollment.last_accessed.flush.failures").counter().count()).isEqualTo(1);
+    }
+
+    @SuppressWarnings("unchecked")
+    private Collection<Object> flushedRows() {
+        ArgumentCaptor<Collection<Object>> rows = ArgumentCaptor.forClass(Collection.class);
+        verify(jdbcTemplate).batchUpdate(anyString(), rows.capture(), eq(500), any(ParameterizedPreparedStatementSetter.class));
+        return rows.getValue();
+    }
+
+    private double pending() {
+        return meterRegistry.get("enrollment.last_accessed.pending").gauge().value();
+    }
+}
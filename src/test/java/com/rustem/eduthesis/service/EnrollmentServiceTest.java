@@ -1,6 +1,7 @@
 package com.rustem.eduthesis.service;
 
 import com.rustem.eduthesis.api.dto.EnrollmentResponse;
+import com.rustem.eduthesis.api.dto.SimpleCourseDTO;
 import com.rustem.eduthesis.api.dto.SimpleUserDTO;
 import com.rustem.eduthesis.infrastructure.entity.CourseEntity;
 import com.rustem.eduthesis.infrastructure.entity.EnrollmentEntity;
@@ -9,28 +10,38 @@ import com.rustem.eduthesis.infrastructure.entity.UserEntity;
 import com.rustem.eduthesis.infrastructure.exception.CourseNotFoundException;
 import com.rustem.eduthesis.infrastructure.exception.EnrollmentAlreadyExistsException;
 import com.rustem.eduthesis.infrastructure.exception.EnrollmentNotFoundException;
+import com.rustem.eduthesis.infrastructure.exception.NotStudentException;
+import com.rustem.eduthesis.infrastructure.mapper.CourseMapper;
+import com.rustem.eduthesis.infrastructure.mapper.EnrollmentMapper;
 import com.rustem.eduthesis.infrastructure.repository.CourseRepository;
 import com.rustem.eduthesis.infrastructure.repository.EnrollmentRepository;
 import com.rustem.eduthesis.infrastructure.repository.ProgressRepository;
+import com.rustem.eduthesis.infrastructure.repository.projection.CourseHeader;
+import com.rustem.eduthesis.infrastructure.repository.projection.EnrollmentOutcome;
+import com.rustem.eduthesis.infrastructure.repository.projection.EnrollmentRow;
 import com.rustem.eduthesis.infrastructure.service.AuthenticationService;
 import com.rustem.eduthesis.infrastructure.service.EnrollmentService;
 import com.rustem.eduthesis.infrastructure.service.UserService;
+import jakarta.persistence.Cache;
+import jakarta.persistence.EntityManagerFactory;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.time.LocalDateTime;
 import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -48,6 +59,18 @@ public class EnrollmentServiceTest {
     @Mock
     private ProgressRepository progressRepository;
 
+    @Mock
+    private EnrollmentMapper mapper;
+
+    @Mock
+    private CourseMapper courseMapper;
+
+    @Mock
+    private EntityManagerFactory entityManagerFactory;
+
+    @Mock
+    private Cache cache;
+
     @InjectMocks
     private EnrollmentService enrollmentService;
 
@@ -91,46 +114,43 @@ public class EnrollmentServiceTest {
     @Test
     void enrollStudentInCourse_withValidCourseAndStudent_shouldCreateEnrollment() {
         // Arrange
-        when(authService.getCurrentUser()).thenReturn(student);
-        when(courseRepository.findById(101L)).thenReturn(Optional.of(course));
-        when(enrollmentRepository.save(any(EnrollmentEntity.class))).thenAnswer(invocation -> {
-            EnrollmentEntity enrollment = invocation.getArgument(0);
-            enrollment.setEnrolledAt(LocalDateTime.now());
-            return enrollment;
-        });
+        when(authService.currentUserHasRole("STUDENT")).thenReturn(true);
+        when(authService.getCurrentUserId()).thenReturn(1L);
+        when(enrollmentRepository.enrollIfPublished(eq(1L), eq(101L), any(LocalDateTime.class)))
+                .thenReturn(EnrollmentOutcome.CREATED);
+        when(entityManagerFactory.getCache()).thenReturn(cache);
 
         // Act
         enrollmentService.enrollCurrentUserInCourse(101L);
 
         // Assert
-        ArgumentCaptor<EnrollmentEntity> enrollmentCaptor = ArgumentCaptor.forClass(EnrollmentEntity.class);
-        verify(enrollmentRepository).save(enrollmentCaptor.capture());
-
-        EnrollmentEntity capturedEnrollment = enrollmentCaptor.getValue();
-        assertThat(capturedEnrollment.getStudent()).isEqualTo(student);
-        assertThat(capturedEnrollment.getCourse()).isEqualTo(course);
-        assertThat(capturedEnrollment.getEnrolledAt()).isNotNull();
+        verify(enrollmentRepository).enrollIfPublished(eq(1L), eq(101L), any(LocalDateTime.class));
+        verify(enrollmentRepository, never()).save(any());
+        verifyNoInteractions(courseRepository);
+        verify(cache).evict(CourseEntity.class, 101L);
     }
 
     @Test
     void enrollStudentInCourse_whenAlreadyEnrolled_shouldThrowException() {
         // Arrange
-        when(authService.getCurrentUser()).thenReturn(student);
-        when(courseRepository.findById(101L)).thenReturn(Optional.of(course));
-        when(enrollmentRepository.existsByStudentIdAndCourseId(1L, 101L)).thenReturn(true);
+        when(authService.currentUserHasRole("STUDENT")).thenReturn(true);
+        when(authService.getCurrentUserId()).thenReturn(1L);
+        when(enrollmentRepository.enrollIfPublished(eq(1L), eq(101L), any(LocalDateTime.class)))
+                .thenReturn(EnrollmentOutcome.ALREADY_ENROLLED);
 
         // Act & Assert
         assertThrows(EnrollmentAlreadyExistsException.class, () ->
                 enrollmentService.enrollCurrentUserInCourse(101L)
         );
-
-        verify(enrollmentRepository, never()).save(any());
     }
 
     @Test
     void enrollStudentInCourse_withNonExistentCourse_shouldThrowException() {
         // Arrange
-        when(authService.getCurrentUser()).thenReturn(student);
+        when(authService.currentUserHasRole("STUDENT")).thenReturn(true);
+        when(authService.getCurrentUserId()).thenReturn(1L);
+        when(enrollmentRepository.enrollIfPublished(eq(1L), eq(999L), any(LocalDateTime.class)))
+                .thenReturn(EnrollmentOutcome.COURSE_NOT_AVAILABLE);
 
         // Act & Assert
         assertThrows(CourseNotFoundException.class, () ->
@@ -138,10 +158,24 @@ public class EnrollmentServiceTest {
         );
     }
 
+    @Test
+    void enrollStudentInCourse_withoutStudentRole_shouldThrowException() {
+        // Arrange
+        when(authService.currentUserHasRole("STUDENT")).thenReturn(false);
+
+        // Act & Assert
+        assertThrows(NotStudentException.class, () ->
+                enrollmentService.enrollCurrentUserInCourse(101L)
+        );
+
+        verify(authService, never()).getCurrentUserId();
+        verify(enrollmentRepository, never()).enrollIfPublished(any(), any(), any());
+    }
+
     @Test
     void unenrollStudentFromCourse_withValidEnrollment_shouldDeleteEnrollment() {
         // Arrange
-        when(authService.getCurrentUser()).thenReturn(student);
+        when(authService.getCurrentUserId()).thenReturn(1L);
         when(courseRepository.existsById(101L)).thenReturn(true);
         when(enrollmentRepository.findByStudentIdAndCourseId(1L, 101L)).thenReturn(Optional.of(enrollment));
 
@@ -149,13 +183,15 @@ public class EnrollmentServiceTest {
         enrollmentService.unenrollCurrentUserFromCourse(101L);
 
         // Assert
+        verify(progressRepository).deleteCourseProgressAndRollups(1L, 101L);
         verify(enrollmentRepository).delete(enrollment);
+        verify(courseRepository).bumpVersion(101L);
     }
 
     @Test
     void unenrollStudentFromCourse_withNonExistentEnrollment_shouldThrowException() {
         // Arrange
-        when(authService.getCurrentUser()).thenReturn(student);
+        when(authService.getCurrentUserId()).thenReturn(1L);
         when(enrollmentRepository.findByStudentIdAndCourseId(1L, 101L)).thenReturn(Optional.empty());
         when(courseRepository.existsById(101L)).thenReturn(true);
 
@@ -171,7 +207,42 @@ public class EnrollmentServiceTest {
     void getEnrollmentsForCourse_withNonExistentCourse_shouldThrowException() {
         // Act & Assert
         assertThrows(CourseNotFoundException.class, () ->
-                enrollmentService.getEnrollmentsForCourse(999L)
+                enrollmentService.getEnrollmentsForCourse(999L, null, 20)
         );
     }
+
+    @Test
+    void getEnrollmentsForCurrentUser_shouldLoadEachCourseOnce() {
+        // Arrange
+        EnrollmentRow first = mock(EnrollmentRow.class);
+        EnrollmentRow second = mock(EnrollmentRow.class);
+        when(first.getCourseId()).thenReturn(101L);
+        when(second.getCourseId()).thenReturn(102L);
+        List<CourseHeader> headers = List.of(mock(CourseHeader.class), mock(CourseHeader.class));
+        SimpleCourseDTO java = SimpleCourseDTO.builder().id(101L).title("Java Programming").build();
+        SimpleCourseDTO spring = SimpleCourseDTO.builder().id(102L).title("Spring Boot").build();
+        when(authService.getCurrentUserId()).thenReturn(1L);
+        when(enrollmentRepository.findRowsByStudentId(1L)).thenReturn(List.of(first, second));
+        when(courseRepository.findHeadersByIdIn(List.of(101L, 102L))).thenReturn(headers);
+        when(courseMapper.toCourseDtos(headers)).thenReturn(Map.of(101L, java, 102L, spring));
+
+        // Act
+        enrollmentService.getEnrollmentsForCurrentUser();
+
+        // Assert
+        verify(courseRepository).findHeadersByIdIn(List.of(101L, 102L));
+        verify(mapper).toStudentEnrollment(first, java);
+        verify(mapper).toStudentEnrollment(second, spring);
+    }
+
+    @Test
+    void getEnrollmentsForCurrentUser_withoutEnrollments_shouldNotLoadCourses() {
+        // Arrange
+        when(authService.getCurrentUserId()).thenReturn(1L);
+        when(enrollmentRepository.findRowsByStudentId(1L)).thenReturn(List.of());
+
+        // Act & Assert
+        assertThat(enrollmentService.getEnrollmentsForCurrentUser()).isEmpty();
+        verifyNoInteractions(courseRepository);
+    }
 }
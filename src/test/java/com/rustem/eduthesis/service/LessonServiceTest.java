@@ -1,17 +1,30 @@
 package com.rustem.eduthesis.service;
 
+import com.rustem.eduthesis.api.dto.LessonPatchRequest;
 import com.rustem.eduthesis.api.dto.LessonRequest;
 import com.rustem.eduthesis.api.dto.LessonResponse;
 import com.rustem.eduthesis.api.dto.SimpleCourseDTO;
 import com.rustem.eduthesis.infrastructure.entity.CourseEntity;
+import com.rustem.eduthesis.infrastructure.entity.LessonContentEntity;
 import com.rustem.eduthesis.infrastructure.entity.LessonEntity;
 import com.rustem.eduthesis.infrastructure.entity.UserEntity;
 import com.rustem.eduthesis.infrastructure.exception.CourseNotFoundException;
+import com.rustem.eduthesis.infrastructure.exception.InvalidLessonOrderException;
 import com.rustem.eduthesis.infrastructure.exception.LessonNotFoundException;
+import com.rustem.eduthesis.infrastructure.exception.LessonOrderConflictException;
+import com.rustem.eduthesis.infrastructure.exception.PreconditionFailedException;
+import com.rustem.eduthesis.infrastructure.http.ResourceVersion;
 import com.rustem.eduthesis.infrastructure.mapper.LessonMapper;
 import com.rustem.eduthesis.infrastructure.repository.CourseRepository;
+import com.rustem.eduthesis.infrastructure.repository.EnrollmentRepository;
+import com.rustem.eduthesis.infrastructure.repository.LessonContentRepository;
 import com.rustem.eduthesis.infrastructure.repository.LessonRepository;
+import com.rustem.eduthesis.infrastructure.repository.projection.LessonContentVersion;
+import com.rustem.eduthesis.infrastructure.repository.projection.LessonListVersion;
+import com.rustem.eduthesis.infrastructure.repository.projection.LessonOrderKey;
+import com.rustem.eduthesis.infrastructure.repository.projection.LessonRow;
 import com.rustem.eduthesis.infrastructure.service.AuthenticationService;
+import com.rustem.eduthesis.infrastructure.service.LessonOrderKeys;
 import com.rustem.eduthesis.infrastructure.service.LessonService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -21,6 +34,7 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.util.Collections;
 import java.util.List;
@@ -29,7 +43,9 @@ import java.util.Optional;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -38,9 +54,15 @@ public class LessonServiceTest {
     @Mock
     private LessonRepository lessonRepository;
 
+    @Mock
+    private LessonContentRepository lessonContentRepository;
+
     @Mock
     private CourseRepository courseRepository;
 
+    @Mock
+    private EnrollmentRepository enrollmentRepository;
+
     @Mock
     private AuthenticationService authService;
 
@@ -51,6 +73,7 @@ public class LessonServiceTest {
     private LessonService lessonService;
 
     private LessonEntity lessonEntity;
+    private LessonContentEntity lessonContent;
     private LessonResponse lessonResponse;
     private LessonRequest lessonRequest;
     private CourseEntity courseEntity;
@@ -83,11 +106,17 @@ public class LessonServiceTest {
         lessonEntity = new LessonEntity();
         lessonEntity.setId(201L);
         lessonEntity.setTitle("Introduction to Java");
-        lessonEntity.setContent("Java is a popular programming language...");
         lessonEntity.setOrderIndex(1);
         lessonEntity.setCourse(courseEntity);
         lessonEntity.setCreatedAt(LocalDateTime.now());
         lessonEntity.setUpdatedAt(LocalDateTime.now());
+        lessonEntity.setVersion(5L);
+
+        lessonContent = LessonContentEntity.builder()
+                .lessonId(201L)
+                .lesson(lessonEntity)
+                .content("Java is a popular programming language...")
+                .build();
 
         lessonResponse = new LessonResponse();
         lessonResponse.setId(201L);
@@ -110,10 +139,10 @@ public class LessonServiceTest {
     @Test
     void getLessonsForCourse_withValidCourseId_shouldReturnLessons() {
         // Arrange
-        List<LessonEntity> lessons = Collections.singletonList(lessonEntity);
+        LessonRow row = mock(LessonRow.class);
         when(courseRepository.findById(101L)).thenReturn(Optional.of(courseEntity));
-        when(lessonRepository.findByCourseOrderByOrderIndexAsc(courseEntity)).thenReturn(lessons);
-        when(lessonMapper.toResponse(any(LessonEntity.class))).thenReturn(lessonResponse);
+        when(lessonRepository.findRowsByCourseId(101L)).thenReturn(Collections.singletonList(row));
+        when(lessonMapper.toResponse(row)).thenReturn(lessonResponse);
 
         // Act
         List<LessonResponse> result = lessonService.getLessonsForCourse(101L);
@@ -123,8 +152,8 @@ public class LessonServiceTest {
         assertThat(result.get(0).getTitle()).isEqualTo("Introduction to Java");
 
         verify(courseRepository).findById(101L);
-        verify(lessonRepository).findByCourseOrderByOrderIndexAsc(courseEntity);
-        verify(lessonMapper).toResponse(any(LessonEntity.class));
+        verify(lessonRepository).findRowsByCourseId(101L);
+        verify(lessonMapper).toResponse(row);
     }
 
     @Test
@@ -136,7 +165,39 @@ public class LessonServiceTest {
         assertThrows(CourseNotFoundException.class, () -> lessonService.getLessonsForCourse(999L));
 
         verify(courseRepository).findById(999L);
-        verify(lessonRepository, never()).findByCourseIdOrderByOrderIndex(anyLong());
+        verify(lessonRepository, never()).findRowsByCourseId(anyLong());
+    }
+
+    @Test
+    void getLessonsVersion_shouldUseLatestOfCourseAndLessonTimestamps() {
+        // Arrange
+        LocalDateTime lessonsUpdatedAt = LocalDateTime.of(2024, 1, 10, 9, 0);
+        LocalDateTime courseUpdatedAt = LocalDateTime.of(2024, 1, 12, 9, 0);
+        LessonListVersion version = mock(LessonListVersion.class);
+        when(version.getPublished()).thenReturn(true);
+        when(version.getCourseUpdatedAt()).thenReturn(courseUpdatedAt);
+        when(version.getLessonsUpdatedAt()).thenReturn(lessonsUpdatedAt);
+        when(version.getLessonCount()).thenReturn(2L);
+        when(version.getLessonVersionSum()).thenReturn(3L);
+        when(version.getMaxLessonId()).thenReturn(202L);
+        when(lessonRepository.findListVersionByCourseId(101L)).thenReturn(Optional.of(version));
+
+        // Act
+        ResourceVersion result = lessonService.getLessonsVersion(101L);
+
+        // Assert
+        assertThat(result.etag()).isEqualTo("W/\"lessons-101-2-3-202\"");
+        assertThat(result.lastModified()).isEqualTo(courseUpdatedAt);
+        assertThat(result.publicCatalog()).isTrue();
+    }
+
+    @Test
+    void getLessonsVersion_withNonExistentCourseId_shouldThrowException() {
+        // Arrange
+        when(lessonRepository.findListVersionByCourseId(999L)).thenReturn(Optional.empty());
+
+        // Act & Assert
+        assertThrows(CourseNotFoundException.class, () -> lessonService.getLessonsVersion(999L));
     }
 
     @Test
@@ -144,7 +205,8 @@ public class LessonServiceTest {
         // Arrange
         when(courseRepository.existsById(101L)).thenReturn(true);
         when(lessonRepository.findByIdAndCourseId(201L, 101L)).thenReturn(Optional.of(lessonEntity));
-        when(lessonMapper.toResponse(lessonEntity)).thenReturn(lessonResponse);
+        when(lessonContentRepository.findById(201L)).thenReturn(Optional.of(lessonContent));
+        when(lessonMapper.toResponse(lessonEntity, lessonContent)).thenReturn(lessonResponse);
 
         // Act
         LessonResponse result = lessonService.getLessonById(101L, 201L);
@@ -156,7 +218,58 @@ public class LessonServiceTest {
 
         verify(courseRepository).existsById(101L);
         verify(lessonRepository).findByIdAndCourseId(201L, 101L);
-        verify(lessonMapper).toResponse(lessonEntity);
+        verify(lessonMapper).toResponse(lessonEntity, lessonContent);
+    }
+
+    @Test
+    void getLessonContentVersion_shouldBuildStrongETagFromLessonVersion() {
+        // Arrange
+        LocalDateTime updatedAt = LocalDateTime.of(2024, 1, 15, 10, 30);
+        LessonContentVersion version = mock(LessonContentVersion.class);
+        when(version.getVersion()).thenReturn(4L);
+        when(version.getUpdatedAt()).thenReturn(updatedAt);
+        when(version.getPublished()).thenReturn(false);
+        when(lessonRepository.findContentVersionByIdAndCourseId(201L, 101L)).thenReturn(Optional.of(version));
+
+        // Act
+        ResourceVersion result = lessonService.getLessonContentVersion(101L, 201L);
+
+        // Assert
+        assertThat(result.etag()).isEqualTo("\"lesson-content-201-4\"");
+        assertThat(result.lastModified()).isEqualTo(updatedAt);
+        assertThat(result.publicCatalog()).isFalse();
+    }
+
+    @Test
+    void getLessonContentVersion_withLessonOfAnotherCourse_shouldThrowException() {
+        // Arrange
+        when(lessonRepository.findContentVersionByIdAndCourseId(201L, 999L)).thenReturn(Optional.empty());
+
+        // Act & Assert
+        assertThrows(LessonNotFoundException.class, () -> lessonService.getLessonContentVersion(999L, 201L));
+    }
+
+    @Test
+    void getLessonContent_shouldReturnUtf8Bytes() {
+        // Arrange
+        lessonContent.setContent("Lambdas → streams");
+        when(lessonContentRepository.findByLessonIdAndLesson_Course_Id(201L, 101L)).thenReturn(Optional.of(lessonContent));
+
+        // Act
+        byte[] result = lessonService.getLessonContent(101L, 201L);
+
+        // Assert
+        assertThat(result).isEqualTo("Lambdas → streams".getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void getLessonContent_withoutBody_shouldReturnEmptyBytes() {
+        // Arrange
+        lessonContent.setContent(null);
+        when(lessonContentRepository.findByLessonIdAndLesson_Course_Id(201L, 101L)).thenReturn(Optional.of(lessonContent));
+
+        // Act & Assert
+        assertThat(lessonService.getLessonContent(101L, 201L)).isEmpty();
     }
 
     @Test
@@ -187,6 +300,8 @@ public class LessonServiceTest {
     @Test
     void createLesson_shouldCreateAndReturnLesson() {
         // Arrange
+        when(courseRepository.lockForLessonOrdering(101L)).thenReturn(Optional.of(101L));
+        when(lessonRepository.existsByCourseIdAndOrderIndex(101L, 2)).thenReturn(false);
         when(courseRepository.findById(101L)).thenReturn(Optional.of(courseEntity));
         when(lessonRepository.save(any(LessonEntity.class))).thenAnswer(i -> {
             LessonEntity saved = i.getArgument(0);
@@ -194,7 +309,9 @@ public class LessonServiceTest {
             return saved;
         });
         when(lessonMapper.toEntity(any(LessonRequest.class))).thenReturn(lessonEntity);
-        when(lessonMapper.toResponse(any(LessonEntity.class))).thenReturn(lessonResponse);
+        when(lessonMapper.toContent(lessonEntity, lessonRequest)).thenReturn(lessonContent);
+        when(lessonContentRepository.save(lessonContent)).thenReturn(lessonContent);
+        when(lessonMapper.toResponse(any(LessonEntity.class), eq(lessonContent))).thenReturn(lessonResponse);
 
         // Act
         LessonResponse result = lessonService.createLesson(101L, lessonRequest);
@@ -205,75 +322,351 @@ public class LessonServiceTest {
 
         LessonEntity capturedLesson = lessonCaptor.getValue();
         assertThat(capturedLesson.getTitle()).isEqualTo("Introduction to Java");
-        assertThat(capturedLesson.getContent()).isEqualTo("Java is a popular programming language...");
         assertThat(capturedLesson.getOrderIndex()).isEqualTo(2);
         assertThat(capturedLesson.getCourse()).isEqualTo(courseEntity);
         assertThat(capturedLesson.getCreatedAt()).isNotNull();
+        verify(courseRepository).adjustLessonCount(101L, 1);
+        verify(lessonContentRepository).save(lessonContent);
 
         assertThat(result).isEqualTo(lessonResponse);
     }
 
+    @Test
+    void createLesson_withoutOrderIndex_shouldAppendOneGapAfterLastLesson() {
+        // Arrange
+        lessonRequest.setOrderIndex(null);
+        when(courseRepository.lockForLessonOrdering(101L)).thenReturn(Optional.of(101L));
+        when(lessonRepository.findMaxOrderIndexByCourseId(101L)).thenReturn(Optional.of(3 * LessonOrderKeys.GAP));
+        when(courseRepository.findById(101L)).thenReturn(Optional.of(courseEntity));
+        when(lessonRepository.save(any(LessonEntity.class))).thenAnswer(i -> i.getArgument(0));
+        when(lessonMapper.toEntity(any(LessonRequest.class))).thenReturn(lessonEntity);
+        when(lessonMapper.toContent(lessonEntity, lessonRequest)).thenReturn(lessonContent);
+        when(lessonContentRepository.save(lessonContent)).thenReturn(lessonContent);
+
+        // Act
+        lessonService.createLesson(101L, lessonRequest);
+
+        // Assert
+        assertThat(lessonEntity.getOrderIndex()).isEqualTo(4 * LessonOrderKeys.GAP);
+        verify(lessonRepository, never()).rebalanceOrder(anyLong(), anyInt());
+    }
+
+    @Test
+    void createLesson_withTakenOrderIndex_shouldThrowConflict() {
+        // Arrange
+        when(courseRepository.lockForLessonOrdering(101L)).thenReturn(Optional.of(101L));
+        when(lessonRepository.existsByCourseIdAndOrderIndex(101L, 2)).thenReturn(true);
+
+        // Act & Assert
+        assertThrows(LessonOrderConflictException.class, () -> lessonService.createLesson(101L, lessonRequest));
+
+        verify(lessonRepository, never()).save(any());
+    }
+
     @Test
     void createLesson_withNonExistentCourseId_shouldThrowException() {
         // Arrange
-        when(courseRepository.findById(999L)).thenReturn(Optional.empty());
+        when(courseRepository.lockForLessonOrdering(999L)).thenReturn(Optional.empty());
 
         // Act & Assert
         assertThrows(CourseNotFoundException.class, () -> lessonService.createLesson(999L, lessonRequest));
 
-        verify(courseRepository).findById(999L);
+        verify(courseRepository).lockForLessonOrdering(999L);
         verify(lessonRepository, never()).save(any());
     }
 
     @Test
     void updateLesson_whenUserIsInstructor_shouldUpdateAndReturnLesson() {
         // Arrange
-        when(courseRepository.existsById(101L)).thenReturn(true);
+        when(courseRepository.bumpVersion(101L)).thenReturn(1);
         when(lessonRepository.findByIdAndCourseId(201L, 101L)).thenReturn(Optional.of(lessonEntity));
-        when(lessonMapper.toResponse(lessonEntity)).thenReturn(lessonResponse);
+        when(courseRepository.lockForLessonOrdering(101L)).thenReturn(Optional.of(101L));
+        when(lessonRepository.existsByCourseIdAndOrderIndex(101L, 2)).thenReturn(false);
+        when(lessonContentRepository.findById(201L)).thenReturn(Optional.of(lessonContent));
+        when(lessonMapper.toResponse(lessonEntity, lessonContent)).thenReturn(lessonResponse);
 
         // Act
-        LessonResponse result = lessonService.updateLesson(101L, 201L, lessonRequest);
+        LessonResponse result = lessonService.updateLesson(101L, 201L, lessonRequest, null);
 
         // Assert
         ArgumentCaptor<LessonEntity> lessonCaptor = ArgumentCaptor.forClass(LessonEntity.class);
-        verify(lessonMapper).toResponse(lessonCaptor.capture());
+        verify(lessonMapper).toResponse(lessonCaptor.capture(), eq(lessonContent));
+        verify(lessonContentRepository).save(lessonContent);
 
         LessonEntity capturedLesson = lessonCaptor.getValue();
         assertThat(capturedLesson.getTitle()).isEqualTo("New Lesson");
-        assertThat(capturedLesson.getContent()).isEqualTo("This is the content of the new lesson");
+        assertThat(lessonContent.getContent()).isEqualTo("This is the content of the new lesson");
         assertThat(capturedLesson.getOrderIndex()).isEqualTo(2);
         assertThat(capturedLesson.getUpdatedAt()).isNotNull();
 
         assertThat(result).isEqualTo(lessonResponse);
     }
 
+    @Test
+    void updateLesson_withTakenOrderIndex_shouldThrowConflict() {
+        // Arrange
+        when(courseRepository.bumpVersion(101L)).thenReturn(1);
+        when(lessonRepository.findByIdAndCourseId(201L, 101L)).thenReturn(Optional.of(lessonEntity));
+        when(courseRepository.lockForLessonOrdering(101L)).thenReturn(Optional.of(101L));
+        when(lessonRepository.existsByCourseIdAndOrderIndex(101L, 2)).thenReturn(true);
+
+        // Act & Assert
+        assertThrows(LessonOrderConflictException.class, () -> lessonService.updateLesson(101L, 201L, lessonRequest, null));
+
+        assertThat(lessonEntity.getOrderIndex()).isEqualTo(1);
+        verify(lessonContentRepository, never()).save(any());
+    }
+
+    @Test
+    void updateLesson_withUnchangedOrderIndex_shouldNotLockCourse() {
+        // Arrange
+        lessonRequest.setOrderIndex(1);
+        when(courseRepository.bumpVersion(101L)).thenReturn(1);
+        when(lessonRepository.findByIdAndCourseId(201L, 101L)).thenReturn(Optional.of(lessonEntity));
+        when(lessonContentRepository.findById(201L)).thenReturn(Optional.of(lessonContent));
+
+        // Act
+        lessonService.updateLesson(101L, 201L, lessonRequest, null);
+
+        // Assert
+        verify(courseRepository, never()).lockForLessonOrdering(anyLong());
+        assertThat(lessonEntity.getOrderIndex()).isEqualTo(1);
+    }
+
+    @Test
+    void moveLesson_shouldTakeMidpointOfNewNeighbours() {
+        // Arrange
+        when(courseRepository.lockForLessonOrdering(101L)).thenReturn(Optional.of(101L));
+        when(lessonRepository.findOrderKeysByCourseId(101L))
+                .thenReturn(List.of(orderKey(199L, 1024), orderKey(200L, 2048), orderKey(201L, 3072)));
+        when(courseRepository.findById(101L)).thenReturn(Optional.of(courseEntity));
+
+        // Act
+        lessonService.moveLesson(101L, 201L, 2);
+
+        // Assert
+        verify(lessonRepository).updateOrderIndex(201L, 1536);
+        verify(lessonRepository, never()).rebalanceOrder(anyLong(), anyInt());
+        verify(courseRepository).bumpVersion(101L);
+        verify(lessonRepository).findRowsByCourseId(101L);
+    }
+
+    @Test
+    void moveLesson_toFirstPosition_shouldHalveTheFirstKey() {
+        // Arrange
+        when(courseRepository.lockForLessonOrdering(101L)).thenReturn(Optional.of(101L));
+        when(lessonRepository.findOrderKeysByCourseId(101L))
+                .thenReturn(List.of(orderKey(199L, 1024), orderKey(200L, 2048), orderKey(201L, 3072)));
+        when(courseRepository.findById(101L)).thenReturn(Optional.of(courseEntity));
+
+        // Act
+        lessonService.moveLesson(101L, 201L, 1);
+
+        // Assert
+        verify(lessonRepository).updateOrderIndex(201L, 512);
+    }
+
+    @Test
+    void moveLesson_withoutGapBetweenNeighbours_shouldRebalanceFirst() {
+        // Arrange
+        when(courseRepository.lockForLessonOrdering(101L)).thenReturn(Optional.of(101L));
+        when(lessonRepository.findOrderKeysByCourseId(101L))
+                .thenReturn(List.of(orderKey(199L, 1024), orderKey(200L, 1025), orderKey(201L, 3072)))
+                .thenReturn(List.of(orderKey(199L, 1024), orderKey(200L, 2048), orderKey(201L, 3072)));
+        when(courseRepository.findById(101L)).thenReturn(Optional.of(courseEntity));
+
+        // Act
+        lessonService.moveLesson(101L, 201L, 2);
+
+        // Assert
+        verify(lessonRepository).rebalanceOrder(101L, LessonOrderKeys.GAP);
+        verify(lessonRepository).updateOrderIndex(201L, 1536);
+    }
+
+    @Test
+    void moveLesson_toCurrentPosition_shouldNotWrite() {
+        // Arrange
+        when(courseRepository.lockForLessonOrdering(101L)).thenReturn(Optional.of(101L));
+        when(lessonRepository.findOrderKeysByCourseId(101L))
+                .thenReturn(List.of(orderKey(199L, 1024), orderKey(200L, 1025), orderKey(201L, 3072)));
+        when(courseRepository.findById(101L)).thenReturn(Optional.of(courseEntity));
+
+        // Act
+        lessonService.moveLesson(101L, 201L, 10);
+
+        // Assert
+        verify(lessonRepository, never()).updateOrderIndex(anyLong(), anyInt());
+        verify(lessonRepository, never()).rebalanceOrder(anyLong(), anyInt());
+        verify(courseRepository, never()).bumpVersion(anyLong());
+    }
+
+    @Test
+    void moveLesson_withLessonOfAnotherCourse_shouldThrowException() {
+        // Arrange
+        when(courseRepository.lockForLessonOrdering(101L)).thenReturn(Optional.of(101L));
+        when(lessonRepository.findOrderKeysByCourseId(101L)).thenReturn(List.of(orderKey(199L, 1024)));
+
+        // Act & Assert
+        assertThrows(LessonNotFoundException.class, () -> lessonService.moveLesson(101L, 201L, 1));
+    }
+
+    @Test
+    void reorderLessons_shouldApplyWholeOrderInOneStatement() {
+        // Arrange
+        when(courseRepository.lockForLessonOrdering(101L)).thenReturn(Optional.of(101L));
+        when(lessonRepository.findOrderKeysByCourseId(101L))
+                .thenReturn(List.of(orderKey(199L, 1024), orderKey(200L, 2048), orderKey(201L, 3072)));
+        when(lessonRepository.applyOrder(101L, new Long[]{201L, 199L, 200L}, LessonOrderKeys.GAP)).thenReturn(3);
+        when(courseRepository.findById(101L)).thenReturn(Optional.of(courseEntity));
+
+        // Act
+        lessonService.reorderLessons(101L, List.of(201L, 199L, 200L));
+
+        // Assert
+        verify(courseRepository).bumpVersion(101L);
+        verify(lessonRepository).findRowsByCourseId(101L);
+    }
+
+    @Test
+    void reorderLessons_withIncompleteOrder_shouldThrowException() {
+        // Arrange
+        when(courseRepository.lockForLessonOrdering(101L)).thenReturn(Optional.of(101L));
+        when(lessonRepository.findOrderKeysByCourseId(101L))
+                .thenReturn(List.of(orderKey(199L, 1024), orderKey(200L, 2048), orderKey(201L, 3072)));
+
+        // Act & Assert
+        assertThrows(InvalidLessonOrderException.class,
+                () -> lessonService.reorderLessons(101L, List.of(201L, 199L, 199L)));
+
+        verify(lessonRepository, never()).applyOrder(anyLong(), any(), anyInt());
+    }
+
     @Test
     void updateLesson_withNonExistentCourseId_shouldThrowException() {
         // Arrange
-        when(courseRepository.existsById(999L)).thenReturn(false);
+        when(courseRepository.bumpVersion(999L)).thenReturn(0);
 
         // Act & Assert
-        assertThrows(CourseNotFoundException.class, () -> lessonService.updateLesson(999L, 201L, lessonRequest));
+        assertThrows(CourseNotFoundException.class, () -> lessonService.updateLesson(999L, 201L, lessonRequest, null));
 
-        verify(courseRepository).existsById(999L);
+        verify(courseRepository).bumpVersion(999L);
         verify(lessonRepository, never()).findByIdAndCourseId(anyLong(), anyLong());
     }
 
     @Test
     void updateLesson_withNonExistentLessonId_shouldThrowException() {
         // Arrange
-        when(courseRepository.existsById(101L)).thenReturn(true);
+        when(courseRepository.bumpVersion(101L)).thenReturn(1);
         when(lessonRepository.findByIdAndCourseId(999L, 101L)).thenReturn(Optional.empty());
 
         // Act & Assert
-        assertThrows(LessonNotFoundException.class, () -> lessonService.updateLesson(101L, 999L, lessonRequest));
+        assertThrows(LessonNotFoundException.class, () -> lessonService.updateLesson(101L, 999L, lessonRequest, null));
 
-        verify(courseRepository).existsById(101L);
+        verify(courseRepository).bumpVersion(101L);
         verify(lessonRepository).findByIdAndCourseId(999L, 101L);
         verify(lessonRepository, never()).save(any());
     }
 
+    @Test
+    void updateLesson_withStaleVersion_shouldThrowPreconditionFailed() {
+        // Arrange
+        when(courseRepository.bumpVersion(101L)).thenReturn(1);
+        when(lessonRepository.findByIdAndCourseId(201L, 101L)).thenReturn(Optional.of(lessonEntity));
+
+        // Act & Assert
+        assertThrows(PreconditionFailedException.class, () -> lessonService.updateLesson(101L, 201L, lessonRequest, 4L));
+
+        assertThat(lessonEntity.getTitle()).isEqualTo("Introduction to Java");
+        verify(lessonContentRepository, never()).save(any());
+        verify(lessonRepository, never()).saveAndFlush(any());
+    }
+
+    @Test
+    void patchLesson_shouldUpdateOnlyGivenFields() {
+        // Arrange
+        when(courseRepository.bumpVersion(101L)).thenReturn(1);
+        LessonPatchRequest patch = new LessonPatchRequest();
+        patch.setTitle("Java Basics");
+        patch.setContent("Rewritten lesson body");
+        when(lessonRepository.patch(201L, 101L, "Java Basics", false, null, null, 5L)).thenReturn(1);
+        when(courseRepository.existsById(101L)).thenReturn(true);
+        when(lessonRepository.findByIdAndCourseId(201L, 101L)).thenReturn(Optional.of(lessonEntity));
+        when(lessonContentRepository.findById(201L)).thenReturn(Optional.of(lessonContent));
+        when(lessonMapper.toResponse(lessonEntity, lessonContent)).thenReturn(lessonResponse);
+
+        // Act
+        LessonResponse result = lessonService.patchLesson(101L, 201L, patch, 5L);
+
+        // Assert
+        assertThat(result).isEqualTo(lessonResponse);
+        verify(lessonContentRepository).patch(201L, "Rewritten lesson body", false, null);
+    }
+
+    @Test
+    void patchLesson_withoutBodyFields_shouldNotTouchContent() {
+        // Arrange
+        when(courseRepository.bumpVersion(101L)).thenReturn(1);
+        LessonPatchRequest patch = new LessonPatchRequest();
+        patch.setDurationMinutes(45);
+        when(lessonRepository.patch(201L, 101L, null, false, null, 45, null)).thenReturn(1);
+        when(courseRepository.existsById(101L)).thenReturn(true);
+        when(lessonRepository.findByIdAndCourseId(201L, 101L)).thenReturn(Optional.of(lessonEntity));
+        when(lessonContentRepository.findById(201L)).thenReturn(Optional.of(lessonContent));
+
+        // Act
+        lessonService.patchLesson(101L, 201L, patch, null);
+
+        // Assert
+        verify(lessonContentRepository, never()).patch(anyLong(), any(), anyBoolean(), any());
+    }
+
+    @Test
+    void patchLesson_withExplicitNulls_shouldClearVideoUrlAndAdditionalResources() {
+        // Arrange
+        when(courseRepository.bumpVersion(101L)).thenReturn(1);
+        LessonPatchRequest patch = new LessonPatchRequest();
+        patch.setVideoUrl(null);
+        patch.setAdditionalResources(null);
+        when(lessonRepository.patch(201L, 101L, null, true, null, null, null)).thenReturn(1);
+        when(courseRepository.existsById(101L)).thenReturn(true);
+        when(lessonRepository.findByIdAndCourseId(201L, 101L)).thenReturn(Optional.of(lessonEntity));
+        when(lessonContentRepository.findById(201L)).thenReturn(Optional.of(lessonContent));
+
+        // Act
+        lessonService.patchLesson(101L, 201L, patch, null);
+
+        // Assert
+        verify(lessonContentRepository).patch(201L, null, true, null);
+    }
+
+    @Test
+    void patchLesson_withStaleVersion_shouldThrowPreconditionFailed() {
+        // Arrange
+        when(courseRepository.bumpVersion(101L)).thenReturn(1);
+        LessonPatchRequest patch = new LessonPatchRequest();
+        patch.setContent("Rewritten lesson body");
+        when(lessonRepository.patch(201L, 101L, null, false, null, null, 4L)).thenReturn(0);
+        when(lessonRepository.existsByIdAndCourseId(201L, 101L)).thenReturn(true);
+
+        // Act & Assert
+        assertThrows(PreconditionFailedException.class, () -> lessonService.patchLesson(101L, 201L, patch, 4L));
+
+        verify(lessonContentRepository, never()).patch(anyLong(), any(), anyBoolean(), any());
+    }
+
+    @Test
+    void patchLesson_withNonExistentLessonId_shouldThrowException() {
+        // Arrange
+        when(courseRepository.bumpVersion(101L)).thenReturn(1);
+        LessonPatchRequest patch = new LessonPatchRequest();
+        patch.setTitle("Java Basics");
+        when(lessonRepository.patch(999L, 101L, "Java Basics", false, null, null, null)).thenReturn(0);
+        when(lessonRepository.existsByIdAndCourseId(999L, 101L)).thenReturn(false);
+
+        // Act & Assert
+        assertThrows(LessonNotFoundException.class, () -> lessonService.patchLesson(101L, 999L, patch, null));
+    }
+
     @Test
     void deleteLesson_whenUserIsInstructor_shouldDeleteLesson() {
         // Arrange
@@ -287,6 +680,8 @@ public class LessonServiceTest {
         // Assert
         verify(courseRepository).existsById(101L);
         verify(lessonRepository).findByIdAndCourseId(201L, 101L);
+        verify(enrollmentRepository).decrementCompletedLessonsForLesson(101L, 201L);
+        verify(courseRepository).adjustLessonCount(101L, -1);
         verify(lessonRepository).delete(lessonEntity);
     }
 
@@ -313,6 +708,22 @@ public class LessonServiceTest {
 
         verify(courseRepository).existsById(101L);
         verify(lessonRepository).findByIdAndCourseId(999L, 101L);
+        verify(courseRepository, never()).adjustLessonCount(anyLong(), anyInt());
         verify(lessonRepository, never()).delete(any());
     }
+
+    // Plain implementation rather than a mock, so keys can be built inside another stubbing
+    private static LessonOrderKey orderKey(Long id, Integer orderIndex) {
+        return new LessonOrderKey() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public Integer getOrderIndex() {
+                return orderIndex;
+            }
+        };
+    }
 }
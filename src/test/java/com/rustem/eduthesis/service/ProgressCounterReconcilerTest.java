@@ -0,0 +1,69 @@
+package com.rustem.eduthesis.service;
+
+import com.rustem.eduthesis.infrastructure.repository.CourseRepository;
+import com.rustem.eduthesis.infrastructure.repository.EnrollmentRepository;
+import com.rustem.eduthesis.infrastructure.service.ProgressCounterReconciler;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ProgressCounterReconcilerTest {
+
+    @Mock
+    private CourseRepository courseRepository;
+
+    @Mock
+    private EnrollmentRepository enrollmentRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private ProgressCounterReconciler reconciler;
+
+    @BeforeEach
+    void setUp() {
+        reconciler = new ProgressCounterReconciler(courseRepository, enrollmentRepository, transactionManager, 1000);
+    }
+
+    @Test
+    void reconcile_shouldRepairEachIdRangeInItsOwnTransaction() {
+        // Arrange
+        when(courseRepository.findMaxId()).thenReturn(10L);
+        when(enrollmentRepository.findMaxId()).thenReturn(2500L);
+
+        // Act
+        reconciler.reconcile();
+
+        // Assert
+        verify(courseRepository).reconcileLessonCounts(1, 1001);
+        InOrder inOrder = inOrder(enrollmentRepository);
+        inOrder.verify(enrollmentRepository).reconcileCompletedLessons(1, 1001);
+        inOrder.verify(enrollmentRepository).reconcileCompletedLessons(1001, 2001);
+        inOrder.verify(enrollmentRepository).reconcileCompletedLessons(2001, 3001);
+        verify(transactionManager, times(4)).commit(any());
+    }
+
+    @Test
+    void reconcile_withNoRows_shouldNotOpenTransactions() {
+        // Arrange
+        when(courseRepository.findMaxId()).thenReturn(0L);
+        when(enrollmentRepository.findMaxId()).thenReturn(0L);
+
+        // Act
+        reconciler.reconcile();
+
+        // Assert
+        verify(courseRepository, never()).reconcileLessonCounts(anyLong(), anyLong());
+        verify(enrollmentRepository, never()).reconcileCompletedLessons(anyLong(), anyLong());
+        verifyNoInteractions(transactionManager);
+    }
+}
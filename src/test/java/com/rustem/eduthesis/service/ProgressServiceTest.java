@@ -1,29 +1,42 @@
 package com.rustem.eduthesis.service;
 
+import com.rustem.eduthesis.api.dto.CursorPage;
+import com.rustem.eduthesis.api.dto.LessonCompletionRequest;
+import com.rustem.eduthesis.api.dto.LessonCompletionResult;
 import com.rustem.eduthesis.api.dto.ProgressResponse;
 import com.rustem.eduthesis.api.dto.SimpleCourseDTO;
 import com.rustem.eduthesis.api.dto.SimpleLessonDTO;
 import com.rustem.eduthesis.infrastructure.entity.*;
 import com.rustem.eduthesis.infrastructure.exception.*;
+import com.rustem.eduthesis.infrastructure.mapper.CourseMapper;
 import com.rustem.eduthesis.infrastructure.mapper.ProgressMapper;
 import com.rustem.eduthesis.infrastructure.repository.*;
+import com.rustem.eduthesis.infrastructure.repository.projection.CourseHeader;
+import com.rustem.eduthesis.infrastructure.repository.projection.LessonCourseRef;
+import com.rustem.eduthesis.infrastructure.repository.projection.ProgressRow;
 import com.rustem.eduthesis.infrastructure.service.AuthenticationService;
+import com.rustem.eduthesis.infrastructure.service.CourseAnalyticsRecorder;
+import com.rustem.eduthesis.infrastructure.service.EnrollmentAccessRecorder;
 import com.rustem.eduthesis.infrastructure.service.ProgressService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -46,9 +59,21 @@ public class ProgressServiceTest {
     @Mock
     private ProgressMapper mapper;
 
+    @Mock
+    private CourseMapper courseMapper;
+
+    @Mock
+    private ProgressRow progressRow;
+
     @Mock
     private AuthenticationService authService;
 
+    @Mock
+    private EnrollmentAccessRecorder accessRecorder;
+
+    @Mock
+    private CourseAnalyticsRecorder analyticsRecorder;
+
     @InjectMocks
     private ProgressService progressService;
 
@@ -99,7 +124,6 @@ public class ProgressServiceTest {
         lesson = LessonEntity.builder()
                 .id(201L)
                 .title("Introduction to Java")
-                .content("Java is a popular programming language...")
                 .orderIndex(1)
                 .course(course)
                 .createdAt(LocalDateTime.now())
@@ -127,10 +151,7 @@ public class ProgressServiceTest {
                         .id(201L)
                         .title("Introduction to Java")
                         .build())
-                .course(SimpleCourseDTO.builder()
-                        .id(101L)
-                        .title("Java Programming")
-                        .build())
+                .courseId(101L)
                 .completed(false)
                 .build();
     }
@@ -140,7 +161,7 @@ public class ProgressServiceTest {
         // Arrange
         when(authService.getCurrentUser()).thenReturn(student);
         when(lessonRepo.findById(201L)).thenReturn(Optional.of(lesson));
-        when(enrollmentRepo.findByStudentIdAndCourseId(1L, 101L)).thenReturn(Optional.of(enrollment));
+        when(enrollmentRepo.existsByStudentIdAndCourseId(1L, 101L)).thenReturn(true);
         when(progressRepo.findByStudentIdAndLessonId(1L, 201L)).thenReturn(Optional.of(progress));
 
         // Act
@@ -150,7 +171,29 @@ public class ProgressServiceTest {
         verify(progressRepo).save(progress);
         assertThat(progress.isCompleted()).isTrue();
         assertThat(progress.getCompletedAt()).isNotNull();
-        verify(enrollmentRepo).findByStudentIdAndCourseId(1L, 101L);
+        verify(enrollmentRepo).incrementCompletedLessons(1L, 101L);
+        verify(accessRecorder).touch(1L, 101L);
+        verify(analyticsRecorder).recordCompletion(1L, 201L);
+        verify(enrollmentRepo, never()).findByStudentIdAndCourseId(any(), any());
+    }
+
+    @Test
+    void markLessonAsCompleted_withAlreadyCompletedLesson_shouldNotIncrementCounter() {
+        // Arrange
+        progress.setCompleted(true);
+        when(authService.getCurrentUser()).thenReturn(student);
+        when(lessonRepo.findById(201L)).thenReturn(Optional.of(lesson));
+        when(enrollmentRepo.existsByStudentIdAndCourseId(1L, 101L)).thenReturn(true);
+        when(progressRepo.findByStudentIdAndLessonId(1L, 201L)).thenReturn(Optional.of(progress));
+
+        // Act
+        progressService.markLessonAsCompleted(201L);
+
+        // Assert
+        verify(progressRepo, never()).save(any(ProgressEntity.class));
+        verify(enrollmentRepo, never()).incrementCompletedLessons(any(), any());
+        verify(accessRecorder).touch(1L, 101L);
+        verifyNoInteractions(analyticsRecorder);
     }
 
     @Test
@@ -170,12 +213,13 @@ public class ProgressServiceTest {
         // Arrange
         when(authService.getCurrentUser()).thenReturn(student);
         when(lessonRepo.findById(201L)).thenReturn(Optional.of(lesson));
-        when(enrollmentRepo.findByStudentIdAndCourseId(1L, 101L)).thenReturn(Optional.empty());
+        when(enrollmentRepo.existsByStudentIdAndCourseId(1L, 101L)).thenReturn(false);
 
         // Act & Assert
         assertThatThrownBy(() -> progressService.markLessonAsCompleted(201L))
                 .isInstanceOf(EnrollmentNotFoundException.class)
                 .hasMessage("Enrollment not found");
+        verifyNoInteractions(accessRecorder);
     }
 
     @Test
@@ -183,7 +227,7 @@ public class ProgressServiceTest {
         // Arrange
         when(authService.getCurrentUser()).thenReturn(student);
         when(lessonRepo.findById(201L)).thenReturn(Optional.of(lesson));
-        when(enrollmentRepo.findByStudentIdAndCourseId(1L, 101L)).thenReturn(Optional.of(enrollment));
+        when(enrollmentRepo.existsByStudentIdAndCourseId(1L, 101L)).thenReturn(true);
         when(progressRepo.findByStudentIdAndLessonId(1L, 201L)).thenReturn(Optional.empty());
 
         // Act
@@ -193,31 +237,94 @@ public class ProgressServiceTest {
         verify(progressRepo).save(any(ProgressEntity.class));
     }
 
+    @Test
+    void markLessonsAsCompleted_shouldUpsertEligibleLessonsOnce_AndReportPerItem() {
+        // Arrange
+        LocalDateTime offlineAt = LocalDateTime.now().minusHours(2);
+        when(authService.getCurrentUserId()).thenReturn(1L);
+        when(lessonRepo.findCourseRefsByIdIn(Set.of(201L, 202L, 203L, 999L))).thenReturn(List.of(
+                lessonRef(201L, 101L), lessonRef(202L, 101L), lessonRef(203L, 102L)));
+        when(enrollmentRepo.findEnrolledCourseIds(eq(1L), eq(Set.of(101L, 102L)))).thenReturn(List.of(101L));
+        when(progressRepo.upsertCompleted(eq(1L), any(Long[].class), any(Long[].class), any(LocalDateTime[].class)))
+                .thenReturn(List.of(201L));
+
+        // Act
+        List<LessonCompletionResult> results = progressService.markLessonsAsCompleted(List.of(
+                new LessonCompletionRequest(201L, offlineAt),
+                new LessonCompletionRequest(202L, null),
+                new LessonCompletionRequest(201L, LocalDateTime.now()),
+                new LessonCompletionRequest(203L, offlineAt),
+                new LessonCompletionRequest(999L, offlineAt)));
+
+        // Assert
+        assertThat(results).containsExactly(
+                new LessonCompletionResult(201L, LessonCompletionResult.Status.COMPLETED),
+                new LessonCompletionResult(202L, LessonCompletionResult.Status.ALREADY_COMPLETED),
+                new LessonCompletionResult(203L, LessonCompletionResult.Status.NOT_ENROLLED),
+                new LessonCompletionResult(999L, LessonCompletionResult.Status.LESSON_NOT_FOUND));
+
+        ArgumentCaptor<Long[]> lessonIds = ArgumentCaptor.forClass(Long[].class);
+        ArgumentCaptor<LocalDateTime[]> completedAts = ArgumentCaptor.forClass(LocalDateTime[].class);
+        verify(progressRepo).upsertCompleted(eq(1L), lessonIds.capture(), any(Long[].class), completedAts.capture());
+        assertThat(lessonIds.getValue()).containsExactly(201L, 202L);
+        assertThat(completedAts.getValue()[0]).isEqualTo(offlineAt);
+        verify(enrollmentRepo).refreshCompletedLessons(eq(1L), eq(Set.of(101L)), any(LocalDateTime.class));
+        verify(analyticsRecorder).recordCompletion(1L, 201L);
+        verifyNoMoreInteractions(analyticsRecorder);
+        verify(authService, never()).getCurrentUser();
+    }
+
+    @Test
+    void markLessonsAsCompleted_withoutEnrollment_shouldNotWrite() {
+        // Arrange
+        when(authService.getCurrentUserId()).thenReturn(1L);
+        when(lessonRepo.findCourseRefsByIdIn(Set.of(201L))).thenReturn(List.of(lessonRef(201L, 101L)));
+        when(enrollmentRepo.findEnrolledCourseIds(eq(1L), eq(Set.of(101L)))).thenReturn(List.of());
+
+        // Act
+        List<LessonCompletionResult> results = progressService.markLessonsAsCompleted(
+                List.of(new LessonCompletionRequest(201L, null)));
+
+        // Assert
+        assertThat(results).extracting(LessonCompletionResult::getStatus)
+                .containsExactly(LessonCompletionResult.Status.NOT_ENROLLED);
+        verify(progressRepo, never()).upsertCompleted(any(), any(), any(), any());
+        verify(enrollmentRepo, never()).refreshCompletedLessons(any(), any(), any());
+        verifyNoInteractions(analyticsRecorder);
+    }
+
     @Test
     void getProgressForCurrentStudent_shouldReturnProgress() {
         // Arrange
-        List<ProgressEntity> progressList = List.of(progress);
-        when(authService.getCurrentUser()).thenReturn(student);
-        when(progressRepo.findByStudentId(1L)).thenReturn(progressList);
-        when(mapper.toResponse(progress)).thenReturn(progressResponse);
+        SimpleCourseDTO courseDto = SimpleCourseDTO.builder().id(101L).title("Java Programming").build();
+        List<CourseHeader> headers = List.of(mock(CourseHeader.class));
+        when(authService.currentUserHasRole("STUDENT")).thenReturn(true);
+        when(authService.getCurrentUserId()).thenReturn(1L);
+        when(progressRepo.findRowPageByStudentIdAfter(eq(1L), eq(0L), any(Pageable.class))).thenReturn(List.of(progressRow));
+        when(mapper.toResponse(progressRow)).thenReturn(progressResponse);
+        when(courseRepo.findHeadersByIdIn(Set.of(101L))).thenReturn(headers);
+        when(courseMapper.toCourseDtos(headers)).thenReturn(Map.of(101L, courseDto));
 
         // Act
-        List<ProgressResponse> result = progressService.getProgressForCurrentStudent();
+        CursorPage<ProgressResponse> result = progressService.getProgressForCurrentStudent(null, 20);
 
         // Assert
-        assertThat(result).hasSize(1);
-        assertThat(result.get(0)).isEqualTo(progressResponse);
-        verify(progressRepo).findByStudentId(1L);
-        verify(mapper).toResponse(progress);
+        assertThat(result.getItems()).hasSize(1);
+        assertThat(result.getItems().get(0)).isEqualTo(progressResponse);
+        assertThat(result.getCourses()).containsExactly(Map.entry(101L, courseDto));
+        assertThat(result.isHasNext()).isFalse();
+        assertThat(result.getNextCursor()).isNull();
+        verify(progressRepo).findRowPageByStudentIdAfter(eq(1L), eq(0L), any(Pageable.class));
+        verify(mapper).toResponse(progressRow);
     }
 
     @Test
     void getProgressForCurrentStudent_withNonStudent_shouldThrowException() {
         // Arrange
-        when(authService.getCurrentUser()).thenReturn(instructor);
+        when(authService.currentUserHasRole("STUDENT")).thenReturn(false);
 
         // Act & Assert
-        assertThatThrownBy(() -> progressService.getProgressForCurrentStudent())
+        assertThatThrownBy(() -> progressService.getProgressForCurrentStudent(null, 20))
                 .isInstanceOf(RoleNotFoundException.class)
                 .hasMessage("Only students can track own progress");
     }
@@ -225,12 +332,11 @@ public class ProgressServiceTest {
     @Test
     void getProgressForCourse_shouldReturnProgressForCourse() {
         // Arrange
-        List<ProgressEntity> progressList = List.of(progress);
-        when(authService.getCurrentUser()).thenReturn(student);
+        when(authService.getCurrentUserId()).thenReturn(1L);
         when(courseRepo.existsById(101L)).thenReturn(true);
         when(enrollmentRepo.existsByStudentIdAndCourseId(1L, 101L)).thenReturn(true);
-        when(progressRepo.findByStudentIdAndCourseId(1L, 101L)).thenReturn(progressList);
-        when(mapper.toResponse(progress)).thenReturn(progressResponse);
+        when(progressRepo.findRowsByStudentIdAndCourseId(1L, 101L)).thenReturn(List.of(progressRow));
+        when(mapper.toResponse(progressRow)).thenReturn(progressResponse);
 
         // Act
         List<ProgressResponse> result = progressService.getProgressForCourse(101L);
@@ -238,13 +344,13 @@ public class ProgressServiceTest {
         // Assert
         assertThat(result).hasSize(1);
         assertThat(result.get(0)).isEqualTo(progressResponse);
-        verify(progressRepo).findByStudentIdAndCourseId(1L, 101L);
+        verify(progressRepo).findRowsByStudentIdAndCourseId(1L, 101L);
     }
 
     @Test
     void getProgressForCourse_withNonExistentCourse_shouldThrowException() {
         // Arrange
-        when(authService.getCurrentUser()).thenReturn(student);
+        when(authService.getCurrentUserId()).thenReturn(1L);
         when(courseRepo.existsById(999L)).thenReturn(false);
 
         // Act & Assert
@@ -256,7 +362,7 @@ public class ProgressServiceTest {
     @Test
     void getProgressForCourse_withNoEnrollment_shouldThrowException() {
         // Arrange
-        when(authService.getCurrentUser()).thenReturn(student);
+        when(authService.getCurrentUserId()).thenReturn(1L);
         when(courseRepo.existsById(101L)).thenReturn(true);
         when(enrollmentRepo.existsByStudentIdAndCourseId(1L, 101L)).thenReturn(false);
 
@@ -269,12 +375,11 @@ public class ProgressServiceTest {
     @Test
     void getStudentProgressInCourse_shouldReturnStudentProgress() {
         // Arrange
-        List<ProgressEntity> progressList = List.of(progress);
         when(courseRepo.existsById(101L)).thenReturn(true);
         when(userRepo.existsById(1L)).thenReturn(true);
         when(enrollmentRepo.existsByStudentIdAndCourseId(1L, 101L)).thenReturn(true);
-        when(progressRepo.findByStudentIdAndCourseId(1L, 101L)).thenReturn(progressList);
-        when(mapper.toResponse(progress)).thenReturn(progressResponse);
+        when(progressRepo.findRowsByStudentIdAndCourseId(1L, 101L)).thenReturn(List.of(progressRow));
+        when(mapper.toResponse(progressRow)).thenReturn(progressResponse);
 
         // Act
         List<ProgressResponse> result = progressService.getStudentProgressInCourse(101L, 1L);
@@ -282,7 +387,7 @@ public class ProgressServiceTest {
         // Assert
         assertThat(result).hasSize(1);
         assertThat(result.get(0)).isEqualTo(progressResponse);
-        verify(progressRepo).findByStudentIdAndCourseId(1L, 101L);
+        verify(progressRepo).findRowsByStudentIdAndCourseId(1L, 101L);
     }
 
     @Test
@@ -320,4 +425,18 @@ public class ProgressServiceTest {
                 .isInstanceOf(EnrollmentNotFoundException.class)
                 .hasMessage("Student is not enrolled in the course");
     }
-}
\ No newline at end of file
+
+    private LessonCourseRef lessonRef(Long lessonId, Long courseId) {
+        return new LessonCourseRef() {
+            @Override
+            public Long getId() {
+                return lessonId;
+            }
+
+            @Override
+            public Long getCourseId() {
+                return courseId;
+            }
+        };
+    }
+}
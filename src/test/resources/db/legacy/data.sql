@@ -0,0 +1,21 @@
+-- A course with two lessons and one student who completed one of them, written before the counters existed
+INSERT INTO users (email, password, first_name, last_name, created_at)
+VALUES ('legacy-instructor@example.com', 'password123', 'Legacy', 'Instructor', CURRENT_TIMESTAMP),
+       ('legacy-student@example.com', 'password123', 'Legacy', 'Student', CURRENT_TIMESTAMP);
+
+INSERT INTO courses (title, instructor_id, published, created_at)
+SELECT 'Legacy Course', id, TRUE, CURRENT_TIMESTAMP FROM users WHERE email = 'legacy-instructor@example.com';
+
+INSERT INTO lessons (title, content, order_index, published, course_id, created_at)
+SELECT t.title, 'Body', t.order_index, TRUE, c.id, CURRENT_TIMESTAMP
+FROM courses c, (VALUES ('Lesson 1', 1), ('Lesson 2', 2)) t(title, order_index)
+WHERE c.title = 'Legacy Course';
+
+INSERT INTO enrollments (student_id, course_id, enrolled_at)
+SELECT u.id, c.id, CURRENT_TIMESTAMP FROM users u, courses c
+WHERE u.email = 'legacy-student@example.com' AND c.title = 'Legacy Course';
+
+INSERT INTO progress (student_id, course_id, lesson_id, completed, completed_at)
+SELECT u.id, c.id, l.id, TRUE, CURRENT_TIMESTAMP FROM users u, courses c, lessons l
+WHERE u.email = 'legacy-student@example.com' AND c.title = 'Legacy Course'
+  AND l.course_id = c.id AND l.title = 'Lesson 1';